@@ -0,0 +1,127 @@
+import cs5004.animator.model.Emitter;
+import java.util.Random;
+
+/**
+ * A benchmark comparing String.format with the Emitter, on the kind of line the Text and SVG
+ * formats are made of: a few whole numbers and a few numbers with one decimal place. Each round
+ * formats the same random numbers both ways. Before timing, every line is formatted both ways and
+ * the two compared, so that the Emitter is known to write exactly what String.format does.
+ * Run with: java NumberFormatBenchmark [lines] [rounds]
+ */
+public class NumberFormatBenchmark {
+
+  private static final String TEMPLATE = "<animate attributeName=\"x\" attributeType=\"CSS\" "
+      + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n";
+
+  /**
+   * Formats every line with String.format.
+   *
+   * @param from the first whole number of each line.
+   * @param to the second whole number of each line.
+   * @param begin the first decimal of each line.
+   * @param duration the second decimal of each line.
+   * @return the total number of characters, so that the work cannot be skipped.
+   */
+  private static long withFormat(long[] from, long[] to, float[] begin, float[] duration) {
+    long count = 0;
+    for (int i = 0; i < from.length; i++) {
+      count += String.format(TEMPLATE, from[i], to[i], begin[i], duration[i]).length();
+    }
+    return count;
+  }
+
+  /**
+   * Formats every line with an Emitter.
+   *
+   * @param from the first whole number of each line.
+   * @param to the second whole number of each line.
+   * @param begin the first decimal of each line.
+   * @param duration the second decimal of each line.
+   * @return the total number of characters, so that the work cannot be skipped.
+   */
+  private static long withEmitter(long[] from, long[] to, float[] begin, float[] duration) {
+    long count = 0;
+    Emitter emitter = new Emitter();
+    for (int i = 0; i < from.length; i++) {
+      emit(emitter, from[i], to[i], begin[i], duration[i]);
+      count += emitter.length();
+    }
+    return count;
+  }
+
+  /**
+   * Writes one line into an Emitter, in place of whatever it held.
+   *
+   * @param emitter the Emitter.
+   * @param from the first whole number.
+   * @param to the second whole number.
+   * @param begin the first decimal.
+   * @param duration the second decimal.
+   */
+  private static void emit(Emitter emitter, long from, long to, float begin, float duration) {
+    emitter.clear();
+    emitter.append("<animate attributeName=\"x\" attributeType=\"CSS\" from=\"")
+        .appendInt(from).append("\" to=\"").appendInt(to).append("\" begin=\"")
+        .appendFixed1(begin).append("ms\" dur=\"").appendFixed1(duration)
+        .append("ms\" fill=\"freeze\" />\n");
+  }
+
+  /**
+   * Checks that the Emitter writes every line exactly as String.format does.
+   *
+   * @param from the first whole number of each line.
+   * @param to the second whole number of each line.
+   * @param begin the first decimal of each line.
+   * @param duration the second decimal of each line.
+   * @throws IllegalStateException if any line differs.
+   */
+  private static void check(long[] from, long[] to, float[] begin, float[] duration)
+      throws IllegalStateException {
+    Emitter emitter = new Emitter();
+    for (int i = 0; i < from.length; i++) {
+      String expected = String.format(TEMPLATE, from[i], to[i], begin[i], duration[i]);
+      emit(emitter, from[i], to[i], begin[i], duration[i]);
+      if (!expected.equals(emitter.toString())) {
+        throw new IllegalStateException("String.format and Emitter disagree: " + expected
+            + " against " + emitter);
+      }
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally, the number of lines and the number of rounds.
+   */
+  public static void main(String[] args) {
+    int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+    Random random = new Random(5004);
+    long[] from = new long[lines];
+    long[] to = new long[lines];
+    float[] begin = new float[lines];
+    float[] duration = new float[lines];
+    for (int i = 0; i < lines; i++) {
+      from[i] = random.nextInt(1000);
+      to[i] = random.nextInt(1000);
+      begin[i] = random.nextInt(100000) / 3f * 1000;
+      duration[i] = random.nextInt(1000) / 7f * 1000;
+    }
+
+    check(from, to, begin, duration);
+    for (int round = 0; round < rounds; round++) {
+      long begun = System.nanoTime();
+      long formatted = withFormat(from, to, begin, duration);
+      long formatMillis = (System.nanoTime() - begun) / 1_000_000;
+      begun = System.nanoTime();
+      long emitted = withEmitter(from, to, begin, duration);
+      long emitMillis = (System.nanoTime() - begun) / 1_000_000;
+      if (formatted != emitted) {
+        throw new IllegalStateException("String.format and Emitter disagree");
+      }
+      System.out.printf("String.format %,6d ms   Emitter %,6d ms   (%,d lines)%n", formatMillis,
+          emitMillis, lines);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import cs5004.animator.util.IntRaster;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A benchmark for drawing frames off screen. Builds frames of 10,000 and 100,000 rectangles and
+ * ellipses on a 1000 by 1000 canvas, then times drawing them through Java2D with drawSelf against
+ * filling them into an IntRaster with rasterize, and counts the pixels on which the two differ.
+ * Run with, for example: java -Djava.awt.headless=true RasterBenchmark [shapes...]
+ */
+public class RasterBenchmark {
+
+  private static final int SIZE = 1000;
+  private static final int FRAMES = 20;
+
+  /**
+   * Builds one frame of shapes, half rectangles and half ellipses, of random sizes up to 60
+   * pixels across.
+   *
+   * @param shapes the number of shapes.
+   * @return the frame.
+   */
+  private static List<IRenderableShape> build(int shapes) {
+    Random random = new Random(5004);
+    List<IRenderableShape> frame = new ArrayList<>(shapes);
+    for (int i = 0; i < shapes; i++) {
+      Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+      int x = random.nextInt(SIZE);
+      int y = random.nextInt(SIZE);
+      if (i % 2 == 0) {
+        frame.add(RenderableFactory.createRenderableRect(x, y, random.nextInt(60),
+            random.nextInt(60), color));
+      } else {
+        frame.add(RenderableFactory.createRenderableEllipse(x, y, random.nextInt(30),
+            random.nextInt(30), color));
+      }
+    }
+    return frame;
+  }
+
+  /**
+   * Draws a frame through Java2D, on white.
+   *
+   * @param image the image to draw into.
+   * @param frame the shapes.
+   */
+  private static void drawJava2D(BufferedImage image, List<IRenderableShape> frame) {
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(java.awt.Color.WHITE);
+    graphics.fillRect(0, 0, SIZE, SIZE);
+    for (IRenderableShape shape : frame) {
+      shape.drawSelf(graphics);
+    }
+    graphics.dispose();
+  }
+
+  /**
+   * Fills a frame into an IntRaster, on white.
+   *
+   * @param raster the IntRaster to fill.
+   * @param frame the shapes.
+   */
+  private static void fillRaster(IntRaster raster, List<IRenderableShape> frame) {
+    raster.clear(0xffffff);
+    for (IRenderableShape shape : frame) {
+      shape.rasterize(raster);
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally, the numbers of shapes per frame to time.
+   */
+  public static void main(String[] args) {
+    int[] counts = args.length > 0 ? new int[args.length] : new int[] {10_000, 100_000};
+    for (int i = 0; i < args.length; i++) {
+      counts[i] = Integer.parseInt(args[i]);
+    }
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    IntRaster raster = new IntRaster(SIZE, SIZE);
+    for (int shapes : counts) {
+      List<IRenderableShape> frame = build(shapes);
+      for (int run = 0; run < 3; run++) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+          drawJava2D(image, frame);
+        }
+        long java2D = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+          fillRaster(raster, frame);
+        }
+        long direct = System.nanoTime() - begin;
+        System.out.printf("%,8d shapes  java2d %7.2f ms/frame  intraster %7.2f ms/frame  %5.1fx%n",
+            shapes, java2D / 1e6 / FRAMES, direct / 1e6 / FRAMES, (double) java2D / direct);
+      }
+      int differing = 0;
+      for (int y = 0; y < SIZE; y++) {
+        for (int x = 0; x < SIZE; x++) {
+          differing += image.getRGB(x, y) != raster.getImage().getRGB(x, y) ? 1 : 0;
+        }
+      }
+      System.out.printf("%,8d shapes  %.2f%% of pixels differ%n", shapes,
+          100.0 * differing / (SIZE * SIZE));
+    }
+  }
+}
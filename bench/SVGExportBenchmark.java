@@ -0,0 +1,131 @@
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import java.awt.geom.Point2D;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * A benchmark for exporting a large model. Builds a model of 100,000 shapes with 10
+ * transformations each, then times TEXT and SVG export into a sink that only counts characters.
+ * Run with a large heap, for example: java -Xmx4g SVGExportBenchmark [shapes] [perShape]
+ */
+public class SVGExportBenchmark {
+
+  /**
+   * A Writer that discards everything written to it, counting the characters.
+   */
+  private static class CountingWriter extends Writer {
+
+    private long count;
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+      this.count += length;
+    }
+
+    @Override
+    public void write(String string, int offset, int length) {
+      this.count += length;
+    }
+
+    @Override
+    public Writer append(CharSequence sequence) {
+      this.count += sequence.length();
+      return this;
+    }
+
+    @Override
+    public void flush() {
+      // nothing is buffered
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+
+  /**
+   * Builds a model with the given number of shapes, each with the given number of moves, color
+   * changes and scales, none of which conflict.
+   *
+   * @param shapes the number of shapes.
+   * @param perShape the number of transformations of each shape.
+   * @return the model.
+   */
+  private static IAnimation build(int shapes, int perShape) {
+    Random random = new Random(5004);
+    IAnimation animation = new Animation();
+    for (int i = 0; i < shapes; i++) {
+      int appear = random.nextInt(100);
+      IShape shape = ShapeFactory.makeShapeRectangle("shape" + i,
+          new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100)),
+          appear, appear + 10 * perShape + 10,
+          new Point2D.Double(random.nextInt(500), random.nextInt(500)), 10.0, 20.0);
+      animation.addShape(shape);
+      for (int j = 0; j < perShape; j++) {
+        int start = appear + 10 * j;
+        switch (j % 3) {
+          case 0:
+            animation.addTransformation(TransformFactory.makeTransformMove(
+                new Point2D.Double(j, j), new Point2D.Double(j + 5, j + 5), start, start + 9,
+                shape.getName(), ShapeType.RECTANGLE));
+            break;
+          case 1:
+            animation.addTransformation(TransformFactory.makeTransformColor(start, start + 9,
+                shape.getName(), new Color(0, 0, 0), new Color(j % 100, 50, 50)));
+            break;
+          default:
+            animation.addTransformation(TransformFactory.makeTransformScale(10, 20, 20, 10,
+                start, start + 9, shape.getName(), ShapeType.RECTANGLE));
+            break;
+        }
+      }
+    }
+    return animation;
+  }
+
+  /**
+   * Times one export of the model.
+   *
+   * @param animation the model.
+   * @param outputType the format to export.
+   * @throws IOException never, as the sink does not fail.
+   */
+  private static void time(IAnimation animation, OutputType outputType) throws IOException {
+    CountingWriter writer = new CountingWriter();
+    long begin = System.nanoTime();
+    animation.generate(outputType, 20, writer);
+    long elapsed = System.nanoTime() - begin;
+    System.out.printf("%-5s %,14d chars %,8d ms%n", outputType, writer.count,
+        elapsed / 1_000_000);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally, the number of shapes and the number of transformations per shape.
+   * @throws IOException never, as the sink does not fail.
+   */
+  public static void main(String[] args) throws IOException {
+    int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int perShape = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+    long begin = System.nanoTime();
+    IAnimation animation = build(shapes, perShape);
+    System.out.printf("built %,d shapes, %,d transformations in %,d ms%n", shapes,
+        (long) shapes * perShape, (System.nanoTime() - begin) / 1_000_000);
+
+    for (int run = 0; run < 3; run++) {
+      time(animation, OutputType.SVG);
+      time(animation, OutputType.TEXT);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import cs5004.animator.util.IntRaster;
+import cs5004.animator.util.TiledRenderer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A benchmark for rasterizing frames of large canvases in tiles. Builds one frame of 100,000
+ * rectangles and ellipses on an 8000 by 8000 canvas, then times filling it into an IntRaster in
+ * order on one thread against a TiledRenderer on fork/join pools of 1, 2, 4, 8 and 16 threads,
+ * and checks that every tiled frame matches the one filled in order. A canvas this large is
+ * faster tiled even on one thread, as each tile stays in cache while it is filled; speedups
+ * past the number of cores of the machine come from that alone. Run with, for example:
+ * java -Xmx2g -Djava.awt.headless=true TiledRasterBenchmark [size] [shapes]
+ */
+public class TiledRasterBenchmark {
+
+  private static final int FRAMES = 5;
+  private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+  /**
+   * Builds one frame of shapes, half rectangles and half ellipses, of random sizes up to 400
+   * pixels across.
+   *
+   * @param shapes the number of shapes.
+   * @param size the width and height of the canvas.
+   * @return the frame.
+   */
+  private static List<IRenderableShape> build(int shapes, int size) {
+    Random random = new Random(5004);
+    List<IRenderableShape> frame = new ArrayList<>(shapes);
+    for (int i = 0; i < shapes; i++) {
+      Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+      int x = random.nextInt(size);
+      int y = random.nextInt(size);
+      if (i % 2 == 0) {
+        frame.add(RenderableFactory.createRenderableRect(x, y, random.nextInt(400),
+            random.nextInt(400), color));
+      } else {
+        frame.add(RenderableFactory.createRenderableEllipse(x, y, random.nextInt(200),
+            random.nextInt(200), color));
+      }
+    }
+    return frame;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally, the width and height of the canvas, then the number of shapes.
+   */
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 8000;
+    int shapes = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+    List<IRenderableShape> frame = build(shapes, size);
+    IntRaster raster = new IntRaster(size, size);
+    System.out.printf("%d by %d, %,d shapes, %d cores%n", size, size, shapes,
+        Runtime.getRuntime().availableProcessors());
+
+    long begin = System.nanoTime();
+    for (int i = 0; i < FRAMES; i++) {
+      raster.clear(0xffffff);
+      for (IRenderableShape shape : frame) {
+        shape.rasterize(raster);
+      }
+    }
+    double sequential = (System.nanoTime() - begin) / 1e6 / FRAMES;
+    int[] expected = raster.getImage().getRGB(0, 0, size, size, null, 0, size);
+    System.out.printf("in order        %8.1f ms/frame%n", sequential);
+
+    for (int threads : THREADS) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      TiledRenderer renderer = new TiledRenderer(pool);
+      renderer.render(frame, raster, 0xffffff);
+      begin = System.nanoTime();
+      for (int i = 0; i < FRAMES; i++) {
+        renderer.render(frame, raster, 0xffffff);
+      }
+      double tiled = (System.nanoTime() - begin) / 1e6 / FRAMES;
+      boolean same = Arrays.equals(expected,
+          raster.getImage().getRGB(0, 0, size, size, null, 0, size));
+      System.out.printf("tiled %2d threads %7.1f ms/frame  %5.2fx  %s%n", threads, tiled,
+          sequential / tiled, same ? "matches" : "DIFFERS");
+      pool.shutdown();
+    }
+  }
+}
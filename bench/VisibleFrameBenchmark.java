@@ -0,0 +1,111 @@
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import cs5004.animator.util.IntRaster;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D.Double;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A benchmark for drawing only the part of a large canvas in view. Builds an animation of 100,000
+ * moving rectangles and ellipses spread over canvases from 2000 to 16,000 pixels across, then
+ * times generating and filling frames of the whole canvas into an 800 by 600 viewport, as the GUI
+ * did, against generating and filling only the shapes within the viewport. Generating the whole
+ * canvas tweens every shape however few are in view, while the time of the viewport should fall
+ * with the number of shapes in it as the canvas grows. The first frame of the viewport also builds
+ * the index of where shapes go, which is timed separately. Each way is run once to warm up before
+ * it is timed. Run with, for example:
+ * java -Xmx2g -Djava.awt.headless=true VisibleFrameBenchmark [shapes]
+ */
+public class VisibleFrameBenchmark {
+
+  private static final int[] SIZES = {2000, 4000, 8000, 16000};
+  private static final int FRAMES = 20;
+
+  /**
+   * Builds an animation of shapes which each move twice across part of a canvas.
+   *
+   * @param shapes the number of shapes.
+   * @param size the width and height of the canvas.
+   * @return the animation.
+   */
+  private static Animation build(int shapes, int size) {
+    Random random = new Random(5004);
+    Animation animation = new Animation();
+    for (int i = 0; i < shapes; i++) {
+      String name = "s" + i;
+      Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+      ShapeType type = i % 2 == 0 ? ShapeType.RECTANGLE : ShapeType.OVAL;
+      double x = random.nextInt(size);
+      double y = random.nextInt(size);
+      double width = 1 + random.nextInt(40);
+      IShape shape = type == ShapeType.RECTANGLE
+          ? ShapeFactory.makeShapeRectangle(name, color, 0, FRAMES * 2, new Double(x, y),
+              width, width)
+          : ShapeFactory.makeShapeOval(name, color, 0, FRAMES * 2, new Double(x, y), width,
+              width);
+      animation.addShape(shape);
+      for (int start = 0; start < FRAMES * 2; start += FRAMES) {
+        Double to = new Double(x + random.nextInt(200) - 100, y + random.nextInt(200) - 100);
+        animation.addTransformation(TransformFactory.makeTransformMove(new Double(x, y), to,
+            start, start + FRAMES - 1, name, type));
+        x = to.getX();
+        y = to.getY();
+      }
+    }
+    return animation;
+  }
+
+  /**
+   * Generates and fills frames, timing them.
+   *
+   * @param animation the animation.
+   * @param viewport the area in view, or null to generate the whole canvas.
+   * @param raster the IntRaster the size of the viewport to fill.
+   * @return the milliseconds per frame.
+   */
+  private static double time(Animation animation, Rectangle viewport, IntRaster raster) {
+    long begin = System.nanoTime();
+    for (int tick = 0; tick < FRAMES; tick++) {
+      List<IRenderableShape> frame = viewport == null ? animation.generateFrame(tick)
+          : animation.generateFrame(tick, viewport);
+      raster.clear(0xffffff);
+      for (IRenderableShape shape : frame) {
+        shape.rasterize(raster);
+      }
+    }
+    return (System.nanoTime() - begin) / 1e6 / FRAMES;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally, the number of shapes.
+   */
+  public static void main(String[] args) {
+    int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    Rectangle viewport = new Rectangle(600, 700, 800, 600);
+    IntRaster raster = new IntRaster(viewport.width, viewport.height);
+    raster.setOrigin(viewport.x, viewport.y);
+    System.out.printf("%,d shapes, viewport %d by %d%n", shapes, viewport.width,
+        viewport.height);
+    for (int size : SIZES) {
+      Animation animation = build(shapes, size);
+      time(animation, null, raster);
+      double whole = time(animation, null, raster);
+      long begin = System.nanoTime();
+      animation.generateFrame(0, viewport);
+      double index = (System.nanoTime() - begin) / 1e6;
+      time(animation, viewport, raster);
+      double visible = time(animation, viewport, raster);
+      System.out.printf("%5d by %-5d  whole canvas %7.2f ms/frame  viewport %6.2f ms/frame  "
+          + "%6.1fx  (index built in %.0f ms)%n", size, size, whole, visible, whole / visible,
+          index);
+    }
+  }
+}
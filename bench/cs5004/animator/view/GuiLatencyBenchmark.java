@@ -0,0 +1,200 @@
+package cs5004.animator.view;
+
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * A benchmark for how responsive the GUI stays while it plays a heavy animation. A DrawingPanel of
+ * 1600 by 1200 is given a frame of 50,000 still shapes and 20 moving ones 30 times a second, for
+ * five seconds, twice, the first to warm up. Meanwhile another thread posts a task to the event
+ * dispatch thread every 5 milliseconds, as a button press would, and times how long each waits to
+ * run. Repaints are painted into an image on the event dispatch thread, as the RepaintManager
+ * would paint them to the window, so the benchmark runs without a display. It prints the latency
+ * of the posted tasks, and the time from handing the panel a frame to that frame being painted.
+ * It lives in the view package to reach updateShapes, and uses nothing the first DrawingPanel
+ * lacked, so that it can be compiled against the baseline commit to compare. There, the panel
+ * painted every shape on the event dispatch thread and was repainted whole after each frame, so
+ * pass "repaint" to have it repainted as ViewGUI then did. Run with, for example:
+ * java -Djava.awt.headless=true cs5004.animator.view.GuiLatencyBenchmark [repaint]
+ */
+public class GuiLatencyBenchmark {
+
+  private static final int PANEL_WIDTH = 1600;
+  private static final int PANEL_HEIGHT = 1200;
+  private static final int STILL = 50_000;
+  private static final int MOVING = 20;
+  private static final int FRAMES_PER_SECOND = 30;
+  private static final long RUN_MILLIS = 5000;
+
+  /**
+   * A DrawingPanel which paints its own repaints into an image, and times how long after being
+   * given each frame it is painted.
+   */
+  private static final class TimedPanel extends DrawingPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean repaintWhole;
+    private final BufferedImage screen;
+    private final AtomicLong updated;
+    private final List<Long> frameTimes;
+
+    /**
+     * Creates a new TimedPanel.
+     *
+     * @param repaintWhole whether to repaint the whole panel after handing it each frame.
+     */
+    TimedPanel(boolean repaintWhole) {
+      super(PANEL_WIDTH, PANEL_HEIGHT);
+      this.repaintWhole = repaintWhole;
+      this.setSize(PANEL_WIDTH, PANEL_HEIGHT);
+      this.screen = new BufferedImage(PANEL_WIDTH, PANEL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+      this.updated = new AtomicLong();
+      this.frameTimes = new ArrayList<>();
+    }
+
+    /**
+     * Hands the panel a frame, noting when.
+     *
+     * @param frame the shapes of the frame.
+     */
+    void update(List<IRenderableShape> frame) {
+      this.updated.set(System.nanoTime());
+      this.updateShapes(frame);
+      if (this.repaintWhole) {
+        this.repaint();
+      }
+    }
+
+    /**
+     * Paints the area on the event dispatch thread, as the RepaintManager would, and notes how
+     * long after its frame was handed over it was done.
+     */
+    @Override
+    public void repaint(long delay, int x, int y, int width, int height) {
+      if (this.screen == null) {
+        // repainted while the panel is still being made
+        return;
+      }
+      Rectangle clip = new Rectangle(x, y, width, height);
+      SwingUtilities.invokeLater(() -> {
+        Graphics2D graphics = this.screen.createGraphics();
+        graphics.setClip(clip);
+        this.paintComponent(graphics);
+        graphics.dispose();
+        this.frameTimes.add(System.nanoTime() - this.updated.get());
+      });
+    }
+  }
+
+  /**
+   * Builds the frames of one second of the animation: the same still shapes in each, and moving
+   * shapes drawn over them, further along in each.
+   *
+   * @return the frames.
+   */
+  private static List<List<IRenderableShape>> build() {
+    Random random = new Random(5004);
+    List<IRenderableShape> still = new ArrayList<>(STILL);
+    for (int i = 0; i < STILL; i++) {
+      Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+      still.add(RenderableFactory.createRenderableRect(random.nextInt(PANEL_WIDTH),
+          random.nextInt(PANEL_HEIGHT), random.nextInt(60), random.nextInt(60), color));
+    }
+    List<List<IRenderableShape>> frames = new ArrayList<>();
+    for (int tick = 0; tick < FRAMES_PER_SECOND; tick++) {
+      List<IRenderableShape> frame = new ArrayList<>(still);
+      for (int i = 0; i < MOVING; i++) {
+        frame.add(RenderableFactory.createRenderableEllipse(tick * 40 + i * 10,
+            60 * i + 30, 25, 25, new Color(100f, 0f, 0f)));
+      }
+      frames.add(frame);
+    }
+    return frames;
+  }
+
+  /**
+   * Gets a percentile of some times, in milliseconds.
+   *
+   * @param nanos the times, in nanoseconds, sorted.
+   * @param percent the percentile.
+   * @return the time, in milliseconds.
+   */
+  private static double percentile(long[] nanos, double percent) {
+    if (nanos.length == 0) {
+      return Double.NaN;
+    }
+    return nanos[(int) Math.min(nanos.length - 1, nanos.length * percent / 100)] / 1e6;
+  }
+
+  /**
+   * Plays the animation on a panel, probing the event dispatch thread meanwhile.
+   *
+   * @param frames the frames of the animation.
+   * @param repaintWhole whether to repaint the whole panel after handing it each frame.
+   */
+  private static void run(List<List<IRenderableShape>> frames, boolean repaintWhole)
+      throws Exception {
+    TimedPanel panel = new TimedPanel(repaintWhole);
+    int[] tick = {0};
+    Timer timer = new Timer(1000 / FRAMES_PER_SECOND,
+        e -> panel.update(frames.get(tick[0]++ % frames.size())));
+    List<Long> latencies = new ArrayList<>();
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread prober = new Thread(() -> {
+      while (running.get()) {
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> latencies.add(System.nanoTime() - posted));
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    });
+    SwingUtilities.invokeAndWait(timer::start);
+    prober.start();
+    Thread.sleep(RUN_MILLIS);
+    running.set(false);
+    prober.join();
+    SwingUtilities.invokeAndWait(timer::stop);
+    Thread.sleep(500);
+    long[][] times = new long[2][];
+    SwingUtilities.invokeAndWait(() -> {
+      times[0] = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+      times[1] = panel.frameTimes.stream().mapToLong(Long::longValue).sorted().toArray();
+    });
+    System.out.printf("press latency p50 %6.1f p99 %6.1f max %6.1f ms   "
+            + "frame time p50 %6.1f p99 %6.1f ms  (%d of %d frames painted)%n",
+        percentile(times[0], 50),
+        percentile(times[0], 99), percentile(times[0], 100), percentile(times[1], 50),
+        percentile(times[1], 99), times[1].length, tick[0]);
+  }
+
+  /**
+   * Runs the benchmark twice, the first to warm up.
+   *
+   * @param args optionally, "repaint" to repaint the whole panel after handing it each frame.
+   */
+  public static void main(String[] args) throws Exception {
+    List<List<IRenderableShape>> frames = build();
+    System.out.printf("%d by %d, %,d shapes a frame, %d frames a second, %d cores%n", PANEL_WIDTH,
+        PANEL_HEIGHT, frames.get(0).size(), FRAMES_PER_SECOND,
+        Runtime.getRuntime().availableProcessors());
+    boolean repaintWhole = args.length > 0 && args[0].equals("repaint");
+    for (int round = 0; round < 2; round++) {
+      run(frames, repaintWhole);
+    }
+  }
+}
@@ -1,15 +1,20 @@
 package cs5004.animator;
 
 import cs5004.animator.controller.AnimationController;
+import cs5004.animator.controller.AnimationControllerFrames;
 import cs5004.animator.controller.AnimationControllerGUI;
 import cs5004.animator.controller.IAnimationController;
 import cs5004.animator.model.IAnimation;
 import cs5004.animator.model.OutputType;
+import cs5004.animator.util.AnimationCache;
 import cs5004.animator.util.AnimationFileReader;
+import cs5004.animator.util.BatchingTweenModelBuilder;
+import cs5004.animator.util.TweenModelBatchBuilderImpl;
 import cs5004.animator.util.TweenModelBuilder;
 import cs5004.animator.util.TweenModelBuilderImpl;
 import cs5004.animator.view.IAnimationViewFactory;
 import cs5004.animator.view.IAnimationView;
+import cs5004.animator.view.IFrameView;
 import cs5004.animator.view.ViewGUI;
 import javax.swing.JOptionPane;
 import org.apache.commons.cli.CommandLine;
@@ -66,6 +71,10 @@ public final class EasyAnimator {
     String outputDestination;
     String fileName = null; // optional String to hold desired output file name
     int speed = -1;
+    AnimationCache cache = null; // optional cache of previously parsed input files
+    boolean deferValidation; // whether to validate transformations after reading them all
+    boolean cull; // whether to drop shapes hidden behind later rectangles from drawn frames
+    int threads = 1; // number of threads to write and compress SVG, and encode PNGs and GIFs, with
 
     //////// interrogate commandLine to set values
 
@@ -84,12 +93,32 @@ public final class EasyAnimator {
       case "svg":
         outputType = OutputType.SVG;
         break;
+      case "svgz":
+        outputType = OutputType.SVGZ;
+        break;
+      case "svgcompact":
+        outputType = OutputType.SVG_COMPACT;
+        break;
+      case "svgdedup":
+        outputType = OutputType.SVG_DEDUP;
+        break;
+      case "html":
+        outputType = OutputType.HTML;
+        break;
+      case "png":
+      case "gif":
+      case "rgb24":
+      case "rgba":
+      case "y4m":
+        outputType = OutputType.valueOf(outputTypeString.toUpperCase());
+        break;
       case "visual":
         outputType = OutputType.VISUAL;
         break;
       default:
-        JOptionPane
-            .showMessageDialog(null, "output type must be \"text\", \"svg\", or \"visual\".");
+        JOptionPane.showMessageDialog(null,
+            "output type must be \"text\", \"svg\", \"svgz\", \"svgcompact\", \"svgdedup\", "
+                + "\"html\", \"png\", \"gif\", \"rgb24\", \"rgba\", \"y4m\", or \"visual\".");
         System.exit(1);
         throw new IllegalArgumentException("did not understand output type");
     }
@@ -123,13 +152,61 @@ public final class EasyAnimator {
       speed = 1;
     }
 
+    // set parse cache (optional)
+
+    if (commandLine.hasOption("cache")) {
+      long cacheMegabytes = 256;
+      try {
+        if (commandLine.hasOption("cachesize")) {
+          cacheMegabytes = Long.parseLong(commandLine.getOptionValue("cachesize"));
+        }
+        cache = new AnimationCache(commandLine.getOptionValue("cache"),
+            cacheMegabytes * 1024 * 1024);
+      } catch (Exception e) {
+        System.err.println("Failed initializing cache: " + e.getMessage());
+        System.exit(1);
+      }
+    }
+
+    // set number of SVG export threads (optional)
+
+    if (commandLine.hasOption("threads")) {
+      try {
+        threads = Integer.parseInt(commandLine.getOptionValue("threads"));
+        if (threads < 1) {
+          JOptionPane.showMessageDialog(null, "threads must be a number greater than zero.");
+          System.exit(1);
+        }
+      } catch (Exception e) {
+        JOptionPane.showMessageDialog(null, "threads must be a number greater than zero.");
+        System.exit(1);
+      }
+    } else if (outputType == OutputType.PNG || outputType == OutputType.GIF) {
+      // frames are independent, so use every core unless told otherwise
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    // set deferred validation (optional)
+
+    deferValidation = commandLine.hasOption("deferred");
+
+    // set occlusion culling of drawn frames (optional)
+
+    cull = commandLine.hasOption("cull");
+
+    // frames are drawn off screen, so no display is needed; only set once every option is checked,
+    // so that bad options can still be reported in a dialog
+    if (outputType == OutputType.PNG || outputType == OutputType.GIF || isRawFrames(outputType)) {
+      System.setProperty("java.awt.headless", "true");
+    }
+
     //////// create the model, viewer, and controller
 
     // create the animation (model)
 
     IAnimation animation = null;
     try {
-      animation = makeDefaultAnimation(inputFileString);
+      animation = makeDefaultAnimation(inputFileString, cache, deferValidation);
     } catch (Exception e) {
       System.err.println("Failed initializing model: " + e.getMessage());
       System.exit(1);
@@ -144,6 +221,20 @@ public final class EasyAnimator {
         int panelWidth = (int) animation.getMaxX();
         int panelHeight = (int) animation.getMaxY();
         animationView = IAnimationViewFactory.makeViewGUI(panelWidth, panelHeight);
+      } else if (outputType == OutputType.PNG) {
+        if (!outputDestination.equals("file")) {
+          throw new IllegalArgumentException("png output needs a directory, given with -o");
+        }
+        animationView = IAnimationViewFactory.makeViewPNGFrames(fileName,
+            (int) animation.getMaxX(), (int) animation.getMaxY(), threads);
+      } else if (outputType == OutputType.GIF) {
+        animationView = IAnimationViewFactory.makeViewGIF(
+            outputDestination.equals("file") ? fileName : null, (int) animation.getMaxX(),
+            (int) animation.getMaxY(), speed, animation.getColors(), threads);
+      } else if (isRawFrames(outputType)) {
+        animationView = IAnimationViewFactory.makeViewRawFrames(
+            outputDestination.equals("file") ? fileName : null, (int) animation.getMaxX(),
+            (int) animation.getMaxY(), speed, outputType);
       } else if (outputDestination.equals("file")) {
         animationView = IAnimationViewFactory.makeViewFile(fileName);
       } else if (outputDestination.equals("out")) {
@@ -161,12 +252,16 @@ public final class EasyAnimator {
     try {
       if (outputType == OutputType.VISUAL) {
         animationController = new AnimationControllerGUI(animation, animationView,
-            speed, outputType);
+            speed, outputType, cull);
         ((ViewGUI) animationView).setController(((AnimationControllerGUI)
             animationController));
+      } else if (outputType == OutputType.PNG || outputType == OutputType.GIF
+          || isRawFrames(outputType)) {
+        animationController = new AnimationControllerFrames(animation,
+            (IFrameView) animationView, speed, outputType, cull);
       } else {
         animationController = new AnimationController(animation, animationView,
-            speed, outputType);
+            speed, outputType, threads);
       }
     } catch (Exception e) {
       System.err.println("Failed initializing controller: " + e.getMessage());
@@ -200,32 +295,86 @@ public final class EasyAnimator {
     Option speedOption = new Option("speed", true, "speed of animation in ticks per second");
     speedOption.setRequired(false);
 
+    // directory in which to cache parsed input files
+    Option cacheOption = new Option("cache", true, "directory for caching parsed input files");
+    cacheOption.setRequired(false);
+
+    // size limit of the cache, in megabytes
+    Option cacheSizeOption = new Option("cachesize", true, "size limit of the cache in megabytes");
+    cacheSizeOption.setRequired(false);
+
+    // validate transformations once the whole input file has been read, reporting every error
+    Option deferredOption = new Option("deferred", false,
+        "validate transformations after reading the input file, reporting every error");
+    deferredOption.setRequired(false);
+
+    // number of threads to write SVG output, compress SVGZ output, and encode PNG and GIF frames
+    // with
+    Option threadsOption = new Option("threads", true,
+        "number of threads for SVG, SVGZ, PNG and GIF output");
+    threadsOption.setRequired(false);
+
+    // skip drawing shapes hidden behind later rectangles, in the visual view and frame output
+    Option cullOption = new Option("cull", false,
+        "skip drawing shapes hidden behind later rectangles in visual and frame output");
+    cullOption.setRequired(false);
+
     Options options = new Options();
 
     options.addOption(inputFileOption);
     options.addOption(outputFormatOption);
     options.addOption(outputDestinationOption);
     options.addOption(speedOption);
+    options.addOption(cacheOption);
+    options.addOption(cacheSizeOption);
+    options.addOption(deferredOption);
+    options.addOption(threadsOption);
+    options.addOption(cullOption);
 
     return options;
   }
 
   /**
    * Constructs an IAnimation from an input file string using default settings. Uses the
-   * AnimationFileReader and TweenModelBuilder classes as intermediaries.
+   * AnimationFileReader and a TweenModelBuilder, batched into a TweenModelBatchBuilder, as
+   * intermediaries. If validation is deferred, an unbatched TweenModelBuilder is used instead, so
+   * that errors can be reported with the lines they were read from. If a cache is given, the model
+   * is served from it when the input file has not changed since it was cached.
    *
+   * @param inputFileString the path of the input file.
+   * @param cache an AnimationCache, or null to always read the input file.
+   * @param deferValidation whether to validate transformations after reading them all.
    * @return an initialized IAnimation.
    * @throws IllegalArgumentException if could not read from input file String.
    */
-  private static IAnimation makeDefaultAnimation(String inputFileString)
-      throws IllegalArgumentException {
+  private static IAnimation makeDefaultAnimation(String inputFileString, AnimationCache cache,
+      boolean deferValidation) throws IllegalArgumentException {
     AnimationFileReader fileReader = new AnimationFileReader();
-    TweenModelBuilder<IAnimation> tweenModelBuilder = new TweenModelBuilderImpl();
+    TweenModelBuilder<IAnimation> tweenModelBuilder;
+    if (deferValidation) {
+      tweenModelBuilder = new TweenModelBuilderImpl(true);
+    } else {
+      tweenModelBuilder = new BatchingTweenModelBuilder<>(new TweenModelBatchBuilderImpl());
+    }
     try {
+      if (cache != null) {
+        return cache.readFile(inputFileString, fileReader, tweenModelBuilder);
+      }
       return fileReader.readFile(inputFileString, tweenModelBuilder);
     } catch (Exception e) {
       System.err.println(e.getMessage());
       throw new IllegalArgumentException("Could not read from input file string.");
     }
   }
+
+  /**
+   * Determines whether an output type is uncompressed video, written frame by frame.
+   *
+   * @param outputType the output type.
+   * @return true for RGB24, RGBA and Y4M, false otherwise.
+   */
+  private static boolean isRawFrames(OutputType outputType) {
+    return outputType == OutputType.RGB24 || outputType == OutputType.RGBA
+        || outputType == OutputType.Y4M;
+  }
 }
@@ -2,7 +2,15 @@ package cs5004.animator.controller;
 
 import cs5004.animator.model.IAnimation;
 import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ParallelSVGExporter;
+import cs5004.animator.util.ParallelGzipOutputStream;
+import cs5004.animator.view.IAnimationStreamView;
 import cs5004.animator.view.IAnimationView;
+import cs5004.animator.view.OutputWriter;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import javax.swing.Timer;
 
@@ -17,6 +25,7 @@ public class AnimationController implements IAnimationController {
   private IAnimationView view;
   private int ticksPerSecond;
   private OutputType outputType;
+  private int threads;
   private Timer timer;
   private IAnimationController controller;
 
@@ -31,6 +40,22 @@ public class AnimationController implements IAnimationController {
    */
   public AnimationController(IAnimation animation, IAnimationView view, int speed,
       OutputType outputType) throws NullPointerException {
+    this(animation, view, speed, outputType, 1);
+  }
+
+  /**
+   * Creates a new instance of a AnimationController that writes SVG output using several threads.
+   *
+   * @param animation something to be animated; the model.
+   * @param view a ViewFile object with information about the output destination.
+   * @param speed the speed at which to animate the model.
+   * @param outputType the format in which to animate the model.
+   * @param threads the number of threads to write SVG output with.
+   * @throws NullPointerException if any argument is null.
+   * @throws IllegalArgumentException if threads <= 0.
+   */
+  public AnimationController(IAnimation animation, IAnimationView view, int speed,
+      OutputType outputType, int threads) throws NullPointerException, IllegalArgumentException {
     Objects.requireNonNull(animation);
     Objects.requireNonNull(view);
     Objects.requireNonNull(outputType);
@@ -38,14 +63,31 @@ public class AnimationController implements IAnimationController {
     this.view = view;
     this.ticksPerSecond = speed;
     this.outputType = outputType;
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be greater than 0");
+    }
+    this.threads = threads;
   }
 
   /**
    * Requests an output from the IAnimation with the given output type and speed. Hands that
-   * information to the IAnimationView to be displayed.
+   * information to the IAnimationView to be displayed. If the view can display output as it is
+   * produced, the IAnimation writes straight to it instead.
    */
   public void run() {
     try {
+      if (view instanceof IAnimationStreamView && outputType == OutputType.SVGZ) {
+        ((IAnimationStreamView) view)
+            .renderBinary(makeOutputWriter(animation, outputType, ticksPerSecond, threads));
+        return;
+      }
+      if (view instanceof IAnimationStreamView) {
+        // let the model write to the view as it goes
+        ((IAnimationStreamView) view)
+            .renderStream(makeOutputWriter(animation, outputType, ticksPerSecond, threads));
+        return;
+      }
+
       // request information of the correct format from the model
       String animateThis = animation.generate(outputType, ticksPerSecond);
 
@@ -57,6 +99,42 @@ public class AnimationController implements IAnimationController {
     }
   }
 
+  /**
+   * Makes an OutputWriter that writes the given IAnimation to a stream, encoded as UTF-8 through a
+   * buffer. SVG output is written by a ParallelSVGExporter if more than one thread is given.
+   * SVGZ output is SVG compressed by a ParallelGzipOutputStream, as it is written.
+   *
+   * @param animation the model to write.
+   * @param outputType the format in which to write the model.
+   * @param speed the speed at which to animate the model.
+   * @param threads the number of threads to write SVG output with.
+   * @return an OutputWriter for the model.
+   */
+  static OutputWriter makeOutputWriter(IAnimation animation, OutputType outputType, int speed,
+      int threads) {
+    if (outputType == OutputType.SVGZ) {
+      OutputWriter svg = makeOutputWriter(animation, OutputType.SVG, speed, threads);
+      return out -> {
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(out, threads);
+        try {
+          svg.write(gzip);
+          gzip.finish(); // the stream belongs to the view, so it is not closed here
+        } finally {
+          gzip.end();
+        }
+      };
+    }
+    if (outputType == OutputType.SVG && threads > 1) {
+      ParallelSVGExporter exporter = new ParallelSVGExporter(threads);
+      return out -> exporter.export(animation, speed, out);
+    }
+    return out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      animation.generate(outputType, speed, writer);
+      writer.flush(); // the stream belongs to the view, so it is not closed here
+    };
+  }
+
   /**
    * Prints the contents of this AnimationController to a String.
    *
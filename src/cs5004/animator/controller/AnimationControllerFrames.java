@@ -0,0 +1,107 @@
+package cs5004.animator.controller;
+
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.util.OcclusionCuller;
+import cs5004.animator.view.IFrameView;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An implementation of the IAnimationController interface which renders every frame of an
+ * IAnimation, as fast as the IFrameView takes them, without a window or a timer. Suited to
+ * rendering on machines without a display. Shapes hidden behind later rectangles may be culled from
+ * each frame before it is rendered, which changes no pixel of it.
+ */
+
+public class AnimationControllerFrames implements IAnimationController {
+
+  private IAnimation animation;
+  private IFrameView view;
+  private int ticksPerSecond;
+  private OutputType outputType;
+  private OcclusionCuller culler;
+
+  /**
+   * Creates a new instance of a AnimationControllerFrames.
+   *
+   * @param animation something to be animated; the model.
+   * @param view the IFrameView to render each frame with.
+   * @param speed the speed at which the frames are meant to be played.
+   * @param outputType the format in which to animate the model.
+   * @throws NullPointerException if any argument is null.
+   */
+  public AnimationControllerFrames(IAnimation animation, IFrameView view, int speed,
+      OutputType outputType) throws NullPointerException {
+    this(animation, view, speed, outputType, false);
+  }
+
+  /**
+   * Creates a new instance of a AnimationControllerFrames, which may cull hidden shapes.
+   *
+   * @param animation something to be animated; the model.
+   * @param view the IFrameView to render each frame with.
+   * @param speed the speed at which the frames are meant to be played.
+   * @param outputType the format in which to animate the model.
+   * @param cull whether to drop shapes hidden behind later rectangles from each frame.
+   * @throws NullPointerException if any argument is null.
+   */
+  public AnimationControllerFrames(IAnimation animation, IFrameView view, int speed,
+      OutputType outputType, boolean cull) throws NullPointerException {
+    Objects.requireNonNull(animation);
+    Objects.requireNonNull(view);
+    Objects.requireNonNull(outputType);
+    this.animation = animation;
+    this.view = view;
+    this.ticksPerSecond = speed;
+    this.outputType = outputType;
+    if (cull) {
+      this.culler = new OcclusionCuller((int) animation.getMaxX(), (int) animation.getMaxY());
+    }
+  }
+
+  /**
+   * Requests the frame of each tick from the IAnimation, from the first to the last, and hands it
+   * to the IFrameView, then waits for the IFrameView to finish.
+   */
+  public void run() {
+    try {
+      int lastTick = this.animation.lastTick();
+      for (int tick = 0; tick < lastTick; tick++) {
+        List<IRenderableShape> frame = this.animation.generateFrame(tick);
+        if (this.culler != null) {
+          frame = this.culler.cull(frame);
+        }
+        this.view.renderFrame(tick, frame);
+      }
+      this.view.finish();
+    } catch (Exception e) {
+      System.err.println(e.getMessage());
+      System.exit(-1);
+    }
+  }
+
+  /**
+   * Prints the contents of this AnimationControllerFrames to a String.
+   *
+   * @return a String with the animation, view, speed, and output type as lines.
+   */
+  @Override
+  public String toString() {
+    String output = this.animation.toString() + "\n";
+    output += this.view.toString() + "\n";
+    output += this.ticksPerSecond + "\n";
+    output += this.outputType + "\n";
+    return output;
+  }
+
+  /**
+   * Gets the ticks per second of this IAnimationController.
+   *
+   * @return the ticks per second.
+   */
+  public int getTicksPerSecond() {
+    return this.ticksPerSecond;
+  }
+}
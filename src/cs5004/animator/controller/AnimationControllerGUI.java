@@ -3,8 +3,11 @@ package cs5004.animator.controller;
 import cs5004.animator.model.IAnimation;
 import cs5004.animator.model.IRenderableShape;
 import cs5004.animator.model.OutputType;
+import cs5004.animator.util.OcclusionCuller;
+import cs5004.animator.view.IAnimationStreamView;
 import cs5004.animator.view.IAnimationView;
 import cs5004.animator.view.ViewFile;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
@@ -21,6 +24,8 @@ public class AnimationControllerGUI implements IAnimationController {
   private Timer timer;
   private int tick;
   private int lastTick;
+  private OcclusionCuller culler;
+  private Rectangle visibleArea;
 
   /**
    * Creates a new instance of a AnimationController.
@@ -33,6 +38,22 @@ public class AnimationControllerGUI implements IAnimationController {
    */
   public AnimationControllerGUI(IAnimation animation, IAnimationView view, int speed,
       OutputType outputType) throws NullPointerException {
+    this(animation, view, speed, outputType, false);
+  }
+
+  /**
+   * Creates a new instance of a AnimationController, which may cull hidden shapes from each frame
+   * before the view draws it.
+   *
+   * @param animation something to be animated; the model.
+   * @param view a ViewFile object with information about the output destination.
+   * @param speed the speed at which to animate the model.
+   * @param outputType the format in which to animate the model.
+   * @param cull whether to drop shapes hidden behind later rectangles from each frame.
+   * @throws NullPointerException if any argument is null.
+   */
+  public AnimationControllerGUI(IAnimation animation, IAnimationView view, int speed,
+      OutputType outputType, boolean cull) throws NullPointerException {
     Objects.requireNonNull(animation);
     Objects.requireNonNull(view);
     Objects.requireNonNull(outputType);
@@ -42,14 +63,18 @@ public class AnimationControllerGUI implements IAnimationController {
     this.ticksPerSecond = speed;
     this.lastTick = this.animation.lastTick();
     this.outputType = outputType;
+    // the user may save the same model many times, at different speeds
+    this.animation.setOutputCaching(true);
+    if (cull) {
+      this.culler = new OcclusionCuller((int) animation.getMaxX(), (int) animation.getMaxY());
+    }
 
     this.timer = new Timer(1000 / this.ticksPerSecond, new ActionListener() {
 
       @Override
       public void actionPerformed(ActionEvent e) {
         if (tick < lastTick) {
-          List<IRenderableShape> shapeList = animation.generateFrame(tick);
-          view.render(shapeList);
+          showFrame(tick);
           tick++;
         } else {
           timer.stop();
@@ -58,6 +83,43 @@ public class AnimationControllerGUI implements IAnimationController {
     });
   }
 
+  /**
+   * Generates the frame of a tick, of only the visible area of the canvas if it is known, culls
+   * it if asked to, and has the IAnimationView render it.
+   *
+   * @param frameTick the tick to show.
+   */
+  private void showFrame(int frameTick) {
+    List<IRenderableShape> shapeList = this.visibleArea == null
+        ? this.animation.generateFrame(frameTick)
+        : this.animation.generateFrame(frameTick, this.visibleArea);
+    if (this.culler != null) {
+      shapeList = this.culler.cull(shapeList);
+    }
+    this.view.render(shapeList);
+  }
+
+  /**
+   * Sets the area of the canvas the IAnimationView shows, so that frames are generated for only
+   * that area, and shows the last frame shown again for it, for example, in response to the user
+   * scrolling the IAnimationView. An empty area, as shown before the window is laid out, means the
+   * whole canvas.
+   *
+   * @param area the visible area of the canvas.
+   * @throws NullPointerException if area is null.
+   */
+  public void setVisibleArea(Rectangle area) throws NullPointerException {
+    Objects.requireNonNull(area);
+    Rectangle visible = area.isEmpty() ? null : new Rectangle(area);
+    if (Objects.equals(visible, this.visibleArea)) {
+      return;
+    }
+    this.visibleArea = visible;
+    if (this.tick > 0 && this.tick <= this.lastTick) {
+      this.showFrame(this.tick - 1);
+    }
+  }
+
   /**
    * Uses a timer object to sample frames from the IAnimation at a certain rate. Requests
    * information from the IAnimation as a List of IRenderableShapes, then passes that information to
@@ -109,15 +171,17 @@ public class AnimationControllerGUI implements IAnimationController {
   }
 
   /**
-   * Saves an SVG to a filename specified by user. Creates a new IAnimationView object and requests
-   * the IAnimation to generate SVG data for it at a given speed. Performed in response to a request
+   * Saves an SVG to a filename specified by user. Creates a new IAnimationView object and has the
+   * IAnimation write SVG data straight to it at a given speed. Performed in response to a request
    * from the IAnimationView.
    *
    * @param filename the name to save the SVG file as.
    */
   public void saveSVG(String filename) {
-    IAnimationView viewFile = new ViewFile(filename);
-    viewFile.render(this.animation.generate(OutputType.SVG, this.ticksPerSecond));
+    IAnimationStreamView viewFile = new ViewFile(filename);
+    viewFile.renderStream(
+        AnimationController.makeOutputWriter(this.animation, OutputType.SVG, this.ticksPerSecond,
+            1));
   }
 
   /**
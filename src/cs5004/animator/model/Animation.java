@@ -1,27 +1,86 @@
 package cs5004.animator.model;
 
+import cs5004.animator.util.SpatialGrid;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A class implementing the IAnimation interface. This Animation uses an ArrayList to store Shapes,
- * and a LinkedList to store Transformations.
+ * and an ArrayList, sorted by start time when needed, to store Transformations. Shape names are
+ * interned in a ShapeSymbolTable, and Shapes and Transformations are then matched by the ids of
+ * their names. Animations are Serializable so that a parsed model can be cached on disk and
+ * reloaded without re-reading its input file.
+ *
+ * <p>An Animation may defer validation, in which case Transformations are only checked against
+ * each other once validate() is called. Deferred checks accept and reject exactly the same
+ * Transformations as checking each one as it is added, but run per Shape in parallel, and report
+ * every invalid Transformation rather than only the first.
  */
 
-public class Animation implements IAnimation {
+public class Animation implements IAnimation, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  // output is formatted into an Emitter, and written out each time it holds about this many chars
+  private static final int FLUSH_THRESHOLD = 1 << 15;
+  // the cells of the grid indexing the bounds of Shapes are about as big as a typical Shape
+  private static final int FRAME_INDEX_CELL_SIZE = 64;
 
   private List<IShape> shapes;
+  private ShapeSymbolTable symbols;
+  private List<IShape> shapesById;
   private List<ITransformation> transformations;
+  private boolean transformationsSorted;
+  private final boolean deferValidation;
+  private List<PendingTransformation> pending;
+  private List<PendingTransformation> violations;
+  // counts changes which may change the output, so that cached templates can tell they are stale
+  private int modCount;
+  private transient boolean cacheOutput;
+  private transient Map<OutputType, Emitter> templates;
+  private transient int templatesModCount;
+  // SVG is kept per Shape instead, in the order of shapes, so that only changed Shapes are redone
+  private transient List<ShapeFragment> svgFragments;
+  // the bounds each Shape sweeps over its life, in the order of shapes, for drawing part of a frame
+  private transient SpatialGrid frameIndex;
+  private transient int frameIndexModCount;
+  private transient int frameIndexLastTick;
 
   /**
-   * Creates a new instance of the Animation class.
+   * Creates a new instance of the Animation class, which validates each Transformation as it is
+   * added.
    */
   public Animation() {
+    this(false);
+  }
+
+  /**
+   * Creates a new instance of the Animation class.
+   *
+   * @param deferValidation if true, Transformations are not validated until validate() is called.
+   */
+  public Animation(boolean deferValidation) {
     this.shapes = new ArrayList<>();
-    this.transformations = new LinkedList<>();
+    this.symbols = new ShapeSymbolTable();
+    this.shapesById = new ArrayList<>();
+    this.transformations = new ArrayList<>();
+    this.transformationsSorted = true;
+    this.deferValidation = deferValidation;
+    this.pending = new ArrayList<>();
+    this.violations = new ArrayList<>();
   }
 
   /**
@@ -35,17 +94,24 @@ public class Animation implements IAnimation {
 
   /**
    * Adds a new Shape to this Animation. Will not add an IShape if the IAnimation already has an
-   * IShape of that name.
+   * IShape of that name. The IShape is given the id of its name in this Animation's symbol table,
+   * so it cannot also be added to another Animation, whose ids would differ.
    *
    * @param shape an instance of an object implementing the IShape interface.
    * @throws NullPointerException if shape is null.
+   * @throws IllegalArgumentException if shape has been added to another Animation.
    */
-  public void addShape(IShape shape) throws NullPointerException {
+  public void addShape(IShape shape) throws NullPointerException, IllegalArgumentException {
     Objects.requireNonNull(shape);
     if (containsIShape(shape.getName())) {
       return;
+    } else if (shape.getId() >= 0) {
+      throw new IllegalArgumentException("Shape already belongs to another Animation.");
     } else {
+      shape.setId(this.symbols.intern(shape.getName()));
       this.shapes.add(shape);
+      this.shapesById.add(shape);
+      this.modCount++;
     }
   }
 
@@ -57,12 +123,7 @@ public class Animation implements IAnimation {
    * @return true if there is a conflict, false otherwise.
    */
   private boolean containsIShape(String shapeName) {
-    for (IShape thisShape : this.shapes) {
-      if (thisShape.getName().equals(shapeName)) {
-        return true;
-      }
-    }
-    return false;
+    return this.symbols.lookup(shapeName) >= 0;
   }
 
   /**
@@ -73,13 +134,8 @@ public class Animation implements IAnimation {
    * @return the first IShape that matches, null otherwise.
    */
   public IShape getFirstIShape(String shapeName) {
-    String shapeNameUpper = shapeName.toUpperCase();
-    for (IShape shape : this.shapes) {
-      if (shape.getName().equals(shapeNameUpper)) {
-        return shape;
-      }
-    }
-    return null;
+    int id = this.symbols.lookup(shapeName);
+    return id < 0 ? null : this.shapesById.get(id);
   }
 
   /**
@@ -88,62 +144,194 @@ public class Animation implements IAnimation {
    * Transformation begins before the Shape has appeared, or 3) the Transformation ends after the
    * Shape has disappeared, or 4) the Transformation begins after the Shape has disappeared, or 5)
    * if there is a conflicting Transformation being applied to the Shape at the same time (such as
-   * two movements). Also adds a copy to the applicable Shape's list of ITransformations.
+   * two movements). Also adds a copy to the applicable Shape's list of ITransformations. If this
+   * Animation defers validation, the Transformation is only checked when validate() is called. As
+   * with IShapes, an ITransformation given the id of its IShape by another Animation is rejected.
    *
    * @param transformation an instance of an object implementing the ITransformation interface.
-   * @throws IllegalArgumentException if ITransformation is invalid (see above).
+   * @throws IllegalArgumentException if ITransformation is invalid (see above), or has been added
+   *     to another Animation.
    * @throws NullPointerException if shape is null.
    */
   public void addTransformation(ITransformation transformation) throws IllegalArgumentException {
+    this.addTransformation(transformation, 0);
+  }
+
+  /**
+   * Adds a new Transformation to this Animation, as addTransformation(transformation), recording
+   * the line of the input it was read from so that deferred validation can report it.
+   *
+   * @param transformation an instance of an object implementing the ITransformation interface.
+   * @param sourceLine the line of the input the Transformation was read from, or 0 if unknown.
+   * @throws IllegalArgumentException if ITransformation is invalid, or has been added to another
+   *     Animation.
+   * @throws NullPointerException if shape is null.
+   */
+  public void addTransformation(ITransformation transformation, int sourceLine)
+      throws IllegalArgumentException {
     Objects.requireNonNull(transformation);
+    if (transformation.getShapeId() >= 0) {
+      throw new IllegalArgumentException("Transformation already belongs to another Animation.");
+    }
     IShape thisShape = this.getFirstIShape(transformation.getShapeName());
-    try {
-      if (transformation.getStart() < thisShape.getAppear()) {
-        throw new IllegalArgumentException("Transformation cannot begin before Shape appears.");
-      }
-      if (transformation.getEnd() > thisShape.getDisappear()) {
-        throw new IllegalArgumentException("Transformation cannot end after Shape disappears.");
+    if (thisShape != null) {
+      transformation.setShapeId(thisShape.getId());
+    }
+    if (this.deferValidation) {
+      PendingTransformation pendingTransformation =
+          new PendingTransformation(transformation, thisShape, sourceLine,
+              this.pending.size() + this.violations.size());
+      if (thisShape == null) {
+        // shapes added later must not make this valid, so this is checked now
+        pendingTransformation.violation = TransformationValidator.MISSING_SHAPE;
+        this.violations.add(pendingTransformation);
+      } else {
+        this.pending.add(pendingTransformation);
       }
-      if (transformation.getStart() > thisShape.getDisappear()) {
-        throw new IllegalArgumentException("Transformation cannot start after Shape disappears.");
+      return;
+    }
+    // only this Shape's own Transformations can conflict with the new one
+    try {
+      TransformationValidator.validate(thisShape,
+          thisShape == null ? this.transformations : thisShape.getTransformations(),
+          transformation);
+    } catch (IllegalArgumentException e) {
+      transformation.setShapeId(-1); // rejected, so free to be added elsewhere
+      throw e;
+    }
+    try {
+      thisShape.addTransformation(transformation);
+      this.transformations.add(transformation);
+      this.transformationsSorted = false;
+      this.modCount++;
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Could not add Transformation to Animation.");
+    }
+  }
+
+  /**
+   * Gets every accepted ITransformation, sorted by start time, and otherwise in the order they were
+   * accepted. ITransformations are appended as they are accepted and only sorted when needed; the
+   * sort is stable, so the order is the same as if each had been inserted in place.
+   *
+   * @return the sorted ITransformations.
+   */
+  private List<ITransformation> getSortedTransformations() {
+    if (!this.transformationsSorted) {
+      this.transformations.sort(ITransformation::compareTo);
+      this.transformationsSorted = true;
+    }
+    return this.transformations;
+  }
+
+  /**
+   * Validates every Transformation added since this Animation was created or last validated, when
+   * validation is deferred. The Transformations of each Shape are checked in parallel, in the
+   * order they were added, so that the same ones are accepted as if each had been checked when it
+   * was added. Accepted Transformations are added to this Animation; the rest are discarded.
+   *
+   * @return a message for every rejected Transformation, in the order of the lines they were read
+   *         from, each prefixed by its line if known. Empty if every Transformation was accepted,
+   *         or if this Animation does not defer validation.
+   */
+  public List<String> validate() {
+    // group the pending Transformations by Shape, keeping the order they were added in
+    Map<IShape, List<PendingTransformation>> byShape = new IdentityHashMap<>();
+    for (PendingTransformation pendingTransformation : this.pending) {
+      byShape.computeIfAbsent(pendingTransformation.shape, shape -> new ArrayList<>())
+          .add(pendingTransformation);
+    }
+    Map<IShape, float[]> latestEnds = new IdentityHashMap<>();
+    for (ITransformation transformation : this.transformations) {
+      IShape shape = this.shapesById.get(transformation.getShapeId());
+      if (byShape.containsKey(shape)) {
+        float[] latestEnd = latestEnds.computeIfAbsent(shape, key -> newLatestEnds());
+        int type = transformation.getType().ordinal();
+        latestEnd[type] = Math.max(latestEnd[type], transformation.getEnd());
       }
-      if (this.transformationConflict(transformation)) {
-        throw new IllegalArgumentException(
-            "Transformation cannot start before a Transformation of the same type ends.");
+    }
+
+    byShape.entrySet().parallelStream().forEach(entry -> {
+      float[] latestEnd = latestEnds.get(entry.getKey());
+      validateShape(entry.getKey(), entry.getValue(),
+          latestEnd == null ? newLatestEnds() : latestEnd);
+    });
+
+    List<ITransformation> accepted = new ArrayList<>();
+    for (PendingTransformation pendingTransformation : this.pending) {
+      if (pendingTransformation.violation == null) {
+        accepted.add(pendingTransformation.transformation);
       } else {
-        try {
-          this.transformations.add(transformation);
-          thisShape.addTransformation(transformation);
-          Collections.sort(transformations);
-        } catch (Exception e) {
-          throw new IllegalArgumentException("Could not add Transformation to Animation.");
-        }
+        pendingTransformation.transformation.setShapeId(-1);
+        this.violations.add(pendingTransformation);
       }
-    } catch (NullPointerException e) {
-      throw new IllegalArgumentException("Animation does not contain a Shape of this name.");
     }
+    this.transformations.addAll(accepted);
+    this.transformationsSorted = false;
+    this.modCount++;
+
+    this.violations.sort(Comparator.comparingInt((PendingTransformation p) -> p.sourceLine)
+        .thenComparingInt(p -> p.order));
+    List<String> messages = new ArrayList<>();
+    for (PendingTransformation violation : this.violations) {
+      messages.add(violation.sourceLine > 0
+          ? "line " + violation.sourceLine + ": " + violation.violation
+          : violation.violation);
+    }
+    this.pending = new ArrayList<>();
+    this.violations = new ArrayList<>();
+    return messages;
   }
 
   /**
-   * Tests whether an Animation contains a Transformation that conflicts with the given
-   * Transformation.
+   * Creates an array holding the latest end of an accepted ITransformation of each TransformType,
+   * none of which have been accepted yet.
    *
-   * @param other a Transformation.
-   * @return True if there is a conflict, False otherwise.
-   * @throws NullPointerException if shape is null.
+   * @return an array indexed by TransformType ordinal, filled with negative infinity.
    */
-  private boolean transformationConflict(ITransformation other) throws NullPointerException {
-    for (ITransformation transformation : this.transformations) {
-      TransformType otherTransformType = other.getType();
-      String otherShapeName = other.getShapeName();
-      if (transformation.getType().equals(otherTransformType)
-          && transformation.getShapeName().equals(otherShapeName)) {
-        if (other.getStart() <= transformation.getEnd()) {
-          return true;
-        }
+  private static float[] newLatestEnds() {
+    float[] latestEnd = new float[TransformType.values().length];
+    Arrays.fill(latestEnd, Float.NEGATIVE_INFINITY);
+    return latestEnd;
+  }
+
+  /**
+   * Validates the pending Transformations of one Shape in the order they were added, adding the
+   * accepted ones to the Shape and recording a violation for the rest. Touches nothing but the
+   * Shape and its own pending Transformations, so Shapes may be validated concurrently.
+   *
+   * @param shape the IShape the Transformations apply to.
+   * @param shapePending the pending Transformations of the IShape, in the order they were added.
+   * @param latestEnd the latest end of an accepted ITransformation of each type on the IShape.
+   */
+  private static void validateShape(IShape shape, List<PendingTransformation> shapePending,
+      float[] latestEnd) {
+    for (PendingTransformation pendingTransformation : shapePending) {
+      ITransformation transformation = pendingTransformation.transformation;
+      int type = transformation.getType().ordinal();
+      try {
+        TransformationValidator.validate(shape, latestEnd[type], transformation);
+        shape.addTransformation(transformation);
+        latestEnd[type] = Math.max(latestEnd[type], transformation.getEnd());
+      } catch (IllegalArgumentException e) {
+        pendingTransformation.violation = e.getMessage();
       }
     }
-    return false;
+  }
+
+  /**
+   * Sets whether this Animation keeps a template of each format it generates. A template holds
+   * everything but the times, which are the only part that depends on the speed, so generating
+   * the same format again at any speed only converts the times. Templates are discarded when the
+   * Animation changes, and hold about as much as the output itself.
+   *
+   * @param cacheOutput true to keep templates, false to discard them and generate from scratch.
+   */
+  public void setOutputCaching(boolean cacheOutput) {
+    this.cacheOutput = cacheOutput;
+    this.templates = cacheOutput ? new EnumMap<>(OutputType.class) : null;
+    this.templatesModCount = this.modCount;
+    this.svgFragments = cacheOutput ? new ArrayList<>() : null;
   }
 
   /**
@@ -158,80 +346,338 @@ public class Animation implements IAnimation {
    */
   public String generate(OutputType outputType, int speed)
       throws IllegalArgumentException, NullPointerException {
+    StringBuilder output = new StringBuilder();
+    try {
+      this.generate(outputType, speed, output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage()); // a StringBuilder never throws
+    }
+    return output.toString();
+  }
+
+  /**
+   * Writes this Animation to the given output, formatted to the specification of the OutputType,
+   * and according to the given speed. The output is written a piece at a time, so that it never
+   * has to be held in memory all at once, unless it is being kept as a template.
+   *
+   * @param outputType an enum containing the desired format of the output.
+   * @param speed an integer containing the desired number of ticks per second in the output.
+   * @param output the Appendable to write to.
+   * @throws IllegalArgumentException if the outputType was not understood, or speed was <= 0.
+   * @throws NullPointerException if outputType or output is null.
+   * @throws IOException if writing to the output fails.
+   */
+  public void generate(OutputType outputType, int speed, Appendable output)
+      throws IllegalArgumentException, NullPointerException, IOException {
     Objects.requireNonNull(outputType);
+    Objects.requireNonNull(output);
     if (speed <= 0) {
       throw new IllegalArgumentException("speed must be greater than 0");
     }
+    Emitter emitter = new Emitter(FLUSH_THRESHOLD * 2);
+    if (this.cacheOutput && outputType == OutputType.SVG) {
+      this.replaySVG(speed, emitter, output);
+    } else if (this.cacheOutput) {
+      this.getTemplate(outputType).replay(speed, emitter, output, FLUSH_THRESHOLD);
+    } else {
+      emitter.setTimeScale(speed, outputType != OutputType.TEXT);
+      this.append(outputType, emitter, output);
+    }
+    emitter.writeTo(output);
+  }
+
+  /**
+   * Gets the template of the given format, recording it if this Animation has changed since it
+   * was recorded, or it has not been recorded yet.
+   *
+   * @param outputType the format of the template.
+   * @return a recording Emitter holding the template.
+   * @throws IllegalArgumentException if the outputType was not understood.
+   * @throws IOException never, as a recording Emitter is never written out.
+   */
+  private Emitter getTemplate(OutputType outputType)
+      throws IllegalArgumentException, IOException {
+    if (this.templatesModCount != this.modCount) {
+      this.templates.clear();
+      this.templatesModCount = this.modCount;
+    }
+    Emitter template = this.templates.get(outputType);
+    if (template == null) {
+      template = Emitter.recording(outputType != OutputType.TEXT);
+      this.append(outputType, template, null);
+      this.templates.put(outputType, template);
+    }
+    return template;
+  }
+
+  /**
+   * Appends this Animation in the SVG format from the template of each IShape, first recording
+   * the template of every IShape which is new or has changed since its template was recorded.
+   *
+   * @param speed the speed in ticks per second to generate output for.
+   * @param emitter the Emitter to append to.
+   * @param output the Appendable to write the Emitter to as it fills.
+   * @throws IOException if writing to the output fails.
+   */
+  private void replaySVG(int speed, Emitter emitter, Appendable output) throws IOException {
+    float maxX = 0;
+    float maxY = 0;
+    for (int i = 0; i < this.shapes.size(); i++) {
+      IShape shape = this.shapes.get(i);
+      ShapeFragment fragment = i < this.svgFragments.size() ? this.svgFragments.get(i) : null;
+      if (fragment == null || fragment.shape != shape
+          || fragment.version != shape.getVersion()) {
+        fragment = new ShapeFragment(shape);
+        if (i < this.svgFragments.size()) {
+          this.svgFragments.set(i, fragment);
+        } else {
+          this.svgFragments.add(fragment);
+        }
+      }
+      // the same maximum getMaxX and getMaxY find, without visiting unchanged Transformations
+      if (fragment.maxX > maxX) {
+        maxX = fragment.maxX;
+      }
+      if (fragment.maxY > maxY) {
+        maxY = fragment.maxY;
+      }
+    }
+
+    appendSVGHeader(maxX, maxY, emitter);
+    for (int i = 0; i < this.shapes.size(); i++) {
+      this.svgFragments.get(i).template.replay(speed, emitter, output, FLUSH_THRESHOLD);
+      flushIfFull(emitter, output);
+    }
+    appendSVGFooter(emitter);
+  }
+
+  /**
+   * Appends this Animation in the given format, with times in ticks.
+   *
+   * @param outputType the format to append.
+   * @param emitter the Emitter to append to, which converts or records the times.
+   * @param output the Appendable to write the Emitter to as it fills, or null to keep everything
+   *        in the Emitter.
+   * @throws IllegalArgumentException if the outputType was not understood.
+   * @throws IOException if writing to the output fails.
+   */
+  private void append(OutputType outputType, Emitter emitter, Appendable output)
+      throws IllegalArgumentException, IOException {
     switch (outputType) {
       case TEXT:
-        return generateText(speed);
+        appendText(emitter, output);
+        break;
       case SVG:
-        return generateSVG(speed);
+        appendSVG(emitter, output);
+        break;
+      case SVG_COMPACT:
+        appendCompactSVG(emitter, output);
+        break;
+      case SVG_DEDUP:
+        appendDedupSVG(emitter, output);
+        break;
+      case HTML:
+        appendHTML(emitter, output);
+        break;
       default:
         throw new IllegalArgumentException("Failed to generate that output type");
     }
   }
 
   /**
-   * Generates this Animation, formatted for output as Text.
+   * Appends this Animation, formatted for output as Text.
    *
-   * @param speed the speed in ticks per minute to generate output for.
-   * @return A String containing this Animation.
+   * @param emitter the Emitter to append to.
+   * @param output the Appendable to write the Emitter to as it fills, or null.
+   * @throws IOException if writing to the output fails.
    */
-  private String generateText(int speed) {
-    String output = "Shapes:\n";
+  private void appendText(Emitter emitter, Appendable output) throws IOException {
+    emitter.append("Shapes:\n");
     for (IShape shape : this.shapes) {
-      float thisAppear = shape.getAppear() / speed;
-      float thisDisappear = shape.getDisappear() / speed;
-      output += shape.toStringText(thisAppear, thisDisappear);
-      output += "\n";
+      shape.appendText(emitter, shape.getAppear(), shape.getDisappear());
+      emitter.append('\n');
+      flushIfFull(emitter, output);
     }
-    for (ITransformation transformation : this.transformations) {
-      float thisStart = transformation.getStart() / speed;
-      float thisEnd = transformation.getEnd() / speed;
-      output += transformation.toStringText(thisStart, thisEnd);
+    for (ITransformation transformation : this.getSortedTransformations()) {
+      transformation.appendText(emitter, transformation.getStart(), transformation.getEnd());
+      flushIfFull(emitter, output);
     }
-    return output;
   }
 
   /**
-   * Generates this Animation, formatted for output as SVG.
+   * Appends this Animation, formatted for output as SVG.
    *
-   * @param speed the speed in ticks per minute to generate output for.
-   * @return A String containing this Animation.
+   * @param emitter the Emitter to append to.
+   * @param output the Appendable to write the Emitter to as it fills, or null.
+   * @throws IOException if writing to the output fails.
    */
-  private String generateSVG(int speed) {
-    // these values auto-adjust
-    float animationWidth = this.getMaxX();
-    float animationHeight = this.getMaxY();
+  private void appendSVG(Emitter emitter, Appendable output) throws IOException {
+    appendSVGHeader(this, emitter);
+    for (IShape shape : this.shapes) {
+      appendSVGShape(shape, emitter);
+      flushIfFull(emitter, output);
+    }
+    appendSVGFooter(emitter);
+  }
 
-    String output = String
-        .format("<svg width=\"%.1f\" height=\"%.1f\" version=\"1.1\"",
-            animationWidth,
-            animationHeight);
-    output += " xmlns=\"http://www.w3.org/2000/svg\"> \n";
+  /**
+   * Appends this Animation, formatted for output as compact SVG.
+   *
+   * @param emitter the Emitter to append to.
+   * @param output the Appendable to write the Emitter to as it fills, or null.
+   * @throws IOException if writing to the output fails.
+   */
+  private void appendCompactSVG(Emitter emitter, Appendable output) throws IOException {
+    appendSVGHeader(this, emitter);
+    for (IShape shape : this.shapes) {
+      CompactSVG.appendShape(shape, emitter);
+      flushIfFull(emitter, output);
+    }
+    appendSVGFooter(emitter);
+  }
 
+  /**
+   * Appends this Animation, formatted for output as compact SVG in which each timeline shared by
+   * several IShapes is written once, under defs, and each of those IShapes is a use of it. IShapes
+   * share a timeline if their timelines in ticks are the same, so they are the same at any speed.
+   *
+   * @param emitter the Emitter to append to.
+   * @param output the Appendable to write the Emitter to as it fills, or null.
+   * @throws IOException if writing to the output fails.
+   */
+  private void appendDedupSVG(Emitter emitter, Appendable output) throws IOException {
+    // an Emitter without a time scale writes times in ticks
+    Emitter key = new Emitter();
+    Map<String, SharedTimeline> timelines = new HashMap<>();
+    List<SharedTimeline> timelineOf = new ArrayList<>(this.shapes.size());
+    List<SharedTimeline> shared = new ArrayList<>();
     for (IShape shape : this.shapes) {
-      float thisAppearMS = shape.getAppear() / speed * 1000;
-      float thisDisappearMS = shape.getDisappear() / speed * 1000;
+      key.clear();
+      CompactSVG.appendTimeline(shape, "", key);
+      SharedTimeline timeline = timelines.computeIfAbsent(key.toString(),
+          k -> new SharedTimeline(shape));
+      timeline.uses++;
+      timelineOf.add(timeline);
+    }
+    // number the shared timelines in the order their first IShapes come in
+    for (SharedTimeline timeline : timelineOf) {
+      if (timeline.uses > 1 && timeline.id == null) {
+        timeline.id = "timeline" + shared.size();
+        shared.add(timeline);
+      }
+    }
+
+    appendSVGHeader(this, emitter);
+    if (!shared.isEmpty()) {
+      emitter.append("<defs>\n");
+      for (SharedTimeline timeline : shared) {
+        CompactSVG.appendTimeline(timeline.shape, timeline.id, emitter);
+        flushIfFull(emitter, output);
+      }
+      emitter.append("</defs>\n");
+    }
+    for (int i = 0; i < this.shapes.size(); i++) {
+      IShape shape = this.shapes.get(i);
+      SharedTimeline timeline = timelineOf.get(i);
+      if (timeline.id == null) {
+        CompactSVG.appendShape(shape, emitter);
+      } else {
+        shape.appendSVGUse(emitter, timeline.id);
+      }
+      flushIfFull(emitter, output);
+    }
+    appendSVGFooter(emitter);
+  }
 
-      output += shape.toStringSVG(thisAppearMS, thisDisappearMS);
+  /**
+   * Appends this Animation, formatted for output as HTML: the keyframes of every IShape, then the
+   * element of every IShape, in order.
+   *
+   * @param emitter the Emitter to append to.
+   * @param output the Appendable to write the Emitter to as it fills, or null.
+   * @throws IOException if writing to the output fails.
+   */
+  private void appendHTML(Emitter emitter, Appendable output) throws IOException {
+    KeyframesHTML.appendHead(emitter);
+    for (int i = 0; i < this.shapes.size(); i++) {
+      KeyframesHTML.appendKeyframes(this.shapes.get(i), i, emitter);
+      flushIfFull(emitter, output);
+    }
+    KeyframesHTML.appendBody(this.getMaxX(), this.getMaxY(), emitter);
+    for (int i = 0; i < this.shapes.size(); i++) {
+      KeyframesHTML.appendElement(this.shapes.get(i), i, emitter);
+      flushIfFull(emitter, output);
+    }
+    KeyframesHTML.appendFooter(emitter);
+  }
 
-      for (ITransformation transformation : this.transformations) {
-        if (transformation.getShapeName().equals(shape.getName())) {
-          float thisStartMS = transformation.getStart() / speed * 1000;
-          float thisEndMS = transformation.getEnd() / speed * 1000;
+  /**
+   * Appends the opening of the SVG format for an IAnimation, sized to fit all of its IShapes.
+   *
+   * @param animation the IAnimation being written.
+   * @param output the Emitter to append to.
+   */
+  static void appendSVGHeader(IAnimation animation, Emitter output) {
+    // these values auto-adjust
+    appendSVGHeader(animation.getMaxX(), animation.getMaxY(), output);
+  }
 
-          output += "  " + transformation.toStringSVG(thisStartMS, thisEndMS);
-        }
-      }
-      output += shape.toStringSVGClose();
+  /**
+   * Appends the opening of the SVG format, of the given size.
+   *
+   * @param animationWidth the largest x coordinate touched by the IAnimation.
+   * @param animationHeight the largest y coordinate touched by the IAnimation.
+   * @param output the Emitter to append to.
+   */
+  private static void appendSVGHeader(float animationWidth, float animationHeight,
+      Emitter output) {
+    output.append("<svg width=\"").appendFixed1(animationWidth).append("\" height=\"")
+        .appendFixed1(animationHeight).append("\" version=\"1.1\"")
+        .append(" xmlns=\"http://www.w3.org/2000/svg\"> \n");
+  }
+
+  /**
+   * Appends one IShape and its ITransformations in the SVG format, with times in ticks. Depends
+   * on nothing but the IShape, so IShapes may be written concurrently into separate Emitters.
+   *
+   * @param shape the IShape to write.
+   * @param output the Emitter to append to, which converts or records the times.
+   */
+  static void appendSVGShape(IShape shape, Emitter output) {
+    shape.appendSVG(output, shape.getAppear(), shape.getDisappear());
+
+    // the Shape's own list holds exactly its Transformations, sorted by start
+    for (ITransformation transformation : shape.getTransformations()) {
+      output.append("  ");
+      transformation.appendSVG(output, transformation.getStart(), transformation.getEnd());
+    }
+    shape.appendSVGClose(output);
+  }
+
+  /**
+   * Writes the Emitter to the output once it holds enough to be worth a write, so that a large
+   * IAnimation is written in pieces of about the same size.
+   *
+   * @param emitter the Emitter being filled.
+   * @param output the Appendable to write to, or null if the Emitter keeps everything.
+   * @throws IOException if writing to the output fails.
+   */
+  private static void flushIfFull(Emitter emitter, Appendable output) throws IOException {
+    if (output != null && emitter.length() >= FLUSH_THRESHOLD) {
+      emitter.writeTo(output);
     }
+  }
 
-    output += "</svg>";
-    return output;
+  /**
+   * Appends the closing of the SVG format.
+   *
+   * @param output the Emitter to append to.
+   */
+  static void appendSVGFooter(Emitter output) {
+    output.append("</svg>");
   }
 
+
   /**
    * Mainly used for testing. Redirects to generating a text animation at speed = 1.
    *
@@ -239,7 +685,7 @@ public class Animation implements IAnimation {
    */
   @Override
   public String toString() {
-    return this.generateText(1);
+    return this.generate(OutputType.TEXT, 1);
   }
 
   /**
@@ -298,6 +744,36 @@ public class Animation implements IAnimation {
     return lastTick;
   }
 
+  /**
+   * Gets every color the IShapes of this IAnimation are drawn in, as packed RGB values, found from
+   * their color timelines rather than from rendered frames: the color each IShape starts in, and
+   * each color it takes, tick by tick, during each of its color changes. A tick whose tweened
+   * color is out of range is skipped, as generateFrame skips the IShape at that tick.
+   *
+   * @return the distinct colors, in the order they were found.
+   */
+  public int[] getColors() {
+    Set<Integer> colors = new LinkedHashSet<>();
+    for (IShape shape : this.shapes) {
+      colors.add(shape.getColor().toRGB());
+      IRenderableShape base = RenderableFactory.makeRenderableShape(shape.getType(), 0, 0, 0, 0,
+          shape.getColor());
+      for (ITransformation transformation : shape.getTransformations()) {
+        if (transformation.getType() != TransformType.COLOR) {
+          continue;
+        }
+        for (int tick = (int) transformation.getStart(); tick <= transformation.getEnd(); tick++) {
+          try {
+            colors.add(transformation.tween(base, shape.getType(), tick).getColor().toRGB());
+          } catch (IllegalArgumentException e) {
+            // the IShape is left out of this tick's frame, which reports it
+          }
+        }
+      }
+    }
+    return colors.stream().mapToInt(Integer::intValue).toArray();
+  }
+
   /**
    * Generates a list of shapes to be rendered at any given tick. Checks every IShape, applies
    * tweening if it's being transformed at the given tick, and creates a new IRenderableShape with
@@ -330,4 +806,178 @@ public class Animation implements IAnimation {
     }
     return renderableShapes;
   }
-}
\ No newline at end of file
+
+  /**
+   * Generates the list of shapes to be rendered at any given tick which meet an area of the
+   * canvas, in the order generateFrame(tick) lists them. Only IShapes which may meet the area at
+   * some point are tweened, so the time taken depends on how much is in the area rather than how
+   * much is in the whole IAnimation. They are found in a SpatialGrid of the bounds each IShape
+   * sweeps over its life, built on first use and again whenever this Animation changes.
+   *
+   * <p>Between the ticks at which an IShape appears, or one of its ITransformations starts or
+   * finishes, its place and size change linearly or not at all, so the bounds it is drawn with
+   * at those ticks, and the ticks just before them, hold those it is drawn with at every tick but
+   * for rounding. They are grown by two pixels on every side to allow for that.
+   *
+   * @param tick an arbitrary unit of animation time.
+   * @param area the area of the canvas to generate shapes for.
+   * @return a list of IRenderableShapes (read only) whose bounds meet the area.
+   * @throws IllegalArgumentException if tick < 0 or greater than lastTick
+   * @throws NullPointerException if area is null.
+   */
+  public List<IRenderableShape> generateFrame(int tick, Rectangle area)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(area);
+    if (tick < 0) {
+      throw new IllegalArgumentException("tick cannot be less than zero");
+    }
+    if (this.frameIndex == null || this.frameIndexModCount != this.modCount) {
+      this.buildFrameIndex();
+    }
+    if (tick >= this.frameIndexLastTick) {
+      throw new IllegalArgumentException(
+          "generateFrame() will not render a tick greater than or equal to the last tick");
+    }
+
+    BitSet candidates = new BitSet(this.shapes.size());
+    this.frameIndex.query(area, candidates);
+    List<IRenderableShape> renderableShapes = new ArrayList<>();
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      IShape shape = this.shapes.get(i);
+      if (shape.isActive(tick)) {
+        try {
+          IRenderableShape renderableShape = shape.generateFrame(tick);
+          if (renderableShape.getBounds().intersects(area)) {
+            renderableShapes.add(renderableShape);
+          }
+        } catch (Exception e) {
+          System.err.println(e.getMessage());
+        }
+      }
+    }
+    return renderableShapes;
+  }
+
+  /**
+   * Indexes the bounds each IShape sweeps over its life in a SpatialGrid over the canvas, and
+   * notes the last tick, as of the current modCount.
+   */
+  private void buildFrameIndex() {
+    SpatialGrid index = new SpatialGrid((int) this.getMaxX(), (int) this.getMaxY(),
+        FRAME_INDEX_CELL_SIZE);
+    for (int i = 0; i < this.shapes.size(); i++) {
+      IShape shape = this.shapes.get(i);
+      int first = Math.max(0, (int) Math.ceil(shape.getAppear()));
+      int last = (int) Math.ceil(shape.getDisappear()) - 1;
+      if (last < first) {
+        continue;
+      }
+      List<Integer> ticks = new ArrayList<>();
+      ticks.add(first);
+      ticks.add(last);
+      for (ITransformation transformation : shape.getTransformations()) {
+        for (float change : new float[] {transformation.getStart(), transformation.getEnd()}) {
+          int tick = (int) Math.ceil(change);
+          ticks.add(Math.max(first, Math.min(last, tick - 1)));
+          ticks.add(Math.max(first, Math.min(last, tick)));
+        }
+      }
+      Rectangle swept = null;
+      for (int tick : new LinkedHashSet<>(ticks)) {
+        try {
+          Rectangle bounds = shape.generateFrame(tick).getBounds();
+          swept = swept == null ? bounds : swept.union(bounds);
+        } catch (Exception e) {
+          // generateFrame() reports it when the tick is drawn
+          swept = new Rectangle(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE,
+              Integer.MAX_VALUE);
+          break;
+        }
+      }
+      swept.grow(2, 2);
+      index.insert(i, swept);
+    }
+    this.frameIndex = index;
+    this.frameIndexLastTick = this.lastTick();
+    this.frameIndexModCount = this.modCount;
+  }
+
+  /**
+   * A Transformation added to an Animation that defers validation, along with where it came from
+   * and, once validated, why it was rejected.
+   */
+  private static class PendingTransformation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ITransformation transformation;
+    private final IShape shape;
+    private final int sourceLine;
+    private final int order;
+    private String violation;
+
+    /**
+     * Creates a new PendingTransformation.
+     *
+     * @param transformation the Transformation.
+     * @param shape the IShape it applies to, or null if there is none.
+     * @param sourceLine the line of the input it was read from, or 0 if unknown.
+     * @param order the number of Transformations added before it since the last validation.
+     */
+    PendingTransformation(ITransformation transformation, IShape shape, int sourceLine,
+        int order) {
+      this.transformation = transformation;
+      this.shape = shape;
+      this.sourceLine = sourceLine;
+      this.order = order;
+    }
+  }
+
+  /**
+   * The SVG template of one IShape, and the version of the IShape it was recorded from. Also
+   * keeps the largest coordinates the IShape touches, which the opening of the SVG depends on.
+   */
+  private static class ShapeFragment {
+
+    private final IShape shape;
+    private final int version;
+    private final float maxX;
+    private final float maxY;
+    private final Emitter template;
+
+    /**
+     * Records the SVG template of the given IShape as it is now.
+     *
+     * @param shape the IShape.
+     */
+    ShapeFragment(IShape shape) {
+      this.shape = shape;
+      this.version = shape.getVersion();
+      this.maxX = shape.getMaxXCoord();
+      this.maxY = shape.getMaxYCoord();
+      this.template = Emitter.recording(true, 512);
+      appendSVGShape(shape, this.template);
+      this.template.trimToSize();
+    }
+  }
+
+  /**
+   * A timeline in the compact SVG format, the first IShape found with it, and how many IShapes
+   * have it. A timeline is given an id if more than one IShape has it.
+   */
+  private static class SharedTimeline {
+
+    private final IShape shape;
+    private int uses;
+    private String id;
+
+    /**
+     * Creates a new SharedTimeline, not yet used.
+     *
+     * @param shape the first IShape with the timeline.
+     */
+    SharedTimeline(IShape shape) {
+      this.shape = shape;
+    }
+  }
+}
@@ -1,10 +1,14 @@
 package cs5004.animator.model;
 
+import java.io.Serializable;
+
 /**
  * A class representing a Color. Contains three float values for red, green, and blue, ranging from
  * 0-100.
  */
-public class Color {
+public class Color implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private final float red;
   private final float green;
@@ -60,6 +64,17 @@ public class Color {
     return this.blue;
   }
 
+  /**
+   * Gets this Color as it is drawn: each value scaled to 0-255 and rounded, packed into an int as
+   * red, green and blue bytes, from the most significant.
+   *
+   * @return the packed RGB value.
+   */
+  public int toRGB() {
+    return Math.round(this.red / 100 * 255) << 16 | Math.round(this.green / 100 * 255) << 8
+        | Math.round(this.blue / 100 * 255);
+  }
+
   /**
    * Displays the values of the Color as a String.
    *
@@ -67,6 +82,28 @@ public class Color {
    */
   @Override
   public String toString() {
-    return String.format("(%.1f,%.1f,%.1f)", red, green, blue);
+    Emitter output = new Emitter(32);
+    this.appendTo(output);
+    return output.toString();
+  }
+
+  /**
+   * Appends the values of the Color, as they appear in toString.
+   *
+   * @param output the Emitter to append to.
+   */
+  public void appendTo(Emitter output) {
+    output.append('(').appendFixed1(this.red).append(',').appendFixed1(this.green).append(',')
+        .appendFixed1(this.blue).append(')');
+  }
+
+  /**
+   * Appends the values of the Color as an SVG fill, in percent.
+   *
+   * @param output the Emitter to append to.
+   */
+  public void appendSVG(Emitter output) {
+    output.append("rgb(").appendFixed1(this.red).append("%,").appendFixed1(this.green)
+        .append("%,").appendFixed1(this.blue).append("%)");
   }
 }
\ No newline at end of file
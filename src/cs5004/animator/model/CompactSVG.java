@@ -0,0 +1,191 @@
+package cs5004.animator.model;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes IShapes in the compact SVG format, which renders the same as the SVG format in fewer
+ * tags. A move is a single animateMotion, translating the IShape from its own position, rather
+ * than one animate for each coordinate. A run of ITransformations of the same type, each starting
+ * from the value the one before ended at, becomes a single tag with a list of values and the
+ * fraction of the run at which each one is reached. Between two ITransformations of a run the value
+ * is simply held, as freezing the first would hold it.
+ */
+
+final class CompactSVG {
+
+  /**
+   * This class only holds static methods.
+   */
+  private CompactSVG() {
+  }
+
+  /**
+   * Appends one IShape and its ITransformations in the compact SVG format, with times in ticks.
+   *
+   * @param shape the IShape to write.
+   * @param output the Emitter to append to, which converts or records the times.
+   */
+  static void appendShape(IShape shape, Emitter output) {
+    shape.appendSVG(output, shape.getAppear(), shape.getDisappear());
+    appendTransformations(shape, output);
+    shape.appendSVGClose(output);
+  }
+
+  /**
+   * Appends the timeline of one IShape in the compact SVG format, with times in ticks: the IShape
+   * at the origin, without a fill, and its ITransformations. As moves are relative to the
+   * IShape's own position, IShapes with the same timeline differ only in position and fill, and
+   * may all be drawn from one copy of it.
+   *
+   * @param shape the IShape whose timeline to write.
+   * @param id the id of the timeline, or the empty String to write it without one.
+   * @param output the Emitter to append to, which converts or records the times.
+   */
+  static void appendTimeline(IShape shape, String id, Emitter output) {
+    shape.appendSVGShared(output, id, shape.getAppear(), shape.getDisappear());
+    appendTransformations(shape, output);
+    shape.appendSVGClose(output);
+  }
+
+  /**
+   * Appends the ITransformations of one IShape in the compact SVG format. Each run of
+   * ITransformations is written where its first ITransformation starts, once for each value it
+   * animates.
+   *
+   * @param shape the IShape whose ITransformations to write.
+   * @param output the Emitter to append to, which converts or records the times.
+   */
+  private static void appendTransformations(IShape shape, Emitter output) {
+    // the Shape's own list holds exactly its Transformations, sorted by start
+    List<ITransformation> transformations = shape.getTransformations();
+    int count = transformations.size();
+    int[] next = new int[count];
+    Map<TransformType, Integer> last = new EnumMap<>(TransformType.class);
+    for (int i = count - 1; i >= 0; i--) {
+      Integer following = last.put(transformations.get(i).getType(), i);
+      next[i] = following == null ? -1 : following;
+    }
+
+    // bit v of continued[i] is set once value v of i has been written in an earlier run
+    int[] continued = new int[count];
+    Emitter ended = new Emitter(32);
+    Emitter started = new Emitter(32);
+    for (int i = 0; i < count; i++) {
+      ITransformation head = transformations.get(i);
+      for (int value = 0; value < head.getSVGValueCount(); value++) {
+        if ((continued[i] & (1 << value)) != 0) {
+          continue;
+        }
+        int tail = i;
+        while (continues(transformations, next, tail, value, shape, ended, started)) {
+          tail = next[tail];
+          continued[tail] |= 1 << value;
+        }
+        output.append("  ");
+        appendRun(transformations, next, i, tail, value, shape, output);
+      }
+    }
+  }
+
+  /**
+   * Determines whether a run of ITransformations may carry on past one ITransformation: the next
+   * of the same type must start from the value it ends at, and neither may take no time, so that
+   * every fraction of the run is distinct.
+   *
+   * @param transformations the ITransformations of the IShape, sorted by start.
+   * @param next the index of the next ITransformation of the same type, or -1 for each.
+   * @param index the index of the ITransformation the run has reached.
+   * @param value the index of the value the run animates.
+   * @param shape the IShape being written.
+   * @param ended an Emitter to write the value the ITransformation ends at into.
+   * @param started an Emitter to write the value the next ITransformation starts at into.
+   * @return true if the next ITransformation carries on the run, false otherwise.
+   */
+  private static boolean continues(List<ITransformation> transformations, int[] next, int index,
+      int value, IShape shape, Emitter ended, Emitter started) {
+    if (next[index] < 0) {
+      return false;
+    }
+    ITransformation current = transformations.get(index);
+    ITransformation following = transformations.get(next[index]);
+    if (following.getStart() < current.getEnd() || current.getEnd() <= current.getStart()
+        || following.getEnd() <= following.getStart()) {
+      return false;
+    }
+    ended.clear();
+    started.clear();
+    current.appendSVGValue(ended, value, true, shape);
+    following.appendSVGValue(started, value, false, shape);
+    return ended.contentEquals(started);
+  }
+
+  /**
+   * Appends the tag for one run of ITransformations. A run of one is written with from and to, as
+   * the SVG format writes it, and a longer run with values and keyTimes, repeating the value held
+   * over each gap between ITransformations.
+   *
+   * @param transformations the ITransformations of the IShape, sorted by start.
+   * @param next the index of the next ITransformation of the same type, or -1 for each.
+   * @param head the index of the first ITransformation of the run.
+   * @param tail the index of the last ITransformation of the run.
+   * @param value the index of the value the run animates.
+   * @param shape the IShape being written.
+   * @param output the Emitter to append to.
+   */
+  private static void appendRun(List<ITransformation> transformations, int[] next, int head,
+      int tail, int value, IShape shape, Emitter output) {
+    ITransformation first = transformations.get(head);
+    String attribute = first.getSVGAttribute(value);
+    if (attribute == null) {
+      output.append("<animateMotion ");
+    } else {
+      output.append("<animate attributeName=\"").append(attribute)
+          .append("\" attributeType=\"CSS\" ");
+    }
+
+    if (head == tail) {
+      output.append("from=\"");
+      first.appendSVGValue(output, value, false, shape);
+      output.append("\" to=\"");
+      first.appendSVGValue(output, value, true, shape);
+    } else {
+      output.append("values=\"");
+      first.appendSVGValue(output, value, false, shape);
+      for (int i = head, previous = -1; i != next[tail]; previous = i, i = next[i]) {
+        ITransformation transformation = transformations.get(i);
+        if (previous >= 0 && transformation.getStart() > transformations.get(previous).getEnd()) {
+          output.append(';');
+          transformation.appendSVGValue(output, value, false, shape);
+        }
+        output.append(';');
+        transformation.appendSVGValue(output, value, true, shape);
+      }
+      // fractions of the run in ticks, which are the same at every speed
+      double start = first.getStart();
+      double length = transformations.get(tail).getEnd() - start;
+      output.append("\" keyTimes=\"0");
+      for (int i = head, previous = -1; i != next[tail]; previous = i, i = next[i]) {
+        ITransformation transformation = transformations.get(i);
+        if (previous >= 0 && transformation.getStart() > transformations.get(previous).getEnd()) {
+          output.append(';').appendFraction((transformation.getStart() - start) / length);
+        }
+        output.append(';');
+        if (i == tail) {
+          output.append('1');
+        } else {
+          output.appendFraction((transformation.getEnd() - start) / length);
+        }
+      }
+      if (attribute == null) {
+        // motion is otherwise paced, which would ignore keyTimes
+        output.append("\" calcMode=\"linear");
+      }
+    }
+
+    float end = transformations.get(tail).getEnd();
+    output.append("\" begin=\"").appendTime(first.getStart()).append("ms\" dur=\"")
+        .appendDuration(first.getStart(), end).append("ms\" fill=\"freeze\" />\n");
+  }
+}
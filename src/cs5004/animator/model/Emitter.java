@@ -0,0 +1,493 @@
+package cs5004.animator.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A growable buffer of characters that the Text and SVG formats are written into. Numbers are
+ * written straight into the buffer, without the Strings and Formatters of String.format, so that
+ * writing a large IAnimation allocates almost nothing. appendFixed1 gives the same characters as
+ * String.format("%.1f"), and appendInt the same as String.format("%d"). Numbers always use '.' as
+ * the decimal separator, whatever the default Locale. An Emitter is not thread safe, but separate
+ * Emitters may be written concurrently.
+ *
+ * <p>Times are appended through appendTime and appendDuration, in ticks, and converted to seconds
+ * or milliseconds at the speed given to setTimeScale; until then they are written unchanged. A
+ * recording Emitter instead leaves a slot for each time, so that what it holds can be replayed at
+ * any speed, converting only the times.
+ */
+
+public final class Emitter {
+
+  private static final int DEFAULT_CAPACITY = 256;
+  // above this, or when the tenths land too near a half to trust a double, use the slow path
+  private static final double FAST_LIMIT = 1e9;
+  private static final double HALF_TOLERANCE = 1e-4;
+
+  private char[] buffer;
+  private int length;
+  // 0 if times are written unchanged
+  private int speed;
+  private boolean millis;
+  // only used while recording: where each time goes, and the ticks it is made from
+  private final boolean recording;
+  private int[] slotPositions;
+  private float[] slotStarts;
+  private float[] slotEnds;
+  private int slotCount;
+
+  /**
+   * Creates a new, empty Emitter.
+   */
+  public Emitter() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new, empty Emitter with room for the given number of characters before it grows.
+   *
+   * @param capacity the initial number of characters this Emitter can hold.
+   * @throws IllegalArgumentException if capacity <= 0.
+   */
+  public Emitter(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than 0");
+    }
+    this.buffer = new char[capacity];
+    this.recording = false;
+  }
+
+  /**
+   * Creates a new, empty Emitter which records a slot for each time rather than writing it.
+   *
+   * @param millis true if the times should be replayed in milliseconds, false for seconds.
+   */
+  private Emitter(boolean millis, int capacity) {
+    this.buffer = new char[capacity];
+    this.millis = millis;
+    this.recording = true;
+    this.slotPositions = new int[8];
+    this.slotStarts = new float[8];
+    this.slotEnds = new float[8];
+  }
+
+  /**
+   * Creates a new, empty Emitter which records a slot for each time rather than writing it, to be
+   * replayed later at any speed.
+   *
+   * @param millis true if the times should be replayed in milliseconds, false for seconds.
+   * @return the recording Emitter.
+   */
+  public static Emitter recording(boolean millis) {
+    return new Emitter(millis, 1 << 16);
+  }
+
+  /**
+   * Creates a new, empty Emitter which records a slot for each time rather than writing it, with
+   * room for the given number of characters before it grows.
+   *
+   * @param millis true if the times should be replayed in milliseconds, false for seconds.
+   * @param capacity the initial number of characters the Emitter can hold.
+   * @return the recording Emitter.
+   * @throws IllegalArgumentException if capacity <= 0.
+   */
+  public static Emitter recording(boolean millis, int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than 0");
+    }
+    return new Emitter(millis, capacity);
+  }
+
+  /**
+   * Shrinks the buffers of this Emitter to fit what it holds, for an Emitter that is kept but no
+   * longer appended to.
+   */
+  public void trimToSize() {
+    this.buffer = Arrays.copyOf(this.buffer, Math.max(this.length, 1));
+    if (this.recording) {
+      this.slotPositions = Arrays.copyOf(this.slotPositions, Math.max(this.slotCount, 1));
+      this.slotStarts = Arrays.copyOf(this.slotStarts, Math.max(this.slotCount, 1));
+      this.slotEnds = Arrays.copyOf(this.slotEnds, Math.max(this.slotCount, 1));
+    }
+  }
+
+  /**
+   * Sets how times appended from now on are converted from ticks.
+   *
+   * @param speed the number of ticks per second.
+   * @param millis true to write times in milliseconds, false for seconds.
+   * @throws IllegalArgumentException if speed <= 0.
+   * @throws IllegalStateException if this Emitter is recording.
+   */
+  public void setTimeScale(int speed, boolean millis)
+      throws IllegalArgumentException, IllegalStateException {
+    if (speed <= 0) {
+      throw new IllegalArgumentException("speed must be greater than 0");
+    }
+    if (this.recording) {
+      throw new IllegalStateException("a recording Emitter has no speed");
+    }
+    this.speed = speed;
+    this.millis = millis;
+  }
+
+  /**
+   * Appends the given text.
+   *
+   * @param text the text to append.
+   * @return this Emitter.
+   * @throws NullPointerException if text is null.
+   */
+  public Emitter append(String text) throws NullPointerException {
+    int count = text.length();
+    this.ensure(count);
+    text.getChars(0, count, this.buffer, this.length);
+    this.length += count;
+    return this;
+  }
+
+  /**
+   * Appends a single character.
+   *
+   * @param c the character to append.
+   * @return this Emitter.
+   */
+  public Emitter append(char c) {
+    this.ensure(1);
+    this.buffer[this.length++] = c;
+    return this;
+  }
+
+  /**
+   * Appends part of an array of characters.
+   *
+   * @param chars the characters.
+   * @param offset the index of the first character to append.
+   * @param count the number of characters to append.
+   * @return this Emitter.
+   */
+  public Emitter append(char[] chars, int offset, int count) {
+    this.ensure(count);
+    System.arraycopy(chars, offset, this.buffer, this.length, count);
+    this.length += count;
+    return this;
+  }
+
+  /**
+   * Appends a time, converted from ticks at the current time scale, with one decimal place.
+   *
+   * @param time the time in ticks, or already converted if no time scale has been set.
+   * @return this Emitter.
+   */
+  public Emitter appendTime(float time) {
+    if (this.recording) {
+      return this.addSlot(time, Float.NaN);
+    }
+    return this.appendFixed1(this.convert(time));
+  }
+
+  /**
+   * Appends the time between two times, each converted from ticks at the current time scale
+   * before they are subtracted, with one decimal place.
+   *
+   * @param start the earlier time in ticks, or already converted if no time scale has been set.
+   * @param end the later time in ticks, or already converted if no time scale has been set.
+   * @return this Emitter.
+   */
+  public Emitter appendDuration(float start, float end) {
+    if (this.recording) {
+      return this.addSlot(start, end);
+    }
+    return this.appendFixed1(this.convert(end) - this.convert(start));
+  }
+
+  /**
+   * Appends what this recording Emitter holds to another Emitter, converting each recorded time
+   * at the given speed, and writing the other Emitter to the output each time it fills up.
+   *
+   * @param speed the number of ticks per second.
+   * @param target the Emitter to append to, whose time scale is set to the given speed.
+   * @param output the Appendable to write the target to when it holds flushAt characters.
+   * @param flushAt the number of characters at which the target is written.
+   * @throws IllegalStateException if this Emitter is not recording.
+   * @throws IOException if writing to the output fails.
+   */
+  public void replay(int speed, Emitter target, Appendable output, int flushAt)
+      throws IllegalStateException, IOException {
+    if (!this.recording) {
+      throw new IllegalStateException("only a recording Emitter can be replayed");
+    }
+    target.setTimeScale(speed, this.millis);
+    int from = 0;
+    for (int slot = 0; slot < this.slotCount; slot++) {
+      int position = this.slotPositions[slot];
+      target.append(this.buffer, from, position - from);
+      from = position;
+      if (Float.isNaN(this.slotEnds[slot])) {
+        target.appendTime(this.slotStarts[slot]);
+      } else {
+        target.appendDuration(this.slotStarts[slot], this.slotEnds[slot]);
+      }
+      if (target.length >= flushAt) {
+        target.writeTo(output);
+      }
+    }
+    target.append(this.buffer, from, this.length - from);
+  }
+
+  /**
+   * Appends a whole number, as String.format("%d") would.
+   *
+   * @param value the number to append.
+   * @return this Emitter.
+   */
+  public Emitter appendInt(long value) {
+    if (value == Long.MIN_VALUE) {
+      return this.append(Long.toString(value));
+    }
+    this.ensure(20);
+    if (value < 0) {
+      this.buffer[this.length++] = '-';
+      value = -value;
+    }
+    int end = this.length + digits(value);
+    int position = end;
+    do {
+      this.buffer[--position] = (char) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    this.length = end;
+    return this;
+  }
+
+  /**
+   * Appends a number with one digit after the decimal point, as String.format("%.1f") would.
+   * Halves are rounded away from zero, on the shortest decimal form of the number, so a float
+   * must be passed as it is rather than converted to a double by hand.
+   *
+   * @param value the number to append.
+   * @return this Emitter.
+   */
+  public Emitter appendFixed1(double value) {
+    if (Double.isNaN(value)) {
+      return this.append("NaN");
+    }
+    if (Double.isInfinite(value)) {
+      return this.append(value > 0 ? "Infinity" : "-Infinity");
+    }
+    double magnitude = Math.abs(value);
+    if (magnitude < FAST_LIMIT) {
+      double scaled = magnitude * 10;
+      long tenths = (long) scaled;
+      double fraction = scaled - tenths;
+      if (Math.abs(fraction - 0.5) > HALF_TOLERANCE) {
+        if (fraction > 0.5) {
+          tenths++;
+        }
+        if (Double.compare(value, 0.0) < 0) {
+          this.append('-');
+        }
+        this.appendInt(tenths / 10);
+        return this.append('.').append((char) ('0' + tenths % 10));
+      }
+    }
+    // rare: a (near) exact half, or a huge number, which only the Formatter rounds faithfully
+    return this.append(String.format(Locale.ROOT, "%.1f", value));
+  }
+
+  /**
+   * Appends a fraction between 0 and 1 with at most six decimal places, and no trailing zeros.
+   *
+   * @param fraction the fraction to append.
+   * @return this Emitter.
+   * @throws IllegalArgumentException if fraction is not between 0 and 1.
+   */
+  public Emitter appendFraction(double fraction) throws IllegalArgumentException {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("fraction must be between 0 and 1");
+    }
+    return this.appendDecimal(Math.round(fraction * 1_000_000), 6);
+  }
+
+  /**
+   * Appends a fraction between 0 and 1 as a percentage, with at most four decimal places, no
+   * trailing zeros, and a percent sign.
+   *
+   * @param fraction the fraction to append.
+   * @return this Emitter.
+   * @throws IllegalArgumentException if fraction is not between 0 and 1.
+   */
+  public Emitter appendPercent(double fraction) throws IllegalArgumentException {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("fraction must be between 0 and 1");
+    }
+    return this.appendDecimal(Math.round(fraction * 1_000_000), 4).append('%');
+  }
+
+  /**
+   * Determines whether another Emitter holds the same characters as this one.
+   *
+   * @param other the other Emitter.
+   * @return true if both hold the same characters, false otherwise.
+   */
+  public boolean contentEquals(Emitter other) {
+    return Arrays.equals(this.buffer, 0, this.length, other.buffer, 0, other.length);
+  }
+
+  /**
+   * Gets the number of characters in this Emitter.
+   *
+   * @return the number of characters.
+   */
+  public int length() {
+    return this.length;
+  }
+
+  /**
+   * Empties this Emitter, keeping its buffer for reuse.
+   */
+  public void clear() {
+    this.length = 0;
+    this.slotCount = 0;
+  }
+
+  /**
+   * Writes the contents of this Emitter to the given output, and empties this Emitter.
+   *
+   * @param output the Appendable to write to.
+   * @throws NullPointerException if output is null.
+   * @throws IllegalStateException if this Emitter is recording.
+   * @throws IOException if writing to the output fails.
+   */
+  public void writeTo(Appendable output)
+      throws NullPointerException, IllegalStateException, IOException {
+    Objects.requireNonNull(output);
+    if (this.recording) {
+      throw new IllegalStateException("a recording Emitter can only be replayed");
+    }
+    if (output instanceof Writer) {
+      ((Writer) output).write(this.buffer, 0, this.length);
+    } else if (output instanceof StringBuilder) {
+      ((StringBuilder) output).append(this.buffer, 0, this.length);
+    } else {
+      output.append(CharBuffer.wrap(this.buffer, 0, this.length));
+    }
+    this.length = 0;
+  }
+
+  /**
+   * Gets the contents of this Emitter.
+   *
+   * @return a String of the characters in this Emitter.
+   */
+  @Override
+  public String toString() {
+    return new String(this.buffer, 0, this.length);
+  }
+
+  /**
+   * Converts a time from ticks at the current time scale, exactly as the formats always have.
+   *
+   * @param time the time in ticks.
+   * @return the time in seconds or milliseconds, or unchanged if no time scale has been set.
+   */
+  private float convert(float time) {
+    if (this.speed == 0) {
+      return time;
+    }
+    return this.millis ? time / this.speed * 1000 : time / this.speed;
+  }
+
+  /**
+   * Records a slot for a time at the end of this recording Emitter.
+   *
+   * @param start the time, or the start of the duration, in ticks.
+   * @param end the end of the duration in ticks, or NaN if the slot is a single time.
+   * @return this Emitter.
+   */
+  private Emitter addSlot(float start, float end) {
+    if (this.slotCount == this.slotPositions.length) {
+      int capacity = this.slotCount * 2;
+      this.slotPositions = Arrays.copyOf(this.slotPositions, capacity);
+      this.slotStarts = Arrays.copyOf(this.slotStarts, capacity);
+      this.slotEnds = Arrays.copyOf(this.slotEnds, capacity);
+    }
+    this.slotPositions[this.slotCount] = this.length;
+    this.slotStarts[this.slotCount] = start;
+    this.slotEnds[this.slotCount] = end;
+    this.slotCount++;
+    return this;
+  }
+
+  /**
+   * Makes room for the given number of characters after those already in this Emitter.
+   *
+   * @param count the number of characters about to be appended.
+   */
+  private void ensure(int count) {
+    if (this.length + count > this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2,
+          this.length + count));
+    }
+  }
+
+  /**
+   * Appends a number which is not negative, given as a whole number of a power of ten's parts,
+   * without trailing zeros after the decimal point, or the point if nothing follows it.
+   *
+   * @param scaled the number times 10 to the power of decimals.
+   * @param decimals the number of decimal places in scaled.
+   * @return this Emitter.
+   */
+  private Emitter appendDecimal(long scaled, int decimals) {
+    long unit = pow10(decimals);
+    this.appendInt(scaled / unit);
+    long rest = scaled % unit;
+    if (rest == 0) {
+      return this;
+    }
+    int digits = decimals;
+    while (rest % 10 == 0) {
+      rest /= 10;
+      digits--;
+    }
+    this.append('.');
+    for (int i = digits - 1; i > 0 && rest < pow10(i); i--) {
+      this.append('0');
+    }
+    return this.appendInt(rest);
+  }
+
+  /**
+   * Raises 10 to a small power.
+   *
+   * @param exponent the power, at least 0.
+   * @return 10 to the power of exponent.
+   */
+  private static long pow10(int exponent) {
+    long result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= 10;
+    }
+    return result;
+  }
+
+  /**
+   * Counts the decimal digits of a number.
+   *
+   * @param value a number >= 0.
+   * @return the number of digits needed to write it.
+   */
+  private static int digits(long value) {
+    int count = 1;
+    while (value >= 10) {
+      value /= 10;
+      count++;
+    }
+    return count;
+  }
+}
@@ -1,5 +1,7 @@
 package cs5004.animator.model;
 
+import java.awt.Rectangle;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -23,6 +25,21 @@ public interface IAnimation {
    */
   void addTransformation(ITransformation transformation);
 
+  /**
+   * Adds a Transformation to this Animation, recording the line of the input it was read from.
+   *
+   * @param transformation an instance of an object implementing the ITransformation interface.
+   * @param sourceLine the line of the input the Transformation was read from, or 0 if unknown.
+   */
+  void addTransformation(ITransformation transformation, int sourceLine);
+
+  /**
+   * Validates any Transformations whose validation was deferred, keeping the valid ones.
+   *
+   * @return a message for every rejected Transformation, empty if none were rejected.
+   */
+  List<String> validate();
+
   /**
    * Gets the IShapes contained by this Animation.
    *
@@ -39,6 +56,27 @@ public interface IAnimation {
    */
   String generate(OutputType outputType, int speed);
 
+  /**
+   * Writes this Animation to the given output, formatted to the specification of the OutputType,
+   * and according to the given speed. Writes the same characters generate(outputType, speed)
+   * returns, without holding them all in memory.
+   *
+   * @param outputType an enum containing the desired format of the output.
+   * @param speed an integer containing the desired number of ticks per second in the output.
+   * @param output the Appendable to write to.
+   * @throws IOException if writing to the output fails.
+   */
+  void generate(OutputType outputType, int speed, Appendable output) throws IOException;
+
+  /**
+   * Sets whether this IAnimation keeps a speed-independent template of each format it generates,
+   * so that generating the same format again, at any speed, only has to fill in the times. The
+   * templates are discarded whenever the IAnimation changes.
+   *
+   * @param cacheOutput true to keep templates, false to generate from scratch every time.
+   */
+  void setOutputCaching(boolean cacheOutput);
+
   /**
    * Gets the largest x coordinate touched by this IAnimation. Used to set a background
    *
@@ -70,6 +108,17 @@ public interface IAnimation {
    */
   List<IRenderableShape> generateFrame(int tick);
 
+  /**
+   * Generates the list of shapes to be rendered at any given tick which meet an area of the
+   * canvas, such as the part of it visible in a window, in the order generateFrame(tick) lists
+   * them.
+   *
+   * @param tick an arbitrary unit of animation time.
+   * @param area the area of the canvas to generate shapes for.
+   * @return a list of IRenderableShapes (read only) whose bounds meet the area.
+   */
+  List<IRenderableShape> generateFrame(int tick, Rectangle area);
+
   /**
    * Gets the last tick of this IAnimation, which is the time when the last IShape disappears.
    * Useful for terminating
@@ -77,4 +126,11 @@ public interface IAnimation {
    * @return int the last tick of this IAnimation.
    */
   public int lastTick();
+
+  /**
+   * Gets every color the IShapes of this IAnimation are drawn in, as packed RGB values.
+   *
+   * @return the distinct colors.
+   */
+  int[] getColors();
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package cs5004.animator.model;
 
+import cs5004.animator.util.IntRaster;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 
 /**
  * An Interface representing a Shape that can be easily rendered in an IAnimation. IRenderableShapes
@@ -18,6 +21,45 @@ public interface IRenderableShape {
    */
   void drawSelf(Graphics graphics);
 
+  /**
+   * Fills this IRenderableShape straight into the pixels of an IntRaster, covering the pixels
+   * drawSelf would. By default it draws itself through a Graphics of the IntRaster, so any
+   * IRenderableShape may be rasterized; plain rectangles and ellipses fill their spans directly.
+   *
+   * @param raster the IntRaster to fill.
+   */
+  default void rasterize(IntRaster raster) {
+    Graphics2D graphics = raster.createGraphics();
+    try {
+      this.drawSelf(graphics);
+    } finally {
+      graphics.dispose();
+    }
+  }
+
+  /**
+   * Gets the rectangle of the animation outside of which this IRenderableShape covers no pixels,
+   * when drawn or rasterized. By default nothing is known of where it draws, so the bounds cover
+   * every canvas; plain rectangles and ellipses know their own.
+   *
+   * @return the bounds, which may be empty if the IRenderableShape covers no pixels.
+   */
+  default Rectangle getBounds() {
+    return new Rectangle(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE,
+        Integer.MAX_VALUE);
+  }
+
+  /**
+   * Whether this IRenderableShape paints every pixel of its bounds, so that nothing painted before
+   * it shows through anywhere within them. Every color is opaque, so this holds for plain
+   * rectangles; by default it does not.
+   *
+   * @return true if every pixel of the bounds is painted.
+   */
+  default boolean fillsBounds() {
+    return false;
+  }
+
   /**
    * Get the x coordinate of this IRenderableShape.
    *
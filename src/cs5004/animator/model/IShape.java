@@ -1,5 +1,7 @@
 package cs5004.animator.model;
 
+import java.util.List;
+
 /**
  * An interface representing a Shape, such as a Rectangle or Circle. Shapes have a name, a Color,
  * some basic position with x and y coordinates, an appearing time, and a disappearing time.
@@ -28,6 +30,29 @@ public interface IShape {
    */
   String getName();
 
+  /**
+   * Gets the id of the name of this Shape, in the symbol table of the IAnimation it was added to.
+   *
+   * @return the id, or -1 if this Shape has not been added to an IAnimation.
+   */
+  int getId();
+
+  /**
+   * Gets the version of this IShape, which changes every time an ITransformation is added to it.
+   * Anything derived from the IShape may be kept for as long as its version stays the same.
+   *
+   * @return the version.
+   */
+  int getVersion();
+
+  /**
+   * Sets the id of the name of this Shape. Called by the IAnimation this Shape is added to, which
+   * is then the only one it may be added to.
+   *
+   * @param id the id of the name in the IAnimation's symbol table.
+   */
+  void setId(int id);
+
   /**
    * Gets the time at which this Shape appears.
    *
@@ -102,6 +127,14 @@ public interface IShape {
    */
   void addTransformation(ITransformation transformation);
 
+  /**
+   * Gets the ITransformations applying to this IShape, sorted by start time, and otherwise in the
+   * order they were added.
+   *
+   * @return a read-only List of ITransformations.
+   */
+  List<ITransformation> getTransformations();
+
   /**
    * Represents this Shape as a String in the Text format.
    *
@@ -123,6 +156,54 @@ public interface IShape {
    */
   String toStringSVGClose();
 
+  /**
+   * Appends this Shape in the Text format, exactly as toStringText would give it. Times are
+   * appended with appendTime, so the Emitter may convert them from ticks, or record them.
+   *
+   * @param output the Emitter to append to.
+   * @param thisAppear the time at which this Shape should appear.
+   * @param thisDisappear the time at which this Shape should disappear.
+   */
+  void appendText(Emitter output, float thisAppear, float thisDisappear);
+
+  /**
+   * Appends this Shape in the SVG format, exactly as toStringSVG would give it. Times are appended
+   * with appendTime and appendDuration, so the Emitter may convert them from ticks, or record them.
+   *
+   * @param output the Emitter to append to.
+   * @param thisAppear the time at which this Shape should appear.
+   * @param thisDisappear the time at which this Shape should disappear.
+   */
+  void appendSVG(Emitter output, float thisAppear, float thisDisappear);
+
+  /**
+   * Appends an opening tag for a timeline in the SVG format which this IShape shares with others
+   * alike, followed by the tag to make it appear and disappear. The timeline is placed at the
+   * origin and has no fill, so that each use of it gives the position and fill of its own IShape.
+   *
+   * @param output the Emitter to append to.
+   * @param id the id of the timeline.
+   * @param thisAppear the time at which the timeline should appear.
+   * @param thisDisappear the time at which the timeline should disappear.
+   */
+  void appendSVGShared(Emitter output, String id, float thisAppear, float thisDisappear);
+
+  /**
+   * Appends a tag in the SVG format which draws this IShape from a shared timeline, at this
+   * IShape's position and with its fill.
+   *
+   * @param output the Emitter to append to.
+   * @param id the id of the timeline.
+   */
+  void appendSVGUse(Emitter output, String id);
+
+  /**
+   * Appends a closing tag for use in an SVG output, exactly as toStringSVGClose would give it.
+   *
+   * @param output the Emitter to append to.
+   */
+  void appendSVGClose(Emitter output);
+
   /**
    * Represents this IShape at the given tick. Depending on the tick, applies the relevant
    * ITransformation (including tweening) and returns a read-only IRenderableShape.
@@ -25,6 +25,58 @@ public interface ITransformation extends Comparable<ITransformation> {
    */
   String toStringSVG(float thisStart, float thisEnd);
 
+  /**
+   * Appends this ITransformation in the Text format, exactly as toStringText would give it. Times
+   * are appended with appendTime, so the Emitter may convert them from ticks, or record them.
+   *
+   * @param output the Emitter to append to.
+   * @param thisStart the time at which to render this Transformation's start.
+   * @param thisEnd the time at which to render this Transformation's end.
+   */
+  void appendText(Emitter output, float thisStart, float thisEnd);
+
+  /**
+   * Appends this ITransformation in the SVG format, exactly as toStringSVG would give it. Times
+   * are appended with appendTime and appendDuration, so the Emitter may convert them from ticks,
+   * or record them.
+   *
+   * @param output the Emitter to append to.
+   * @param thisStart the time at which to render this Transformation's start.
+   * @param thisEnd the time at which to render this Transformation's end.
+   */
+  void appendSVG(Emitter output, float thisStart, float thisEnd);
+
+  /**
+   * Gets the number of values this ITransformation animates in the compact SVG format: one for a
+   * move, which animates the position as a whole, and one for each attribute otherwise.
+   *
+   * @return the number of values.
+   */
+  int getSVGValueCount();
+
+  /**
+   * Gets the name of the SVG attribute one of the values of this ITransformation animates.
+   *
+   * @param value the index of the value, less than getSVGValueCount.
+   * @return the name of the attribute, or null if the value is the position of the IShape, which
+   *         is animated by motion rather than by attribute.
+   * @throws IllegalArgumentException if there is no such value.
+   */
+  String getSVGAttribute(int value) throws IllegalArgumentException;
+
+  /**
+   * Appends one of the values of this ITransformation, at its start or its end, in the compact SVG
+   * format. A position is appended as the x and y distances from the IShape's own position.
+   *
+   * @param output the Emitter to append to.
+   * @param value the index of the value, less than getSVGValueCount.
+   * @param end true for the value at the end, false for the value at the start.
+   * @param shape the IShape this ITransformation applies to.
+   * @throws IllegalArgumentException if there is no such value.
+   */
+  void appendSVGValue(Emitter output, int value, boolean end, IShape shape)
+      throws IllegalArgumentException;
+
   /**
    * Gets the type of ITransformation this is.
    *
@@ -53,6 +105,22 @@ public interface ITransformation extends Comparable<ITransformation> {
    */
   String getShapeName();
 
+  /**
+   * Gets the id of the name of the IShape this ITransformation applies to, in the symbol table of
+   * the IAnimation it was added to.
+   *
+   * @return the id, or -1 if this ITransformation has not been added to an IAnimation.
+   */
+  int getShapeId();
+
+  /**
+   * Sets the id of the name of the IShape this ITransformation applies to. Called by the
+   * IAnimation this ITransformation is added to, which is then the only one it may be added to.
+   *
+   * @param shapeId the id of the name in the IAnimation's symbol table.
+   */
+  void setShapeId(int shapeId);
+
   /**
    * Returns the maximum x coordinate which this ITransformation touches.
    *
@@ -0,0 +1,167 @@
+package cs5004.animator.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes IShapes in the HTML format: an SVG animated with CSS keyframes rather than SMIL. Each
+ * IShape is drawn at unit size, and placed and sized by a CSS transform, so that a browser may run
+ * its movement and scaling on the compositor, without layout or repaint. It is shown only while
+ * its animation runs, by opacity. Only IShapes which change color animate their fill, which does
+ * need a repaint.
+ *
+ * <p>Each IShape has a keyframe at every tick at which it appears, disappears, or one of its
+ * ITransformations starts or ends, holding the frame the IShape gives for that tick. There is also
+ * a keyframe at the tick before each ITransformation starts, so that a value the IShape holds is
+ * held until then, rather than drifting towards where the ITransformation starts from. Between
+ * these ticks every value changes linearly or not at all, so the browser's linear interpolation
+ * between keyframes follows the frames the IShape gives, but for their rounding to whole pixels.
+ */
+
+final class KeyframesHTML {
+
+  /**
+   * This class only holds static methods.
+   */
+  private KeyframesHTML() {
+  }
+
+  /**
+   * Appends the start of the HTML format, up to the keyframes of the IShapes: hides every IShape
+   * until its animation runs, and makes transforms apply from the origin.
+   *
+   * @param output the Emitter to append to.
+   */
+  static void appendHead(Emitter output) {
+    output.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<style>\n")
+        .append("svg > * { opacity: 0; transform-box: view-box; transform-origin: 0 0; }\n");
+  }
+
+  /**
+   * Appends the end of the style, after the keyframes, and the opening of the SVG, of the given
+   * size.
+   *
+   * @param animationWidth the largest x coordinate touched by the IAnimation.
+   * @param animationHeight the largest y coordinate touched by the IAnimation.
+   * @param output the Emitter to append to.
+   */
+  static void appendBody(float animationWidth, float animationHeight, Emitter output) {
+    output.append("</style>\n</head>\n<body>\n<svg width=\"").appendFixed1(animationWidth)
+        .append("\" height=\"").appendFixed1(animationHeight)
+        .append("\" version=\"1.1\" xmlns=\"http://www.w3.org/2000/svg\">\n");
+  }
+
+  /**
+   * Appends the closing of the HTML format.
+   *
+   * @param output the Emitter to append to.
+   */
+  static void appendFooter(Emitter output) {
+    output.append("</svg>\n</body>\n</html>\n");
+  }
+
+  /**
+   * Appends the keyframes of one IShape, named after its index. Percentages are of the IShape's
+   * lifetime in ticks, which are the same at every speed. Nothing is appended for an IShape which
+   * disappears as soon as it appears. A keyframe whose tick the IShape cannot be generated at, as
+   * when a color change tweens past the range of a channel, is left out and reported, as
+   * Animation.generateFrame leaves the IShape out of that tick's frame.
+   *
+   * @param shape the IShape.
+   * @param index the index of the IShape in its IAnimation.
+   * @param output the Emitter to append to.
+   */
+  static void appendKeyframes(IShape shape, int index, Emitter output) {
+    int appear = (int) shape.getAppear();
+    int disappear = (int) shape.getDisappear();
+    if (disappear <= appear) {
+      return;
+    }
+    List<ITransformation> transformations = shape.getTransformations();
+    boolean colorChanges = false;
+    int[] ticks = new int[transformations.size() * 3 + 2];
+    int count = 0;
+    ticks[count++] = appear;
+    ticks[count++] = disappear;
+    for (ITransformation transformation : transformations) {
+      ticks[count++] = clamp((int) transformation.getStart() - 1, appear, disappear);
+      ticks[count++] = clamp((int) transformation.getStart(), appear, disappear);
+      ticks[count++] = clamp((int) transformation.getEnd(), appear, disappear);
+      colorChanges |= transformation.getType() == TransformType.COLOR;
+    }
+    Arrays.sort(ticks);
+
+    output.append("@keyframes k").appendInt(index).append(" {\n");
+    for (int i = 0; i < count; i++) {
+      if (i > 0 && ticks[i] == ticks[i - 1]) {
+        continue;
+      }
+      IRenderableShape frame;
+      try {
+        frame = shape.generateFrame(ticks[i]);
+      } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage());
+        continue;
+      }
+      output.appendPercent((double) (ticks[i] - appear) / (disappear - appear))
+          .append(" { transform: translate(").appendInt(frame.getX()).append("px, ")
+          .appendInt(frame.getY()).append("px) scale(").appendFixed1(frame.getXSize())
+          .append(", ").appendFixed1(frame.getYSize()).append(')');
+      if (colorChanges) {
+        output.append("; fill: ");
+        frame.getColor().appendSVG(output);
+      }
+      if (ticks[i] == appear || ticks[i] == disappear) {
+        output.append("; opacity: 1");
+      }
+      output.append(" }\n");
+    }
+    output.append("}\n");
+  }
+
+  /**
+   * Appends the element of one IShape, at unit size and with its own fill, running its keyframes
+   * from when it appears until it disappears, with times in ticks.
+   *
+   * @param shape the IShape.
+   * @param index the index of the IShape in its IAnimation.
+   * @param output the Emitter to append to, which converts or records the times.
+   */
+  static void appendElement(IShape shape, int index, Emitter output) {
+    switch (shape.getType()) {
+      case RECTANGLE:
+        output.append("<rect id=\"").append(shape.getName())
+            .append("\" width=\"1\" height=\"1\" fill=\"");
+        break;
+      case OVAL:
+        output.append("<ellipse id=\"").append(shape.getName())
+            .append("\" rx=\"1\" ry=\"1\" fill=\"");
+        break;
+      case CIRCLE:
+        output.append("<circle id=\"").append(shape.getName()).append("\" r=\"1\" fill=\"");
+        break;
+      default:
+        throw new IllegalArgumentException("failed to turn IShape into HTML");
+    }
+    shape.getColor().appendSVG(output);
+    output.append('"');
+    if (shape.getDisappear() > shape.getAppear()) {
+      output.append(" style=\"animation: k").appendInt(index).append(' ')
+          .appendDuration(shape.getAppear(), shape.getDisappear()).append("ms linear ")
+          .appendTime(shape.getAppear()).append("ms\"");
+    }
+    output.append(" />\n");
+  }
+
+  /**
+   * Clamps a tick to an IShape's lifetime.
+   *
+   * @param tick the tick.
+   * @param appear the tick at which the IShape appears.
+   * @param disappear the tick at which the IShape disappears.
+   * @return the tick, moved into the lifetime if it is outside it.
+   */
+  private static int clamp(int tick, int appear, int disappear) {
+    return Math.max(appear, Math.min(disappear, tick));
+  }
+}
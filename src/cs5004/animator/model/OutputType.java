@@ -2,8 +2,14 @@ package cs5004.animator.model;
 
 /**
  * An enum class representing the different kinds of output available to generate IAnimations for.
- * New output types must be added here.
+ * New output types must be added here. SVGZ is SVG compressed in the gzip format, which is binary,
+ * so it can only be written to a stream, not generated as a String. SVG_COMPACT renders the same
+ * as SVG, in fewer and shorter tags. SVG_DEDUP is compact SVG in which IShapes sharing the same
+ * timeline are drawn from a single copy of it. HTML is an SVG animated by CSS keyframes. PNG is
+ * every frame as an image file, rendered without a window, so it is not generated as a String.
+ * RGB24, RGBA and Y4M are every frame as uncompressed video, for an external encoder. GIF is an
+ * animated GIF, also rendered without a window.
  */
 public enum OutputType {
-  TEXT, SVG, VISUAL
+  TEXT, SVG, VISUAL, SVGZ, SVG_COMPACT, SVG_DEDUP, HTML, PNG, RGB24, RGBA, Y4M, GIF
 }
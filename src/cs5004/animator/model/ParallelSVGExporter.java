@@ -0,0 +1,188 @@
+package cs5004.animator.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes an IAnimation in the SVG format, encoded as UTF-8, using several threads. Each IShape's
+ * part of the SVG depends only on the IShape, so runs of IShapes are rendered on a pool of worker
+ * threads into reusable byte buffers. The buffers are written to the output in the order of the
+ * IShapes, so the output is identical to IAnimation.generate(OutputType.SVG, speed). Only a
+ * bounded number of runs are rendered ahead of the output, so memory does not grow with the size
+ * of the IAnimation. An exporter keeps its pool for every export it makes, and may make several at
+ * once; threads left idle for a while exit, and are started again when next needed.
+ */
+
+public class ParallelSVGExporter {
+
+  private static final int SHAPES_PER_TASK = 256;
+  private static final int TASKS_PER_THREAD = 4;
+  private static final long IDLE_SECONDS = 30;
+
+  private final int threads;
+  private final ThreadPoolExecutor pool;
+
+  /**
+   * Creates a new ParallelSVGExporter.
+   *
+   * @param threads the number of worker threads to render with.
+   * @throws IllegalArgumentException if threads <= 0.
+   */
+  public ParallelSVGExporter(int threads) throws IllegalArgumentException {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be greater than 0");
+    }
+    this.threads = threads;
+    this.pool = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "svg-export");
+          thread.setDaemon(true);
+          return thread;
+        });
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Writes the IAnimation to the given stream in the SVG format. The stream is flushed but not
+   * closed.
+   *
+   * @param animation the IAnimation to write.
+   * @param speed the speed in ticks per second to generate output for.
+   * @param out the stream to write to.
+   * @throws IllegalArgumentException if speed <= 0.
+   * @throws NullPointerException if animation or out is null.
+   * @throws IOException if writing to the stream fails, or the export is interrupted.
+   */
+  public void export(IAnimation animation, int speed, OutputStream out)
+      throws IllegalArgumentException, NullPointerException, IOException {
+    Objects.requireNonNull(animation);
+    Objects.requireNonNull(out);
+    if (speed <= 0) {
+      throw new IllegalArgumentException("speed must be greater than 0");
+    }
+    List<IShape> shapes = animation.getShapes();
+
+    Fragment header = new Fragment();
+    Animation.appendSVGHeader(animation, header.emitter);
+    header.encode().writeTo(out);
+
+    // buffers are only taken and returned on this thread, so the pool needs no locking
+    Deque<Fragment> free = new ArrayDeque<>();
+    Deque<Future<Fragment>> inFlight = new ArrayDeque<>();
+    int window = this.threads * TASKS_PER_THREAD;
+    try {
+      for (int first = 0; first < shapes.size(); first += SHAPES_PER_TASK) {
+        if (inFlight.size() == window) {
+          free.push(writeNext(inFlight, out));
+        }
+        Fragment fragment = free.isEmpty() ? new Fragment() : free.pop();
+        List<IShape> run = shapes.subList(first, Math.min(first + SHAPES_PER_TASK, shapes.size()));
+        inFlight.add(this.pool.submit(() -> fragment.render(run, speed)));
+      }
+      while (!inFlight.isEmpty()) {
+        writeNext(inFlight, out);
+      }
+    } finally {
+      // only left over if writing failed; the pool is shared, so just this export's runs stop
+      for (Future<Fragment> future : inFlight) {
+        future.cancel(true);
+      }
+    }
+
+    Fragment footer = new Fragment();
+    Animation.appendSVGFooter(footer.emitter);
+    footer.encode().writeTo(out);
+    out.flush();
+  }
+
+  /**
+   * Waits for the oldest run in flight to be rendered, and writes it to the stream.
+   *
+   * @param inFlight the runs being rendered, oldest first.
+   * @param out the stream to write to.
+   * @return the buffer the run was rendered into, free to be reused.
+   * @throws IOException if writing to the stream fails, or the wait is interrupted.
+   */
+  private static Fragment writeNext(Deque<Future<Fragment>> inFlight, OutputStream out)
+      throws IOException {
+    Fragment fragment;
+    try {
+      fragment = inFlight.remove().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("SVG export was interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException("failed rendering SVG: " + cause);
+    }
+    fragment.writeTo(out);
+    return fragment;
+  }
+
+  /**
+   * A reusable byte buffer holding the SVG of a run of IShapes, encoded as UTF-8.
+   */
+  private static class Fragment extends ByteArrayOutputStream {
+
+    private final Writer writer;
+    private final Emitter emitter;
+
+    /**
+     * Creates a new, empty Fragment.
+     */
+    Fragment() {
+      super(1 << 16);
+      this.writer = new OutputStreamWriter(this, StandardCharsets.UTF_8);
+      this.emitter = new Emitter(1 << 16);
+    }
+
+    /**
+     * Replaces the contents of this Fragment with the SVG of the given IShapes.
+     *
+     * @param shapes the IShapes to render, in order.
+     * @param speed the speed in ticks per second to generate output for.
+     * @return this Fragment.
+     * @throws IOException never, as the buffer does not fail.
+     */
+    Fragment render(List<IShape> shapes, int speed) throws IOException {
+      this.reset();
+      this.emitter.setTimeScale(speed, true);
+      for (IShape shape : shapes) {
+        Animation.appendSVGShape(shape, this.emitter);
+      }
+      return this.encode();
+    }
+
+    /**
+     * Encodes what has been appended to this Fragment's Emitter into its bytes.
+     *
+     * @return this Fragment.
+     * @throws IOException never, as the buffer does not fail.
+     */
+    Fragment encode() throws IOException {
+      this.emitter.writeTo(this.writer);
+      this.writer.flush();
+      return this;
+    }
+  }
+}
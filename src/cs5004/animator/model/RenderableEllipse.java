@@ -1,6 +1,8 @@
 package cs5004.animator.model;
 
+import cs5004.animator.util.IntRaster;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 
 /**
  * An extension of the RenderableShape abstract class that represents an Ellipse. It will draw both
@@ -36,12 +38,32 @@ public class RenderableEllipse extends RenderableShape {
     int yDiameter = (int) ySize * 2;
     int xAdjusted = (int) (x - xSize);
     int yAdjusted = (int) (y - ySize);
-    int red = Math.round(this.color.getRed() / 100 * 255);
-    int green = Math.round(this.color.getGreen() / 100 * 255);
-    int blue = Math.round(this.color.getBlue() / 100 * 255);
-    graphics.setColor(new java.awt.Color(red, green, blue));
+    graphics.setColor(new java.awt.Color(this.color.toRGB()));
     graphics.drawOval(xAdjusted, yAdjusted, xDiameter, yDiameter);
     graphics.fillOval(xAdjusted, yAdjusted, xDiameter, yDiameter);
   }
 
+  /**
+   * Fills this ellipse straight into an IntRaster, covering about the pixels drawSelf would.
+   *
+   * @param raster the IntRaster to fill.
+   */
+  @Override
+  public void rasterize(IntRaster raster) {
+    raster.fillOval((int) (x - xSize), (int) (y - ySize), (int) xSize * 2, (int) ySize * 2,
+        this.color.toRGB());
+  }
+
+  /**
+   * Gets the pixels of the rectangle this ellipse is drawn within, one more across and down than
+   * its diameters.
+   *
+   * @return the bounds.
+   */
+  @Override
+  public Rectangle getBounds() {
+    return new Rectangle((int) (x - xSize), (int) (y - ySize), (int) xSize * 2 + 1,
+        (int) ySize * 2 + 1);
+  }
+
 }
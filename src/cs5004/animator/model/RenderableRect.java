@@ -1,6 +1,8 @@
 package cs5004.animator.model;
 
+import cs5004.animator.util.IntRaster;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 
 /**
  * An extension of the RenderableShape abstract class that represents an Ellipse. It will draw both
@@ -30,12 +32,39 @@ public class RenderableRect extends RenderableShape {
   public void drawSelf(Graphics graphics) {
     int intWidth = (int) xSize;
     int intHeight = (int) ySize;
-    int red = Math.round(this.color.getRed() / 100 * 255);
-    int green = Math.round(this.color.getGreen() / 100 * 255);
-    int blue = Math.round(this.color.getBlue() / 100 * 255);
-    graphics.setColor(new java.awt.Color(red,green,blue));
+    graphics.setColor(new java.awt.Color(this.color.toRGB()));
     graphics.drawRect(x,y,intWidth,intHeight);
     graphics.fillRect(x,y,intWidth,intHeight);
   }
 
+  /**
+   * Fills this rectangle straight into an IntRaster, covering the pixels drawSelf would.
+   *
+   * @param raster the IntRaster to fill.
+   */
+  @Override
+  public void rasterize(IntRaster raster) {
+    raster.fillRect(x, y, (int) xSize, (int) ySize, this.color.toRGB());
+  }
+
+  /**
+   * Gets the pixels this rectangle covers, one more across and down than its size.
+   *
+   * @return the bounds.
+   */
+  @Override
+  public Rectangle getBounds() {
+    return new Rectangle(x, y, (int) xSize + 1, (int) ySize + 1);
+  }
+
+  /**
+   * A rectangle paints every pixel of its bounds in one opaque color.
+   *
+   * @return true.
+   */
+  @Override
+  public boolean fillsBounds() {
+    return true;
+  }
+
 }
@@ -38,8 +38,52 @@ public abstract class RenderableShape implements IRenderableShape {
    */
   @Override
   public String toString() {
-    return String.format("Shape %d,%d, w %.1f, h %.1f, color %s\n", x, y, xSize, ySize,
-        color.toString());
+    Emitter output = new Emitter(64);
+    output.append("Shape ").appendInt(x).append(',').appendInt(y).append(", w ")
+        .appendFixed1(xSize).append(", h ").appendFixed1(ySize).append(", color ");
+    color.appendTo(output);
+    return output.append('\n').toString();
+  }
+
+  /**
+   * Determines whether another object is a RenderableShape of the same kind, at the same place,
+   * of the same size and color, so that the two draw exactly the same pixels.
+   *
+   * @param other the object to compare to.
+   * @return true if the two are equal.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || other.getClass() != this.getClass()) {
+      return false;
+    }
+    RenderableShape shape = (RenderableShape) other;
+    return this.x == shape.x && this.y == shape.y
+        && Float.compare(this.xSize, shape.xSize) == 0
+        && Float.compare(this.ySize, shape.ySize) == 0
+        && Float.compare(this.color.getRed(), shape.color.getRed()) == 0
+        && Float.compare(this.color.getGreen(), shape.color.getGreen()) == 0
+        && Float.compare(this.color.getBlue(), shape.color.getBlue()) == 0;
+  }
+
+  /**
+   * Gets a hash code of this RenderableShape, consistent with equals.
+   *
+   * @return the hash code.
+   */
+  @Override
+  public int hashCode() {
+    int hash = this.getClass().getName().hashCode();
+    hash = 31 * hash + this.x;
+    hash = 31 * hash + this.y;
+    hash = 31 * hash + Float.floatToIntBits(this.xSize);
+    hash = 31 * hash + Float.floatToIntBits(this.ySize);
+    hash = 31 * hash + Float.floatToIntBits(this.color.getRed());
+    hash = 31 * hash + Float.floatToIntBits(this.color.getGreen());
+    return 31 * hash + Float.floatToIntBits(this.color.getBlue());
   }
 
   /**
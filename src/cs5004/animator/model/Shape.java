@@ -1,18 +1,24 @@
 package cs5004.animator.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * An abstract class representing a Shape with a name, a color, an appearing time, and a
  * disappearing time. Implemented as actual Shapes by subclasses. Shapes store ITransformations that
- * apply to them in a list.
+ * apply to them in a list, kept sorted by start time.
  */
 
-public abstract class Shape implements IShape {
+public abstract class Shape implements IShape, Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   protected final String name;
+  protected int id;
+  protected int version;
   protected final Color color;
   protected float appear;
   protected float disappear;
@@ -37,12 +43,22 @@ public abstract class Shape implements IShape {
       throw new IllegalArgumentException("Shape cannot disappear before it appears.");
     }
     this.name = name.toUpperCase();
+    this.id = -1;
     this.color = color;
     this.appear = appear;
     this.disappear = disappear;
     this.transformations = new ArrayList<>();
   }
 
+  /**
+   * Gets the version of this Shape, which changes every time an ITransformation is added to it.
+   *
+   * @return the version.
+   */
+  public int getVersion() {
+    return this.version;
+  }
+
   /**
    * Gets the type of this Shape.
    *
@@ -70,6 +86,24 @@ public abstract class Shape implements IShape {
     return this.name;
   }
 
+  /**
+   * Gets the id of the name of this Shape, in the symbol table of the IAnimation it was added to.
+   *
+   * @return the id, or -1 if this Shape has not been added to an IAnimation.
+   */
+  public int getId() {
+    return this.id;
+  }
+
+  /**
+   * Sets the id of the name of this Shape.
+   *
+   * @param id the id of the name in the IAnimation's symbol table.
+   */
+  public void setId(int id) {
+    this.id = id;
+  }
+
   /**
    * Gets the time at which this Shape appears.
    *
@@ -135,8 +169,8 @@ public abstract class Shape implements IShape {
   }
 
   /**
-   * Adds an ITransformation to this Shape's list of ITransformations. It must apply to this
-   * IShape.
+   * Adds an ITransformation to this Shape's list of ITransformations, after every one that starts
+   * at or before the same time. It must apply to this IShape.
    *
    * @param transformation an ITransformation applying to this Shape.
    * @throws NullPointerException if object is null.
@@ -145,11 +179,39 @@ public abstract class Shape implements IShape {
   public void addTransformation(ITransformation transformation)
       throws IllegalArgumentException, NullPointerException {
     Objects.requireNonNull(transformation);
-    if (!transformation.getShapeName().equals(this.name)) {
+    boolean sameShape = this.id >= 0 && transformation.getShapeId() >= 0
+        ? transformation.getShapeId() == this.id
+        : transformation.getShapeName().equals(this.name);
+    if (!sameShape) {
       throw new IllegalArgumentException(
           "error adding ITransformation to this Shape; name must be the same as Shape");
     }
-    this.transformations.add(transformation);
+    this.version++;
+    int high = this.transformations.size();
+    if (high == 0 || this.transformations.get(high - 1).compareTo(transformation) <= 0) {
+      this.transformations.add(transformation);
+      return;
+    }
+    int low = 0;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.transformations.get(middle).compareTo(transformation) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    this.transformations.add(low, transformation);
+  }
+
+  /**
+   * Gets the ITransformations applying to this Shape, sorted by start time, and otherwise in the
+   * order they were added.
+   *
+   * @return a read-only List of ITransformations.
+   */
+  public List<ITransformation> getTransformations() {
+    return Collections.unmodifiableList(this.transformations);
   }
 
   /**
@@ -185,4 +247,112 @@ public abstract class Shape implements IShape {
 
     return renderableShape;
   }
-}
\ No newline at end of file
+
+  /**
+   * Represents this Shape as a String in the Text format.
+   *
+   * @param thisAppear the adjusted time at which this Shape should appear.
+   * @param thisDisappear the adjusted time at which this Shape should disappear.
+   * @return a String containing this Shape's values formatted for Text output.
+   */
+  public String toStringText(float thisAppear, float thisDisappear) {
+    Emitter output = new Emitter();
+    this.appendText(output, thisAppear, thisDisappear);
+    return output.toString();
+  }
+
+  /**
+   * Produces an opening tag for this Shape in the SVG format, as well as an animation tag to make
+   * the Shape appear and disappear at a certain time.
+   *
+   * @param thisAppear the time in milliseconds at which this Shape should appear.
+   * @param thisDisappear the time in milliseconds at which this Shape should disappear.
+   * @return a String containing this Shape's values formatted for SVG output.
+   */
+  public String toStringSVG(float thisAppear, float thisDisappear) {
+    Emitter output = new Emitter();
+    this.appendSVG(output, thisAppear, thisDisappear);
+    return output.toString();
+  }
+
+  /**
+   * Creates a closing tag for use in an SVG output.
+   *
+   * @return a String containing a correct SVG closing tag.
+   */
+  public String toStringSVGClose() {
+    Emitter output = new Emitter(16);
+    this.appendSVGClose(output);
+    return output.toString();
+  }
+
+  /**
+   * Appends an opening tag for this Shape in the SVG format, as well as an animation tag to make
+   * the Shape appear and disappear at a certain time.
+   *
+   * @param output the Emitter to append to.
+   * @param thisAppear the time in milliseconds at which this Shape should appear.
+   * @param thisDisappear the time in milliseconds at which this Shape should disappear.
+   */
+  public void appendSVG(Emitter output, float thisAppear, float thisDisappear) {
+    this.appendSVGOpen(output, this.name, false);
+    output.append("fill=\"");
+    this.color.appendSVG(output);
+    output.append("\" ");
+    this.appendSVGVisibility(output, thisAppear, thisDisappear);
+  }
+
+  /**
+   * Appends an opening tag for a timeline shared by this Shape and others alike, placed at the
+   * origin and without a fill, so that each use of it gives the position and fill.
+   *
+   * @param output the Emitter to append to.
+   * @param id the id of the timeline.
+   * @param thisAppear the time in milliseconds at which the timeline should appear.
+   * @param thisDisappear the time in milliseconds at which the timeline should disappear.
+   */
+  public void appendSVGShared(Emitter output, String id, float thisAppear, float thisDisappear) {
+    this.appendSVGOpen(output, id, true);
+    this.appendSVGVisibility(output, thisAppear, thisDisappear);
+  }
+
+  /**
+   * Appends a use tag which draws this Shape from a shared timeline, at this Shape's position and
+   * with its fill.
+   *
+   * @param output the Emitter to append to.
+   * @param id the id of the timeline.
+   */
+  public void appendSVGUse(Emitter output, String id) {
+    output.append("<use id=\"").append(this.name).append("\" href=\"#").append(id)
+        .append("\" x=\"").appendInt(Math.round(this.getXCoord())).append("\" y=\"")
+        .appendInt(Math.round(this.getYCoord())).append("\" fill=\"");
+    this.color.appendSVG(output);
+    output.append("\" />\n");
+  }
+
+  /**
+   * Appends the start of an opening tag for this Shape in the SVG format: its id, position and
+   * dimensions.
+   *
+   * @param output the Emitter to append to.
+   * @param id the id of the tag.
+   * @param atOrigin true to place the tag at the origin, rather than at this Shape's position.
+   */
+  protected abstract void appendSVGOpen(Emitter output, String id, boolean atOrigin);
+
+  /**
+   * Appends the end of an opening SVG tag, after the Shape's dimensions and fill: hidden until it
+   * appears, and the tag which makes it appear and disappear at a certain time.
+   *
+   * @param output the Emitter to append to.
+   * @param thisAppear the time in milliseconds at which this Shape should appear.
+   * @param thisDisappear the time in milliseconds at which this Shape should disappear.
+   */
+  protected void appendSVGVisibility(Emitter output, float thisAppear, float thisDisappear) {
+    output.append("visibility=\"hidden\" >\n");
+    output.append("  <set attributeName=\"visibility\" attributeType=\"CSS\" "
+        + "to=\"visible\" begin=\"").appendTime(thisAppear).append("ms\" duration=\"")
+        .appendDuration(thisAppear, thisDisappear).append("ms\" fill=\"freeze\" />\n");
+  }
+}
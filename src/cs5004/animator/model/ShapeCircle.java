@@ -9,6 +9,8 @@ import java.util.Objects;
 
 public class ShapeCircle extends Shape {
 
+  private static final long serialVersionUID = 1L;
+
   private final Point2D.Double center;
   private final double radius;
 
@@ -38,52 +40,43 @@ public class ShapeCircle extends Shape {
   }
 
   /**
-   * Represents this Shape as a String in the Text format.
+   * Appends this Shape in the Text format.
    *
+   * @param output the Emitter to append to.
    * @param thisAppear the adjusted time at which this Shape should appear.
    * @param thisDisappear the adjusted time at which this Shape should disappear.
-   * @return a String containing this Shape's values formatted for Text output.
    */
-  public String toStringText(float thisAppear, float thisDisappear) {
-    return String.format("Name: %s\nType: circle\nCenter: (%.1f,%.1f), Radius: %.1f,"
-            + " Color: %s\nAppears at t=%.1fs\nDisappears at t=%.1fs\n",
-        this.name, this.center.x, this.center.y,
-        this.radius, this.color.toString(), thisAppear, thisDisappear);
+  public void appendText(Emitter output, float thisAppear, float thisDisappear) {
+    output.append("Name: ").append(this.name).append("\nType: circle\nCenter: (")
+        .appendFixed1(this.center.x).append(',').appendFixed1(this.center.y)
+        .append("), Radius: ").appendFixed1(this.radius).append(", Color: ");
+    this.color.appendTo(output);
+    output.append("\nAppears at t=").appendTime(thisAppear).append("s\nDisappears at t=")
+        .appendTime(thisDisappear).append("s\n");
   }
 
   /**
-   * Produces an opening tag for this Shape in the SVG format, as well as an animation tag to make
-   * the Shape appear and disappear at a certain time.
+   * Appends the start of an opening tag for this Shape in the SVG format: its id, position and
+   * dimensions.
    *
-   * @param thisAppear the time in milliseconds at which this Shape should appear.
-   * @param thisDisappear the time in milliseconds at which this Shape should disappear.
-   * @return a String containing this Shape's values formatted for SVG output.
+   * @param output the Emitter to append to.
+   * @param id the id of the tag.
+   * @param atOrigin true to place the tag at the origin, rather than at this Shape's position.
    */
-  public String toStringSVG(float thisAppear, float thisDisappear) {
-    String openTag = String.format(
-        "<circle id=\"%s\" cx=\"%d\" cy=\"%d\" r=\"%d\" "
-            + "fill=\"rgb(%.1f%%,%.1f%%,%.1f%%)\" visibility=\"hidden\" >\n",
-        this.name,
-        Math.round(this.center.x),
-        Math.round(this.center.y),
-        Math.round(this.radius),
-        this.color.getRed(),
-        this.color.getGreen(),
-        this.color.getBlue());
-    float duration = thisDisappear - thisAppear;
-    String setVisible = String.format("  <set attributeName=\"visibility\" attributeType=\"CSS\" "
-            + "to=\"visible\" begin=\"%.1fms\" duration=\"%.1fms\" fill=\"freeze\" />\n",
-        thisAppear, duration);
-    return openTag + setVisible;
+  protected void appendSVGOpen(Emitter output, String id, boolean atOrigin) {
+    output.append("<circle id=\"").append(id)
+        .append("\" cx=\"").appendInt(atOrigin ? 0 : Math.round(this.center.x))
+        .append("\" cy=\"").appendInt(atOrigin ? 0 : Math.round(this.center.y))
+        .append("\" r=\"").appendInt(Math.round(this.radius)).append("\" ");
   }
 
   /**
-   * Creates a closing tag for use in an SVG output.
+   * Appends a closing tag for use in an SVG output.
    *
-   * @return a String containing a correct SVG closing tag.
+   * @param output the Emitter to append to.
    */
-  public String toStringSVGClose() {
-    return "</circle>\n";
+  public void appendSVGClose(Emitter output) {
+    output.append("</circle>\n");
   }
 
   /**
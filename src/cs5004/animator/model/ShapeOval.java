@@ -10,6 +10,8 @@ import java.util.Objects;
 
 public class ShapeOval extends Shape {
 
+  private static final long serialVersionUID = 1L;
+
   private final Point2D.Double center;
   private final double widthRadius;
   private final double heightRadius;
@@ -43,55 +45,45 @@ public class ShapeOval extends Shape {
   }
 
   /**
-   * Represents this Shape as a String in the Text format.
+   * Appends this Shape in the Text format.
    *
+   * @param output the Emitter to append to.
    * @param thisAppear the adjusted time at which this Shape should appear.
    * @param thisDisappear the adjusted time at which this Shape should disappear.
-   * @return a String containing this Shape's values formatted for Text output.
    */
-  public String toStringText(float thisAppear, float thisDisappear) {
-    return String.format(
-        "Name: %s\nType: oval\nCenter: (%.1f,%.1f), X radius: %.1f,"
-            + " Y radius: %.1f, Color: %s\nAppears at t=%.1fs\nDisappears at t=%.1fs\n",
-        this.getName(), this.center.x, this.center.y,
-        this.widthRadius, this.heightRadius, this.color.toString(), thisAppear,
-        thisDisappear);
+  public void appendText(Emitter output, float thisAppear, float thisDisappear) {
+    output.append("Name: ").append(this.getName()).append("\nType: oval\nCenter: (")
+        .appendFixed1(this.center.x).append(',').appendFixed1(this.center.y)
+        .append("), X radius: ").appendFixed1(this.widthRadius)
+        .append(", Y radius: ").appendFixed1(this.heightRadius).append(", Color: ");
+    this.color.appendTo(output);
+    output.append("\nAppears at t=").appendTime(thisAppear).append("s\nDisappears at t=")
+        .appendTime(thisDisappear).append("s\n");
   }
 
   /**
-   * Produces an opening tag for this Shape in the SVG format, as well as an animation tag to make
-   * the Shape appear and disappear at a certain time.
+   * Appends the start of an opening tag for this Shape in the SVG format: its id, position and
+   * dimensions.
    *
-   * @param thisAppear the time in milliseconds at which this Shape should appear.
-   * @param thisDisappear the time in milliseconds at which this Shape should disappear.
-   * @return a String containing this Shape's values formatted for SVG output.
+   * @param output the Emitter to append to.
+   * @param id the id of the tag.
+   * @param atOrigin true to place the tag at the origin, rather than at this Shape's position.
    */
-  public String toStringSVG(float thisAppear, float thisDisappear) {
-    String openTag = String.format(
-        "<ellipse id=\"%s\" cx=\"%d\" cy=\"%d\" rx=\"%d\" ry=\"%d\" "
-            + "fill=\"rgb(%.1f%%,%.1f%%,%.1f%%)\" visibility=\"hidden\" >\n",
-        this.name,
-        Math.round(this.center.x),
-        Math.round(this.center.y),
-        Math.round(this.widthRadius),
-        Math.round(this.heightRadius),
-        this.color.getRed(),
-        this.color.getGreen(),
-        this.color.getBlue());
-    float duration = thisDisappear - thisAppear;
-    String setVisible = String.format("  <set attributeName=\"visibility\" attributeType=\"CSS\" "
-            + "to=\"visible\" begin=\"%.1fms\" duration=\"%.1fms\" fill=\"freeze\" />\n",
-        thisAppear, duration);
-    return openTag + setVisible;
+  protected void appendSVGOpen(Emitter output, String id, boolean atOrigin) {
+    output.append("<ellipse id=\"").append(id)
+        .append("\" cx=\"").appendInt(atOrigin ? 0 : Math.round(this.center.x))
+        .append("\" cy=\"").appendInt(atOrigin ? 0 : Math.round(this.center.y))
+        .append("\" rx=\"").appendInt(Math.round(this.widthRadius))
+        .append("\" ry=\"").appendInt(Math.round(this.heightRadius)).append("\" ");
   }
 
   /**
-   * Creates a closing tag for use in an SVG output.
+   * Appends a closing tag for use in an SVG output.
    *
-   * @return a String containing a correct SVG closing tag.
+   * @param output the Emitter to append to.
    */
-  public String toStringSVGClose() {
-    return "</ellipse>\n";
+  public void appendSVGClose(Emitter output) {
+    output.append("</ellipse>\n");
   }
 
   /**
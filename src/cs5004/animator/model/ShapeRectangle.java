@@ -10,6 +10,8 @@ import java.util.Objects;
 
 public class ShapeRectangle extends Shape {
 
+  private static final long serialVersionUID = 1L;
+
   private final Point2D.Double lowerLeftCorner;
   private final double width;
   private final double height;
@@ -43,57 +45,45 @@ public class ShapeRectangle extends Shape {
   }
 
   /**
-   * Represents this Shape as a String in the Text format.
+   * Appends this Shape in the Text format.
    *
+   * @param output the Emitter to append to.
    * @param thisAppear the adjusted time at which this Shape should appear.
    * @param thisDisappear the adjusted time at which this Shape should disappear.
-   * @return a String containing this Shape's values formatted for Text output.
    */
-  public String toStringText(float thisAppear, float thisDisappear) {
-    String output = "Name: " + this.name + "\n";
-    output += "Type: rectangle\n";
-    output += String.format("Min corner: (%.1f,%.1f), Width: %.1f,"
-            + " Height: %.1f, Color: %s\n", this.lowerLeftCorner.x, this.lowerLeftCorner.y,
-        this.width, this.height, this.color.toString());
-    output += String.format("Appears at t=%.1fs\nDisappears at t=%.1fs\n", thisAppear,
-        thisDisappear);
-    return output;
+  public void appendText(Emitter output, float thisAppear, float thisDisappear) {
+    output.append("Name: ").append(this.name).append("\nType: rectangle\nMin corner: (")
+        .appendFixed1(this.lowerLeftCorner.x).append(',').appendFixed1(this.lowerLeftCorner.y)
+        .append("), Width: ").appendFixed1(this.width)
+        .append(", Height: ").appendFixed1(this.height).append(", Color: ");
+    this.color.appendTo(output);
+    output.append("\nAppears at t=").appendTime(thisAppear).append("s\nDisappears at t=")
+        .appendTime(thisDisappear).append("s\n");
   }
 
   /**
-   * Produces an opening tag for this Shape in the SVG format, as well as an animation tag to make
-   * the Shape appear and disappear at a certain time.
+   * Appends the start of an opening tag for this Shape in the SVG format: its id, position and
+   * dimensions.
    *
-   * @param thisAppear the time in milliseconds at which this Shape should appear.
-   * @param thisDisappear the time in milliseconds at which this Shape should disappear.
-   * @return a String containing this Shape's values formatted for SVG output.
+   * @param output the Emitter to append to.
+   * @param id the id of the tag.
+   * @param atOrigin true to place the tag at the origin, rather than at this Shape's position.
    */
-  public String toStringSVG(float thisAppear, float thisDisappear) {
-    String openTag = String.format(
-        "<rect id=\"%s\" x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" "
-            + "fill=\"rgb(%.1f%%,%.1f%%,%.1f%%)\" visibility=\"hidden\" >\n",
-        this.name,
-        Math.round(this.lowerLeftCorner.x),
-        Math.round(this.lowerLeftCorner.y),
-        Math.round(this.width),
-        Math.round(this.height),
-        this.color.getRed(),
-        this.color.getGreen(),
-        this.color.getBlue());
-    float duration = thisDisappear - thisAppear;
-    String setVisible = String.format("  <set attributeName=\"visibility\" attributeType=\"CSS\" "
-            + "to=\"visible\" begin=\"%.1fms\" duration=\"%.1fms\" fill=\"freeze\" />\n",
-        thisAppear, duration);
-    return openTag + setVisible;
+  protected void appendSVGOpen(Emitter output, String id, boolean atOrigin) {
+    output.append("<rect id=\"").append(id)
+        .append("\" x=\"").appendInt(atOrigin ? 0 : Math.round(this.lowerLeftCorner.x))
+        .append("\" y=\"").appendInt(atOrigin ? 0 : Math.round(this.lowerLeftCorner.y))
+        .append("\" width=\"").appendInt(Math.round(this.width))
+        .append("\" height=\"").appendInt(Math.round(this.height)).append("\" ");
   }
 
   /**
-   * Creates a closing tag for use in an SVG output.
+   * Appends a closing tag for use in an SVG output.
    *
-   * @return a String containing a correct SVG closing tag.
+   * @param output the Emitter to append to.
    */
-  public String toStringSVGClose() {
-    return "</rect>\n";
+  public void appendSVGClose(Emitter output) {
+    output.append("</rect>\n");
   }
 
   /**
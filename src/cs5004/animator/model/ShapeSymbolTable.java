@@ -0,0 +1,93 @@
+package cs5004.animator.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table mapping the names of IShapes to dense int ids, starting from 0 in the order the names
+ * were interned. Names are case insensitive, as IShape names are always upper case. Each spelling
+ * of a name that has been looked up is remembered, so that it is only converted to upper case
+ * once. Interning is not thread safe, but lookups may run concurrently with each other.
+ */
+
+public class ShapeSymbolTable implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Map<String, Integer> ids;
+  private final Map<String, Integer> spellings;
+  private final List<String> names;
+
+  /**
+   * Creates a new, empty ShapeSymbolTable.
+   */
+  public ShapeSymbolTable() {
+    this.ids = new HashMap<>();
+    this.spellings = new ConcurrentHashMap<>();
+    this.names = new ArrayList<>();
+  }
+
+  /**
+   * Gets the id of the given name, giving it the next id if it does not have one yet.
+   *
+   * @param name the name of an IShape, in any case.
+   * @return the id of the name.
+   * @throws NullPointerException if name is null.
+   */
+  public int intern(String name) throws NullPointerException {
+    int id = this.lookup(name);
+    if (id >= 0) {
+      return id;
+    }
+    String upperName = name.toUpperCase();
+    id = this.names.size();
+    this.ids.put(upperName, id);
+    this.names.add(upperName);
+    this.spellings.put(name, id);
+    return id;
+  }
+
+  /**
+   * Gets the id of the given name, if it has one.
+   *
+   * @param name the name of an IShape, in any case.
+   * @return the id of the name, or -1 if it has not been interned.
+   * @throws NullPointerException if name is null.
+   */
+  public int lookup(String name) throws NullPointerException {
+    Integer id = this.spellings.get(name);
+    if (id != null) {
+      return id;
+    }
+    id = this.ids.get(name.toUpperCase());
+    if (id == null) {
+      return -1; // unknown spellings are not remembered, so they cannot fill the table
+    }
+    this.spellings.put(name, id);
+    return id;
+  }
+
+  /**
+   * Gets the upper case name with the given id.
+   *
+   * @param id the id of a name.
+   * @return the name.
+   * @throws IndexOutOfBoundsException if no name has that id.
+   */
+  public String getName(int id) throws IndexOutOfBoundsException {
+    return this.names.get(id);
+  }
+
+  /**
+   * Gets the number of names in this table, which is also the next id to be given.
+   *
+   * @return the number of names.
+   */
+  public int size() {
+    return this.names.size();
+  }
+}
@@ -9,6 +9,8 @@ import java.util.Objects;
 
 public class TransformColor extends Transformation {
 
+  private static final long serialVersionUID = 1L;
+
   private final Color startColor;
   private final Color endColor;
 
@@ -32,40 +34,71 @@ public class TransformColor extends Transformation {
   }
 
   /**
-   * Represents this Transformation as a String in the Text format.
+   * Appends this Transformation in the Text format.
    *
-   * @return a String containing this Transformation's values formatted for Text output.
+   * @param output the Emitter to append to.
+   * @param thisStart the time in seconds at which to render this Transformation's start.
+   * @param thisEnd the time in seconds at which to render this Transformation's end.
    */
-  public String toStringText(float thisStart, float thisEnd) {
-    return String.format("Shape %s changes color from %s to %s"
-            + " from t=%.1fs to t=%.1fs\n",
-        this.shapeName,
-        this.startColor,
-        this.endColor,
-        thisStart,
-        thisEnd);
+  public void appendText(Emitter output, float thisStart, float thisEnd) {
+    output.append("Shape ").append(this.shapeName).append(" changes color from ");
+    this.startColor.appendTo(output);
+    output.append(" to ");
+    this.endColor.appendTo(output);
+    output.append(" from t=").appendTime(thisStart).append("s to t=").appendTime(thisEnd)
+        .append("s\n");
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format.
+   * Appends this Transformation in the SVG format.
    *
+   * @param output the Emitter to append to.
    * @param thisStart the time in milliseconds at which this Transformation should begin.
    * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
    */
-  public String toStringSVG(float thisStart, float thisEnd) {
-    float duration = thisEnd - thisStart;
-    return String.format("<animate attributeName=\"fill\" attributeType=\"CSS\""
-            + " from=\"rgb(%.1f%%,%.1f%%,%.1f%%)\" to=\"rgb(%.1f%%,%.1f%%,%.1f%%)\" "
-            + "begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        this.startColor.getRed(),
-        this.startColor.getGreen(),
-        this.startColor.getBlue(),
-        this.endColor.getRed(),
-        this.endColor.getGreen(),
-        this.endColor.getBlue(),
-        thisStart,
-        duration);
+  public void appendSVG(Emitter output, float thisStart, float thisEnd) {
+    output.append("<animate attributeName=\"fill\" attributeType=\"CSS\" from=\"");
+    this.startColor.appendSVG(output);
+    output.append("\" to=\"");
+    this.endColor.appendSVG(output);
+    output.append("\" begin=\"").appendTime(thisStart).append("ms\" dur=\"")
+        .appendDuration(thisStart, thisEnd).append("ms\" fill=\"freeze\" />\n");
+  }
+
+  /**
+   * Gets the number of values this Transformation animates in the compact SVG format.
+   *
+   * @return 1, for the fill.
+   */
+  public int getSVGValueCount() {
+    return 1;
+  }
+
+  /**
+   * Gets the name of the SVG attribute one of the values of this Transformation animates.
+   *
+   * @param value the index of the value, 0.
+   * @return "fill".
+   * @throws IllegalArgumentException if value is not 0.
+   */
+  public String getSVGAttribute(int value) throws IllegalArgumentException {
+    checkSVGValue(value);
+    return "fill";
+  }
+
+  /**
+   * Appends the color at the start or end of this Transformation, in the SVG format.
+   *
+   * @param output the Emitter to append to.
+   * @param value the index of the value, 0.
+   * @param end true for the end color, false for the start color.
+   * @param shape the IShape this Transformation applies to.
+   * @throws IllegalArgumentException if value is not 0.
+   */
+  public void appendSVGValue(Emitter output, int value, boolean end, IShape shape)
+      throws IllegalArgumentException {
+    checkSVGValue(value);
+    (end ? this.endColor : this.startColor).appendSVG(output);
   }
 
   /**
@@ -12,6 +12,8 @@ import java.util.Objects;
 
 public class TransformMove extends Transformation {
 
+  private static final long serialVersionUID = 1L;
+
   private final Point2D.Double startPosition;
   private final Point2D.Double endPosition;
   private final ShapeType shapeType;
@@ -42,85 +44,88 @@ public class TransformMove extends Transformation {
   }
 
   /**
-   * Represents this Transformation as a String in the Text format.
+   * Appends this Transformation in the Text format.
    *
-   * @return a String containing this Transformation's values formatted for Text output.
+   * @param output the Emitter to append to.
+   * @param thisStart the time in seconds at which to render this Transformation's start.
+   * @param thisEnd the time in seconds at which to render this Transformation's end.
    */
-  public String toStringText(float thisStart, float thisEnd) {
-    return String.format("Shape %s moves from (%.1f,%.1f) to (%.1f,%.1f)"
-            + " from t=%.1fs to t=%.1fs\n",
-        this.shapeName, this.startPosition.x, this.startPosition.y,
-        this.endPosition.x, this.endPosition.y, thisStart, thisEnd);
+  public void appendText(Emitter output, float thisStart, float thisEnd) {
+    output.append("Shape ").append(this.shapeName).append(" moves from (")
+        .appendFixed1(this.startPosition.x).append(',').appendFixed1(this.startPosition.y)
+        .append(") to (").appendFixed1(this.endPosition.x).append(',')
+        .appendFixed1(this.endPosition.y).append(") from t=").appendTime(thisStart)
+        .append("s to t=").appendTime(thisEnd).append("s\n");
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format.
+   * Appends this Transformation in the SVG format. Ovals and circles move by their center, and
+   * rectangles by their corner.
    *
+   * @param output the Emitter to append to.
    * @param thisStart the time in milliseconds at which this Transformation should begin.
    * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
    */
-  public String toStringSVG(float thisStart, float thisEnd) {
+  public void appendSVG(Emitter output, float thisStart, float thisEnd) {
+    String attributeX;
+    String attributeY;
     switch (this.shapeType) {
       case OVAL:
-        return toStringSVGEllipse(thisStart, thisEnd);
       case CIRCLE:
-        return toStringSVGEllipse(thisStart, thisEnd);
+        attributeX = "cx";
+        attributeY = "cy";
+        break;
       case RECTANGLE:
-        return toStringSVGRect(thisStart, thisEnd);
+        attributeX = "x";
+        attributeY = "y";
+        break;
       default:
         throw new IllegalArgumentException("failed to turn ITransformation into SVG");
     }
+    appendSVGAnimate(output, attributeX, Math.round(this.startPosition.x),
+        Math.round(this.endPosition.x), thisStart, thisEnd);
+    output.append("  ");
+    appendSVGAnimate(output, attributeY, Math.round(this.startPosition.y),
+        Math.round(this.endPosition.y), thisStart, thisEnd);
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format. Specifically when moving an oval
-   * or ellipse.
+   * Gets the number of values this Transformation animates in the compact SVG format.
    *
-   * @param thisStart the time in milliseconds at which this Transformation should begin.
-   * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
+   * @return 1, for the position.
    */
-  private String toStringSVGEllipse(float thisStart, float thisEnd) {
-    float duration = thisEnd - thisStart;
-    String tagX = String.format(
-        "<animate attributeName=\"cx\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.startPosition.x),
-        Math.round(this.endPosition.x),
-        thisStart, duration);
-    String tagY = String.format(
-        "<animate attributeName=\"cy\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.startPosition.y),
-        Math.round(this.endPosition.y),
-        thisStart, duration);
-    return tagX + "  " + tagY;
+  public int getSVGValueCount() {
+    return 1;
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format. Specifically when moving
-   * rectangles.
+   * Gets the name of the SVG attribute one of the values of this Transformation animates.
    *
-   * @param thisStart the time in milliseconds at which this Transformation should begin.
-   * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
+   * @param value the index of the value, 0.
+   * @return null, as the position is animated by motion.
+   * @throws IllegalArgumentException if value is not 0.
+   */
+  public String getSVGAttribute(int value) throws IllegalArgumentException {
+    checkSVGValue(value);
+    return null;
+  }
+
+  /**
+   * Appends the position at the start or end of this Transformation, as the distances from the
+   * position of the IShape, each rounded as the SVG format rounds them.
+   *
+   * @param output the Emitter to append to.
+   * @param value the index of the value, 0.
+   * @param end true for the end position, false for the start position.
+   * @param shape the IShape this Transformation applies to.
+   * @throws IllegalArgumentException if value is not 0.
    */
-  private String toStringSVGRect(float thisStart, float thisEnd) {
-    float duration = thisEnd - thisStart;
-    String tagX = String.format(
-        "<animate attributeName=\"x\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.startPosition.x),
-        Math.round(this.endPosition.x),
-        thisStart, duration);
-    String tagY = String.format(
-        "<animate attributeName=\"y\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.startPosition.y),
-        Math.round(this.endPosition.y),
-        thisStart, duration);
-    return tagX + "  " + tagY;
+  public void appendSVGValue(Emitter output, int value, boolean end, IShape shape)
+      throws IllegalArgumentException {
+    checkSVGValue(value);
+    Point2D.Double position = end ? this.endPosition : this.startPosition;
+    output.appendInt(Math.round(position.x) - Math.round(shape.getXCoord())).append(',')
+        .appendInt(Math.round(position.y) - Math.round(shape.getYCoord()));
   }
 
   /**
@@ -9,6 +9,8 @@ import cs5004.animator.util.TweenTools;
  */
 public class TransformScale extends Transformation {
 
+  private static final long serialVersionUID = 1L;
+
   private float fromX;
   private float fromY;
   private float toX;
@@ -44,159 +46,120 @@ public class TransformScale extends Transformation {
   }
 
   /**
-   * Represents this Transformation as a String in the Text format.
+   * Appends this Transformation in the Text format. Circles scale by their radius, ovals by both
+   * radii, and rectangles by their width and height.
    *
+   * @param output the Emitter to append to.
    * @param startS the start time of the Transformation in seconds.
    * @param endS the end time of the Transformation in seconds.
-   * @return a String containing this Transformation's values formatted for Text output.
    */
-  public String toStringText(float startS, float endS) {
+  public void appendText(Emitter output, float startS, float endS) {
+    output.append("Shape ").append(this.shapeName);
     switch (this.shapeType) {
       case CIRCLE:
-        return this.toStringTextCircle(startS, endS);
+        output.append(" scales from Radius: ").appendFixed1(this.fromX)
+            .append(" to Radius: ").appendFixed1(this.toX);
+        break;
       case RECTANGLE:
-        return this.toStringTextRect(startS, endS);
+        output.append(" scales from Width: ").appendFixed1(this.fromX)
+            .append(", Height: ").appendFixed1(this.fromY)
+            .append(" to Width: ").appendFixed1(this.toX)
+            .append(", Height: ").appendFixed1(this.toY);
+        break;
       case OVAL:
-        return this.toStringTextOval(startS, endS);
+        output.append(" scales from X radius: ").appendFixed1(this.fromX)
+            .append(", Y radius: ").appendFixed1(this.fromY)
+            .append(" to X radius: ").appendFixed1(this.toX)
+            .append(", Y radius: ").appendFixed1(this.toY);
+        break;
       default:
         throw new IllegalStateException("Attempting to render Transform of unknown ShapeType");
     }
+    output.append(" from t=").appendTime(startS).append("s to t=").appendTime(endS)
+        .append("s\n");
   }
 
   /**
-   * Represents this Transformation as a String in the Text format. Specifically for ShapeCircles.
+   * Appends this Transformation in the SVG format. Circles scale by their radius, ovals by both
+   * radii, and rectangles by their width and height.
    *
-   * @param startS the start time of the Transformation in seconds.
-   * @param endS the end time of the Transformation in seconds.
-   * @return a String containing this Transformation's values formatted for Text output.
-   */
-  private String toStringTextCircle(float startS, float endS) {
-    return String.format("Shape %s scales from Radius: %.1f to Radius: %.1f"
-            + " from t=%.1fs to t=%.1fs\n",
-        this.shapeName, this.fromX, this.toX, startS, endS);
-  }
-
-  /**
-   * Represents this Transformation as a String in the Text format. For ShapeOvals.
-   *
-   * @param startS the start time of the Transformation in seconds.
-   * @param endS the end time of the Transformation in seconds.
-   * @return a String containing this Transformation's values formatted for Text output.
-   */
-  private String toStringTextOval(float startS, float endS) {
-    return String.format(
-        "Shape %s scales from X radius: %.1f, Y "
-            + "radius: %.1f to X radius: %.1f, Y radius: %.1f "
-            + "from t=%.1fs to t=%.1fs\n",
-        this.shapeName, this.fromX, this.fromY, this.toX, this.toY, startS,
-        endS);
-  }
-
-  /**
-   * Represents this Transformation as a String in the Text format. For ShapeRectangles.
-   *
-   * @param startS the start time of the Transformation in seconds.
-   * @param endS the end time of the Transformation in seconds.
-   * @return a String containing this Transformation's values formatted for Text output.
-   */
-  private String toStringTextRect(float startS, float endS) {
-    return String
-        .format("Shape %s scales from Width: %.1f, Height: %.1f "
-                + "to Width: %.1f, Height: %.1f "
-                + "from t=%.1fs to t=%.1fs\n",
-            this.shapeName, this.fromX, this.fromY, this.toX, this.toY,
-            startS, endS);
-  }
-
-
-  /**
-   * Represents this Transformation as a String in the SVG format.
-   *
-   * @param startS the start time of the Transformation in seconds.
-   * @param endS the end time of the Transformation in seconds.
-   * @return a String containing this Transformation's values formatted for Text output.
+   * @param output the Emitter to append to.
+   * @param thisStart the time in milliseconds at which this Transformation should begin.
+   * @param thisEnd the time in milliseconds at which this Transformation should end.
    */
-  public String toStringSVG(float startS, float endS) {
+  public void appendSVG(Emitter output, float thisStart, float thisEnd) {
     switch (this.shapeType) {
       case CIRCLE:
-        return this.toStringSVGCircle(startS, endS);
+        appendSVGAnimate(output, "r", Math.round(this.fromX), Math.round(this.toX), thisStart,
+            thisEnd);
+        break;
       case RECTANGLE:
-        return this.toStringSVGRect(startS, endS);
+        appendSVGAnimate(output, "width", Math.round(this.fromX), Math.round(this.toX),
+            thisStart, thisEnd);
+        output.append("  ");
+        appendSVGAnimate(output, "height", Math.round(this.fromY), Math.round(this.toY),
+            thisStart, thisEnd);
+        break;
       case OVAL:
-        return this.toStringSVGOval(startS, endS);
+        appendSVGAnimate(output, "rx", Math.round(this.fromX), Math.round(this.toX), thisStart,
+            thisEnd);
+        output.append("  ");
+        appendSVGAnimate(output, "ry", Math.round(this.fromY), Math.round(this.toY), thisStart,
+            thisEnd);
+        break;
       default:
         throw new IllegalStateException("Attempting to render Transform of unknown ShapeType");
     }
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format. For ShapeCircles.
+   * Gets the number of values this Transformation animates in the compact SVG format.
    *
-   * @param thisStart the time in milliseconds at which this Transformation should begin.
-   * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
+   * @return 1 for a circle's radius, 2 otherwise.
    */
-  private String toStringSVGCircle(float thisStart, float thisEnd) {
-    float duration = thisEnd - thisStart;
-    return String.format(
-        "<animate attributeName=\"r\" attributeType=\"CSS\""
-            + " from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.fromX),
-        Math.round(this.toX),
-        thisStart,
-        duration);
+  public int getSVGValueCount() {
+    return this.shapeType == ShapeType.CIRCLE ? 1 : 2;
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format. For ShapeOvals.
+   * Gets the name of the SVG attribute one of the values of this Transformation animates, as
+   * appendSVG names them.
    *
-   * @param thisStart the time in milliseconds at which this Transformation should begin.
-   * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
+   * @param value 0 for the x distance, 1 for the y distance.
+   * @return the name of the attribute.
+   * @throws IllegalArgumentException if there is no such value.
    */
-  public String toStringSVGOval(float thisStart, float thisEnd) {
-    float duration = thisEnd - thisStart;
-    String scaleX = String.format(
-        "<animate attributeName=\"rx\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.fromX),
-        Math.round(this.toX),
-        thisStart,
-        duration);
-    String scaleY = String.format(
-        "<animate attributeName=\"ry\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.fromY),
-        Math.round(this.toY),
-        thisStart,
-        duration);
-    return scaleX + "  " + scaleY;
+  public String getSVGAttribute(int value) throws IllegalArgumentException {
+    if (value < 0 || value >= this.getSVGValueCount()) {
+      throw new IllegalArgumentException("no such SVG value: " + value);
+    }
+    switch (this.shapeType) {
+      case CIRCLE:
+        return "r";
+      case RECTANGLE:
+        return value == 0 ? "width" : "height";
+      case OVAL:
+        return value == 0 ? "rx" : "ry";
+      default:
+        throw new IllegalStateException("Attempting to render Transform of unknown ShapeType");
+    }
   }
 
   /**
-   * Represents this Transformation as a String in the SVG format. For ShapeRectangles.
+   * Appends the x or y distance at the start or end of this Transformation, rounded as the SVG
+   * format rounds it.
    *
-   * @param thisStart the time in milliseconds at which this Transformation should begin.
-   * @param thisEnd the time in milliseconds at which this Transformation should end.
-   * @return a String containing this Transformation's values formatted for SVG output.
+   * @param output the Emitter to append to.
+   * @param value 0 for the x distance, 1 for the y distance.
+   * @param end true for the distance at the end, false for the distance at the start.
+   * @param shape the IShape this Transformation applies to.
+   * @throws IllegalArgumentException if there is no such value.
    */
-  public String toStringSVGRect(float thisStart, float thisEnd) {
-    float duration = thisEnd - thisStart;
-    String scaleX = String.format(
-        "<animate attributeName=\"width\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.fromX),
-        Math.round(this.toX),
-        thisStart,
-        duration);
-    String scaleY = String.format(
-        "<animate attributeName=\"height\" attributeType=\"CSS\" "
-            + "from=\"%d\" to=\"%d\" begin=\"%.1fms\" dur=\"%.1fms\" fill=\"freeze\" />\n",
-        Math.round(this.fromY),
-        Math.round(this.toY),
-        thisStart,
-        duration);
-    return scaleX + "  " + scaleY;
+  public void appendSVGValue(Emitter output, int value, boolean end, IShape shape)
+      throws IllegalArgumentException {
+    this.getSVGAttribute(value);
+    float distance = value == 0 ? (end ? this.toX : this.fromX) : (end ? this.toY : this.fromY);
+    output.appendInt(Math.round(distance));
   }
 
   /**
@@ -1,15 +1,20 @@
 package cs5004.animator.model;
 
+import java.io.Serializable;
+
 /**
  * An abstract class representing a Transformation in an Animation. A Transformation is applied to a
  * Shape and has a start time and an end time.
  */
 
-public abstract class Transformation implements ITransformation {
+public abstract class Transformation implements ITransformation, Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   protected float start;
   protected float end;
   protected String shapeName;
+  protected int shapeId;
   protected TransformType type;
 
   /**
@@ -31,6 +36,7 @@ public abstract class Transformation implements ITransformation {
     this.start = start;
     this.end = end;
     this.shapeName = shapeName.toUpperCase();
+    this.shapeId = -1;
   }
 
   /**
@@ -42,6 +48,24 @@ public abstract class Transformation implements ITransformation {
     return this.shapeName;
   }
 
+  /**
+   * Gets the id of the name of the Shape to which this Transformation is applied.
+   *
+   * @return the id, or -1 if this Transformation has not been added to an IAnimation.
+   */
+  public int getShapeId() {
+    return this.shapeId;
+  }
+
+  /**
+   * Sets the id of the name of the Shape to which this Transformation is applied.
+   *
+   * @param shapeId the id of the name in the IAnimation's symbol table.
+   */
+  public void setShapeId(int shapeId) {
+    this.shapeId = shapeId;
+  }
+
   /**
    * Gets the type of this Shape.
    *
@@ -108,4 +132,61 @@ public abstract class Transformation implements ITransformation {
   public boolean hasFinished(int tick) {
     return (this.end <= tick);
   }
-}
\ No newline at end of file
+
+  /**
+   * Represents this ITransformation as a String in the Text format.
+   *
+   * @param thisStart the time in seconds at which to render this Transformation's start.
+   * @param thisEnd the time in seconds at which to render this Transformation's end.
+   * @return a String containing this Transformation's values formatted for Text output.
+   */
+  public String toStringText(float thisStart, float thisEnd) {
+    Emitter output = new Emitter();
+    this.appendText(output, thisStart, thisEnd);
+    return output.toString();
+  }
+
+  /**
+   * Represents this ITransformation as a String in the SVG format.
+   *
+   * @param thisStart the time in milliseconds at which this Transformation should begin.
+   * @param thisEnd the time in milliseconds at which this Transformation should end.
+   * @return a String containing this Transformation's values formatted for SVG output.
+   */
+  public String toStringSVG(float thisStart, float thisEnd) {
+    Emitter output = new Emitter();
+    this.appendSVG(output, thisStart, thisEnd);
+    return output.toString();
+  }
+
+  /**
+   * Checks the index of a value, for Transformations which animate a single value in the compact
+   * SVG format.
+   *
+   * @param value the index of the value.
+   * @throws IllegalArgumentException if value is not 0.
+   */
+  protected static void checkSVGValue(int value) throws IllegalArgumentException {
+    if (value != 0) {
+      throw new IllegalArgumentException("no such SVG value: " + value);
+    }
+  }
+
+  /**
+   * Appends an SVG tag animating one attribute between two whole numbers.
+   *
+   * @param output the Emitter to append to.
+   * @param attribute the name of the attribute to animate.
+   * @param from the value of the attribute at the start.
+   * @param to the value of the attribute at the end.
+   * @param thisStart the time in milliseconds at which the animation should begin.
+   * @param thisEnd the time in milliseconds at which the animation should end.
+   */
+  protected static void appendSVGAnimate(Emitter output, String attribute, long from, long to,
+      float thisStart, float thisEnd) {
+    output.append("<animate attributeName=\"").append(attribute)
+        .append("\" attributeType=\"CSS\" from=\"").appendInt(from).append("\" to=\"")
+        .appendInt(to).append("\" begin=\"").appendTime(thisStart).append("ms\" dur=\"")
+        .appendDuration(thisStart, thisEnd).append("ms\" fill=\"freeze\" />\n");
+  }
+}
@@ -0,0 +1,122 @@
+package cs5004.animator.model;
+
+/**
+ * A class containing static methods for checking whether an ITransformation may be added to an
+ * IShape. These are the rules applied by Animation.addTransformation, kept in one place so that
+ * every way of building a model accepts and rejects the same ITransformations.
+ */
+public class TransformationValidator {
+
+  /**
+   * The message given when an ITransformation applies to an IShape that does not exist.
+   */
+  public static final String MISSING_SHAPE = "Animation does not contain a Shape of this name.";
+
+  private static final String OVERLAP =
+      "Transformation cannot start before a Transformation of the same type ends.";
+
+  /**
+   * Checks an ITransformation against the IShape it applies to and the ITransformations already
+   * accepted for it. An ITransformation is invalid if: 1) the IShape does not exist, or 2) it
+   * begins before the IShape has appeared, or 3) it ends after the IShape has disappeared, or 4) it
+   * begins after the IShape has disappeared, or 5) an accepted ITransformation of the same type on
+   * the same IShape ends at or after the time it begins.
+   *
+   * @param shape the IShape the ITransformation applies to, or null if there is none.
+   * @param accepted the ITransformations already accepted. Those applying to other IShapes are
+   *        ignored.
+   * @param transformation the ITransformation to check.
+   * @throws IllegalArgumentException if the ITransformation is invalid (see above).
+   */
+  public static void validate(IShape shape, Iterable<ITransformation> accepted,
+      ITransformation transformation) throws IllegalArgumentException {
+    validate(shape, transformation);
+    if (conflicts(accepted, transformation)) {
+      throw new IllegalArgumentException(OVERLAP);
+    }
+  }
+
+  /**
+   * Checks an ITransformation against the IShape it applies to and the latest end of the accepted
+   * ITransformations of the same type on that IShape. Gives the same result as checking against
+   * the accepted ITransformations themselves, without having to search them.
+   *
+   * @param shape the IShape the ITransformation applies to, or null if there is none.
+   * @param latestEnd the latest end of an accepted ITransformation of the same type on the IShape,
+   *        or negative infinity if there is none.
+   * @param transformation the ITransformation to check.
+   * @throws IllegalArgumentException if the ITransformation is invalid.
+   */
+  public static void validate(IShape shape, float latestEnd, ITransformation transformation)
+      throws IllegalArgumentException {
+    validate(shape, transformation);
+    if (transformation.getStart() <= latestEnd) {
+      throw new IllegalArgumentException(OVERLAP);
+    }
+  }
+
+  /**
+   * Checks an ITransformation against the lifetime of the IShape it applies to, ignoring any
+   * other ITransformations.
+   *
+   * @param shape the IShape the ITransformation applies to, or null if there is none.
+   * @param transformation the ITransformation to check.
+   * @throws IllegalArgumentException if the IShape does not exist, or the ITransformation does not
+   *         fall within its lifetime.
+   */
+  public static void validate(IShape shape, ITransformation transformation)
+      throws IllegalArgumentException {
+    if (shape == null) {
+      throw new IllegalArgumentException(MISSING_SHAPE);
+    }
+    if (transformation.getStart() < shape.getAppear()) {
+      throw new IllegalArgumentException("Transformation cannot begin before Shape appears.");
+    }
+    if (transformation.getEnd() > shape.getDisappear()) {
+      throw new IllegalArgumentException("Transformation cannot end after Shape disappears.");
+    }
+    if (transformation.getStart() > shape.getDisappear()) {
+      throw new IllegalArgumentException("Transformation cannot start after Shape disappears.");
+    }
+  }
+
+  /**
+   * Tests whether any of the accepted ITransformations conflicts with the given one: that is,
+   * applies to the same IShape, has the same type, and ends at or after the given one starts.
+   *
+   * @param accepted the ITransformations already accepted.
+   * @param other an ITransformation.
+   * @return True if there is a conflict, False otherwise.
+   */
+  public static boolean conflicts(Iterable<ITransformation> accepted, ITransformation other) {
+    TransformType otherTransformType = other.getType();
+    int otherShapeId = other.getShapeId();
+    String otherShapeName = other.getShapeName();
+    for (ITransformation transformation : accepted) {
+      if (transformation.getType().equals(otherTransformType)
+          && sameShape(transformation, otherShapeId, otherShapeName)) {
+        if (other.getStart() <= transformation.getEnd()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tests whether an ITransformation applies to the given IShape, comparing ids if both have one
+   * and names otherwise.
+   *
+   * @param transformation an ITransformation.
+   * @param shapeId the id of the IShape's name, or -1 if it has none.
+   * @param shapeName the name of the IShape.
+   * @return True if the ITransformation applies to the IShape, False otherwise.
+   */
+  private static boolean sameShape(ITransformation transformation, int shapeId,
+      String shapeName) {
+    if (shapeId >= 0 && transformation.getShapeId() >= 0) {
+      return transformation.getShapeId() == shapeId;
+    }
+    return transformation.getShapeName().equals(shapeName);
+  }
+}
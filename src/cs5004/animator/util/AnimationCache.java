@@ -0,0 +1,262 @@
+package cs5004.animator.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A persistent, on-disk cache of models built by an AnimationFileReader. Entries are keyed by the
+ * SHA-256 hash of the input file's contents, the reader's VERSION and the class of the builder, so
+ * an entry can only ever be served for byte-identical input read by the same parser and builder,
+ * and models of different builders for the same input are kept side by side. The cache is bounded
+ * by a total size in bytes, and the least recently used entries are evicted first.
+ */
+
+public class AnimationCache {
+
+  private static final String SUFFIX = ".animation";
+  private static final String ALLOWED_PACKAGE = "cs5004.animator.model.";
+  // the library classes the model is serialized with; a ConcurrentHashMap is written with the
+  // Segments and locks of its old form
+  private static final String[] ALLOWED_CLASSES = {"java.lang.Enum", "java.lang.Number",
+      "java.lang.Integer", "java.util.ArrayList", "java.util.HashMap",
+      "java.util.concurrent.ConcurrentHashMap", "java.util.concurrent.ConcurrentHashMap$Segment",
+      "java.util.concurrent.locks.ReentrantLock", "java.util.concurrent.locks.ReentrantLock$Sync",
+      "java.util.concurrent.locks.ReentrantLock$NonfairSync",
+      "java.util.concurrent.locks.AbstractQueuedSynchronizer",
+      "java.util.concurrent.locks.AbstractOwnableSynchronizer", "java.awt.geom.Point2D$Double"};
+
+  private final File directory;
+  private final long maxBytes;
+
+  /**
+   * Creates a new AnimationCache stored in the given directory. The directory is created if it
+   * does not exist.
+   *
+   * @param directory the path of the directory holding cached models.
+   * @param maxBytes the largest total size, in bytes, that the cache may grow to.
+   * @throws IllegalArgumentException if maxBytes <= 0 or the directory cannot be created.
+   * @throws NullPointerException if directory is null.
+   */
+  public AnimationCache(String directory, long maxBytes)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(directory);
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("cache size must be greater than 0");
+    }
+    this.directory = new File(directory);
+    if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+      throw new IllegalArgumentException("could not create cache directory " + directory);
+    }
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Reads a model from the given file, serving it from the cache when an entry for the file's
+   * current contents exists. On a miss, the file is parsed with the given reader and builder, and
+   * the result is stored, unless the file changed while it was being parsed.
+   *
+   * @param fileName the path of the file to be read.
+   * @param reader the AnimationFileReader used on a cache miss.
+   * @param builder the builder used to build the model on a cache miss.
+   * @param <IAnimation> the type of model.
+   * @return the model.
+   * @throws FileNotFoundException if the specified file cannot be read.
+   */
+  public <IAnimation> IAnimation readFile(String fileName, AnimationFileReader reader,
+      TweenModelBuilder<IAnimation> builder) throws FileNotFoundException {
+    String key = this.makeKey(fileName, builder);
+    File entry = new File(this.directory, key + SUFFIX);
+
+    IAnimation cached = this.load(entry, builder);
+    if (cached != null) {
+      return cached;
+    }
+
+    IAnimation model = reader.readFile(fileName, builder);
+
+    // never store a model whose input changed underneath the reader
+    if (key.equals(this.makeKey(fileName, builder))) {
+      this.store(entry, builder, model);
+      this.evict();
+    }
+    return model;
+  }
+
+  /**
+   * Computes the key of the given file: the hash of its contents followed by the reader version
+   * and the name of the builder's class.
+   *
+   * @param fileName the path of the file to hash.
+   * @param builder the builder the model is built with.
+   * @return a String usable as a file name.
+   * @throws FileNotFoundException if the file cannot be read.
+   */
+  private String makeKey(String fileName, TweenModelBuilder<?> builder)
+      throws FileNotFoundException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available");
+    }
+    byte[] buffer = new byte[1 << 16];
+    try (InputStream in = new FileInputStream(fileName)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new FileNotFoundException("could not read " + fileName + ": " + e.getMessage());
+    }
+
+    StringBuilder key = new StringBuilder();
+    for (byte b : digest.digest()) {
+      key.append(String.format("%02x", b));
+    }
+    key.append("-v").append(AnimationFileReader.VERSION).append('-')
+        .append(builder.getClass().getName());
+    return key.toString();
+  }
+
+  /**
+   * Loads a cached model, returning null on a miss. Entries that were written by a different
+   * builder, or that can no longer be deserialized (for example after the model classes changed),
+   * are deleted and treated as misses.
+   *
+   * @param entry the cache file.
+   * @param builder the builder whose model type is expected.
+   * @param <IAnimation> the type of model.
+   * @return the cached model, or null.
+   */
+  @SuppressWarnings("unchecked")
+  private <IAnimation> IAnimation load(File entry, TweenModelBuilder<IAnimation> builder) {
+    if (!entry.isFile()) {
+      return null;
+    }
+    try (ObjectInputStream in = new ModelInputStream(new FileInputStream(entry))) {
+      int version = in.readInt();
+      String builderName = in.readUTF();
+      if (version != AnimationFileReader.VERSION
+          || !builderName.equals(builder.getClass().getName())) {
+        throw new InvalidClassException("cache entry was built by " + builderName);
+      }
+      IAnimation model = (IAnimation) in.readObject();
+      entry.setLastModified(System.currentTimeMillis()); // mark as recently used
+      return model;
+    } catch (Exception e) {
+      entry.delete();
+      return null;
+    }
+  }
+
+  /**
+   * Stores a model in the cache. The entry is written to a temporary file and then moved into
+   * place, so that a partially written entry is never visible to a reader.
+   *
+   * @param entry the cache file.
+   * @param builder the builder that built the model.
+   * @param model the model to store.
+   */
+  private void store(File entry, TweenModelBuilder<?> builder, Object model) {
+    File temp = null;
+    try {
+      temp = File.createTempFile("entry", ".tmp", this.directory);
+      try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(temp))) {
+        out.writeInt(AnimationFileReader.VERSION);
+        out.writeUTF(builder.getClass().getName());
+        out.writeObject(model);
+      }
+      Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (Exception e) {
+      System.err.println("could not write to animation cache: " + e.getMessage());
+      if (temp != null) {
+        temp.delete();
+      }
+    }
+  }
+
+  /**
+   * Deletes the least recently used entries until the cache fits within its size limit.
+   */
+  private void evict() {
+    File[] entries = this.directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+    if (entries == null) {
+      return;
+    }
+    long total = 0;
+    for (File entry : entries) {
+      total += entry.length();
+    }
+    List<File> byAge = new ArrayList<>(Arrays.asList(entries));
+    byAge.sort(Comparator.comparingLong(File::lastModified));
+    for (File entry : byAge) {
+      if (total <= this.maxBytes) {
+        break;
+      }
+      long length = entry.length();
+      if (entry.delete()) {
+        total -= length;
+      }
+    }
+  }
+
+  /**
+   * An ObjectInputStream that only resolves model classes and the few library classes they are
+   * built from, so that a tampered cache file cannot instantiate arbitrary classes.
+   */
+  private static class ModelInputStream extends ObjectInputStream {
+
+    /**
+     * Creates a new ModelInputStream reading from the given stream.
+     *
+     * @param in the stream to read from.
+     * @throws IOException if the stream header cannot be read.
+     */
+    ModelInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc)
+        throws IOException, ClassNotFoundException {
+      String name = desc.getName();
+      if (name.startsWith("[")) {
+        // arrays are allowed if they hold primitives or allowed classes
+        name = name.substring(name.lastIndexOf('[') + 1);
+        if (name.length() == 1) {
+          return super.resolveClass(desc);
+        }
+        name = name.substring(1);
+      }
+      if (name.startsWith(ALLOWED_PACKAGE)) {
+        return super.resolveClass(desc);
+      }
+      for (String allowed : ALLOWED_CLASSES) {
+        if (name.equals(allowed)) {
+          return super.resolveClass(desc);
+        }
+      }
+      throw new InvalidClassException(name, "not allowed in an animation cache");
+    }
+  }
+}
@@ -5,7 +5,6 @@ import java.io.FileNotFoundException;
 import java.util.HashMap;
 import java.util.InputMismatchException;
 import java.util.Map;
-import java.util.Scanner;
 
 /**
  * This class represents a file reader for the animation file. This reads in the file in the
@@ -16,7 +15,16 @@ import java.util.Scanner;
 public class AnimationFileReader {
 
   /**
-   * Read the animation file and use the builder to build a model.
+   * The version of this parser and of the models it builds. Must be increased whenever a change to
+   * the reader alters the model it builds from the same input, or a change to a Serializable model
+   * class alters the fields it is stored with, so that cached models built by older readers are
+   * not reused. Version 2 added Shape ids, the ShapeSymbolTable and deferred validation.
+   */
+  public static final int VERSION = 2;
+
+  /**
+   * Read the animation file and use the builder to build a model. Before each shape or
+   * transformation is added, the builder is told the line of the file it was read from.
    *
    * @param fileName the path of the file to be read
    * @param builder the builder used to build the model
@@ -29,12 +37,13 @@ public class AnimationFileReader {
   public <IAnimation> IAnimation readFile(String fileName, TweenModelBuilder<IAnimation> builder)
       throws
       FileNotFoundException, IllegalStateException, InputMismatchException {
-    Scanner sc;
+    LineScanner sc;
 
-    sc = new Scanner(new FileInputStream(fileName));
+    sc = new LineScanner(new FileInputStream(fileName));
 
     while (sc.hasNext()) {
       String command = sc.next();
+      builder.setSourceLine(sc.getLine());
       ShapeInfo shapeInfo;
       switch (command) {
         case "rectangle":
@@ -94,6 +103,7 @@ public class AnimationFileReader {
 
       }
     }
+    sc.close();
     return builder.build();
   }
 
@@ -105,7 +115,7 @@ public class AnimationFileReader {
    * @throws IllegalStateException if incorrect text is passed to it.
    * @throws InputMismatchException if error in parsing.
    */
-  private RectangleInfo readRectangleInfo(Scanner sc) throws
+  private RectangleInfo readRectangleInfo(LineScanner sc) throws
       IllegalStateException, InputMismatchException {
     RectangleInfo info = new RectangleInfo();
 
@@ -155,7 +165,7 @@ public class AnimationFileReader {
    * @throws IllegalStateException if incorrect text is passed to it.
    * @throws InputMismatchException if error in parsing.
    */
-  private OvalInfo readOvalInfo(Scanner sc) throws
+  private OvalInfo readOvalInfo(LineScanner sc) throws
       IllegalStateException, InputMismatchException {
     OvalInfo info = new OvalInfo();
 
@@ -205,7 +215,7 @@ public class AnimationFileReader {
    * @throws IllegalStateException if incorrect text is passed to it.
    * @throws InputMismatchException if error in parsing.
    */
-  private MoveInfo readMoveInfo(Scanner sc) throws
+  private MoveInfo readMoveInfo(LineScanner sc) throws
       IllegalStateException, InputMismatchException {
     MoveInfo info = new MoveInfo();
 
@@ -244,7 +254,7 @@ public class AnimationFileReader {
    * @throws IllegalStateException if incorrect text is passed to it.
    * @throws InputMismatchException if error in parsing.
    */
-  private ChangeColorInfo readChangeColorInfo(Scanner sc) throws
+  private ChangeColorInfo readChangeColorInfo(LineScanner sc) throws
       IllegalStateException, InputMismatchException {
     ChangeColorInfo info = new ChangeColorInfo();
 
@@ -285,7 +295,7 @@ public class AnimationFileReader {
    * @throws IllegalStateException if incorrect text is passed to it.
    * @throws InputMismatchException if error in parsing.
    */
-  private ScaleByInfo readScaleByInfo(Scanner sc) throws
+  private ScaleByInfo readScaleByInfo(LineScanner sc) throws
       IllegalStateException, InputMismatchException {
     ScaleByInfo info = new ScaleByInfo();
 
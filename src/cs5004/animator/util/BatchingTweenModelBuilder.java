@@ -0,0 +1,285 @@
+package cs5004.animator.util;
+
+import java.util.Objects;
+
+/**
+ * An adapter from the TweenModelBuilder interface to a TweenModelBatchBuilder, so that the
+ * AnimationFileReader and other one-call-per-row producers can build through the batch API. Calls
+ * are buffered into reusable columns and handed to the batch builder as one batch whenever the
+ * columns fill up, a different kind of call arrives, or the model is built. Because a batch only
+ * ever holds one kind of call, the batch builder sees every row in its original order. An invalid
+ * row is therefore reported by the call that hands on its batch, or by build(), rather than by
+ * the call that added it; the exception is the one the row would have raised on its own.
+ */
+
+public class BatchingTweenModelBuilder<IAnimation> implements TweenModelBuilder<IAnimation> {
+
+  private static final int DEFAULT_CAPACITY = 4096;
+
+  private static final int NONE = 0;
+  private static final int OVAL = 1;
+  private static final int RECTANGLE = 2;
+  private static final int MOVE = 3;
+  private static final int COLOR = 4;
+  private static final int SCALE = 5;
+
+  private final TweenModelBatchBuilder<IAnimation> batchBuilder;
+  private final String[] names;
+  private final float[][] floats;
+  private final int[] starts;
+  private final int[] ends;
+  private int kind;
+  private int count;
+
+  /**
+   * Creates a new BatchingTweenModelBuilder with a default batch size.
+   *
+   * @param batchBuilder the batch builder to hand batches to.
+   * @throws NullPointerException if batchBuilder is null.
+   */
+  public BatchingTweenModelBuilder(TweenModelBatchBuilder<IAnimation> batchBuilder)
+      throws NullPointerException {
+    this(batchBuilder, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new BatchingTweenModelBuilder.
+   *
+   * @param batchBuilder the batch builder to hand batches to.
+   * @param capacity the largest number of rows in a batch.
+   * @throws NullPointerException if batchBuilder is null.
+   * @throws IllegalArgumentException if capacity <= 0.
+   */
+  public BatchingTweenModelBuilder(TweenModelBatchBuilder<IAnimation> batchBuilder, int capacity)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(batchBuilder);
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than 0");
+    }
+    this.batchBuilder = batchBuilder;
+    this.names = new String[capacity];
+    this.floats = new float[7][capacity];
+    this.starts = new int[capacity];
+    this.ends = new int[capacity];
+    this.kind = NONE;
+    this.count = 0;
+  }
+
+  /**
+   * Prepares the columns for a row of the given kind, first flushing any buffered rows of another
+   * kind, or a full batch.
+   *
+   * @param rowKind the kind of row about to be added.
+   * @return the index of the new row.
+   */
+  private int nextRow(int rowKind) {
+    if (rowKind != this.kind || this.count == this.names.length) {
+      this.flush();
+      this.kind = rowKind;
+    }
+    return this.count++;
+  }
+
+  /**
+   * Hands every buffered row to the batch builder.
+   */
+  private void flush() {
+    float[][] f = this.floats;
+    switch (this.kind) {
+      case OVAL:
+        this.batchBuilder.addOvals(this.names, f[0], f[1], f[2], f[3], f[4], f[5], f[6],
+            this.starts, this.ends, this.count);
+        break;
+      case RECTANGLE:
+        this.batchBuilder.addRectangles(this.names, f[0], f[1], f[2], f[3], f[4], f[5], f[6],
+            this.starts, this.ends, this.count);
+        break;
+      case MOVE:
+        this.batchBuilder.addMoves(this.names, f[0], f[1], f[2], f[3],
+            this.starts, this.ends, this.count);
+        break;
+      case COLOR:
+        this.batchBuilder.addColorChanges(this.names, f[0], f[1], f[2], f[3], f[4], f[5],
+            this.starts, this.ends, this.count);
+        break;
+      case SCALE:
+        this.batchBuilder.addScaleToChanges(this.names, f[0], f[1], f[2], f[3],
+            this.starts, this.ends, this.count);
+        break;
+      default:
+        break;
+    }
+    this.kind = NONE;
+    this.count = 0;
+  }
+
+  /**
+   * Add a new oval to the model with the given specifications.
+   *
+   * @param name the unique name given to this shape
+   * @param cx the x-coordinate of the center of the oval
+   * @param cy the y-coordinate of the center of the oval
+   * @param xRadius the x-radius of the oval
+   * @param yRadius the y-radius of the oval
+   * @param red the red component of the color of the oval
+   * @param green the green component of the color of the oval
+   * @param blue the blue component of the color of the oval
+   * @param startOfLife the time tick at which this oval appears
+   * @param endOfLife the time tick at which this oval disappears
+   * @return the builder object
+   */
+  public TweenModelBuilder<IAnimation> addOval(
+      String name,
+      float cx, float cy,
+      float xRadius, float yRadius,
+      float red, float green, float blue,
+      int startOfLife, int endOfLife) {
+    int row = this.nextRow(OVAL);
+    float[][] f = this.floats;
+    this.names[row] = name;
+    f[0][row] = cx;
+    f[1][row] = cy;
+    f[2][row] = xRadius;
+    f[3][row] = yRadius;
+    f[4][row] = red;
+    f[5][row] = green;
+    f[6][row] = blue;
+    this.starts[row] = startOfLife;
+    this.ends[row] = endOfLife;
+    return this;
+  }
+
+  /**
+   * Add a new rectangle to the model with the given specifications.
+   *
+   * @param name the unique name given to this shape
+   * @param lx the minimum x-coordinate of a corner of the rectangle
+   * @param ly the minimum y-coordinate of a corner of the rectangle
+   * @param width the xSize of the rectangle
+   * @param height the ySize of the rectangle
+   * @param red the red component of the color of the rectangle
+   * @param green the green component of the color of the rectangle
+   * @param blue the blue component of the color of the rectangle
+   * @param startOfLife the time tick at which this rectangle appears
+   * @param endOfLife the time tick at which this rectangle disappears
+   * @return the builder object
+   */
+  public TweenModelBuilder<IAnimation> addRectangle(
+      String name,
+      float lx, float ly,
+      float width, float height,
+      float red, float green, float blue,
+      int startOfLife, int endOfLife) {
+    int row = this.nextRow(RECTANGLE);
+    float[][] f = this.floats;
+    this.names[row] = name;
+    f[0][row] = lx;
+    f[1][row] = ly;
+    f[2][row] = width;
+    f[3][row] = height;
+    f[4][row] = red;
+    f[5][row] = green;
+    f[6][row] = blue;
+    this.starts[row] = startOfLife;
+    this.ends[row] = endOfLife;
+    return this;
+  }
+
+  /**
+   * Move the specified shape to the given position during the given time interval.
+   *
+   * @param name the unique name of the shape to be moved
+   * @param moveFromX the x-coordinate of the initial position of this shape.
+   * @param moveFromY the y-coordinate of the initial position of this shape.
+   * @param moveToX the x-coordinate of the final position of this shape.
+   * @param moveToY the y-coordinate of the final position of this shape.
+   * @param startTime the time tick at which this movement should start
+   * @param endTime the time tick at which this movement should end
+   */
+  public TweenModelBuilder<IAnimation> addMove(
+      String name,
+      float moveFromX, float moveFromY, float moveToX, float moveToY,
+      int startTime, int endTime) {
+    int row = this.nextRow(MOVE);
+    float[][] f = this.floats;
+    this.names[row] = name;
+    f[0][row] = moveFromX;
+    f[1][row] = moveFromY;
+    f[2][row] = moveToX;
+    f[3][row] = moveToY;
+    this.starts[row] = startTime;
+    this.ends[row] = endTime;
+    return this;
+  }
+
+  /**
+   * Change the color of the specified shape to the new specified color in the specified time
+   * interval.
+   *
+   * @param name the unique name of the shape whose color is to be changed
+   * @param oldR the r-component of the old color
+   * @param oldG the g-component of the old color
+   * @param oldB the b-component of the old color
+   * @param newR the r-component of the new color
+   * @param newG the g-component of the new color
+   * @param newB the b-component of the new color
+   * @param startTime the time tick at which this color change should start
+   * @param endTime the time tick at which this color change should end
+   */
+  public TweenModelBuilder<IAnimation> addColorChange(
+      String name,
+      float oldR, float oldG, float oldB, float newR, float newG, float newB,
+      int startTime, int endTime) {
+    int row = this.nextRow(COLOR);
+    float[][] f = this.floats;
+    this.names[row] = name;
+    f[0][row] = oldR;
+    f[1][row] = oldG;
+    f[2][row] = oldB;
+    f[3][row] = newR;
+    f[4][row] = newG;
+    f[5][row] = newB;
+    this.starts[row] = startTime;
+    this.ends[row] = endTime;
+    return this;
+  }
+
+  /**
+   * Change the x and y extents of this shape from the specified extents to the specified target
+   * extents. What these extents actually mean depends on the shape, but these are roughly the
+   * extents of the box enclosing the shape
+   */
+  public TweenModelBuilder<IAnimation> addScaleToChange(String name, float fromSx, float fromSy,
+      float toSx, float toSy, int startTime, int endTime) {
+    int row = this.nextRow(SCALE);
+    float[][] f = this.floats;
+    this.names[row] = name;
+    f[0][row] = fromSx;
+    f[1][row] = fromSy;
+    f[2][row] = toSx;
+    f[3][row] = toSy;
+    this.starts[row] = startTime;
+    this.ends[row] = endTime;
+    return this;
+  }
+
+  /**
+   * Hands any buffered rows to the batch builder, then returns the model built so far.
+   *
+   * @return the model that was constructed so far
+   */
+  public IAnimation build() {
+    this.flush();
+    return this.batchBuilder.build();
+  }
+
+  /**
+   * Return itself as a String.
+   *
+   * @return an empty string, as the builder itself stores no information.
+   */
+  @Override
+  public String toString() {
+    return "";
+  }
+}
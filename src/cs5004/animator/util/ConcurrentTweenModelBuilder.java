@@ -0,0 +1,383 @@
+package cs5004.animator.util;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.ITransformation;
+import cs5004.animator.model.ShapeCircle;
+import cs5004.animator.model.ShapeOval;
+import cs5004.animator.model.ShapeRectangle;
+import cs5004.animator.model.TransformColor;
+import cs5004.animator.model.TransformMove;
+import cs5004.animator.model.TransformScale;
+import cs5004.animator.model.TransformationValidator;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe TweenModelBuilder, for building one IAnimation from several producer threads.
+ * Shapes are kept in stripes chosen by the hash of their name, each guarded by its own lock, so
+ * producers working on different shapes rarely contend; only shapes sharing a stripe wait on each
+ * other's validation.
+ * Every call is validated under its shape's stripe lock with the same rules as Animation, so the
+ * transformations accepted for a shape only depend on the order in which calls for that shape
+ * arrive. The build() method locks every stripe, copies a consistent snapshot, and builds a fresh
+ * IAnimation from it, with new instances of every shape and transformation, so models built one
+ * after another share nothing; producers may keep adding while, or after, a model is built.
+ */
+
+public class ConcurrentTweenModelBuilder implements TweenModelBuilder<IAnimation> {
+
+  private static final int DEFAULT_STRIPES = 64;
+
+  private final Stripe[] stripes;
+  private final AtomicLong sequence;
+
+  /**
+   * Creates a new ConcurrentTweenModelBuilder with a default number of stripes.
+   */
+  public ConcurrentTweenModelBuilder() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   * Creates a new ConcurrentTweenModelBuilder.
+   *
+   * @param stripeCount the number of independently locked stripes to spread shapes across.
+   * @throws IllegalArgumentException if stripeCount <= 0.
+   */
+  public ConcurrentTweenModelBuilder(int stripeCount) throws IllegalArgumentException {
+    if (stripeCount <= 0) {
+      throw new IllegalArgumentException("stripe count must be greater than 0");
+    }
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      this.stripes[i] = new Stripe();
+    }
+    this.sequence = new AtomicLong();
+  }
+
+  /**
+   * Finds the stripe that holds the shape with the given upper case name.
+   *
+   * @param upperName the upper case name of a shape.
+   * @return the Stripe for that name.
+   */
+  private Stripe stripeFor(String upperName) {
+    int hash = upperName.hashCode();
+    hash ^= (hash >>> 16);
+    return this.stripes[Math.floorMod(hash, this.stripes.length)];
+  }
+
+  /**
+   * Adjusts all color values to the result of multiplying them by 100, as TweenModelBuilderImpl
+   * does.
+   *
+   * @param red the red component, from 0 to 1.
+   * @param green the green component, from 0 to 1.
+   * @param blue the blue component, from 0 to 1.
+   * @return a new Color with values from 0 to 100.
+   */
+  private static Color colorBy100(float red, float green, float blue) {
+    Color inputColor = new Color(red, green, blue);
+    return new Color(inputColor.getRed() * 100, inputColor.getGreen() * 100,
+        inputColor.getBlue() * 100);
+  }
+
+  /**
+   * Adds a shape unless a shape of the same name already exists, as Animation does. The maker is
+   * called once here, so that invalid shapes are reported to the producer, and once more for
+   * every model built.
+   *
+   * @param name the name of the shape.
+   * @param maker creates a new instance of the shape.
+   * @return the builder object.
+   */
+  private ConcurrentTweenModelBuilder addShape(String name, Supplier<IShape> maker) {
+    IShape shape = maker.get();
+    String upperName = name.toUpperCase();
+    Stripe stripe = this.stripeFor(upperName);
+    stripe.lock.lock();
+    try {
+      if (!stripe.entries.containsKey(upperName)) {
+        stripe.entries.put(upperName, new ShapeEntry(this.sequence.getAndIncrement(), shape,
+            maker));
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+    return this;
+  }
+
+  /**
+   * Validates and adds a transformation to the shape with the given name. Moves and scales on a
+   * shape that does not exist are skipped, as in TweenModelBuilderImpl; color changes on a shape
+   * that does not exist are rejected, as in Animation.
+   *
+   * @param name the name of the shape.
+   * @param maker creates the transformation for the shape, once its entry is known.
+   * @param needsShape true if the transformation is skipped when the shape does not exist.
+   * @return the builder object.
+   * @throws IllegalArgumentException if the transformation is invalid for its shape.
+   */
+  private ConcurrentTweenModelBuilder addTransformation(String name,
+      TransformationMaker maker, boolean needsShape) throws IllegalArgumentException {
+    String upperName = name.toUpperCase();
+    Stripe stripe = this.stripeFor(upperName);
+    stripe.lock.lock();
+    try {
+      ShapeEntry entry = stripe.entries.get(upperName);
+      IShape shape = (entry == null) ? null : entry.shape;
+      if (shape == null && needsShape) {
+        System.err.println("no shape named " + name);
+        return this;
+      }
+      ITransformation transformation = maker.make(shape);
+      List<ITransformation> accepted = (entry == null)
+          ? Collections.emptyList() : entry.transformations;
+      TransformationValidator.validate(shape, accepted, transformation);
+      entry.transformations.add(transformation);
+      entry.transformationMakers.add(maker);
+    } finally {
+      stripe.lock.unlock();
+    }
+    return this;
+  }
+
+  /**
+   * Add a new oval to the model with the given specifications.
+   *
+   * @param name the unique name given to this shape
+   * @param cx the x-coordinate of the center of the oval
+   * @param cy the y-coordinate of the center of the oval
+   * @param xRadius the x-radius of the oval
+   * @param yRadius the y-radius of the oval
+   * @param red the red component of the color of the oval
+   * @param green the green component of the color of the oval
+   * @param blue the blue component of the color of the oval
+   * @param startOfLife the time tick at which this oval appears
+   * @param endOfLife the time tick at which this oval disappears
+   * @return the builder object
+   */
+  public TweenModelBuilder<IAnimation> addOval(
+      String name,
+      float cx, float cy,
+      float xRadius, float yRadius,
+      float red, float green, float blue,
+      int startOfLife, int endOfLife) {
+    Color color = colorBy100(red, green, blue);
+    if (xRadius == yRadius) {
+      return this.addShape(name, () -> new ShapeCircle(name, color, startOfLife, endOfLife,
+          new Point2D.Double(cx, cy), xRadius));
+    } else {
+      return this.addShape(name, () -> new ShapeOval(name, color, startOfLife, endOfLife,
+          new Point2D.Double(cx, cy), xRadius, yRadius));
+    }
+  }
+
+  /**
+   * Add a new rectangle to the model with the given specifications.
+   *
+   * @param name the unique name given to this shape
+   * @param lx the minimum x-coordinate of a corner of the rectangle
+   * @param ly the minimum y-coordinate of a corner of the rectangle
+   * @param width the xSize of the rectangle
+   * @param height the ySize of the rectangle
+   * @param red the red component of the color of the rectangle
+   * @param green the green component of the color of the rectangle
+   * @param blue the blue component of the color of the rectangle
+   * @param startOfLife the time tick at which this rectangle appears
+   * @param endOfLife the time tick at which this rectangle disappears
+   * @return the builder object
+   */
+  public TweenModelBuilder<IAnimation> addRectangle(
+      String name,
+      float lx, float ly,
+      float width, float height,
+      float red, float green, float blue,
+      int startOfLife, int endOfLife) {
+    Color color = colorBy100(red, green, blue);
+    return this.addShape(name, () -> new ShapeRectangle(name, color, startOfLife, endOfLife,
+        new Point2D.Double(lx, ly), width, height));
+  }
+
+  /**
+   * Move the specified shape to the given position during the given time interval.
+   *
+   * @param name the unique name of the shape to be moved
+   * @param moveFromX the x-coordinate of the initial position of this shape.
+   * @param moveFromY the y-coordinate of the initial position of this shape.
+   * @param moveToX the x-coordinate of the final position of this shape.
+   * @param moveToY the y-coordinate of the final position of this shape.
+   * @param startTime the time tick at which this movement should start
+   * @param endTime the time tick at which this movement should end
+   */
+  public TweenModelBuilder<IAnimation> addMove(
+      String name,
+      float moveFromX, float moveFromY, float moveToX, float moveToY,
+      int startTime, int endTime) {
+    return this.addTransformation(name, shape -> new TransformMove(
+        new Point2D.Double(moveFromX, moveFromY), new Point2D.Double(moveToX, moveToY),
+        startTime, endTime, shape.getName(), shape.getType()), true);
+  }
+
+  /**
+   * Change the color of the specified shape to the new specified color in the specified time
+   * interval.
+   *
+   * @param name the unique name of the shape whose color is to be changed
+   * @param oldR the r-component of the old color
+   * @param oldG the g-component of the old color
+   * @param oldB the b-component of the old color
+   * @param newR the r-component of the new color
+   * @param newG the g-component of the new color
+   * @param newB the b-component of the new color
+   * @param startTime the time tick at which this color change should start
+   * @param endTime the time tick at which this color change should end
+   */
+  public TweenModelBuilder<IAnimation> addColorChange(
+      String name,
+      float oldR, float oldG, float oldB, float newR, float newG, float newB,
+      int startTime, int endTime) {
+    Color oldColor = colorBy100(oldR, oldG, oldB);
+    Color newColor = colorBy100(newR, newG, newB);
+    return this.addTransformation(name, shape -> new TransformColor(startTime, endTime,
+        shape == null ? name : shape.getName(), oldColor, newColor), false);
+  }
+
+  /**
+   * Change the x and y extents of this shape from the specified extents to the specified target
+   * extents. What these extents actually mean depends on the shape, but these are roughly the
+   * extents of the box enclosing the shape
+   */
+  public TweenModelBuilder<IAnimation> addScaleToChange(String name, float fromSx, float fromSy,
+      float toSx, float toSy, int startTime, int endTime) {
+    return this.addTransformation(name, shape -> new TransformScale(fromSx, fromSy, toSx, toSy,
+        startTime, endTime, shape.getName(), shape.getType()), true);
+  }
+
+  /**
+   * Builds a new IAnimation from a consistent snapshot of everything added so far. Every stripe is
+   * locked while the snapshot is copied, so the model reflects a single point in time. Shapes keep
+   * the order in which they were first added.
+   *
+   * @return a new model containing every shape and transformation added so far
+   */
+  public IAnimation build() {
+    List<ShapeEntry> snapshot = new ArrayList<>();
+    for (Stripe stripe : this.stripes) {
+      stripe.lock.lock();
+    }
+    try {
+      for (Stripe stripe : this.stripes) {
+        for (ShapeEntry entry : stripe.entries.values()) {
+          snapshot.add(new ShapeEntry(entry.sequence, null, entry.maker,
+              new ArrayList<>(entry.transformationMakers)));
+        }
+      }
+    } finally {
+      for (int i = this.stripes.length - 1; i >= 0; i--) {
+        this.stripes[i].lock.unlock();
+      }
+    }
+
+    snapshot.sort(Comparator.comparingLong(entry -> entry.sequence));
+    // every model gets its own shapes and transformations, as Animation assigns them ids
+    IAnimation animation = new Animation();
+    List<IShape> shapes = new ArrayList<>(snapshot.size());
+    for (ShapeEntry entry : snapshot) {
+      IShape shape = entry.maker.get();
+      shapes.add(shape);
+      animation.addShape(shape);
+    }
+    for (int i = 0; i < snapshot.size(); i++) {
+      for (TransformationMaker maker : snapshot.get(i).transformationMakers) {
+        animation.addTransformation(maker.make(shapes.get(i)));
+      }
+    }
+    return animation;
+  }
+
+  /**
+   * Return itself as a String.
+   *
+   * @return an empty string, as the builder itself stores no information.
+   */
+  @Override
+  public String toString() {
+    return "";
+  }
+
+  /**
+   * Creates an ITransformation for a shape, once the shape's entry has been found.
+   */
+  private interface TransformationMaker {
+
+    /**
+     * Creates an ITransformation applying to the given shape.
+     *
+     * @param shape the shape, or null if there is none.
+     * @return a new ITransformation.
+     */
+    ITransformation make(IShape shape);
+  }
+
+  /**
+   * A group of shapes sharing a lock.
+   */
+  private static class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, ShapeEntry> entries = new HashMap<>();
+  }
+
+  /**
+   * A shape and the transformations accepted for it, in the order they were accepted, along with
+   * the makers of each, so that every model built gets new instances of them.
+   */
+  private static class ShapeEntry {
+
+    private final long sequence;
+    private final IShape shape;
+    private final Supplier<IShape> maker;
+    private final List<ITransformation> transformations;
+    private final List<TransformationMaker> transformationMakers;
+
+    /**
+     * Creates a new ShapeEntry with no transformations.
+     *
+     * @param sequence the order in which the shape was added.
+     * @param shape an instance of the shape, used for validation.
+     * @param maker creates new instances of the shape.
+     */
+    ShapeEntry(long sequence, IShape shape, Supplier<IShape> maker) {
+      this(sequence, shape, maker, new ArrayList<>());
+    }
+
+    /**
+     * Creates a new ShapeEntry.
+     *
+     * @param sequence the order in which the shape was added.
+     * @param shape an instance of the shape, used for validation.
+     * @param maker creates new instances of the shape.
+     * @param transformationMakers the makers of the transformations accepted for the shape.
+     */
+    ShapeEntry(long sequence, IShape shape, Supplier<IShape> maker,
+        List<TransformationMaker> transformationMakers) {
+      this.sequence = sequence;
+      this.shape = shape;
+      this.maker = maker;
+      this.transformations = new ArrayList<>();
+      this.transformationMakers = transformationMakers;
+    }
+  }
+}
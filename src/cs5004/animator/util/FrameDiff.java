@@ -0,0 +1,94 @@
+package cs5004.animator.util;
+
+import cs5004.animator.model.IRenderableShape;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Finds where one frame of shapes differs from the frame before it, so that only that part need
+ * be painted again. The frames are compared as multisets of equal shapes: a shape in only one of
+ * them, because it appeared, disappeared, moved, resized or changed color, may change the pixels
+ * within its bounds, and nothing else does, as long as the shapes in both are painted in the same
+ * order relative to each other. If they are not, every pixel either frame paints may change.
+ */
+
+public final class FrameDiff {
+
+  /**
+   * This class only has static methods, and cannot be instantiated.
+   */
+  private FrameDiff() {
+  }
+
+  /**
+   * Finds the smallest rectangle outside of which painting two frames gives the same pixels.
+   *
+   * @param previous the shapes of the frame painted before, in the order they were painted.
+   * @param next the shapes of the frame to paint, in the order they are painted.
+   * @return the rectangle, which is empty if the frames paint exactly the same pixels.
+   * @throws NullPointerException if either frame is null.
+   */
+  public static Rectangle changedBounds(List<IRenderableShape> previous,
+      List<IRenderableShape> next) throws NullPointerException {
+    Objects.requireNonNull(previous);
+    Objects.requireNonNull(next);
+    Map<IRenderableShape, Integer> unmatched = count(next);
+    Rectangle changed = new Rectangle();
+    List<IRenderableShape> keptBefore = new ArrayList<>(previous.size());
+    for (IRenderableShape shape : previous) {
+      if (unmatched.merge(shape, -1, Integer::sum) >= 0) {
+        keptBefore.add(shape);
+      } else {
+        changed = union(changed, shape.getBounds());
+      }
+    }
+    Map<IRenderableShape, Integer> kept = count(keptBefore);
+    int index = 0;
+    boolean reordered = false;
+    for (IRenderableShape shape : next) {
+      if (kept.merge(shape, -1, Integer::sum) >= 0) {
+        reordered |= !shape.equals(keptBefore.get(index++));
+      } else {
+        changed = union(changed, shape.getBounds());
+      }
+    }
+    if (reordered) {
+      for (IRenderableShape shape : keptBefore) {
+        changed = union(changed, shape.getBounds());
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Counts how many times each shape appears in a frame.
+   *
+   * @param frame the shapes of the frame.
+   * @return the count of each distinct shape.
+   */
+  private static Map<IRenderableShape, Integer> count(List<IRenderableShape> frame) {
+    Map<IRenderableShape, Integer> counts = new HashMap<>(frame.size() * 2);
+    for (IRenderableShape shape : frame) {
+      counts.merge(shape, 1, Integer::sum);
+    }
+    return counts;
+  }
+
+  /**
+   * Finds the smallest rectangle holding two others, ignoring either if it is empty.
+   *
+   * @param first a rectangle.
+   * @param second another rectangle.
+   * @return the union of the rectangles.
+   */
+  private static Rectangle union(Rectangle first, Rectangle second) {
+    if (second.isEmpty()) {
+      return first;
+    }
+    return first.isEmpty() ? second : first.union(second);
+  }
+}
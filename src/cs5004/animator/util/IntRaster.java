@@ -0,0 +1,318 @@
+package cs5004.animator.util;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An image whose pixels are filled directly, as an int array, rather than through the Java2D
+ * pipeline. Only axis aligned rectangles and ellipses of one solid color are filled, which is all
+ * the shapes of an animation ever are, so each is filled row by row, a span of the array at a
+ * time. Each shape covers the same pixels as the outline and the fill Graphics draws for it
+ * together, so nothing is drawn twice; ellipses may differ from Graphics by a pixel at their
+ * edge. The span of each row of an ellipse depends only on its width and height, so the spans of
+ * recent sizes are kept, shared between every IntRaster.
+ *
+ * <p>An IntRaster may be drawn into at an origin other than the corner of the animation, so that
+ * it holds only part of it, and may be clipped to a part of its image. Clipped IntRasters share the
+ * pixels of the IntRaster they were clipped from, so IntRasters clipped to parts which do not
+ * overlap may be filled at the same time on different threads. Otherwise not thread safe.
+ */
+
+public final class IntRaster {
+
+  private static final int OPAQUE = 0xff000000;
+  private static final int MAX_CACHED_OVALS = 1024;
+  private static final Map<Long, int[]> OVAL_SPANS = new ConcurrentHashMap<>();
+
+  private final BufferedImage image;
+  private final int[] pixels;
+  private final int width;
+  private final int height;
+  private final int clipLeft;
+  private final int clipTop;
+  private final int clipRight;
+  private final int clipBottom;
+  private int originX;
+  private int originY;
+
+  /**
+   * Creates a new IntRaster with an image of its own.
+   *
+   * @param width the width of the image, at least 1.
+   * @param height the height of the image, at least 1.
+   * @throws IllegalArgumentException if the width or height is less than 1.
+   */
+  public IntRaster(int width, int height) throws IllegalArgumentException {
+    this(newImage(width, height));
+  }
+
+  /**
+   * Creates a new IntRaster which fills an existing image.
+   *
+   * @param image an image of TYPE_INT_RGB or TYPE_INT_ARGB, not a part of a larger image.
+   * @throws NullPointerException if image is null.
+   * @throws IllegalArgumentException if the image does not hold its pixels as one int each.
+   */
+  public IntRaster(BufferedImage image) throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(image);
+    if (image.getType() != BufferedImage.TYPE_INT_RGB
+        && image.getType() != BufferedImage.TYPE_INT_ARGB
+        || image.getRaster().getParent() != null) {
+      throw new IllegalArgumentException("image must be a whole image of int pixels");
+    }
+    this.image = image;
+    this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    this.width = image.getWidth();
+    this.height = image.getHeight();
+    this.clipLeft = 0;
+    this.clipTop = 0;
+    this.clipRight = this.width;
+    this.clipBottom = this.height;
+  }
+
+  /**
+   * Creates a new IntRaster sharing the pixels and origin of another, clipped to part of them.
+   *
+   * @param parent the IntRaster to share the pixels of.
+   * @param left the first column to fill.
+   * @param top the first row to fill.
+   * @param right the column after the last to fill.
+   * @param bottom the row after the last to fill.
+   */
+  private IntRaster(IntRaster parent, int left, int top, int right, int bottom) {
+    this.image = parent.image;
+    this.pixels = parent.pixels;
+    this.width = parent.width;
+    this.height = parent.height;
+    this.clipLeft = left;
+    this.clipTop = top;
+    this.clipRight = Math.max(left, right);
+    this.clipBottom = Math.max(top, bottom);
+    this.originX = parent.originX;
+    this.originY = parent.originY;
+  }
+
+  /**
+   * Gets the image this IntRaster fills.
+   *
+   * @return the image.
+   */
+  public BufferedImage getImage() {
+    return this.image;
+  }
+
+  /**
+   * Gets the width of this IntRaster.
+   *
+   * @return the width in pixels.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of this IntRaster.
+   *
+   * @return the height in pixels.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Sets the point of the animation drawn at the top left pixel of this IntRaster. Anything
+   * outside the IntRaster from there is cut off.
+   *
+   * @param x the x coordinate of the point.
+   * @param y the y coordinate of the point.
+   */
+  public void setOrigin(int x, int y) {
+    this.originX = x;
+    this.originY = y;
+  }
+
+  /**
+   * Gets the x coordinate of the point of the animation drawn at the top left pixel.
+   *
+   * @return the x coordinate.
+   */
+  public int getOriginX() {
+    return this.originX;
+  }
+
+  /**
+   * Gets the y coordinate of the point of the animation drawn at the top left pixel.
+   *
+   * @return the y coordinate.
+   */
+  public int getOriginY() {
+    return this.originY;
+  }
+
+  /**
+   * Creates an IntRaster which fills only a rectangle of this one's pixels, within what this one
+   * fills, from the same origin. Changing the origin of either does not change the other.
+   *
+   * @param x the column of the left of the rectangle.
+   * @param y the row of the top of the rectangle.
+   * @param width the width of the rectangle.
+   * @param height the height of the rectangle.
+   * @return the clipped IntRaster.
+   */
+  public IntRaster clip(int x, int y, int width, int height) {
+    return new IntRaster(this, Math.max(x, this.clipLeft), Math.max(y, this.clipTop),
+        Math.min(x + width, this.clipRight), Math.min(y + height, this.clipBottom));
+  }
+
+  /**
+   * Creates a Graphics which draws into this IntRaster, at its origin, for anything which is not
+   * a plain rectangle or ellipse. It must be disposed of once done with.
+   *
+   * @return the Graphics.
+   */
+  public Graphics2D createGraphics() {
+    Graphics2D graphics = this.image.createGraphics();
+    graphics.clipRect(this.clipLeft, this.clipTop, this.clipRight - this.clipLeft,
+        this.clipBottom - this.clipTop);
+    graphics.translate(-this.originX, -this.originY);
+    return graphics;
+  }
+
+  /**
+   * Fills all of the IntRaster, up to its clip, with one color.
+   *
+   * @param rgb the color, as packed RGB.
+   */
+  public void clear(int rgb) {
+    if (this.clipLeft == 0 && this.clipRight == this.width) {
+      Arrays.fill(this.pixels, this.clipTop * this.width, this.clipBottom * this.width,
+          rgb | OPAQUE);
+    } else {
+      this.fillRows(this.clipTop, this.clipBottom, this.clipLeft, this.clipRight, rgb | OPAQUE);
+    }
+  }
+
+  /**
+   * Fills a rectangle, covering the pixels that Graphics drawRect and fillRect together would:
+   * one more across and down than its width and height. Nothing is filled if either is negative.
+   *
+   * @param x the x coordinate of the left of the rectangle.
+   * @param y the y coordinate of the top of the rectangle.
+   * @param width the width of the rectangle.
+   * @param height the height of the rectangle.
+   * @param rgb the color, as packed RGB.
+   */
+  public void fillRect(int x, int y, int width, int height, int rgb) {
+    if (width < 0 || height < 0) {
+      return;
+    }
+    int left = Math.max(x - this.originX, this.clipLeft);
+    int right = Math.min(x - this.originX + width + 1, this.clipRight);
+    int top = Math.max(y - this.originY, this.clipTop);
+    int bottom = Math.min(y - this.originY + height + 1, this.clipBottom);
+    if (left < right) {
+      this.fillRows(top, bottom, left, right, rgb | OPAQUE);
+    }
+  }
+
+  /**
+   * Fills an ellipse within a rectangle, covering about the pixels that Graphics drawOval and
+   * fillOval together would: those whose centers are within the ellipse that touches every side
+   * of the rectangle those pixels of drawRect and fillRect would cover. Nothing is filled if the
+   * width or height is negative.
+   *
+   * @param x the x coordinate of the left of the rectangle.
+   * @param y the y coordinate of the top of the rectangle.
+   * @param width the width of the rectangle.
+   * @param height the height of the rectangle.
+   * @param rgb the color, as packed RGB.
+   */
+  public void fillOval(int x, int y, int width, int height, int rgb) {
+    if (width < 0 || height < 0) {
+      return;
+    }
+    int left = x - this.originX;
+    int top = y - this.originY;
+    if (left >= this.clipRight || left + width < this.clipLeft || top >= this.clipBottom
+        || top + height < this.clipTop) {
+      return;
+    }
+    int[] spans = ovalSpans(width, height);
+    int color = rgb | OPAQUE;
+    int firstRow = Math.max(0, this.clipTop - top);
+    int lastRow = Math.min(height, this.clipBottom - 1 - top);
+    for (int row = firstRow; row <= lastRow; row++) {
+      int inset = spans[row];
+      int start = Math.max(left + inset, this.clipLeft);
+      int end = Math.min(left + width - inset + 1, this.clipRight);
+      if (start < end) {
+        int offset = (top + row) * this.width;
+        Arrays.fill(this.pixels, offset + start, offset + end, color);
+      }
+    }
+  }
+
+  /**
+   * Fills the same columns of a run of rows with one color.
+   *
+   * @param top the first row.
+   * @param bottom the row after the last.
+   * @param left the first column.
+   * @param right the column after the last.
+   * @param color the color, opaque.
+   */
+  private void fillRows(int top, int bottom, int left, int right, int color) {
+    for (int row = top; row < bottom; row++) {
+      Arrays.fill(this.pixels, row * this.width + left, row * this.width + right, color);
+    }
+  }
+
+  /**
+   * Gets how far in from each side of its rectangle each row of an ellipse starts, finding it if
+   * the ellipse is not a size recently filled. A row is empty if its inset is more than half the
+   * width.
+   *
+   * @param width the width of the ellipse's rectangle.
+   * @param height the height of the ellipse's rectangle.
+   * @return the inset of each of its height + 1 rows.
+   */
+  private static int[] ovalSpans(int width, int height) {
+    Long key = (long) width << 32 | height;
+    int[] spans = OVAL_SPANS.get(key);
+    if (spans == null) {
+      double radiusX = (width + 1) / 2.0;
+      double radiusY = (height + 1) / 2.0;
+      spans = new int[height + 1];
+      for (int row = 0; row <= height; row++) {
+        double dy = (row + 0.5 - radiusY) / radiusY;
+        double half = radiusX * Math.sqrt(Math.max(0, 1 - dy * dy));
+        spans[row] = (int) Math.ceil(radiusX - half - 0.5);
+      }
+      if (OVAL_SPANS.size() >= MAX_CACHED_OVALS) {
+        OVAL_SPANS.clear();
+      }
+      OVAL_SPANS.put(key, spans);
+    }
+    return spans;
+  }
+
+  /**
+   * Creates an image of int pixels.
+   *
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @return the image.
+   * @throws IllegalArgumentException if the width or height is less than 1.
+   */
+  private static BufferedImage newImage(int width, int height) throws IllegalArgumentException {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("raster must be at least 1 pixel wide and high");
+    }
+    return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+  }
+}
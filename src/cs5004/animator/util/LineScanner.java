@@ -0,0 +1,188 @@
+package cs5004.animator.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * A minimal replacement for the Scanner used by the AnimationFileReader, which splits its input
+ * into tokens separated by whitespace and remembers the line each token was read from. Only the
+ * methods the reader needs are provided, and they fail in the same ways as the Scanner's.
+ */
+
+class LineScanner {
+
+  private final Reader reader;
+  private final StringBuilder token;
+  private boolean hasToken;
+  private int nextLine;
+  private int tokenLine;
+  private int line;
+
+  /**
+   * Creates a new LineScanner reading from the given stream.
+   *
+   * @param inputStream the stream to read from.
+   */
+  LineScanner(InputStream inputStream) {
+    this.reader = new BufferedReader(new InputStreamReader(inputStream));
+    this.token = new StringBuilder();
+    this.hasToken = false;
+    this.nextLine = 1;
+    this.tokenLine = 0;
+    this.line = 0;
+  }
+
+  /**
+   * Reads ahead to the next token, if it has not already been read.
+   *
+   * @return true if there is another token, false otherwise.
+   * @throws IllegalStateException if the input could not be read.
+   */
+  private boolean readToken() throws IllegalStateException {
+    if (this.hasToken) {
+      return true;
+    }
+    this.token.setLength(0);
+    try {
+      int c = this.reader.read();
+      while (c != -1 && Character.isWhitespace(c)) {
+        if (c == '\n') {
+          this.nextLine++;
+        }
+        c = this.reader.read();
+      }
+      if (c == -1) {
+        return false;
+      }
+      this.tokenLine = this.nextLine;
+      while (c != -1 && !Character.isWhitespace(c)) {
+        this.token.append((char) c);
+        c = this.reader.read();
+      }
+      if (c == '\n') {
+        this.nextLine++;
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("could not read input: " + e.getMessage());
+    }
+    this.hasToken = true;
+    return true;
+  }
+
+  /**
+   * Determines whether there is another token in the input.
+   *
+   * @return true if there is another token, false otherwise.
+   */
+  boolean hasNext() {
+    return this.readToken();
+  }
+
+  /**
+   * Returns the next token.
+   *
+   * @return the next token.
+   * @throws NoSuchElementException if there are no more tokens.
+   */
+  String next() throws NoSuchElementException {
+    if (!this.readToken()) {
+      throw new NoSuchElementException();
+    }
+    this.hasToken = false;
+    this.line = this.tokenLine;
+    return this.token.toString();
+  }
+
+  /**
+   * Returns the next token as an int. The token is not consumed if it is not an int.
+   *
+   * @return the next token as an int.
+   * @throws InputMismatchException if the next token is not an int.
+   * @throws NoSuchElementException if there are no more tokens.
+   */
+  int nextInt() throws InputMismatchException, NoSuchElementException {
+    if (!this.readToken()) {
+      throw new NoSuchElementException();
+    }
+    int value;
+    try {
+      value = Integer.parseInt(this.token.toString());
+    } catch (NumberFormatException e) {
+      throw new InputMismatchException("For input string: \"" + this.token + "\"");
+    }
+    this.next();
+    return value;
+  }
+
+  /**
+   * Returns the next token as a float. The token is not consumed if it is not a float.
+   *
+   * @return the next token as a float.
+   * @throws InputMismatchException if the next token is not a float.
+   * @throws NoSuchElementException if there are no more tokens.
+   */
+  float nextFloat() throws InputMismatchException, NoSuchElementException {
+    if (!this.readToken()) {
+      throw new NoSuchElementException();
+    }
+    float value;
+    try {
+      if (!isDecimal(this.token)) {
+        throw new NumberFormatException();
+      }
+      value = Float.parseFloat(this.token.toString());
+    } catch (NumberFormatException e) {
+      throw new InputMismatchException("For input string: \"" + this.token + "\"");
+    }
+    this.next();
+    return value;
+  }
+
+  /**
+   * Determines whether a token is written as Scanner reads a float: digits with an optional sign,
+   * decimal point and exponent, or NaN or Infinity. Float.parseFloat also reads type suffixes,
+   * like 1f and 2d, and hexadecimal floats, which the input format does not allow; tokens holding
+   * any other character are rejected here, and parseFloat checks the rest. Unlike Scanner, which
+   * reads the group separators of the default locale, so that 1,000 is a thousand, no group
+   * separators are read.
+   *
+   * @param token the token.
+   * @return true if the token holds only characters of a decimal float, or is NaN or Infinity.
+   */
+  private static boolean isDecimal(CharSequence token) {
+    int start = token.length() > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+') ? 1 : 0;
+    for (int i = start; i < token.length(); i++) {
+      char c = token.charAt(i);
+      if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '-' && c != '+') {
+        String unsigned = token.subSequence(start, token.length()).toString();
+        return unsigned.equals("NaN") || unsigned.equals("Infinity");
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the line of the last token returned.
+   *
+   * @return the line of the last token, starting from 1, or 0 if none has been returned.
+   */
+  int getLine() {
+    return this.line;
+  }
+
+  /**
+   * Closes the input.
+   */
+  void close() {
+    try {
+      this.reader.close();
+    } catch (IOException e) {
+      System.err.println(e.getMessage());
+    }
+  }
+}
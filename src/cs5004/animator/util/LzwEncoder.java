@@ -0,0 +1,198 @@
+package cs5004.animator.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compresses the palette indices of an image with the variable length LZW of the GIF format. Each
+ * call works on its own table, so several images may be compressed at once on different threads.
+ * Strings already in the table are found through an open addressed hash table, in the manner of
+ * the Unix compress program, rather than through a table of every possible string, so that each
+ * call needs only a few kilobytes.
+ */
+
+public final class LzwEncoder {
+
+  private static final int MAX_BITS = 12;
+  private static final int MAX_CODES = 1 << MAX_BITS;
+  private static final int TABLE_SIZE = 5003; // a prime comfortably above MAX_CODES
+  private static final int HASH_SHIFT = 4;
+  private static final int SUB_BLOCK_SIZE = 255;
+
+  private final int minCodeSize;
+  private final int clearCode;
+  private final int[] keys;
+  private final int[] codes;
+  private final ByteArrayOutputStream output;
+  private final byte[] subBlock;
+  private int subBlockLength;
+  private int nextCode;
+  private int codeSize;
+  private int bits;
+  private int bitCount;
+
+  /**
+   * Creates a new LzwEncoder for one image.
+   *
+   * @param minCodeSize the number of bits a palette index takes.
+   * @param length the number of indices in the image, to size the output with.
+   */
+  private LzwEncoder(int minCodeSize, int length) {
+    this.minCodeSize = minCodeSize;
+    this.clearCode = 1 << minCodeSize;
+    this.keys = new int[TABLE_SIZE];
+    this.codes = new int[TABLE_SIZE];
+    this.output = new ByteArrayOutputStream(length / 4 + 16);
+    this.subBlock = new byte[SUB_BLOCK_SIZE];
+  }
+
+  /**
+   * Compresses the palette indices of an image into the image data of the GIF format: the minimum
+   * code size, then the codes, packed from the least significant bit, in sub-blocks of at most 255
+   * bytes, each after its length, then an empty sub-block.
+   *
+   * @param indices the palette index of each pixel, row by row.
+   * @param minCodeSize the number of bits a palette index takes, from 2 to 8.
+   * @return the image data.
+   * @throws NullPointerException if indices is null.
+   * @throws IllegalArgumentException if minCodeSize is out of range, or an index does not fit in
+   *         it.
+   */
+  public static byte[] encode(byte[] indices, int minCodeSize)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(indices);
+    if (minCodeSize < 2 || minCodeSize > 8) {
+      throw new IllegalArgumentException("minimum code size must be from 2 to 8");
+    }
+    LzwEncoder encoder = new LzwEncoder(minCodeSize, indices.length);
+    encoder.compress(indices);
+    return encoder.output.toByteArray();
+  }
+
+  /**
+   * Compresses the indices, starting and ending the codes with a clear code and an end code, and
+   * clearing the table again whenever it is full.
+   *
+   * @param indices the palette index of each pixel.
+   * @throws IllegalArgumentException if an index does not fit in the minimum code size.
+   */
+  private void compress(byte[] indices) throws IllegalArgumentException {
+    this.output.write(this.minCodeSize);
+    this.clearTable();
+    this.writeCode(this.clearCode);
+    if (indices.length > 0) {
+      int prefix = this.checkIndex(indices[0]);
+      search:
+      for (int i = 1; i < indices.length; i++) {
+        int next = this.checkIndex(indices[i]);
+        int key = next << MAX_BITS | prefix;
+        int slot = next << HASH_SHIFT ^ prefix;
+        int step = slot == 0 ? 1 : TABLE_SIZE - slot;
+        while (this.keys[slot] >= 0) {
+          if (this.keys[slot] == key) {
+            prefix = this.codes[slot];
+            continue search;
+          }
+          slot -= step;
+          if (slot < 0) {
+            slot += TABLE_SIZE;
+          }
+        }
+        this.writeData(prefix);
+        prefix = next;
+        if (this.nextCode < MAX_CODES) {
+          this.keys[slot] = key;
+          this.codes[slot] = this.nextCode++;
+        } else {
+          this.writeCode(this.clearCode);
+          this.clearTable();
+        }
+      }
+      this.writeData(prefix);
+    }
+    this.writeCode(this.clearCode + 1);
+    if (this.bitCount > 0) {
+      this.writeByte(this.bits);
+    }
+    this.writeSubBlock();
+    this.output.write(0);
+  }
+
+  /**
+   * Empties the table of strings, leaving only the single indices, and goes back to the smallest
+   * code size.
+   */
+  private void clearTable() {
+    Arrays.fill(this.keys, -1);
+    this.nextCode = this.clearCode + 2;
+    this.codeSize = this.minCodeSize + 1;
+  }
+
+  /**
+   * Writes the code of a string, and widens the codes that follow once the next code to be added
+   * to the table no longer fits, as a decoder reading this code will.
+   *
+   * @param code the code.
+   */
+  private void writeData(int code) {
+    this.writeCode(code);
+    if (this.nextCode >= 1 << this.codeSize && this.codeSize < MAX_BITS) {
+      this.codeSize++;
+    }
+  }
+
+  /**
+   * Packs a code in the current code size, from the least significant bit.
+   *
+   * @param code the code.
+   */
+  private void writeCode(int code) {
+    this.bits |= code << this.bitCount;
+    this.bitCount += this.codeSize;
+    while (this.bitCount >= 8) {
+      this.writeByte(this.bits);
+      this.bits >>>= 8;
+      this.bitCount -= 8;
+    }
+  }
+
+  /**
+   * Adds a byte to the current sub-block, writing the sub-block out once it is full.
+   *
+   * @param value the byte, in the low eight bits.
+   */
+  private void writeByte(int value) {
+    this.subBlock[this.subBlockLength++] = (byte) value;
+    if (this.subBlockLength == SUB_BLOCK_SIZE) {
+      this.writeSubBlock();
+    }
+  }
+
+  /**
+   * Writes the current sub-block after its length, if it holds anything.
+   */
+  private void writeSubBlock() {
+    if (this.subBlockLength > 0) {
+      this.output.write(this.subBlockLength);
+      this.output.write(this.subBlock, 0, this.subBlockLength);
+      this.subBlockLength = 0;
+    }
+  }
+
+  /**
+   * Reads a palette index, checking that it fits in the minimum code size.
+   *
+   * @param index the index as a byte.
+   * @return the index.
+   * @throws IllegalArgumentException if it does not fit.
+   */
+  private int checkIndex(byte index) throws IllegalArgumentException {
+    int value = index & 0xff;
+    if (value >= this.clearCode) {
+      throw new IllegalArgumentException("palette index " + value + " does not fit in "
+          + this.minCodeSize + " bits");
+    }
+    return value;
+  }
+}
@@ -0,0 +1,127 @@
+package cs5004.animator.util;
+
+import cs5004.animator.model.IRenderableShape;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+
+/**
+ * Drops the shapes of a frame which later shapes entirely hide, so they are never drawn. Every
+ * color is opaque, so a shape which paints every pixel of its bounds, like a plain rectangle,
+ * hides whatever was painted before it within them. The canvas is cut into a coarse grid of
+ * square cells, and the frame is walked from the last shape painted to the first: each shape is
+ * dropped if every cell its bounds touch is already wholly covered by a later shape, and
+ * otherwise kept, covering every cell wholly within its bounds if it fills them. Cells are only
+ * ever marked covered when every one of their pixels is, and anything reaching past the grid is
+ * kept, so culling never changes a pixel of the frame, at any size it is drawn. Not thread safe.
+ */
+
+public final class OcclusionCuller {
+
+  /**
+   * The width and height of a cell of the grid. Small enough that most large rectangles cover
+   * most of the cells they touch, and large enough that the grid of a canvas of thousands of
+   * pixels across is quick to clear and walk every frame.
+   */
+  public static final int CELL_SIZE = 16;
+
+  private final int columns;
+  private final int rows;
+  private final boolean[] covered;
+
+  /**
+   * Creates a new OcclusionCuller for frames of a canvas.
+   *
+   * @param width the width of the canvas.
+   * @param height the height of the canvas.
+   * @throws IllegalArgumentException if the width or height is negative.
+   */
+  public OcclusionCuller(int width, int height) throws IllegalArgumentException {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("canvas size cannot be negative");
+    }
+    this.columns = (width + CELL_SIZE - 1) / CELL_SIZE;
+    this.rows = (height + CELL_SIZE - 1) / CELL_SIZE;
+    this.covered = new boolean[this.columns * this.rows];
+  }
+
+  /**
+   * Gets the shapes of a frame which would paint some pixel of it, in the order they are painted.
+   * Painting them gives exactly the pixels painting the whole frame would.
+   *
+   * @param frame the shapes of the frame, in the order they are painted.
+   * @return a new list of the shapes which are not hidden, in the same order.
+   * @throws NullPointerException if frame is null.
+   */
+  public List<IRenderableShape> cull(List<IRenderableShape> frame) throws NullPointerException {
+    Objects.requireNonNull(frame);
+    Arrays.fill(this.covered, false);
+    List<IRenderableShape> visible = new ArrayList<>(frame.size());
+    ListIterator<IRenderableShape> shapes = frame.listIterator(frame.size());
+    while (shapes.hasPrevious()) {
+      IRenderableShape shape = shapes.previous();
+      Rectangle bounds = shape.getBounds();
+      if (this.isHidden(bounds)) {
+        continue;
+      }
+      visible.add(shape);
+      if (shape.fillsBounds()) {
+        this.cover(bounds);
+      }
+    }
+    Collections.reverse(visible);
+    return visible;
+  }
+
+  /**
+   * Determines whether every cell some bounds touch is covered. Empty bounds paint nothing, so
+   * are always hidden; bounds reaching past the grid never are.
+   *
+   * @param bounds the bounds.
+   * @return true if nothing within the bounds would show.
+   */
+  private boolean isHidden(Rectangle bounds) {
+    if (bounds.isEmpty()) {
+      return true;
+    }
+    long left = Math.floorDiv((long) bounds.x, CELL_SIZE);
+    long top = Math.floorDiv((long) bounds.y, CELL_SIZE);
+    long right = Math.floorDiv((long) bounds.x + bounds.width - 1, CELL_SIZE);
+    long bottom = Math.floorDiv((long) bounds.y + bounds.height - 1, CELL_SIZE);
+    if (left < 0 || top < 0 || right >= this.columns || bottom >= this.rows) {
+      return false;
+    }
+    for (int row = (int) top; row <= bottom; row++) {
+      for (int column = (int) left; column <= right; column++) {
+        if (!this.covered[row * this.columns + column]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Marks every cell wholly within some bounds as covered.
+   *
+   * @param bounds the bounds of a shape which fills them.
+   */
+  private void cover(Rectangle bounds) {
+    long left = Math.max(Math.floorDiv((long) bounds.x + CELL_SIZE - 1, CELL_SIZE), 0);
+    long top = Math.max(Math.floorDiv((long) bounds.y + CELL_SIZE - 1, CELL_SIZE), 0);
+    long right = Math.min(Math.floorDiv((long) bounds.x + bounds.width, CELL_SIZE),
+        this.columns);
+    long bottom = Math.min(Math.floorDiv((long) bounds.y + bounds.height, CELL_SIZE), this.rows);
+    if (left >= right) {
+      return;
+    }
+    for (int row = (int) top; row < bottom; row++) {
+      Arrays.fill(this.covered, row * this.columns + (int) left, row * this.columns + (int) right,
+          true);
+    }
+  }
+}
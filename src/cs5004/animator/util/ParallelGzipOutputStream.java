@@ -0,0 +1,309 @@
+package cs5004.animator.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An OutputStream which compresses what is written to it in the gzip format, using several
+ * threads. What is written is cut into blocks, and each block is deflated on a pool of worker
+ * threads, primed with the 32K before it so that it compresses as well as one long stream would.
+ * Every block but the last ends on a byte boundary, so the compressed blocks are simply written
+ * one after another, in order, and the result is a single standard gzip member that any gzip
+ * reader accepts. Only a bounded number of blocks are compressed ahead of the output, so memory
+ * does not grow with the size of what is written. Not thread safe.
+ */
+
+public class ParallelGzipOutputStream extends FilterOutputStream {
+
+  private static final int BLOCK_SIZE = 1 << 17;
+  private static final int DICTIONARY_SIZE = 1 << 15;
+  private static final int BLOCKS_PER_THREAD = 4;
+  private static final int GZIP_MAGIC = 0x8b1f;
+
+  private final ExecutorService pool;
+  private final int window;
+  private final Deque<Future<byte[]>> inFlight;
+  private final CRC32 crc;
+  private byte[] block;
+  private int blockLength;
+  private byte[] history;
+  private long totalLength;
+  private boolean finished;
+
+  /**
+   * Creates a new ParallelGzipOutputStream, and writes the gzip header to the given stream.
+   *
+   * @param out the stream to write the compressed data to.
+   * @param threads the number of worker threads to compress with.
+   * @throws IllegalArgumentException if threads <= 0.
+   * @throws NullPointerException if out is null.
+   * @throws IOException if writing the header fails.
+   */
+  public ParallelGzipOutputStream(OutputStream out, int threads)
+      throws IllegalArgumentException, NullPointerException, IOException {
+    super(Objects.requireNonNull(out));
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be greater than 0");
+    }
+    this.window = threads * BLOCKS_PER_THREAD;
+    this.inFlight = new ArrayDeque<>();
+    this.crc = new CRC32();
+    this.block = new byte[BLOCK_SIZE];
+    this.history = new byte[0];
+    writeHeader();
+    this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "gzip-deflate");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Writes a single byte.
+   *
+   * @param b the byte to write.
+   * @throws IOException if writing to the stream fails, or it has been finished.
+   */
+  @Override
+  public void write(int b) throws IOException {
+    this.write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  /**
+   * Writes part of an array of bytes.
+   *
+   * @param bytes the bytes to write.
+   * @param offset the index of the first byte to write.
+   * @param length the number of bytes to write.
+   * @throws IOException if writing to the stream fails, or it has been finished.
+   */
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    this.ensureOpen();
+    while (length > 0) {
+      int count = Math.min(length, BLOCK_SIZE - this.blockLength);
+      System.arraycopy(bytes, offset, this.block, this.blockLength, count);
+      this.blockLength += count;
+      offset += count;
+      length -= count;
+      if (this.blockLength == BLOCK_SIZE) {
+        this.submitBlock(false);
+      }
+    }
+  }
+
+  /**
+   * Compresses everything written so far, writes it to the stream, and flushes the stream. The
+   * compressed data up to here can then be decompressed without the rest.
+   *
+   * @throws IOException if writing to the stream fails.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (!this.finished) {
+      if (this.blockLength > 0) {
+        this.submitBlock(false);
+      }
+      while (!this.inFlight.isEmpty()) {
+        this.writeNext();
+      }
+    }
+    this.out.flush();
+  }
+
+  /**
+   * Compresses everything written so far and writes the end of the gzip format, without closing
+   * the stream. Nothing more may be written afterwards. Does nothing if already finished.
+   *
+   * @throws IOException if writing to the stream fails.
+   */
+  public void finish() throws IOException {
+    if (this.finished) {
+      return;
+    }
+    try {
+      this.submitBlock(true);
+      while (!this.inFlight.isEmpty()) {
+        this.writeNext();
+      }
+      writeInt((int) this.crc.getValue());
+      writeInt((int) this.totalLength); // the length modulo 2^32, as gzip specifies
+      this.out.flush();
+    } finally {
+      this.end();
+    }
+  }
+
+  /**
+   * Stops the worker threads, without finishing the gzip format. Anything not yet compressed is
+   * discarded, and nothing more may be written. Does nothing if already finished.
+   */
+  public void end() {
+    this.finished = true;
+    this.pool.shutdownNow();
+    this.inFlight.clear();
+  }
+
+  /**
+   * Finishes the gzip format, and closes the stream.
+   *
+   * @throws IOException if writing to or closing the stream fails.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.finish();
+    } finally {
+      this.out.close();
+    }
+  }
+
+  /**
+   * Hands the current block to the pool to be compressed, first writing out the oldest block in
+   * flight if the pool is already a full window ahead.
+   *
+   * @param last true if this is the last block, which ends the deflate stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  private void submitBlock(boolean last) throws IOException {
+    if (this.inFlight.size() == this.window) {
+      this.writeNext();
+    }
+    byte[] input = this.block;
+    int length = this.blockLength;
+    byte[] dictionary = this.history;
+    this.crc.update(input, 0, length);
+    this.totalLength += length;
+    this.history = nextHistory(dictionary, input, length);
+    this.inFlight.add(this.pool.submit(() -> deflate(input, length, dictionary, last)));
+    // the block now belongs to its task, so a new one is needed
+    this.block = new byte[BLOCK_SIZE];
+    this.blockLength = 0;
+  }
+
+  /**
+   * Waits for the oldest block in flight to be compressed, and writes it to the stream.
+   *
+   * @throws IOException if writing to the stream fails, or the wait is interrupted.
+   */
+  private void writeNext() throws IOException {
+    byte[] compressed;
+    try {
+      compressed = this.inFlight.remove().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("gzip compression was interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("failed compressing block: " + cause);
+    }
+    this.out.write(compressed);
+  }
+
+  /**
+   * Deflates one block, without any header or trailer. The block is primed with the data before
+   * it, and ends on a byte boundary unless it is the last block, which ends the deflate stream.
+   *
+   * @param input the uncompressed block.
+   * @param length the number of bytes in the block.
+   * @param dictionary up to the last 32K written before the block.
+   * @param last true if this is the last block.
+   * @return the compressed block.
+   */
+  private static byte[] deflate(byte[] input, int length, byte[] dictionary, boolean last) {
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      if (dictionary.length > 0) {
+        deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(input, 0, length);
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+      byte[] buffer = new byte[1 << 16];
+      if (last) {
+        deflater.finish();
+        while (!deflater.finished()) {
+          compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+      } else {
+        // a full buffer means there may be more to come
+        int count;
+        do {
+          count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+          compressed.write(buffer, 0, count);
+        } while (count == buffer.length);
+      }
+      return compressed.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Gets the last 32K of the data written so far, which the next block is primed with.
+   *
+   * @param history the last 32K written before the block.
+   * @param block the block just written.
+   * @param length the number of bytes in the block.
+   * @return the last 32K, including the block.
+   */
+  private static byte[] nextHistory(byte[] history, byte[] block, int length) {
+    if (length >= DICTIONARY_SIZE) {
+      return Arrays.copyOfRange(block, length - DICTIONARY_SIZE, length);
+    }
+    int kept = Math.min(history.length, DICTIONARY_SIZE - length);
+    byte[] next = new byte[kept + length];
+    System.arraycopy(history, history.length - kept, next, 0, kept);
+    System.arraycopy(block, 0, next, kept, length);
+    return next;
+  }
+
+  /**
+   * Writes the gzip header: deflate, no file name or time, from an unknown operating system.
+   *
+   * @throws IOException if writing to the stream fails.
+   */
+  private void writeHeader() throws IOException {
+    this.out.write(new byte[] {
+        (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+        (byte) 0xff});
+  }
+
+  /**
+   * Writes an int to the stream, least significant byte first, as gzip requires.
+   *
+   * @param value the int to write.
+   * @throws IOException if writing to the stream fails.
+   */
+  private void writeInt(int value) throws IOException {
+    this.out.write(new byte[] {
+        (byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24)});
+  }
+
+  /**
+   * Checks that nothing more may be written after this stream was finished.
+   *
+   * @throws IOException if this stream has been finished.
+   */
+  private void ensureOpen() throws IOException {
+    if (this.finished) {
+      throw new IOException("gzip stream has already been finished");
+    }
+  }
+}
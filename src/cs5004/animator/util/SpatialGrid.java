@@ -0,0 +1,159 @@
+package cs5004.animator.util;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * A uniform grid indexing items by the rectangles they cover, so that the items which may meet
+ * some area can be found without looking at the rest. Items are numbered from 0, and each is
+ * listed in every square cell of the grid its rectangle touches. Rectangles reaching past the grid
+ * are listed in the cells at its edge, and areas asked about are clamped to it the same way, so
+ * nothing is ever missed. An item touching a great many cells is instead kept in a list of its own
+ * which every search includes, so that a few huge items cannot fill the grid. Searches may find
+ * items whose rectangles do not quite meet the area, but never leave out one that does. Not
+ * thread safe.
+ */
+
+public final class SpatialGrid {
+
+  /**
+   * The most cells an item is listed in; one touching more is found by every search instead.
+   */
+  public static final int MAX_CELLS = 256;
+
+  private final int cellSize;
+  private final int columns;
+  private final int rows;
+  private final int[][] cells;
+  private final int[] counts;
+  private int[] everywhere;
+  private int everywhereCount;
+
+  /**
+   * Creates a new, empty SpatialGrid over an area starting at (0, 0).
+   *
+   * @param width the width of the area.
+   * @param height the height of the area.
+   * @param cellSize the width and height of a cell of the grid.
+   * @throws IllegalArgumentException if the width or height is negative, or the cell size is not
+   *     positive.
+   */
+  public SpatialGrid(int width, int height, int cellSize) throws IllegalArgumentException {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("grid size cannot be negative");
+    }
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("cell size must be positive");
+    }
+    this.cellSize = cellSize;
+    this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+    this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+    this.cells = new int[this.columns * this.rows][];
+    this.counts = new int[this.columns * this.rows];
+    this.everywhere = new int[0];
+  }
+
+  /**
+   * Adds an item to this SpatialGrid. An item with an empty rectangle is never found.
+   *
+   * @param item the number of the item, which must not be negative.
+   * @param bounds the rectangle the item covers.
+   * @throws IllegalArgumentException if item is negative.
+   * @throws NullPointerException if bounds is null.
+   */
+  public void insert(int item, Rectangle bounds)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(bounds);
+    if (item < 0) {
+      throw new IllegalArgumentException("item cannot be negative");
+    }
+    if (bounds.isEmpty()) {
+      return;
+    }
+    int left = this.column(bounds.x);
+    int right = this.column(bounds.x + bounds.width - 1);
+    int top = this.row(bounds.y);
+    int bottom = this.row(bounds.y + bounds.height - 1);
+    if ((long) (right - left + 1) * (bottom - top + 1) > MAX_CELLS) {
+      this.everywhere = append(this.everywhere, this.everywhereCount++, item);
+      return;
+    }
+    for (int row = top; row <= bottom; row++) {
+      for (int column = left; column <= right; column++) {
+        int cell = row * this.columns + column;
+        int[] items = this.cells[cell] == null ? new int[4] : this.cells[cell];
+        this.cells[cell] = append(items, this.counts[cell]++, item);
+      }
+    }
+  }
+
+  /**
+   * Finds the items which may meet an area, marking each in a BitSet, so that they can be walked
+   * in order of their numbers.
+   *
+   * @param area the area to search.
+   * @param found the BitSet to mark the items found in; items already marked stay so.
+   * @throws NullPointerException if either argument is null.
+   */
+  public void query(Rectangle area, BitSet found) throws NullPointerException {
+    Objects.requireNonNull(area);
+    Objects.requireNonNull(found);
+    if (area.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < this.everywhereCount; i++) {
+      found.set(this.everywhere[i]);
+    }
+    int left = this.column(area.x);
+    int right = this.column(area.x + area.width - 1);
+    int top = this.row(area.y);
+    int bottom = this.row(area.y + area.height - 1);
+    for (int row = top; row <= bottom; row++) {
+      for (int column = left; column <= right; column++) {
+        int cell = row * this.columns + column;
+        int[] items = this.cells[cell];
+        for (int i = 0; i < this.counts[cell]; i++) {
+          found.set(items[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the column of the grid holding an x coordinate, clamped to the grid.
+   *
+   * @param x the x coordinate.
+   * @return the column.
+   */
+  private int column(int x) {
+    return Math.max(0, Math.min(this.columns - 1, Math.floorDiv(x, this.cellSize)));
+  }
+
+  /**
+   * Finds the row of the grid holding a y coordinate, clamped to the grid.
+   *
+   * @param y the y coordinate.
+   * @return the row.
+   */
+  private int row(int y) {
+    return Math.max(0, Math.min(this.rows - 1, Math.floorDiv(y, this.cellSize)));
+  }
+
+  /**
+   * Puts an item at the end of a list of items, growing the array holding it if it is full.
+   *
+   * @param items the array holding the list.
+   * @param count the number of items in the list.
+   * @param item the item to add.
+   * @return the array now holding the list.
+   */
+  private static int[] append(int[] items, int count, int item) {
+    if (count == items.length) {
+      items = Arrays.copyOf(items, Math.max(4, count * 2));
+    }
+    items[count] = item;
+    return items;
+  }
+}
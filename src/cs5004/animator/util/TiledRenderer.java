@@ -0,0 +1,216 @@
+package cs5004.animator.util;
+
+import cs5004.animator.model.IRenderableShape;
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rasterizes frames of large canvases on several threads. The IntRaster is cut into square tiles,
+ * and each shape of a frame is binned into every tile its bounds overlap. The tiles are then
+ * filled in parallel on a fork/join pool, each through an IntRaster clipped to it, so no two
+ * threads ever fill the same pixel and all of them fill the one shared image. Each tile's bin
+ * holds its shapes in the order of the frame, so every pixel is painted in the same order, and
+ * ends up the same, as if the whole frame were rasterized on one thread. Filling a tile at a time
+ * also keeps the pixels being filled in cache, which alone makes canvases of many millions of
+ * pixels several times faster to fill even on one thread, so those are always tiled; smaller
+ * frames are tiled only when the pool has more than one thread, and frames which fit in one tile
+ * never are.
+ */
+
+public final class TiledRenderer {
+
+  /**
+   * The width and height of a tile when none is given, small enough that a canvas of a few
+   * thousand pixels across splits into enough tiles to keep many threads busy, even when most of
+   * its shapes are bunched together, and large enough that few shapes fall in more than one.
+   */
+  public static final int DEFAULT_TILE_SIZE = 128;
+
+  /**
+   * The most pixels a canvas may have to be filled in order, without binning, on one thread. Up
+   * to about this many, its pixels mostly stay in cache anyway, and binning only costs time.
+   */
+  private static final long CACHED_PIXELS = 1 << 22;
+
+  private final ForkJoinPool pool;
+  private final int tileSize;
+
+  /**
+   * Creates a new TiledRenderer with tiles of the default size.
+   *
+   * @param pool the pool to fill tiles on.
+   * @throws NullPointerException if pool is null.
+   */
+  public TiledRenderer(ForkJoinPool pool) throws NullPointerException {
+    this(pool, DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Creates a new TiledRenderer.
+   *
+   * @param pool the pool to fill tiles on.
+   * @param tileSize the width and height of each tile, at least 1.
+   * @throws NullPointerException if pool is null.
+   * @throws IllegalArgumentException if tileSize is less than 1.
+   */
+  public TiledRenderer(ForkJoinPool pool, int tileSize)
+      throws NullPointerException, IllegalArgumentException {
+    this.pool = Objects.requireNonNull(pool);
+    if (tileSize < 1) {
+      throw new IllegalArgumentException("tiles must be at least 1 pixel across");
+    }
+    this.tileSize = tileSize;
+  }
+
+  /**
+   * Fills an IntRaster with a background color, then rasterizes a frame of shapes over it, at the
+   * IntRaster's origin, in order.
+   *
+   * @param shapes the shapes of the frame, in the order they are painted.
+   * @param raster the IntRaster to fill, which no other thread may fill until this returns.
+   * @param background the background color, as packed RGB.
+   * @throws NullPointerException if shapes or raster is null.
+   */
+  public void render(List<? extends IRenderableShape> shapes, IntRaster raster, int background)
+      throws NullPointerException {
+    Objects.requireNonNull(shapes);
+    Objects.requireNonNull(raster);
+    int columns = (raster.getWidth() + this.tileSize - 1) / this.tileSize;
+    int rows = (raster.getHeight() + this.tileSize - 1) / this.tileSize;
+    boolean parallel = this.pool.getParallelism() > 1;
+    if (columns * rows == 1
+        || !parallel && (long) raster.getWidth() * raster.getHeight() <= CACHED_PIXELS) {
+      raster.clear(background);
+      for (IRenderableShape shape : shapes) {
+        shape.rasterize(raster);
+      }
+      return;
+    }
+    IRenderableShape[] frame = shapes.toArray(new IRenderableShape[0]);
+    Tiles tiles = new Tiles(frame, raster, background, columns, rows, this.tileSize);
+    this.pool.invoke(tiles);
+  }
+
+  /**
+   * The bins of one frame, and the task which fills a run of its tiles, splitting it in half
+   * until each half is one tile.
+   */
+  private static final class Tiles extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+    // marks, in place of its first column, a shape which falls in no tile
+    private static final int NO_BIN = -1;
+
+    private final IRenderableShape[] frame;
+    private final IntRaster raster;
+    private final int background;
+    private final int columns;
+    private final int tileSize;
+    private final int[] binStarts;
+    private final int[] bins;
+    private final int first;
+    private final int last;
+
+    /**
+     * Bins a frame into tiles, creating the task which fills all of them.
+     *
+     * @param frame the shapes of the frame, in order.
+     * @param raster the IntRaster to fill.
+     * @param background the background color.
+     * @param columns the number of columns of tiles.
+     * @param rows the number of rows of tiles.
+     * @param tileSize the width and height of a tile.
+     */
+    Tiles(IRenderableShape[] frame, IntRaster raster, int background, int columns, int rows,
+        int tileSize) {
+      this.frame = frame;
+      this.raster = raster;
+      this.background = background;
+      this.columns = columns;
+      this.tileSize = tileSize;
+      this.first = 0;
+      this.last = columns * rows;
+      // The range of tiles each shape overlaps, found once and used both to count and to fill.
+      int[] spans = new int[frame.length * 4];
+      int[] counts = new int[this.last + 1];
+      for (int i = 0; i < frame.length; i++) {
+        Rectangle bounds = frame[i].getBounds();
+        long left = Math.max((long) bounds.x - raster.getOriginX(), 0);
+        long top = Math.max((long) bounds.y - raster.getOriginY(), 0);
+        long right = Math.min((long) bounds.x - raster.getOriginX() + bounds.width,
+            raster.getWidth());
+        long bottom = Math.min((long) bounds.y - raster.getOriginY() + bounds.height,
+            raster.getHeight());
+        if (left >= right || top >= bottom) {
+          spans[i * 4] = NO_BIN;
+          continue;
+        }
+        spans[i * 4] = (int) left / tileSize;
+        spans[i * 4 + 1] = (int) top / tileSize;
+        spans[i * 4 + 2] = (int) (right - 1) / tileSize;
+        spans[i * 4 + 3] = (int) (bottom - 1) / tileSize;
+        for (int row = spans[i * 4 + 1]; row <= spans[i * 4 + 3]; row++) {
+          for (int column = spans[i * 4]; column <= spans[i * 4 + 2]; column++) {
+            counts[row * columns + column + 1]++;
+          }
+        }
+      }
+      for (int tile = 0; tile < this.last; tile++) {
+        counts[tile + 1] += counts[tile];
+      }
+      this.binStarts = counts.clone();
+      this.bins = new int[counts[this.last]];
+      for (int i = 0; i < frame.length; i++) {
+        if (spans[i * 4] == NO_BIN) {
+          continue;
+        }
+        for (int row = spans[i * 4 + 1]; row <= spans[i * 4 + 3]; row++) {
+          for (int column = spans[i * 4]; column <= spans[i * 4 + 2]; column++) {
+            this.bins[counts[row * columns + column]++] = i;
+          }
+        }
+      }
+    }
+
+    /**
+     * Creates the task which fills a run of the tiles of another.
+     *
+     * @param parent the task of the whole frame.
+     * @param first the first tile to fill.
+     * @param last the tile after the last to fill.
+     */
+    private Tiles(Tiles parent, int first, int last) {
+      this.frame = parent.frame;
+      this.raster = parent.raster;
+      this.background = parent.background;
+      this.columns = parent.columns;
+      this.tileSize = parent.tileSize;
+      this.binStarts = parent.binStarts;
+      this.bins = parent.bins;
+      this.first = first;
+      this.last = last;
+    }
+
+    /**
+     * Fills the tiles of this task, splitting them between two tasks if there is more than one.
+     */
+    @Override
+    protected void compute() {
+      if (this.last - this.first > 1) {
+        int middle = (this.first + this.last) >>> 1;
+        invokeAll(new Tiles(this, this.first, middle), new Tiles(this, middle, this.last));
+        return;
+      }
+      int tile = this.first;
+      IntRaster clipped = this.raster.clip(tile % this.columns * this.tileSize,
+          tile / this.columns * this.tileSize, this.tileSize, this.tileSize);
+      clipped.clear(this.background);
+      for (int i = this.binStarts[tile]; i < this.binStarts[tile + 1]; i++) {
+        this.frame[this.bins[i]].rasterize(clipped);
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package cs5004.animator.util;
+
+/**
+ * A columnar counterpart to the TweenModelBuilder interface. Each method adds many shapes or
+ * transformations in one call, taking one array per attribute and a count of rows to read from the
+ * start of each array. Arrays may be longer than count, so that callers can reuse the same buffers
+ * from batch to batch. Rows are applied in order, exactly as if the matching TweenModelBuilder
+ * method had been called once per row. It is parameterized over the actual model type.
+ */
+
+public interface TweenModelBatchBuilder<IAnimation> {
+
+  /**
+   * Add new ovals to the model. Ovals whose x and y radii are equal are added as circles.
+   *
+   * @param names the unique names given to these shapes
+   * @param cx the x-coordinates of the centers of the ovals
+   * @param cy the y-coordinates of the centers of the ovals
+   * @param xRadius the x-radii of the ovals
+   * @param yRadius the y-radii of the ovals
+   * @param red the red components of the colors of the ovals, from 0 to 1
+   * @param green the green components of the colors of the ovals, from 0 to 1
+   * @param blue the blue components of the colors of the ovals, from 0 to 1
+   * @param startOfLife the time ticks at which these ovals appear
+   * @param endOfLife the time ticks at which these ovals disappear
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  TweenModelBatchBuilder<IAnimation> addOvals(
+      String[] names,
+      float[] cx, float[] cy,
+      float[] xRadius, float[] yRadius,
+      float[] red, float[] green, float[] blue,
+      int[] startOfLife, int[] endOfLife,
+      int count);
+
+  /**
+   * Add new rectangles to the model.
+   *
+   * @param names the unique names given to these shapes
+   * @param lx the minimum x-coordinates of a corner of the rectangles
+   * @param ly the minimum y-coordinates of a corner of the rectangles
+   * @param width the widths of the rectangles
+   * @param height the heights of the rectangles
+   * @param red the red components of the colors of the rectangles, from 0 to 1
+   * @param green the green components of the colors of the rectangles, from 0 to 1
+   * @param blue the blue components of the colors of the rectangles, from 0 to 1
+   * @param startOfLife the time ticks at which these rectangles appear
+   * @param endOfLife the time ticks at which these rectangles disappear
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  TweenModelBatchBuilder<IAnimation> addRectangles(
+      String[] names,
+      float[] lx, float[] ly,
+      float[] width, float[] height,
+      float[] red, float[] green, float[] blue,
+      int[] startOfLife, int[] endOfLife,
+      int count);
+
+  /**
+   * Move the specified shapes to the given positions during the given time intervals.
+   *
+   * @param names the names of the shapes to be moved
+   * @param moveFromX the x-coordinates of the initial positions of the shapes
+   * @param moveFromY the y-coordinates of the initial positions of the shapes
+   * @param moveToX the x-coordinates of the final positions of the shapes
+   * @param moveToY the y-coordinates of the final positions of the shapes
+   * @param startTime the time ticks at which the movements start
+   * @param endTime the time ticks at which the movements end
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  TweenModelBatchBuilder<IAnimation> addMoves(
+      String[] names,
+      float[] moveFromX, float[] moveFromY, float[] moveToX, float[] moveToY,
+      int[] startTime, int[] endTime,
+      int count);
+
+  /**
+   * Change the colors of the specified shapes during the given time intervals.
+   *
+   * @param names the names of the shapes whose colors are to be changed
+   * @param oldR the r-components of the old colors
+   * @param oldG the g-components of the old colors
+   * @param oldB the b-components of the old colors
+   * @param newR the r-components of the new colors
+   * @param newG the g-components of the new colors
+   * @param newB the b-components of the new colors
+   * @param startTime the time ticks at which the color changes start
+   * @param endTime the time ticks at which the color changes end
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  TweenModelBatchBuilder<IAnimation> addColorChanges(
+      String[] names,
+      float[] oldR, float[] oldG, float[] oldB, float[] newR, float[] newG, float[] newB,
+      int[] startTime, int[] endTime,
+      int count);
+
+  /**
+   * Change the x and y extents of the specified shapes during the given time intervals.
+   *
+   * @param names the names of the shapes to be scaled
+   * @param fromSx the x extents at the start of the changes
+   * @param fromSy the y extents at the start of the changes
+   * @param toSx the x extents at the end of the changes
+   * @param toSy the y extents at the end of the changes
+   * @param startTime the time ticks at which the changes start
+   * @param endTime the time ticks at which the changes end
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  TweenModelBatchBuilder<IAnimation> addScaleToChanges(
+      String[] names,
+      float[] fromSx, float[] fromSy, float[] toSx, float[] toSy,
+      int[] startTime, int[] endTime,
+      int count);
+
+  /**
+   * Return the model built so far.
+   *
+   * @return the model that was constructed so far
+   */
+  IAnimation build();
+}
@@ -0,0 +1,264 @@
+package cs5004.animator.util;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.ShapeCircle;
+import cs5004.animator.model.ShapeOval;
+import cs5004.animator.model.ShapeRectangle;
+import cs5004.animator.model.TransformColor;
+import cs5004.animator.model.TransformMove;
+import cs5004.animator.model.TransformScale;
+import java.awt.geom.Point2D;
+
+/**
+ * This Class builds an IAnimation from columns of shapes and transformations. Unlike
+ * TweenModelBuilderImpl, it allocates only the objects that end up in the model: Colors are scaled
+ * to percentages directly and shared between rows with equal values, shapes and transformations are
+ * constructed without going through the factories, and every transformation shares the name String
+ * of the shape it applies to.
+ */
+
+public class TweenModelBatchBuilderImpl implements TweenModelBatchBuilder<IAnimation> {
+
+  private static final int COLOR_CACHE_SIZE = 1 << 12;
+
+  private IAnimation animation;
+  private Color[] colorCache;
+
+  /**
+   * Creates a new instance of the TweenModelBatchBuilderImpl class.
+   */
+  public TweenModelBatchBuilderImpl() {
+    this.animation = new Animation();
+    this.colorCache = new Color[COLOR_CACHE_SIZE];
+  }
+
+  /**
+   * Returns a Color with the given input values multiplied by 100, the same conversion made by
+   * TweenModelBuilderImpl. Recently made Colors are kept in a small direct-mapped cache, so that
+   * rows sharing a color share a single instance.
+   *
+   * @param red the red component, from 0 to 1.
+   * @param green the green component, from 0 to 1.
+   * @param blue the blue component, from 0 to 1.
+   * @return a Color with values from 0 to 100.
+   * @throws IllegalArgumentException if a component is out of range.
+   */
+  private Color makeColor(float red, float green, float blue) throws IllegalArgumentException {
+    float newRed = red * 100;
+    float newGreen = green * 100;
+    float newBlue = blue * 100;
+    int redBits = Float.floatToIntBits(newRed);
+    int greenBits = Float.floatToIntBits(newGreen);
+    int blueBits = Float.floatToIntBits(newBlue);
+
+    int hash = (redBits * 31 + greenBits) * 31 + blueBits;
+    int index = (hash ^ (hash >>> 16)) & (COLOR_CACHE_SIZE - 1);
+
+    Color color = this.colorCache[index];
+    if (color == null
+        || Float.floatToIntBits(color.getRed()) != redBits
+        || Float.floatToIntBits(color.getGreen()) != greenBits
+        || Float.floatToIntBits(color.getBlue()) != blueBits) {
+      // check the values as read first, as TweenModelBuilderImpl does, so that the same channel
+      // is named when both are out of range; a cached Color has passed both checks
+      new Color(red, green, blue);
+      color = new Color(newRed, newGreen, newBlue);
+      this.colorCache[index] = color;
+    }
+    return color;
+  }
+
+  /**
+   * Add new ovals to the model. Ovals whose x and y radii are equal are added as circles.
+   *
+   * @param names the unique names given to these shapes
+   * @param cx the x-coordinates of the centers of the ovals
+   * @param cy the y-coordinates of the centers of the ovals
+   * @param xRadius the x-radii of the ovals
+   * @param yRadius the y-radii of the ovals
+   * @param red the red components of the colors of the ovals, from 0 to 1
+   * @param green the green components of the colors of the ovals, from 0 to 1
+   * @param blue the blue components of the colors of the ovals, from 0 to 1
+   * @param startOfLife the time ticks at which these ovals appear
+   * @param endOfLife the time ticks at which these ovals disappear
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  public TweenModelBatchBuilder<IAnimation> addOvals(
+      String[] names,
+      float[] cx, float[] cy,
+      float[] xRadius, float[] yRadius,
+      float[] red, float[] green, float[] blue,
+      int[] startOfLife, int[] endOfLife,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      Color color = this.makeColor(red[i], green[i], blue[i]);
+      Point2D.Double center = new Point2D.Double(cx[i], cy[i]);
+      IShape newShape;
+
+      if (xRadius[i] == yRadius[i]) {
+        newShape = new ShapeCircle(names[i], color, startOfLife[i], endOfLife[i],
+            center, xRadius[i]);
+      } else {
+        newShape = new ShapeOval(names[i], color, startOfLife[i], endOfLife[i],
+            center, xRadius[i], yRadius[i]);
+      }
+
+      this.animation.addShape(newShape);
+    }
+    return this;
+  }
+
+  /**
+   * Add new rectangles to the model.
+   *
+   * @param names the unique names given to these shapes
+   * @param lx the minimum x-coordinates of a corner of the rectangles
+   * @param ly the minimum y-coordinates of a corner of the rectangles
+   * @param width the widths of the rectangles
+   * @param height the heights of the rectangles
+   * @param red the red components of the colors of the rectangles, from 0 to 1
+   * @param green the green components of the colors of the rectangles, from 0 to 1
+   * @param blue the blue components of the colors of the rectangles, from 0 to 1
+   * @param startOfLife the time ticks at which these rectangles appear
+   * @param endOfLife the time ticks at which these rectangles disappear
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  public TweenModelBatchBuilder<IAnimation> addRectangles(
+      String[] names,
+      float[] lx, float[] ly,
+      float[] width, float[] height,
+      float[] red, float[] green, float[] blue,
+      int[] startOfLife, int[] endOfLife,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      Color color = this.makeColor(red[i], green[i], blue[i]);
+      Point2D.Double lowerLeft = new Point2D.Double(lx[i], ly[i]);
+
+      this.animation.addShape(new ShapeRectangle(names[i], color, startOfLife[i], endOfLife[i],
+          lowerLeft, width[i], height[i]));
+    }
+    return this;
+  }
+
+  /**
+   * Move the specified shapes to the given positions during the given time intervals. Rows naming
+   * a shape that does not exist are skipped, as in TweenModelBuilderImpl.
+   *
+   * @param names the names of the shapes to be moved
+   * @param moveFromX the x-coordinates of the initial positions of the shapes
+   * @param moveFromY the y-coordinates of the initial positions of the shapes
+   * @param moveToX the x-coordinates of the final positions of the shapes
+   * @param moveToY the y-coordinates of the final positions of the shapes
+   * @param startTime the time ticks at which the movements start
+   * @param endTime the time ticks at which the movements end
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  public TweenModelBatchBuilder<IAnimation> addMoves(
+      String[] names,
+      float[] moveFromX, float[] moveFromY, float[] moveToX, float[] moveToY,
+      int[] startTime, int[] endTime,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      IShape shape = this.animation.getFirstIShape(names[i]);
+      if (shape == null) {
+        System.err.println("no shape named " + names[i] + " to move");
+        continue;
+      }
+      Point2D.Double from = new Point2D.Double(moveFromX[i], moveFromY[i]);
+      Point2D.Double to = new Point2D.Double(moveToX[i], moveToY[i]);
+
+      this.animation.addTransformation(new TransformMove(from, to, startTime[i], endTime[i],
+          shape.getName(), shape.getType()));
+    }
+    return this;
+  }
+
+  /**
+   * Change the colors of the specified shapes during the given time intervals.
+   *
+   * @param names the names of the shapes whose colors are to be changed
+   * @param oldR the r-components of the old colors
+   * @param oldG the g-components of the old colors
+   * @param oldB the b-components of the old colors
+   * @param newR the r-components of the new colors
+   * @param newG the g-components of the new colors
+   * @param newB the b-components of the new colors
+   * @param startTime the time ticks at which the color changes start
+   * @param endTime the time ticks at which the color changes end
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  public TweenModelBatchBuilder<IAnimation> addColorChanges(
+      String[] names,
+      float[] oldR, float[] oldG, float[] oldB, float[] newR, float[] newG, float[] newB,
+      int[] startTime, int[] endTime,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      Color oldColor = this.makeColor(oldR[i], oldG[i], oldB[i]);
+      Color newColor = this.makeColor(newR[i], newG[i], newB[i]);
+      IShape shape = this.animation.getFirstIShape(names[i]);
+      String name = (shape == null) ? names[i] : shape.getName();
+
+      this.animation.addTransformation(new TransformColor(startTime[i], endTime[i], name,
+          oldColor, newColor));
+    }
+    return this;
+  }
+
+  /**
+   * Change the x and y extents of the specified shapes during the given time intervals. Rows
+   * naming a shape that does not exist are skipped, as in TweenModelBuilderImpl.
+   *
+   * @param names the names of the shapes to be scaled
+   * @param fromSx the x extents at the start of the changes
+   * @param fromSy the y extents at the start of the changes
+   * @param toSx the x extents at the end of the changes
+   * @param toSy the y extents at the end of the changes
+   * @param startTime the time ticks at which the changes start
+   * @param endTime the time ticks at which the changes end
+   * @param count the number of rows to read from each array
+   * @return the builder object
+   */
+  public TweenModelBatchBuilder<IAnimation> addScaleToChanges(
+      String[] names,
+      float[] fromSx, float[] fromSy, float[] toSx, float[] toSy,
+      int[] startTime, int[] endTime,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      IShape shape = this.animation.getFirstIShape(names[i]);
+      if (shape == null) {
+        System.err.println("no shape named " + names[i] + " to scale");
+        continue;
+      }
+
+      this.animation.addTransformation(new TransformScale(fromSx[i], fromSy[i], toSx[i],
+          toSy[i], startTime[i], endTime[i], shape.getName(), shape.getType()));
+    }
+    return this;
+  }
+
+  /**
+   * Return the model built so far.
+   *
+   * @return the model that was constructed so far
+   */
+  public IAnimation build() {
+    return this.animation;
+  }
+
+  /**
+   * Return itself as a String.
+   *
+   * @return an empty string, as the builder itself stores no information.
+   */
+  @Override
+  public String toString() {
+    return "";
+  }
+}
@@ -99,6 +99,17 @@ public interface TweenModelBuilder<IAnimation> {
   TweenModelBuilder<IAnimation> addScaleToChange(String name, float fromSx, float
       fromSy, float toSx, float toSy, int startTime, int endTime);
 
+  /**
+   * Set the line of the input that the following calls were read from, so that errors found in
+   * them can be reported against it. Builders that do not report lines may ignore it.
+   *
+   * @param line the line of the input, starting from 1.
+   * @return the builder object
+   */
+  default TweenModelBuilder<IAnimation> setSourceLine(int line) {
+    return this;
+  }
+
   /**
    * Return the model built so far.
    *
@@ -10,21 +10,38 @@ import cs5004.animator.model.ShapeType;
 import cs5004.animator.model.TransformFactory;
 import java.awt.geom.Point2D;
 import java.awt.geom.Point2D.Double;
+import java.util.List;
 
 /**
  * This Class works with AnimationFileReader to create animations. Specifically, AnimationFileReader
- * parses the input file into an intermediate format, then this Class builds an IAnimation.
+ * parses the input file into an intermediate format, then this Class builds an IAnimation. If
+ * validation is deferred, Transformations are checked all at once when the model is built, and
+ * every invalid one is reported along with the line it was read from.
  */
 
-public class TweenModelBuilderImpl implements TweenModelBuilder {
+public class TweenModelBuilderImpl implements TweenModelBuilder<IAnimation> {
 
   private IAnimation animation;
+  private boolean deferValidation;
+  private int sourceLine;
 
   /**
-   * Creates a new instance of the Tween Model Builder class.
+   * Creates a new instance of the Tween Model Builder class, which validates each Transformation
+   * as it is added.
    */
   public TweenModelBuilderImpl() {
-    this.animation = new Animation();
+    this(false);
+  }
+
+  /**
+   * Creates a new instance of the Tween Model Builder class.
+   *
+   * @param deferValidation if true, Transformations are validated when the model is built.
+   */
+  public TweenModelBuilderImpl(boolean deferValidation) {
+    this.animation = new Animation(deferValidation);
+    this.deferValidation = deferValidation;
+    this.sourceLine = 0;
   }
 
   /**
@@ -57,7 +74,7 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
    * @param endOfLife the time tick at which this oval disappears
    * @return the builder object
    */
-  public TweenModelBuilder addOval(
+  public TweenModelBuilder<IAnimation> addOval(
       String name,
       float cx, float cy,
       float xRadius, float yRadius,
@@ -96,7 +113,7 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
    * @param endOfLife the time tick at which this rectangle disappears
    * @return the builder object
    */
-  public TweenModelBuilder addRectangle(
+  public TweenModelBuilder<IAnimation> addRectangle(
       String name,
       float lx, float ly,
       float width, float height,
@@ -130,7 +147,7 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
    * @param startTime the time tick at which this movement should start
    * @param endTime the time tick at which this movement should end
    */
-  public TweenModelBuilder addMove(
+  public TweenModelBuilder<IAnimation> addMove(
       String name,
       float moveFromX, float moveFromY,
       float moveToX, float moveToY,
@@ -147,8 +164,8 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
       return this; // return current animation if failure to add
     }
     ITransformation newTransformation = TransformFactory
-        .makeTransformMove(from, to, startTime, endTime, name, thisType);
-    this.animation.addTransformation(newTransformation);
+        .makeTransformMove(from, to, startTime, endTime, shape.getName(), thisType);
+    this.animation.addTransformation(newTransformation, this.sourceLine);
     return this;
   }
 
@@ -166,7 +183,7 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
    * @param startTime the time tick at which this color change should start
    * @param endTime the time tick at which this color change should end
    */
-  public TweenModelBuilder addColorChange(
+  public TweenModelBuilder<IAnimation> addColorChange(
       String name,
       float oldR, float oldG, float oldB,
       float newR, float newG, float newB,
@@ -177,10 +194,12 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
     Color newInputColor = new Color(newR, newG, newB);
     Color newColor = colorsBy100(newInputColor);
 
+    IShape shape = this.animation.getFirstIShape(name);
+    String shapeName = shape == null ? name : shape.getName(); // share the interned name
     ITransformation newTransformation = TransformFactory
-        .makeTransformColor(startTime, endTime, name, oldColor, newColor);
+        .makeTransformColor(startTime, endTime, shapeName, oldColor, newColor);
 
-    this.animation.addTransformation(newTransformation);
+    this.animation.addTransformation(newTransformation, this.sourceLine);
     return this;
   }
 
@@ -189,7 +208,7 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
    * extents. What these extents actually mean depends on the shape, but these are roughly the
    * extents of the box enclosing the shape
    */
-  public TweenModelBuilder addScaleToChange(
+  public TweenModelBuilder<IAnimation> addScaleToChange(
       String name,
       float fromSx,
       float fromSy,
@@ -206,17 +225,39 @@ public class TweenModelBuilderImpl implements TweenModelBuilder {
       return this; // return current animation if failure to add
     }
     ITransformation newTransformation = TransformFactory
-        .makeTransformScale(fromSx, fromSy, toSx, toSy, startTime, endTime, name, thisType);
-    this.animation.addTransformation(newTransformation);
+        .makeTransformScale(fromSx, fromSy, toSx, toSy, startTime, endTime, shape.getName(),
+            thisType);
+    this.animation.addTransformation(newTransformation, this.sourceLine);
     return this;
   }
 
   /**
-   * Return the model built so far.
+   * Set the line of the input that the following calls were read from.
+   *
+   * @param line the line of the input, starting from 1.
+   * @return the builder object
+   */
+  @Override
+  public TweenModelBuilder<IAnimation> setSourceLine(int line) {
+    this.sourceLine = line;
+    return this;
+  }
+
+  /**
+   * Return the model built so far. If validation is deferred, first validates every
+   * Transformation added since the last build.
    *
    * @return the model that was constructed so far
+   * @throws IllegalArgumentException if validation is deferred and any Transformation is invalid,
+   *         listing every invalid Transformation.
    */
-  public IAnimation build() {
+  public IAnimation build() throws IllegalArgumentException {
+    if (this.deferValidation) {
+      List<String> violations = this.animation.validate();
+      if (!violations.isEmpty()) {
+        throw new IllegalArgumentException(String.join("\n", violations));
+      }
+    }
     return this.animation;
   }
 
@@ -1,60 +1,206 @@
 package cs5004.animator.view;
 
 import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.util.FrameDiff;
+import cs5004.animator.util.IntRaster;
+import cs5004.animator.util.TiledRenderer;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Rectangle;
+import java.awt.image.VolatileImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import javax.swing.JPanel;
 import javax.swing.Scrollable;
 
 /**
  * An object used by the ViewGUI object to display shapes in a GUI window. Has a list of
  * IRenderableShapes that it can be asked to draw. Can update the shapeList, for example, at every
- * tick.
+ * tick, finding the area in which the new shapes differ from the old, so only that need be
+ * painted again.
+ *
+ * <p>Frames are drawn off the event dispatch thread, so that buttons stay responsive
+ * however heavy a frame is. A render thread takes the latest shapes given, skipping any it did not
+ * get to in time, and fills them into a back buffer the size of the visible area, a tile at a time
+ * in parallel when it is large. The back buffer is copied into an accelerated VolatileImage, which
+ * is swapped with the front buffer, and only the area that changed is repainted; painting only
+ * ever copies the front buffer to the window. Each buffer keeps the pixels it was filled with, so
+ * if the graphics card loses its VolatileImage, it is restored from them, and if it becomes
+ * incompatible, for example when the window moves to another screen, it is made again. If there
+ * is no accelerated surface at all, the kept pixels are drawn instead. Anything being painted
+ * which the front buffer does not hold, because the panel was scrolled or resized, is drawn on the
+ * event dispatch thread, and the render thread is asked to draw the new visible area.
  */
 
 public class DrawingPanel extends JPanel implements Scrollable {
 
+  private static final int WHITE = 0xffffff;
+
+  private final Object frameLock;
   private List<IRenderableShape> shapeList;
+  private IntRaster backBuffer;
+
+  // handed from the event dispatch thread to the render thread, guarded by frameLock
+  private List<IRenderableShape> pendingShapes;
+  private Rectangle pendingArea;
+  private GraphicsConfiguration pendingConfiguration;
+  private Buffer front;
+  private Buffer back;
+  private Thread renderThread;
+
+  // used only by the render thread
+  private final TiledRenderer renderer;
+  private List<IRenderableShape> renderedShapes;
+  private Rectangle renderedArea;
+  private boolean failureReported;
 
   /**
-   * Creates a new drawing panel to display an IAnimation within.
+   * Creates a new drawing panel to display an IAnimation within, which draws frames on a render
+   * thread of its own.
    *
    * @param panelWidth the max width needed to display the animation.
    * @param panelHeight the max height needed to display the animation.
    */
   public DrawingPanel(int panelWidth, int panelHeight) {
     this.setPreferredSize(new Dimension(panelWidth, panelHeight));
+    this.frameLock = new Object();
     this.shapeList = new ArrayList<>();
+    this.front = new Buffer();
+    this.back = new Buffer();
+    this.renderer = new TiledRenderer(ForkJoinPool.commonPool());
+    this.renderedShapes = new ArrayList<>();
     setBackground(Color.WHITE);
     setOpaque(true);
   }
 
   /**
-   * Gives this DrawingPanel information about Shapes it can then be asked to draw. The shapeList
-   * should be updated at each tick.
+   * Gives this DrawingPanel information about Shapes it can then be asked to draw, and repaints
+   * the area in which they differ from the last once the render thread has drawn them. The
+   * shapeList should be updated at each tick, on the event dispatch thread.
    *
    * @param newShapeList the read-only list of shapes to be drawn.
    */
   void updateShapes(List<IRenderableShape> newShapeList) {
     this.shapeList = newShapeList;
+    this.requestFrame();
   }
 
   /**
-   * Uses its Graphics object to draw shapes in a GUI window. Designed to be called once per tick,
-   * so that shapes update.
+   * Hands the latest shapes and the visible area to the render thread, starting it if need be.
+   */
+  private void requestFrame() {
+    Rectangle visible = this.getVisibleRect();
+    if (visible.isEmpty()) {
+      return;
+    }
+    synchronized (this.frameLock) {
+      this.pendingShapes = this.shapeList;
+      this.pendingArea = visible;
+      this.pendingConfiguration = this.getGraphicsConfiguration();
+      if (this.renderThread == null) {
+        this.renderThread = new Thread(this::renderFrames, "drawing-panel-render");
+        this.renderThread.setDaemon(true);
+        this.renderThread.start();
+      }
+      this.frameLock.notifyAll();
+    }
+  }
+
+  /**
+   * Runs on the render thread, drawing each frame handed to it into the back buffer, swapping it
+   * to the front, and repainting the area that changed, until interrupted. A frame which fails to
+   * draw is skipped, and only the first failure is reported.
+   */
+  private void renderFrames() {
+    while (!Thread.currentThread().isInterrupted()) {
+      List<IRenderableShape> shapes;
+      Rectangle area;
+      GraphicsConfiguration configuration;
+      Buffer target;
+      synchronized (this.frameLock) {
+        while (this.pendingShapes == null) {
+          try {
+            this.frameLock.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        shapes = this.pendingShapes;
+        area = this.pendingArea;
+        configuration = this.pendingConfiguration;
+        this.pendingShapes = null;
+        target = this.back;
+      }
+      try {
+        Rectangle changed = area.equals(this.renderedArea) ? FrameDiff.changedBounds(
+            this.renderedShapes, shapes).intersection(area) : area;
+        target.fill(shapes, area, this.renderer);
+        target.upload(configuration);
+        synchronized (this.frameLock) {
+          this.back = this.front;
+          this.front = target;
+        }
+        this.renderedShapes = shapes;
+        this.renderedArea = area;
+        if (!changed.isEmpty()) {
+          this.repaint(changed);
+        }
+      } catch (RuntimeException e) {
+        // a shape which cannot be drawn will likely fail every frame, so only say so once
+        if (!this.failureReported) {
+          System.err.println("Failed drawing frame: " + e.getMessage());
+          this.failureReported = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Paints the area being painted. The front buffer is copied to the window if it holds the area.
+   * Otherwise the render thread is asked for a frame of the new visible area, and meanwhile the
+   * shapes are filled into the back buffer here, for only the area being painted, skipping shapes
+   * wholly outside it, and drawn in the GUI window with its Graphics object. The back buffer only
+   * grows, so it is not made again for every repaint.
    *
    * @param g a Graphics object used to draw shapes in this window.
    */
   @Override
   public void paintComponent(Graphics g) {
+    Rectangle area = g.getClipBounds();
+    if (area == null) {
+      area = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+    }
+    if (area.isEmpty()) {
+      return;
+    }
+    synchronized (this.frameLock) {
+      if (this.front.area != null && this.front.area.contains(area)) {
+        this.front.blit(g, area, this.getGraphicsConfiguration());
+        return;
+      }
+    }
+    this.requestFrame();
     super.paintComponent(g);
+    if (this.backBuffer == null || this.backBuffer.getWidth() < area.width
+        || this.backBuffer.getHeight() < area.height) {
+      int width = Math.max(area.width, this.backBuffer == null ? 0 : this.backBuffer.getWidth());
+      int height = Math.max(area.height,
+          this.backBuffer == null ? 0 : this.backBuffer.getHeight());
+      this.backBuffer = new IntRaster(width, height);
+    }
+    this.backBuffer.setOrigin(area.x, area.y);
+    this.backBuffer.clear(WHITE);
     for (IRenderableShape shape : this.shapeList) {
-      shape.drawSelf(g);
+      if (shape.getBounds().intersects(area)) {
+        shape.rasterize(this.backBuffer);
+      }
     }
+    g.drawImage(this.backBuffer.getImage(), area.x, area.y, area.x + area.width,
+        area.y + area.height, 0, 0, area.width, area.height, null);
   }
 
   @Override
@@ -81,4 +227,90 @@ public class DrawingPanel extends JPanel implements Scrollable {
   public boolean getScrollableTracksViewportHeight() {
     return false;
   }
+
+  /**
+   * One of the two buffers frames are drawn into off the event dispatch thread: the pixels of a
+   * frame of some area of the panel, and a copy of them on the graphics card, if it has one.
+   */
+  private static final class Buffer {
+
+    private IntRaster pixels;
+    private VolatileImage image;
+    private Rectangle area;
+
+    /**
+     * Fills a frame into the pixels of this Buffer, growing them if they are too small.
+     *
+     * @param shapes the shapes of the frame.
+     * @param area the area of the panel to fill.
+     * @param renderer the TiledRenderer to fill with.
+     */
+    void fill(List<IRenderableShape> shapes, Rectangle area, TiledRenderer renderer) {
+      if (this.pixels == null || this.pixels.getWidth() < area.width
+          || this.pixels.getHeight() < area.height) {
+        this.pixels = new IntRaster(Math.max(area.width, 1), Math.max(area.height, 1));
+      }
+      this.pixels.setOrigin(area.x, area.y);
+      renderer.render(shapes, this.pixels, WHITE);
+      this.area = area;
+    }
+
+    /**
+     * Copies the pixels of this Buffer to the graphics card, making its VolatileImage again if it
+     * is too small or no longer compatible, and copying again if its contents are lost meanwhile.
+     *
+     * @param configuration the configuration of the screen, or null if there is none.
+     */
+    void upload(GraphicsConfiguration configuration) {
+      if (configuration == null) {
+        this.image = null;
+        return;
+      }
+      do {
+        if (this.image == null || this.image.getWidth() < this.pixels.getWidth()
+            || this.image.getHeight() < this.pixels.getHeight()
+            || this.image.validate(configuration) == VolatileImage.IMAGE_INCOMPATIBLE) {
+          if (this.image != null) {
+            this.image.flush();
+          }
+          this.image = configuration.createCompatibleVolatileImage(this.pixels.getWidth(),
+              this.pixels.getHeight());
+        }
+        Graphics2D graphics = this.image.createGraphics();
+        graphics.drawImage(this.pixels.getImage(), 0, 0, null);
+        graphics.dispose();
+      } while (this.image.contentsLost());
+    }
+
+    /**
+     * Copies part of this Buffer to the window, restoring its VolatileImage from its pixels if
+     * the graphics card lost it, and drawing its pixels instead if that fails.
+     *
+     * @param g the Graphics of the window.
+     * @param clip the area of the panel to copy, which this Buffer holds.
+     * @param configuration the configuration of the screen, or null if there is none.
+     */
+    void blit(Graphics g, Rectangle clip, GraphicsConfiguration configuration) {
+      int sourceX = clip.x - this.area.x;
+      int sourceY = clip.y - this.area.y;
+      if (this.image != null && configuration != null) {
+        int status = this.image.validate(configuration);
+        if (status == VolatileImage.IMAGE_RESTORED) {
+          Graphics2D graphics = this.image.createGraphics();
+          graphics.drawImage(this.pixels.getImage(), 0, 0, null);
+          graphics.dispose();
+        }
+        if (status != VolatileImage.IMAGE_INCOMPATIBLE) {
+          g.drawImage(this.image, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+              sourceX, sourceY, sourceX + clip.width, sourceY + clip.height, null);
+          if (!this.image.contentsLost()) {
+            return;
+          }
+        }
+      }
+      g.drawImage(this.pixels.getImage(), clip.x, clip.y, clip.x + clip.width,
+          clip.y + clip.height, sourceX, sourceY, sourceX + clip.width, sourceY + clip.height,
+          null);
+    }
+  }
 }
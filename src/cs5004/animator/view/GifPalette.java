@@ -0,0 +1,318 @@
+package cs5004.animator.view;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A palette of at most 256 colors for the GIF format, fixed before any frame is drawn, with a
+ * lookup from a drawn color to its index. If every color to be drawn fits, the palette holds them
+ * exactly; otherwise it holds the background and the average of each of 255 groups of them, found
+ * by median cut. Every color given to be drawn is looked up through a hash table, holding the
+ * index of that color or of the nearest color in the palette, found once, ahead of time. Any other
+ * color is approximated through a table of every color at five bits a channel, which is only
+ * built the first time it is needed.
+ */
+
+final class GifPalette {
+
+  private static final int MAX_COLORS = 256;
+  private static final int EMPTY = -1;
+
+  private final int[] colors;
+  private final int sizeBits;
+  private final int hashBits;
+  private final int[] keys;
+  private final byte[] values;
+  private byte[] nearest;
+
+  /**
+   * Creates a new GifPalette, from a background color and the colors to be drawn on it.
+   *
+   * @param background the packed RGB color frames are drawn on, which takes index 0.
+   * @param drawn the packed RGB colors to be drawn. Repeats are ignored.
+   * @throws NullPointerException if drawn is null.
+   */
+  GifPalette(int background, int[] drawn) throws NullPointerException {
+    Objects.requireNonNull(drawn);
+    int white = background & 0xffffff;
+    int[] distinct = Arrays.stream(drawn).map(color -> color & 0xffffff).distinct()
+        .filter(color -> color != white).toArray();
+    int[] chosen = distinct.length < MAX_COLORS ? distinct
+        : medianCut(distinct, MAX_COLORS - 1);
+    int bits = 1;
+    while (1 << bits < 2 * (MAX_COLORS + distinct.length)) {
+      bits++;
+    }
+    this.hashBits = bits;
+    this.keys = new int[1 << bits];
+    this.values = new byte[1 << bits];
+    Arrays.fill(this.keys, EMPTY);
+
+    int[] palette = new int[MAX_COLORS];
+    int count = 0;
+    palette[count] = white;
+    this.put(white, count++);
+    for (int color : chosen) {
+      if (this.find(color) == EMPTY) {
+        palette[count] = color;
+        this.put(color, count++);
+      }
+    }
+    this.colors = Arrays.copyOf(palette, count);
+    for (int color : distinct) {
+      if (this.find(color) == EMPTY) {
+        this.put(color, this.nearestIndex(color));
+      }
+    }
+    bits = 1;
+    while (1 << bits < count) {
+      bits++;
+    }
+    this.sizeBits = bits;
+  }
+
+  /**
+   * Gets the number of bits an index takes, from 1 to 8. The palette is written with 2 to the
+   * power of this many entries.
+   *
+   * @return the number of bits.
+   */
+  int getSizeBits() {
+    return this.sizeBits;
+  }
+
+  /**
+   * Gets the palette as the GIF format writes it: three bytes of red, green and blue for each
+   * entry, padded with black to a power of two.
+   *
+   * @return the color table.
+   */
+  byte[] toColorTable() {
+    byte[] table = new byte[3 << this.sizeBits];
+    for (int i = 0; i < this.colors.length; i++) {
+      table[3 * i] = (byte) (this.colors[i] >> 16);
+      table[3 * i + 1] = (byte) (this.colors[i] >> 8);
+      table[3 * i + 2] = (byte) this.colors[i];
+    }
+    return table;
+  }
+
+  /**
+   * Maps a run of drawn pixels to their palette indices. Neighbouring pixels are mostly the same
+   * color, so the last color looked up is remembered.
+   *
+   * @param pixels packed RGB pixels; anything above the low 24 bits is ignored.
+   * @param indices where to put the index of each pixel, at least as long as pixels.
+   */
+  void map(int[] pixels, byte[] indices) {
+    int lastColor = EMPTY;
+    byte lastIndex = 0;
+    for (int i = 0; i < pixels.length; i++) {
+      int color = pixels[i] & 0xffffff;
+      if (color != lastColor) {
+        lastColor = color;
+        lastIndex = this.indexOf(color);
+      }
+      indices[i] = lastIndex;
+    }
+  }
+
+  /**
+   * Gets the index of a color, or of the nearest color in the palette if it is not in it.
+   *
+   * @param color a packed RGB color.
+   * @return the index, as a byte.
+   */
+  byte indexOf(int color) {
+    int slot = this.find(color & 0xffffff);
+    if (slot != EMPTY) {
+      return this.values[slot];
+    }
+    if (this.nearest == null) {
+      this.nearest = this.buildNearest();
+    }
+    return this.nearest[(color >> 9 & 0x7c00) | (color >> 6 & 0x3e0) | (color >> 3 & 0x1f)];
+  }
+
+  /**
+   * Finds the slot of a color in the hash table.
+   *
+   * @param color a packed RGB color.
+   * @return the slot, or EMPTY if the color is not in the palette.
+   */
+  private int find(int color) {
+    int mask = this.keys.length - 1;
+    for (int slot = hash(color); ; slot = (slot + 1) & mask) {
+      if (this.keys[slot] == color) {
+        return slot;
+      }
+      if (this.keys[slot] == EMPTY) {
+        return EMPTY;
+      }
+    }
+  }
+
+  /**
+   * Adds a color to the hash table, which is never more than half full.
+   *
+   * @param color a packed RGB color, not yet in the table.
+   * @param index its index, or the index of the nearest color, in the palette.
+   */
+  private void put(int color, int index) {
+    int mask = this.keys.length - 1;
+    int slot = hash(color);
+    while (this.keys[slot] != EMPTY) {
+      slot = (slot + 1) & mask;
+    }
+    this.keys[slot] = color;
+    this.values[slot] = (byte) index;
+  }
+
+  /**
+   * Builds the table of the nearest palette index to every color at five bits a channel, by the
+   * distance between the colors in RGB.
+   *
+   * @return the table, indexed by red, green and blue from the most significant bits.
+   */
+  private byte[] buildNearest() {
+    byte[] table = new byte[1 << 15];
+    for (int key = 0; key < table.length; key++) {
+      table[key] = (byte) this.nearestIndex(
+          (key >> 10) << 19 | (key >> 5 & 0x1f) << 11 | (key & 0x1f) << 3 | 0x040404);
+    }
+    return table;
+  }
+
+  /**
+   * Finds the color in the palette nearest to a color, by the distance between them in RGB.
+   *
+   * @param color a packed RGB color.
+   * @return the index of the nearest color.
+   */
+  private int nearestIndex(int color) {
+    int red = color >> 16 & 0xff;
+    int green = color >> 8 & 0xff;
+    int blue = color & 0xff;
+    int best = 0;
+    int bestDistance = Integer.MAX_VALUE;
+    for (int i = 0; i < this.colors.length; i++) {
+      int dr = red - (this.colors[i] >> 16);
+      int dg = green - (this.colors[i] >> 8 & 0xff);
+      int db = blue - (this.colors[i] & 0xff);
+      int distance = dr * dr + dg * dg + db * db;
+      if (distance < bestDistance) {
+        best = i;
+        bestDistance = distance;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Reduces colors to a number of groups, by median cut: the group spanning the widest range of
+   * any one channel is split in half along it, at its median, until there are enough groups or
+   * none may be split further. Each group is replaced by its average.
+   *
+   * @param colors distinct packed RGB colors.
+   * @param groups the most groups to reduce them to.
+   * @return the average color of each group.
+   */
+  private static int[] medianCut(int[] colors, int groups) {
+    int[] sorted = colors.clone();
+    int[] starts = new int[groups + 1];
+    int[] spans = new int[groups];
+    int count = 1;
+    starts[1] = sorted.length;
+    spans[0] = widestChannel(sorted, 0, sorted.length);
+    while (count < groups) {
+      int widest = 0;
+      for (int group = 1; group < count; group++) {
+        if (spans[group] >> 8 > spans[widest] >> 8) {
+          widest = group;
+        }
+      }
+      if (spans[widest] >> 8 == 0) {
+        break;
+      }
+      int from = starts[widest];
+      int to = starts[widest + 1];
+      int middle = (from + to) / 2;
+      sortByChannel(sorted, from, to, spans[widest] & 0xff);
+      System.arraycopy(starts, widest + 1, starts, widest + 2, count - widest);
+      System.arraycopy(spans, widest + 1, spans, widest + 2, count - widest - 1);
+      starts[widest + 1] = middle;
+      spans[widest] = widestChannel(sorted, from, middle);
+      spans[widest + 1] = widestChannel(sorted, middle, to);
+      count++;
+    }
+    int[] averages = new int[count];
+    for (int group = 0; group < count; group++) {
+      long red = 0;
+      long green = 0;
+      long blue = 0;
+      int size = starts[group + 1] - starts[group];
+      for (int i = starts[group]; i < starts[group + 1]; i++) {
+        red += sorted[i] >> 16 & 0xff;
+        green += sorted[i] >> 8 & 0xff;
+        blue += sorted[i] & 0xff;
+      }
+      averages[group] = (int) ((red + size / 2) / size) << 16
+          | (int) ((green + size / 2) / size) << 8 | (int) ((blue + size / 2) / size);
+    }
+    return averages;
+  }
+
+  /**
+   * Finds the channel along which part of an array of colors spans the widest range.
+   *
+   * @param colors packed RGB colors.
+   * @param from the first index to look at.
+   * @param to the index after the last to look at.
+   * @return the range, shifted left 8 bits, with the shift of the channel in the low 8 bits.
+   */
+  private static int widestChannel(int[] colors, int from, int to) {
+    int widest = 0;
+    for (int shift = 0; shift <= 16; shift += 8) {
+      int min = 0xff;
+      int max = 0;
+      for (int i = from; i < to; i++) {
+        int value = colors[i] >> shift & 0xff;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      if (max - min > widest >> 8) {
+        widest = (max - min) << 8 | shift;
+      }
+    }
+    return widest;
+  }
+
+  /**
+   * Sorts part of an array of colors by one channel.
+   *
+   * @param colors packed RGB colors.
+   * @param from the first index to sort.
+   * @param to the index after the last to sort.
+   * @param shift the shift of the channel: 16 for red, 8 for green, 0 for blue.
+   */
+  private static void sortByChannel(int[] colors, int from, int to, int shift) {
+    long[] keyed = new long[to - from];
+    for (int i = from; i < to; i++) {
+      keyed[i - from] = (long) (colors[i] >> shift & 0xff) << 32 | colors[i];
+    }
+    Arrays.sort(keyed);
+    for (int i = from; i < to; i++) {
+      colors[i] = (int) keyed[i - from];
+    }
+  }
+
+  /**
+   * Hashes a color to a slot of the hash table.
+   *
+   * @param color a packed RGB color.
+   * @return the slot.
+   */
+  private int hash(int color) {
+    return (color * 0x9e3779b1) >>> (32 - this.hashBits);
+  }
+}
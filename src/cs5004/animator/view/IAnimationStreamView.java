@@ -0,0 +1,28 @@
+package cs5004.animator.view;
+
+/**
+ * An interface representing a view that can display output as it is produced, rather than
+ * waiting for it to be produced in full. This lets the model write output of any size without
+ * having to hold all of it in memory.
+ */
+
+public interface IAnimationStreamView extends IAnimationView {
+
+  /**
+   * Opens the desired location (for example, System.out) as a buffered stream, and has the given
+   * OutputWriter write to it.
+   *
+   * @param writer the OutputWriter producing the output to be displayed.
+   */
+  void renderStream(OutputWriter writer);
+
+  /**
+   * Has the given OutputWriter write binary output, such as compressed data, to the desired
+   * location. Unlike renderStream, nothing is added to what the OutputWriter writes.
+   *
+   * @param writer the OutputWriter producing the output to be displayed.
+   */
+  default void renderBinary(OutputWriter writer) {
+    this.renderStream(writer);
+  }
+}
@@ -1,5 +1,17 @@
 package cs5004.animator.view;
 
+import cs5004.animator.model.OutputType;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
 /**
  * A Factory class for IAnimationView. Has a single static method parameterized over a String with
  * the desired output type. This was required by the instructions, but I don't think I would have
@@ -28,6 +40,75 @@ public class IAnimationViewFactory {
     return new ViewGUI(panelWidth, panelHeight);
   }
 
+  /**
+   * A Factory method for creating a View that writes each frame of an animation to a PNG file,
+   * without a window. At most twice as many frames as threads are held at once.
+   *
+   * @param directory the name of the directory to write the frames to.
+   * @param width the width of each frame.
+   * @param height the height of each frame.
+   * @param threads the number of threads to draw and encode frames with.
+   * @return a new ViewPNGFrames.
+   */
+  public static IFrameView makeViewPNGFrames(String directory, int width, int height,
+      int threads) {
+    return new ViewPNGFrames(directory, Math.max(width, 1), Math.max(height, 1), threads,
+        threads * 2);
+  }
+
+  /**
+   * A Factory method for creating a View that writes an animation as an animated GIF, to a file
+   * or to System.out, without a window.
+   *
+   * @param fileName the name of the File to write to, or null to write to System.out.
+   * @param width the width of each frame.
+   * @param height the height of each frame.
+   * @param framesPerSecond the rate at which the frames are meant to be played.
+   * @param colors the packed RGB colors the animation is drawn in.
+   * @param threads the number of threads to compress frames with.
+   * @return a new ViewGIF.
+   * @throws UncheckedIOException if the File cannot be opened.
+   */
+  public static IFrameView makeViewGIF(String fileName, int width, int height,
+      int framesPerSecond, int[] colors, int threads) {
+    OutputStream out;
+    try {
+      out = new BufferedOutputStream(fileName == null ? new FileOutputStream(FileDescriptor.out)
+          : new FileOutputStream(fileName), 1 << 16);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new ViewGIF(out, Math.max(width, 1), Math.max(height, 1), framesPerSecond, colors,
+        threads);
+  }
+
+  /**
+   * A Factory method for creating a View that writes each frame of an animation as uncompressed
+   * video, to a file or to System.out.
+   *
+   * @param fileName the name of the File to write to, or null to write to System.out.
+   * @param width the width of each frame.
+   * @param height the height of each frame.
+   * @param framesPerSecond the rate at which the frames are meant to be played.
+   * @param format RGB24, RGBA or Y4M.
+   * @return a new ViewRawFrames.
+   * @throws UncheckedIOException if the File cannot be opened.
+   */
+  public static IFrameView makeViewRawFrames(String fileName, int width, int height,
+      int framesPerSecond, OutputType format) {
+    WritableByteChannel channel;
+    try {
+      channel = fileName == null
+          ? new FileOutputStream(FileDescriptor.out).getChannel()
+          : FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new ViewRawFrames(channel, Math.max(width, 1), Math.max(height, 1), framesPerSecond,
+        format);
+  }
+
   /**
    * A Factory method for creating a View that will return information to the System.out.
    *
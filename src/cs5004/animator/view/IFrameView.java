@@ -0,0 +1,31 @@
+package cs5004.animator.view;
+
+import cs5004.animator.model.IRenderableShape;
+import java.util.List;
+
+/**
+ * An interface representing a view which renders an animation one frame at a time without a
+ * window, for example into image files. Frames may still be rendering in the background when
+ * renderFrame returns, so finish() must be called once every frame has been handed over.
+ */
+
+public interface IFrameView extends IAnimationView {
+
+  /**
+   * Renders the frame of one tick. May wait until earlier frames are done, so that only a bounded
+   * number of frames are held at once.
+   *
+   * @param tick the tick the frame is of.
+   * @param shapes the IRenderableShapes making up the frame, in the order they are drawn.
+   * @throws IllegalStateException if an earlier frame failed to render, or the view is finished.
+   */
+  void renderFrame(int tick, List<IRenderableShape> shapes) throws IllegalStateException;
+
+  /**
+   * Waits for every frame handed over to finish rendering, and releases what the view renders
+   * with. No more frames may be rendered afterwards. Does nothing if already finished.
+   *
+   * @throws IllegalStateException if any frame failed to render.
+   */
+  void finish() throws IllegalStateException;
+}
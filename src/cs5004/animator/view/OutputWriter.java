@@ -0,0 +1,22 @@
+package cs5004.animator.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A function that writes some output, such as an animation formatted by the model, to a stream.
+ * Handed to an IAnimationStreamView, which decides where the stream goes.
+ */
+
+@FunctionalInterface
+public interface OutputWriter {
+
+  /**
+   * Writes the output to the given stream. The stream belongs to the caller, and must not be
+   * closed.
+   *
+   * @param out the stream to write to.
+   * @throws IOException if writing to the stream fails.
+   */
+  void write(OutputStream out) throws IOException;
+}
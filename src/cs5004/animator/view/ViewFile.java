@@ -1,15 +1,20 @@
 package cs5004.animator.view;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.Objects;
 import org.apache.commons.io.FileUtils;
 
 /**
- * An implementation of the IAnimationView interface. ViewFile will print to a fileName, as defined
- * by a String.
+ * An implementation of the IAnimationStreamView interface. ViewFile will print to a fileName, as
+ * defined by a String.
  */
 
-public class ViewFile implements IAnimationView {
+public class ViewFile implements IAnimationStreamView {
+
+  private static final int BUFFER_SIZE = 1 << 16;
 
   private String fileName;
 
@@ -40,6 +45,23 @@ public class ViewFile implements IAnimationView {
     }
   }
 
+  /**
+   * Opens the File named fileName as a buffered stream, and has the given OutputWriter write the
+   * animation to it.
+   *
+   * @param writer the OutputWriter producing the animation.
+   * @throws NullPointerException if called with null parameter.
+   */
+  public void renderStream(OutputWriter writer) {
+    Objects.requireNonNull(writer);
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName),
+        BUFFER_SIZE)) {
+      writer.write(out);
+    } catch (Exception e) {
+      System.err.println("error writing animation to file: " + e.getMessage());
+    }
+  }
+
   /**
    * Returns this view as a String. Only prints its fileName.
    *
@@ -0,0 +1,379 @@
+package cs5004.animator.view;
+
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.util.IntRaster;
+import cs5004.animator.util.LzwEncoder;
+import cs5004.animator.util.TiledRenderer;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * An implementation of the IFrameView interface which writes an animation as an animated GIF that
+ * loops forever. The shapes are only ever filled with solid colors, so rather than choosing colors
+ * for each frame, one palette is fixed from the colors of the whole animation, and each drawn
+ * pixel is looked up in it. Each frame only holds the smallest rectangle that changed since the
+ * frame before, drawn over it; a frame which changes nothing is not written, and the frame before
+ * it is shown for longer instead. Large frames are rasterized a tile at a time in parallel on the
+ * common fork/join pool. Frames are LZW compressed on a pool of worker threads, and written in
+ * order, with only a bounded number compressed ahead of the output.
+ */
+
+public class ViewGIF implements IFrameView {
+
+  private static final int WHITE = 0xffffff;
+  private static final int FRAMES_PER_THREAD = 2;
+  // browsers show frames meant for less than this many hundredths of a second for far longer
+  private static final int MIN_DELAY = 2;
+  private static final int MAX_DELAY = 0xffff;
+
+  private final OutputStream out;
+  private final int width;
+  private final int height;
+  private final int framesPerSecond;
+  private final GifPalette palette;
+  private final int minCodeSize;
+  private final IntRaster raster;
+  private final TiledRenderer renderer;
+  private final int[] pixels;
+  private byte[] indices;
+  private byte[] previous;
+  private final ExecutorService pool;
+  private final int window;
+  private final Deque<Frame> inFlight;
+  private Frame pending;
+  private int nextTick;
+  private boolean finished;
+
+  /**
+   * Creates a new ViewGIF, and writes the start of the GIF format: its size, its palette, and that
+   * it loops.
+   *
+   * @param out the stream to write the GIF to, which this view closes when finished.
+   * @param width the width of each frame, from 1 to 65535.
+   * @param height the height of each frame, from 1 to 65535.
+   * @param framesPerSecond the rate at which the frames are meant to be played.
+   * @param colors the packed RGB colors the shapes are drawn in. If there are more than fit in the
+   *        palette, it holds 255 averages of them.
+   * @param threads the number of threads to compress frames with.
+   * @throws NullPointerException if out or colors is null.
+   * @throws IllegalArgumentException if any number is out of range.
+   * @throws UncheckedIOException if writing the start of the GIF fails.
+   */
+  public ViewGIF(OutputStream out, int width, int height, int framesPerSecond, int[] colors,
+      int threads) throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(out);
+    Objects.requireNonNull(colors);
+    if (width < 1 || height < 1 || width > 0xffff || height > 0xffff) {
+      throw new IllegalArgumentException("frames must be from 1 to 65535 pixels wide and high");
+    }
+    if (framesPerSecond < 1 || threads < 1) {
+      throw new IllegalArgumentException("frame rate and threads must be greater than 0");
+    }
+    this.out = out;
+    this.width = width;
+    this.height = height;
+    this.framesPerSecond = framesPerSecond;
+    this.palette = new GifPalette(WHITE, colors);
+    this.minCodeSize = Math.max(2, this.palette.getSizeBits());
+    this.raster = new IntRaster(width, height);
+    this.renderer = new TiledRenderer(ForkJoinPool.commonPool());
+    this.pixels = ((DataBufferInt) this.raster.getImage().getRaster().getDataBuffer()).getData();
+    this.indices = new byte[width * height];
+    this.previous = new byte[width * height];
+    this.window = threads * FRAMES_PER_THREAD;
+    this.inFlight = new ArrayDeque<>();
+    try {
+      this.writeHeader();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "gif-lzw");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Renders a List of IRenderableShapes as the frame after the last one rendered.
+   *
+   * @param shapeList a List of IRenderableShapes making up the frame.
+   * @throws IllegalStateException if an earlier frame failed to compress, or the view is finished.
+   * @throws UncheckedIOException if writing to the stream fails.
+   */
+  @SuppressWarnings("unchecked")
+  public void render(Object shapeList) throws IllegalStateException {
+    this.renderFrame(this.nextTick, (List<IRenderableShape>) shapeList);
+  }
+
+  /**
+   * Draws the frame of one tick on a white background, as the GUI does, and hands what changed
+   * since the last frame written to a worker thread to be compressed. Nothing is drawn if the last
+   * frame written would be shown for too short a time for a browser to honour, at this frame rate.
+   *
+   * @param tick the tick the frame is of, which sets when it is shown.
+   * @param shapes the IRenderableShapes making up the frame, in the order they are drawn.
+   * @throws IllegalStateException if an earlier frame failed to compress, or the view is finished.
+   * @throws UncheckedIOException if writing to the stream fails.
+   */
+  public void renderFrame(int tick, List<IRenderableShape> shapes) throws IllegalStateException {
+    Objects.requireNonNull(shapes);
+    if (this.finished) {
+      throw new IllegalStateException("frames have already been finished");
+    }
+    this.nextTick = tick + 1;
+    if (this.pending != null && this.centis(tick) - this.centis(this.pending.tick) < MIN_DELAY) {
+      return;
+    }
+    this.renderer.render(shapes, this.raster, WHITE);
+    this.palette.map(this.pixels, this.indices);
+
+    Frame frame = this.pending == null ? new Frame(tick, 0, 0, this.width, this.height)
+        : this.changedSince(tick);
+    if (frame == null) {
+      return;
+    }
+    byte[] changed = this.crop(frame);
+    frame.data = this.pool.submit(() -> LzwEncoder.encode(changed, this.minCodeSize));
+    byte[] swap = this.previous;
+    this.previous = this.indices;
+    this.indices = swap;
+
+    try {
+      if (this.pending != null) {
+        this.pending.delay = this.centis(tick) - this.centis(this.pending.tick);
+        this.inFlight.add(this.pending);
+        if (this.inFlight.size() >= this.window) {
+          this.writeNext();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.pending = frame;
+  }
+
+  /**
+   * Writes every frame handed over, once compressed, then the end of the GIF format, and closes
+   * the stream. The last frame is shown until the tick after it. Does nothing if already finished.
+   *
+   * @throws IllegalStateException if any frame failed to compress.
+   * @throws UncheckedIOException if writing to or closing the stream fails.
+   */
+  public void finish() throws IllegalStateException {
+    if (this.finished) {
+      return;
+    }
+    this.finished = true;
+    try {
+      if (this.pending != null) {
+        this.pending.delay = Math.max(MIN_DELAY,
+            this.centis(this.nextTick) - this.centis(this.pending.tick));
+        this.inFlight.add(this.pending);
+        this.pending = null;
+      }
+      while (!this.inFlight.isEmpty()) {
+        this.writeNext();
+      }
+      this.out.write(0x3b);
+      this.out.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      this.pool.shutdownNow();
+      this.inFlight.clear();
+    }
+  }
+
+  /**
+   * Finds the smallest rectangle in which the current frame differs from the last one written.
+   *
+   * @param tick the tick of the current frame.
+   * @return the rectangle as a Frame, or null if nothing changed.
+   */
+  private Frame changedSince(int tick) {
+    int top = 0;
+    while (top < this.height && this.rowMatches(top)) {
+      top++;
+    }
+    if (top == this.height) {
+      return null;
+    }
+    int bottom = this.height - 1;
+    while (this.rowMatches(bottom)) {
+      bottom--;
+    }
+    int left = this.width;
+    int right = -1;
+    for (int y = top; y <= bottom; y++) {
+      int row = y * this.width;
+      int first = Arrays.mismatch(this.indices, row, row + this.width,
+          this.previous, row, row + this.width);
+      if (first < 0) {
+        continue;
+      }
+      left = Math.min(left, first);
+      int last = this.width - 1;
+      while (this.indices[row + last] == this.previous[row + last]) {
+        last--;
+      }
+      right = Math.max(right, last);
+    }
+    return new Frame(tick, left, top, right - left + 1, bottom - top + 1);
+  }
+
+  /**
+   * Checks whether a row of the current frame is the same as in the last frame written.
+   *
+   * @param y the row.
+   * @return true if it is the same.
+   */
+  private boolean rowMatches(int y) {
+    int row = y * this.width;
+    return Arrays.mismatch(this.indices, row, row + this.width,
+        this.previous, row, row + this.width) < 0;
+  }
+
+  /**
+   * Copies the rectangle of a frame out of the current frame's palette indices.
+   *
+   * @param frame the rectangle.
+   * @return its indices, row by row.
+   */
+  private byte[] crop(Frame frame) {
+    if (frame.width == this.width && frame.height == this.height) {
+      return this.indices.clone();
+    }
+    byte[] changed = new byte[frame.width * frame.height];
+    for (int y = 0; y < frame.height; y++) {
+      System.arraycopy(this.indices, (frame.top + y) * this.width + frame.left,
+          changed, y * frame.width, frame.width);
+    }
+    return changed;
+  }
+
+  /**
+   * Gets the time a tick is shown at, in the hundredths of a second the GIF format counts in.
+   *
+   * @param tick the tick.
+   * @return the time, rounded.
+   */
+  private int centis(int tick) {
+    return (int) Math.round(tick * 100.0 / this.framesPerSecond);
+  }
+
+  /**
+   * Writes the start of the GIF format: the signature, the size of the frames, the palette, and
+   * that the animation loops forever.
+   *
+   * @throws IOException if writing fails.
+   */
+  private void writeHeader() throws IOException {
+    this.out.write("GIF89a".getBytes(StandardCharsets.US_ASCII));
+    this.writeShort(this.width);
+    this.writeShort(this.height);
+    int sizeBits = this.palette.getSizeBits();
+    this.out.write(0x80 | 7 << 4 | (sizeBits - 1)); // a global palette of 8 bit colors
+    this.out.write(0); // the background is index 0, white
+    this.out.write(0); // square pixels
+    this.out.write(this.palette.toColorTable());
+    this.out.write(new byte[] {0x21, (byte) 0xff, 11});
+    this.out.write("NETSCAPE2.0".getBytes(StandardCharsets.US_ASCII));
+    this.out.write(new byte[] {3, 1, 0, 0, 0}); // loop forever
+  }
+
+  /**
+   * Waits for the oldest frame in flight to be compressed, and writes it: how long it is shown
+   * and that it stays when the next is drawn over it, then where it goes, then its image data.
+   *
+   * @throws IOException if writing fails.
+   * @throws IllegalStateException if the frame failed to compress.
+   */
+  private void writeNext() throws IOException, IllegalStateException {
+    Frame frame = this.inFlight.remove();
+    byte[] data;
+    try {
+      data = frame.data.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted waiting to compress frame " + frame.tick);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("error compressing frames: " + e.getCause().getMessage());
+    }
+    this.out.write(new byte[] {0x21, (byte) 0xf9, 4, 1 << 2}); // keep the frame under the next
+    this.writeShort(Math.min(frame.delay, MAX_DELAY));
+    this.out.write(new byte[] {0, 0, 0x2c});
+    this.writeShort(frame.left);
+    this.writeShort(frame.top);
+    this.writeShort(frame.width);
+    this.writeShort(frame.height);
+    this.out.write(0); // no palette of its own, not interlaced
+    this.out.write(data);
+  }
+
+  /**
+   * Writes a 16 bit number, least significant byte first.
+   *
+   * @param value the number.
+   * @throws IOException if writing fails.
+   */
+  private void writeShort(int value) throws IOException {
+    this.out.write(value & 0xff);
+    this.out.write(value >> 8 & 0xff);
+  }
+
+  /**
+   * Returns this view as a String. Only prints its format.
+   *
+   * @return a String of the format.
+   */
+  @Override
+  public String toString() {
+    return "GIF";
+  }
+
+  /**
+   * A frame handed over to be written: the rectangle of it which changed, when it is shown, and
+   * its image data once compressed.
+   */
+  private static final class Frame {
+
+    private final int tick;
+    private final int left;
+    private final int top;
+    private final int width;
+    private final int height;
+    private Future<byte[]> data;
+    private int delay;
+
+    /**
+     * Creates a new Frame.
+     *
+     * @param tick the tick the frame is of.
+     * @param left the x coordinate of the rectangle.
+     * @param top the y coordinate of the rectangle.
+     * @param width the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    private Frame(int tick, int left, int top, int width, int height) {
+      this.tick = tick;
+      this.left = left;
+      this.top = top;
+      this.width = width;
+      this.height = height;
+    }
+  }
+}
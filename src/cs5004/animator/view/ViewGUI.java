@@ -66,13 +66,13 @@ public class ViewGUI extends JFrame implements IAnimationView, ActionListener {
   /**
    * Takes a String of animation instructions that the model has formatted to the desired spec (for
    * example, text or SVG). Render() writes this String to the desired location (for example,
-   * System.out) in the desired format.
+   * System.out) in the desired format. Only the area in which the shapes differ from those of the
+   * last frame is repainted, once the drawing panel has drawn them off the event dispatch thread.
    *
    * @param shapeList read-only shapes to be drawn in a GUI window.
    */
   public void render(Object shapeList) {
     drawingPanel.updateShapes((List<IRenderableShape>) shapeList);
-    drawingPanel.repaint();
   }
 
   /**
@@ -113,6 +113,9 @@ public class ViewGUI extends JFrame implements IAnimationView, ActionListener {
     drawingScrollPane.setViewportBorder(
         BorderFactory.createLineBorder(Color.black));
     mainPanel.add(drawingScrollPane, BorderLayout.CENTER);
+    // frames are generated for only the part of the canvas in view, so ask again on scrolling
+    drawingScrollPane.getViewport().addChangeListener(
+        e -> controller.setVisibleArea(drawingPanel.getVisibleRect()));
 
     // create label for speed
     speedIndicator = new JLabel();
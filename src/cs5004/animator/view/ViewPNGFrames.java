@@ -0,0 +1,187 @@
+package cs5004.animator.view;
+
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.util.IntRaster;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.ImageIO;
+
+/**
+ * An implementation of the IFrameView interface which writes each frame to a PNG file in a
+ * directory, named after its tick. Frames are drawn and encoded on a pool of worker threads, each
+ * filling an IntRaster of its own, so no window or display is needed. At most a given number of
+ * frames are in flight at once: renderFrame waits for a frame to finish before taking on another,
+ * so memory does not grow with the length of the animation.
+ */
+
+public class ViewPNGFrames implements IFrameView {
+
+  private static final int WHITE = 0xffffff;
+
+  private final File directory;
+  private final int width;
+  private final int height;
+  private final ExecutorService pool;
+  private final Semaphore inFlight;
+  private final ThreadLocal<IntRaster> rasters;
+  private final AtomicReference<Exception> failure;
+  private int nextTick;
+  private boolean finished;
+
+  /**
+   * Creates a new ViewPNGFrames, creating its directory if it does not exist.
+   *
+   * @param directory the name of the directory to write the frames to.
+   * @param width the width of each frame, at least 1.
+   * @param height the height of each frame, at least 1.
+   * @param threads the number of threads to draw and encode frames with.
+   * @param maxInFlight the largest number of frames to hold at once.
+   * @throws NullPointerException if directory is null.
+   * @throws IllegalArgumentException if any number is less than 1, or the directory cannot be
+   *         created.
+   */
+  public ViewPNGFrames(String directory, int width, int height, int threads, int maxInFlight)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(directory);
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("frames must be at least 1 pixel wide and high");
+    }
+    if (threads < 1 || maxInFlight < 1) {
+      throw new IllegalArgumentException("threads and frames in flight must be greater than 0");
+    }
+    this.directory = new File(directory);
+    if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+      throw new IllegalArgumentException("could not create directory " + directory);
+    }
+    this.width = width;
+    this.height = height;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.rasters = ThreadLocal.withInitial(() -> new IntRaster(this.width, this.height));
+    this.failure = new AtomicReference<>();
+    this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "png-frames");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Renders a List of IRenderableShapes as the frame after the last one rendered.
+   *
+   * @param shapeList a List of IRenderableShapes making up the frame.
+   * @throws IllegalStateException if an earlier frame failed to render, or the view is finished.
+   */
+  @SuppressWarnings("unchecked")
+  public void render(Object shapeList) throws IllegalStateException {
+    this.renderFrame(this.nextTick, (List<IRenderableShape>) shapeList);
+  }
+
+  /**
+   * Hands the frame of one tick to a worker thread to be drawn and written as a PNG file, first
+   * waiting for another frame to finish if as many frames as allowed are in flight.
+   *
+   * @param tick the tick the frame is of, which names its file.
+   * @param shapes the IRenderableShapes making up the frame, in the order they are drawn.
+   * @throws IllegalStateException if an earlier frame failed to render, or the view is finished.
+   */
+  public void renderFrame(int tick, List<IRenderableShape> shapes) throws IllegalStateException {
+    Objects.requireNonNull(shapes);
+    if (this.finished) {
+      throw new IllegalStateException("frames have already been finished");
+    }
+    this.checkFailure();
+    try {
+      this.inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted waiting to render frame " + tick);
+    }
+    File file = new File(this.directory, String.format("frame%05d.png", tick));
+    try {
+      this.pool.execute(() -> {
+        try {
+          this.writeFrame(shapes, file);
+        } catch (Exception e) {
+          this.failure.compareAndSet(null, e);
+        } finally {
+          this.inFlight.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      this.inFlight.release();
+      throw new IllegalStateException("could not render frame " + tick);
+    }
+    this.nextTick = tick + 1;
+  }
+
+  /**
+   * Waits for every frame handed over to be written, and stops the worker threads.
+   *
+   * @throws IllegalStateException if any frame failed to be written.
+   */
+  public void finish() throws IllegalStateException {
+    if (!this.finished) {
+      this.finished = true;
+      this.pool.shutdown();
+      try {
+        while (!this.pool.awaitTermination(1, TimeUnit.SECONDS)) {
+          // keep waiting for the frames in flight
+        }
+      } catch (InterruptedException e) {
+        this.pool.shutdownNow();
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted waiting for frames to be written");
+      }
+    }
+    this.checkFailure();
+  }
+
+  /**
+   * Draws one frame on a white background, as the GUI does, into this thread's IntRaster, and
+   * writes it as a PNG file.
+   *
+   * @param shapes the IRenderableShapes making up the frame.
+   * @param file the file to write.
+   * @throws IOException if writing the file fails.
+   */
+  private void writeFrame(List<IRenderableShape> shapes, File file) throws IOException {
+    IntRaster raster = this.rasters.get();
+    raster.clear(WHITE);
+    for (IRenderableShape shape : shapes) {
+      shape.rasterize(raster);
+    }
+    if (!ImageIO.write(raster.getImage(), "png", file)) {
+      throw new IOException("no PNG writer is available");
+    }
+  }
+
+  /**
+   * Checks whether any frame has failed to be written.
+   *
+   * @throws IllegalStateException if a frame failed, giving the reason.
+   */
+  private void checkFailure() throws IllegalStateException {
+    Exception cause = this.failure.get();
+    if (cause != null) {
+      throw new IllegalStateException("error writing frames: " + cause.getMessage());
+    }
+  }
+
+  /**
+   * Returns this view as a String. Only prints its directory.
+   *
+   * @return a String of the directory.
+   */
+  @Override
+  public String toString() {
+    return this.directory.getPath();
+  }
+}
@@ -0,0 +1,267 @@
+package cs5004.animator.view;
+
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.util.IntRaster;
+import cs5004.animator.util.TiledRenderer;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An implementation of the IFrameView interface which writes each frame as uncompressed video to a
+ * channel, for an external encoder to read from a pipe or a file. Frames are raw RGB24 (three bytes
+ * a pixel), raw RGBA (four bytes a pixel), or Y4M (a header, then each frame as full range 4:2:0
+ * YUV). Each frame is filled into the same IntRaster, a tile at a time in parallel on the common
+ * fork/join pool when it is large, whose pixels are packed straight into the same direct buffer,
+ * and written to the channel from there, so nothing is allocated or copied again from one frame
+ * to the next. Frames are written in the order they are rendered.
+ */
+
+public class ViewRawFrames implements IFrameView {
+
+  private static final int WHITE = 0xffffff;
+  private static final byte[] FRAME_HEADER = "FRAME\n".getBytes(StandardCharsets.US_ASCII);
+
+  private final WritableByteChannel channel;
+  private final OutputType format;
+  private final int width;
+  private final int height;
+  private final IntRaster raster;
+  private final TiledRenderer renderer;
+  private final int[] pixels;
+  private final ByteBuffer buffer;
+  private boolean finished;
+
+  /**
+   * Creates a new ViewRawFrames, and writes the Y4M header if the format is Y4M.
+   *
+   * @param channel the channel to write the frames to, which this view closes when finished.
+   * @param width the width of each frame, at least 1.
+   * @param height the height of each frame, at least 1.
+   * @param framesPerSecond the rate at which the frames are meant to be played, given in the Y4M
+   *        header.
+   * @param format RGB24, RGBA or Y4M.
+   * @throws NullPointerException if channel or format is null.
+   * @throws IllegalArgumentException if any number is less than 1, or the format is not a raw
+   *         frame format.
+   * @throws UncheckedIOException if writing the header fails.
+   */
+  public ViewRawFrames(WritableByteChannel channel, int width, int height, int framesPerSecond,
+      OutputType format) throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(channel);
+    Objects.requireNonNull(format);
+    if (width < 1 || height < 1 || framesPerSecond < 1) {
+      throw new IllegalArgumentException("frame size and rate must be greater than 0");
+    }
+    this.channel = channel;
+    this.format = format;
+    this.width = width;
+    this.height = height;
+    this.raster = new IntRaster(width, height);
+    this.renderer = new TiledRenderer(ForkJoinPool.commonPool());
+    this.pixels = ((DataBufferInt) this.raster.getImage().getRaster().getDataBuffer()).getData();
+    this.buffer = ByteBuffer.allocateDirect(frameBytes(format, width, height));
+    if (format == OutputType.Y4M) {
+      this.write(ByteBuffer.wrap(String.format("YUV4MPEG2 W%d H%d F%d:1 Ip A1:1 C420jpeg\n",
+          width, height, framesPerSecond).getBytes(StandardCharsets.US_ASCII)));
+    }
+  }
+
+  /**
+   * Renders a List of IRenderableShapes as the next frame.
+   *
+   * @param shapeList a List of IRenderableShapes making up the frame.
+   * @throws IllegalStateException if the view is finished.
+   * @throws UncheckedIOException if writing the frame fails.
+   */
+  @SuppressWarnings("unchecked")
+  public void render(Object shapeList) throws IllegalStateException {
+    this.renderFrame(0, (List<IRenderableShape>) shapeList);
+  }
+
+  /**
+   * Draws one frame on a white background, as the GUI does, and writes it to the channel. The
+   * tick is not written, as frames follow one another in the order they are rendered.
+   *
+   * @param tick the tick the frame is of.
+   * @param shapes the IRenderableShapes making up the frame, in the order they are drawn.
+   * @throws IllegalStateException if the view is finished.
+   * @throws UncheckedIOException if writing the frame fails.
+   */
+  public void renderFrame(int tick, List<IRenderableShape> shapes) throws IllegalStateException {
+    Objects.requireNonNull(shapes);
+    if (this.finished) {
+      throw new IllegalStateException("frames have already been finished");
+    }
+    this.renderer.render(shapes, this.raster, WHITE);
+
+    this.buffer.clear();
+    switch (this.format) {
+      case RGB24:
+        this.packRGB();
+        break;
+      case RGBA:
+        this.packRGBA();
+        break;
+      case Y4M:
+        this.buffer.put(FRAME_HEADER);
+        this.packYUV();
+        break;
+      default:
+        throw new IllegalStateException("not a raw frame format: " + this.format);
+    }
+    this.buffer.flip();
+    this.write(this.buffer);
+  }
+
+  /**
+   * Closes the channel. Does nothing if already finished.
+   *
+   * @throws UncheckedIOException if closing the channel fails.
+   */
+  public void finish() {
+    if (!this.finished) {
+      this.finished = true;
+      try {
+        this.channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Packs the pixels as three bytes each: red, green, blue.
+   */
+  private void packRGB() {
+    for (int pixel : this.pixels) {
+      this.buffer.put((byte) (pixel >> 16)).put((byte) (pixel >> 8)).put((byte) pixel);
+    }
+  }
+
+  /**
+   * Packs the pixels as four bytes each: red, green, blue, and an opaque alpha.
+   */
+  private void packRGBA() {
+    for (int pixel : this.pixels) {
+      this.buffer.putInt(pixel << 8 | 0xff);
+    }
+  }
+
+  /**
+   * Packs the pixels as full range YUV, as JPEG defines it: every pixel's luma, then the blue and
+   * red chroma of each two by two block, from the block's average color.
+   */
+  private void packYUV() {
+    for (int pixel : this.pixels) {
+      int red = pixel >> 16 & 0xff;
+      int green = pixel >> 8 & 0xff;
+      int blue = pixel & 0xff;
+      this.buffer.put((byte) ((77 * red + 150 * green + 29 * blue + 128) >> 8));
+    }
+    int chromaStart = this.buffer.position();
+    int chromaSize = chromaWidth(this.width) * chromaWidth(this.height);
+    for (int y = 0; y < this.height; y += 2) {
+      for (int x = 0; x < this.width; x += 2) {
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        int count = 0;
+        for (int row = y; row < Math.min(y + 2, this.height); row++) {
+          for (int column = x; column < Math.min(x + 2, this.width); column++) {
+            int pixel = this.pixels[row * this.width + column];
+            red += pixel >> 16 & 0xff;
+            green += pixel >> 8 & 0xff;
+            blue += pixel & 0xff;
+            count++;
+          }
+        }
+        red /= count;
+        green /= count;
+        blue /= count;
+        int index = chromaStart + (y / 2) * chromaWidth(this.width) + x / 2;
+        this.buffer.put(index, chroma(-43 * red - 85 * green + 128 * blue));
+        this.buffer.put(index + chromaSize, chroma(128 * red - 107 * green - 21 * blue));
+      }
+    }
+    this.buffer.position(chromaStart + 2 * chromaSize);
+  }
+
+  /**
+   * Turns a chroma difference, scaled by 256, into a byte centred on 128. Pure red or blue would
+   * round up to 256, so the result is kept within 255.
+   *
+   * @param scaled the difference, scaled by 256.
+   * @return the chroma byte.
+   */
+  private static byte chroma(int scaled) {
+    return (byte) Math.min(255, ((scaled + 128) >> 8) + 128);
+  }
+
+  /**
+   * Writes everything remaining in a buffer to the channel.
+   *
+   * @param bytes the buffer to write.
+   * @throws UncheckedIOException if writing fails.
+   */
+  private void write(ByteBuffer bytes) {
+    try {
+      while (bytes.hasRemaining()) {
+        this.channel.write(bytes);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Gets the number of bytes one frame takes in a format.
+   *
+   * @param format RGB24, RGBA or Y4M.
+   * @param width the width of each frame.
+   * @param height the height of each frame.
+   * @return the number of bytes, including the frame header of Y4M.
+   * @throws IllegalArgumentException if the format is not a raw frame format.
+   */
+  private static int frameBytes(OutputType format, int width, int height)
+      throws IllegalArgumentException {
+    switch (format) {
+      case RGB24:
+        return width * height * 3;
+      case RGBA:
+        return width * height * 4;
+      case Y4M:
+        return FRAME_HEADER.length + width * height
+            + 2 * chromaWidth(width) * chromaWidth(height);
+      default:
+        throw new IllegalArgumentException("not a raw frame format: " + format);
+    }
+  }
+
+  /**
+   * Gets the number of chroma samples across a number of pixels, one for every two.
+   *
+   * @param pixels the number of pixels.
+   * @return the number of chroma samples.
+   */
+  private static int chromaWidth(int pixels) {
+    return (pixels + 1) / 2;
+  }
+
+  /**
+   * Returns this view as a String. Only prints its format.
+   *
+   * @return a String of the format.
+   */
+  @Override
+  public String toString() {
+    return this.format.toString();
+  }
+}
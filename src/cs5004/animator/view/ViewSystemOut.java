@@ -1,12 +1,19 @@
 package cs5004.animator.view;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.Objects;
 
 /**
- * An implementation of the IAnimationView interface. ViewSystemOut prints directly to System.out.
+ * An implementation of the IAnimationStreamView interface. ViewSystemOut prints directly to
+ * System.out.
  */
 
-public class ViewSystemOut implements IAnimationView {
+public class ViewSystemOut implements IAnimationStreamView {
+
+  private static final int BUFFER_SIZE = 1 << 16;
 
   /**
    * Takes a String of animation instructions that the model has formatted to the desired spec (for
@@ -20,6 +27,44 @@ public class ViewSystemOut implements IAnimationView {
     System.out.println((String) animateThis);
   }
 
+  /**
+   * Has the given OutputWriter write the animation to System.out through a buffer, followed by a
+   * line separator, as render() would.
+   *
+   * @param writer the OutputWriter producing the animation.
+   * @throws NullPointerException if called with null parameter.
+   */
+  public void renderStream(OutputWriter writer) {
+    Objects.requireNonNull(writer);
+    OutputStream out = new BufferedOutputStream(System.out, BUFFER_SIZE);
+    try {
+      writer.write(out);
+      out.write(System.lineSeparator().getBytes(Charset.defaultCharset()));
+      out.flush(); // System.out itself must stay open
+    } catch (IOException e) {
+      System.err.println("error writing animation: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Has the given OutputWriter write binary output to System.out through a buffer, with no line
+   * separator after it.
+   *
+   * @param writer the OutputWriter producing the output.
+   * @throws NullPointerException if called with null parameter.
+   */
+  @Override
+  public void renderBinary(OutputWriter writer) {
+    Objects.requireNonNull(writer);
+    OutputStream out = new BufferedOutputStream(System.out, BUFFER_SIZE);
+    try {
+      writer.write(out);
+      out.flush(); // System.out itself must stay open
+    } catch (IOException e) {
+      System.err.println("error writing animation: " + e.getMessage());
+    }
+  }
+
   /**
    * Returns this view as a String.
    *
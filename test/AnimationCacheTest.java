@@ -0,0 +1,113 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.util.AnimationCache;
+import cs5004.animator.util.AnimationFileReader;
+import cs5004.animator.util.BatchingTweenModelBuilder;
+import cs5004.animator.util.TweenModelBatchBuilderImpl;
+import cs5004.animator.util.TweenModelBuilder;
+import cs5004.animator.util.TweenModelBuilderImpl;
+import java.io.File;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A Junit test for the AnimationCache. A cached model must produce the same output as a freshly
+ * parsed one, and must never be served once its input file has changed.
+ */
+
+public class AnimationCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File cacheDirectory;
+  private File input;
+
+  /**
+   * Creates an empty cache directory and an input file for testing, in a temporary folder which
+   * is deleted after each test.
+   */
+  @Before
+  public void setUp() throws Exception {
+    cacheDirectory = new File(folder.getRoot(), "cache");
+    input = folder.newFile("cacheinput.txt");
+    FileUtils.writeStringToFile(input,
+        "rectangle name R min-x 200 min-y 200 width 50 height 100 color 1 0 0 from 1 to 100\n"
+            + "move name R moveto 200 200 300 300 from 10 to 50\n", "utf-8");
+  }
+
+  /**
+   * Creates a builder for reading files into an IAnimation.
+   *
+   * @return a new TweenModelBuilder.
+   */
+  private TweenModelBuilder<IAnimation> makeBuilder() {
+    return new TweenModelBuilderImpl();
+  }
+
+  /**
+   * A second read of an unchanged file should be served from the cache, with identical output.
+   */
+  @Test
+  public void readTwice() throws Exception {
+    AnimationCache cache = new AnimationCache(cacheDirectory.getPath(), 1 << 20);
+    IAnimation first = cache.readFile(input.getPath(), new AnimationFileReader(), makeBuilder());
+    assertEquals(1, cacheDirectory.list().length);
+    IAnimation second = cache.readFile(input.getPath(), new AnimationFileReader(),
+        makeBuilder());
+    assertEquals(first.generate(OutputType.SVG, 2), second.generate(OutputType.SVG, 2));
+  }
+
+  /**
+   * Changing the input file must produce a new model rather than the cached one.
+   */
+  @Test
+  public void changedFileIsNotStale() throws Exception {
+    AnimationCache cache = new AnimationCache(cacheDirectory.getPath(), 1 << 20);
+    cache.readFile(input.getPath(), new AnimationFileReader(), makeBuilder());
+    FileUtils.writeStringToFile(input,
+        "oval name C center-x 50 center-y 50 x-radius 10 y-radius 10 color 0 0 1 from 1 to 20\n",
+        "utf-8");
+    IAnimation changed = cache.readFile(input.getPath(), new AnimationFileReader(),
+        makeBuilder());
+    assertTrue(changed.generate(OutputType.TEXT, 1).contains("Type: circle"));
+    assertEquals(2, cacheDirectory.list().length);
+  }
+
+  /**
+   * Models of the same input from different builders should be kept side by side, rather than
+   * each replacing the other's entry.
+   */
+  @Test
+  public void buildersKeptApart() throws Exception {
+    AnimationCache cache = new AnimationCache(cacheDirectory.getPath(), 1 << 20);
+    cache.readFile(input.getPath(), new AnimationFileReader(), makeBuilder());
+    cache.readFile(input.getPath(), new AnimationFileReader(),
+        new BatchingTweenModelBuilder<>(new TweenModelBatchBuilderImpl()));
+    assertEquals(2, cacheDirectory.list().length);
+  }
+
+  /**
+   * The cache should evict entries once it grows past its size limit.
+   */
+  @Test
+  public void evictsWhenFull() throws Exception {
+    AnimationCache cache = new AnimationCache(cacheDirectory.getPath(), 1);
+    cache.readFile(input.getPath(), new AnimationFileReader(), makeBuilder());
+    assertEquals(0, cacheDirectory.list().length);
+  }
+
+  /**
+   * A cache must have a positive size limit.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidSize() {
+    new AnimationCache(cacheDirectory.getPath(), 0);
+  }
+}
@@ -1,4 +1,5 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import cs5004.animator.model.Animation;
 import cs5004.animator.model.Color;
@@ -14,6 +15,8 @@ import cs5004.animator.model.TransformFactory;
 import cs5004.animator.model.TransformMove;
 import java.awt.geom.Point2D;
 import java.awt.geom.Point2D.Double;
+import java.io.StringWriter;
+import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -601,4 +604,51 @@ public class AnimationTest {
     testAnimation.addTransformation(move2);
     assertEquals(330, testAnimation.getMaxY(), .001);
   }
-}
\ No newline at end of file
+
+  /**
+   * Writing to an Appendable should give the same output as generating a String.
+   */
+  @Test
+  public void generateToAppendable() throws Exception {
+    testAnimation.addTransformation(scale);
+    testAnimation.addTransformation(color);
+    StringWriter svg = new StringWriter();
+    testAnimation.generate(OutputType.SVG, 3, svg);
+    assertEquals(testAnimation.generate(OutputType.SVG, 3), svg.toString());
+    StringWriter text = new StringWriter();
+    testAnimation.generate(OutputType.TEXT, 2, text);
+    assertEquals(testAnimation.generate(OutputType.TEXT, 2), text.toString());
+  }
+
+  /**
+   * getColors should give each color the shapes start in, then each color they take during a
+   * color change, once each.
+   */
+  @Test
+  public void getColors() {
+    testAnimation.addTransformation(color);
+    int[] colors = testAnimation.getColors();
+    assertEquals(10, colors.length);
+    assertEquals(0xff0000, colors[0]);
+    assertEquals(0x00ff00, colors[1]);
+    assertEquals(0x0000ff, colors[2]);
+    assertTrue(Arrays.stream(colors).anyMatch(rgb -> rgb == 0x800080));
+  }
+
+  /**
+   * getColors should skip the ticks at which a color change tweens past the range of a channel,
+   * as generateFrame does, rather than fail. Tweening red from 100 to 100 over a long change
+   * overshoots 100 at some ticks.
+   */
+  @Test
+  public void getColorsOvershoot() {
+    IAnimation animation = new Animation();
+    animation.addShape(ShapeFactory.makeShapeRectangle("R", new Color(100f, 0f, 0f), 1, 100,
+        new Point2D.Double(0, 0), 10.0, 10.0));
+    animation.addTransformation(TransformFactory.makeTransformColor(1, 100, "R",
+        new Color(100f, 0f, 0f), new Color(100f, 100f, 0f)));
+    int[] colors = animation.getColors();
+    assertEquals(0xff0000, colors[0]);
+    assertTrue(Arrays.stream(colors).anyMatch(rgb -> rgb == 0xffff00));
+  }
+}
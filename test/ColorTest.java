@@ -75,4 +75,13 @@ public class ColorTest {
   public void testToString() {
     assertEquals("(1.0,0.0,0.0)", red.toString());
   }
-}
\ No newline at end of file
+
+  /**
+   * Colors should pack themselves as drawn: each value scaled to 0-255 and rounded.
+   */
+  @Test
+  public void testToRGB() {
+    assertEquals(0xff0080, new Color(100f, 0f, 50f).toRGB());
+    assertEquals(0x030000, red.toRGB());
+  }
+}
@@ -0,0 +1,183 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import java.awt.geom.Point2D;
+import org.junit.Test;
+
+/**
+ * A junit test for the compact SVG format. Moves should become a single animateMotion, and runs of
+ * Transformations which carry on from each other should become a single tag. In the deduplicated
+ * format, IShapes with the same timeline should be drawn from a single copy of it.
+ */
+public class CompactSVGTest {
+
+  /**
+   * Builds a model with one rectangle, moved twice in a row, then to somewhere else, and scaled
+   * twice in a row.
+   *
+   * @return the model.
+   */
+  private IAnimation build() {
+    IAnimation animation = new Animation();
+    animation.addShape(ShapeFactory.makeShapeRectangle("r", new Color(100, 0, 0), 1, 20,
+        new Point2D.Double(10, 20), 10.0, 20.0));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(10, 20),
+        new Point2D.Double(50, 20), 1, 4, "r", ShapeType.RECTANGLE));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(50, 20),
+        new Point2D.Double(50, 80), 5, 10, "r", ShapeType.RECTANGLE));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(0, 0),
+        new Point2D.Double(5, 5), 12, 14, "r", ShapeType.RECTANGLE));
+    animation.addTransformation(TransformFactory.makeTransformScale(10, 20, 30, 20, 2, 4, "r",
+        ShapeType.RECTANGLE));
+    animation.addTransformation(TransformFactory.makeTransformScale(30, 20, 30, 5, 5, 6, "r",
+        ShapeType.RECTANGLE));
+    return animation;
+  }
+
+  /**
+   * The two moves in a row should be one animateMotion, holding its value over the gap between
+   * them, and the move which jumps elsewhere should be a tag of its own. The width and height
+   * should each be a single tag, as both carry on from the first scale to the second.
+   */
+  @Test
+  public void mergesRuns() {
+    String svg = build().generate(OutputType.SVG_COMPACT, 2);
+    assertEquals("<svg width=\"60.0\" height=\"100.0\" version=\"1.1\" "
+        + "xmlns=\"http://www.w3.org/2000/svg\"> \n"
+        + "<rect id=\"R\" x=\"10\" y=\"20\" width=\"10\" height=\"20\" "
+        + "fill=\"rgb(100.0%,0.0%,0.0%)\" visibility=\"hidden\" >\n"
+        + "  <set attributeName=\"visibility\" attributeType=\"CSS\" to=\"visible\" "
+        + "begin=\"500.0ms\" duration=\"9500.0ms\" fill=\"freeze\" />\n"
+        + "  <animateMotion values=\"0,0;40,0;40,0;40,60\" keyTimes=\"0;0.333333;0.444444;1\" "
+        + "calcMode=\"linear\" begin=\"500.0ms\" dur=\"4500.0ms\" fill=\"freeze\" />\n"
+        + "  <animate attributeName=\"width\" attributeType=\"CSS\" values=\"10;30;30;30\" "
+        + "keyTimes=\"0;0.5;0.75;1\" begin=\"1000.0ms\" dur=\"2000.0ms\" fill=\"freeze\" />\n"
+        + "  <animate attributeName=\"height\" attributeType=\"CSS\" values=\"20;20;20;5\" "
+        + "keyTimes=\"0;0.5;0.75;1\" begin=\"1000.0ms\" dur=\"2000.0ms\" fill=\"freeze\" />\n"
+        + "  <animateMotion from=\"-10,-20\" to=\"-5,-15\" begin=\"6000.0ms\" dur=\"1000.0ms\" "
+        + "fill=\"freeze\" />\n"
+        + "</rect>\n"
+        + "</svg>", svg);
+  }
+
+  /**
+   * Colors which do not carry on from each other should stay separate tags, and a circle's move
+   * should be relative to its center.
+   */
+  @Test
+  public void keepsJumps() {
+    IAnimation animation = new Animation();
+    animation.addShape(ShapeFactory.makeShapeCircle("c", new Color(0, 0, 0), 0, 30,
+        new Point2D.Double(100, 100), 5.0));
+    animation.addTransformation(TransformFactory.makeTransformColor(1, 2, "c",
+        new Color(0, 0, 0), new Color(10, 10, 10)));
+    animation.addTransformation(TransformFactory.makeTransformColor(3, 4, "c",
+        new Color(20, 20, 20), new Color(30, 30, 30)));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(100, 100),
+        new Point2D.Double(90, 120), 5, 6, "c", ShapeType.CIRCLE));
+    String svg = animation.generate(OutputType.SVG_COMPACT, 1);
+    assertTrue(svg.contains("  <animate attributeName=\"fill\" attributeType=\"CSS\" "
+        + "from=\"rgb(0.0%,0.0%,0.0%)\" to=\"rgb(10.0%,10.0%,10.0%)\" begin=\"1000.0ms\" "
+        + "dur=\"1000.0ms\" fill=\"freeze\" />\n"));
+    assertTrue(svg.contains("from=\"rgb(20.0%,20.0%,20.0%)\" to=\"rgb(30.0%,30.0%,30.0%)\""));
+    assertTrue(svg.contains("  <animateMotion from=\"0,0\" to=\"-10,20\" begin=\"5000.0ms\""));
+    assertTrue(!svg.contains("values="));
+  }
+
+  /**
+   * Compact SVG from a cached template should match compact SVG from scratch, at every speed.
+   */
+  @Test
+  public void sameWhenCached() {
+    IAnimation uncached = build();
+    IAnimation cached = build();
+    cached.setOutputCaching(true);
+    for (int speed : new int[] {1, 3, 20, 3}) {
+      assertEquals(uncached.generate(OutputType.SVG_COMPACT, speed),
+          cached.generate(OutputType.SVG_COMPACT, speed));
+    }
+  }
+
+  /**
+   * Builds a model of rectangles at different positions and with different colors, each moving
+   * and changing color the same way relative to its position, except that every third one moves
+   * for longer.
+   *
+   * @param shapes the number of shapes.
+   * @return the model.
+   */
+  private IAnimation buildAlike(int shapes) {
+    IAnimation animation = new Animation();
+    for (int i = 0; i < shapes; i++) {
+      String name = "s" + i;
+      int x = i * 7 % 500;
+      int y = i * 13 % 400;
+      animation.addShape(ShapeFactory.makeShapeRectangle(name, new Color(i % 100, 50, 0), 1, 40,
+          new Point2D.Double(x, y), 10.0, 20.0));
+      animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(x, y),
+          new Point2D.Double(x + 40, y), 2, i % 3 == 0 ? 12 : 10, name, ShapeType.RECTANGLE));
+      animation.addTransformation(TransformFactory.makeTransformColor(5, 9, name,
+          new Color(0, 0, 0), new Color(90, 90, 90)));
+    }
+    return animation;
+  }
+
+  /**
+   * Each shared timeline should be written once under defs, at the origin and without a fill, and
+   * each IShape should be a use of it at its own position and with its own fill. A timeline with a
+   * single IShape should be written as compact SVG.
+   */
+  @Test
+  public void sharesTimelines() {
+    IAnimation animation = buildAlike(7);
+    animation.addShape(ShapeFactory.makeShapeCircle("c", new Color(0, 0, 100), 3, 4,
+        new Point2D.Double(30, 30), 5.0));
+    String svg = animation.generate(OutputType.SVG_DEDUP, 10);
+    assertTrue(svg.contains("<defs>\n<rect id=\"timeline0\" x=\"0\" y=\"0\" width=\"10\" "
+        + "height=\"20\" visibility=\"hidden\" >\n"));
+    assertTrue(svg.contains("<rect id=\"timeline1\" x=\"0\" y=\"0\""));
+    assertTrue(!svg.contains("timeline2"));
+    assertEquals(2, svg.split("<animateMotion from=\"0,0\" to=\"40,0\"").length - 1);
+    assertTrue(svg.contains("</defs>\n<use id=\"S0\" href=\"#timeline0\" x=\"0\" y=\"0\" "
+        + "fill=\"rgb(0.0%,50.0%,0.0%)\" />\n"
+        + "<use id=\"S1\" href=\"#timeline1\" x=\"7\" y=\"13\" "
+        + "fill=\"rgb(1.0%,50.0%,0.0%)\" />\n"));
+    assertTrue(svg.contains("<use id=\"S6\" href=\"#timeline0\" x=\"42\" y=\"78\""));
+    assertTrue(svg.endsWith("<circle id=\"C\" cx=\"30\" cy=\"30\" r=\"5\" "
+        + "fill=\"rgb(0.0%,0.0%,100.0%)\" visibility=\"hidden\" >\n"
+        + "  <set attributeName=\"visibility\" attributeType=\"CSS\" to=\"visible\" "
+        + "begin=\"300.0ms\" duration=\"100.0ms\" fill=\"freeze\" />\n"
+        + "</circle>\n</svg>"));
+  }
+
+  /**
+   * Without shared timelines there should be no defs, and the output should be compact SVG.
+   */
+  @Test
+  public void nothingShared() {
+    IAnimation animation = build();
+    assertEquals(animation.generate(OutputType.SVG_COMPACT, 4),
+        animation.generate(OutputType.SVG_DEDUP, 4));
+  }
+
+  /**
+   * Deduplicated SVG from a cached template should match deduplicated SVG from scratch.
+   */
+  @Test
+  public void dedupSameWhenCached() {
+    IAnimation uncached = buildAlike(50);
+    IAnimation cached = buildAlike(50);
+    cached.setOutputCaching(true);
+    for (int speed : new int[] {1, 7, 7}) {
+      assertEquals(uncached.generate(OutputType.SVG_DEDUP, speed),
+          cached.generate(OutputType.SVG_DEDUP, speed));
+    }
+  }
+}
@@ -0,0 +1,196 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.util.ConcurrentTweenModelBuilder;
+import cs5004.animator.util.TweenModelBuilder;
+import cs5004.animator.util.TweenModelBuilderImpl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+/**
+ * A junit test for the ConcurrentTweenModelBuilder. Producers on many threads must build the same
+ * model as a single thread would, and contended shapes must still only accept valid
+ * transformations.
+ */
+public class ConcurrentTweenModelBuilderTest {
+
+  private static final int THREADS = 16;
+  private static final int SHAPES_PER_THREAD = 100;
+
+  /**
+   * Adds one producer's shapes and transformations to the given builder.
+   *
+   * @param builder the builder to add to.
+   * @param producer the index of the producer.
+   */
+  private static void produce(TweenModelBuilder<IAnimation> builder, int producer) {
+    for (int i = 0; i < SHAPES_PER_THREAD; i++) {
+      String name = "P" + producer + "S" + i;
+      if (i % 2 == 0) {
+        builder.addRectangle(name, i, producer, 10, 20, .5f, .5f, .5f, 0, 100);
+      } else {
+        builder.addOval(name, i, producer, 10, 20, .1f, .2f, .3f, 0, 100);
+      }
+      builder.addMove(name, i, producer, i + 10, producer + 10, 0, 10);
+      builder.addMove(name, i + 10, producer + 10, i, producer, 20, 30);
+      builder.addColorChange(name, .5f, .5f, .5f, 1f, 0f, 0f, 5, 50);
+      builder.addScaleToChange(name, 10, 20, 20, 40, 40, 60);
+      try {
+        builder.addMove(name, 0, 0, 1, 1, 25, 35); // conflicts with the second move
+      } catch (IllegalArgumentException e) {
+        // expected for every shape
+      }
+    }
+  }
+
+  /**
+   * Splits a text output into its lines, sorted, so that outputs can be compared regardless of
+   * the order in which different shapes were added.
+   *
+   * @param output the text output of a model.
+   * @return the sorted lines.
+   */
+  private static List<String> sortedLines(String output) {
+    List<String> lines = new ArrayList<>(Arrays.asList(output.split("\n")));
+    lines.sort(String::compareTo);
+    return lines;
+  }
+
+  /**
+   * Sixteen producer threads, each with its own shapes, should build the same model as one thread
+   * adding the same calls.
+   */
+  @Test
+  public void sixteenProducers() throws Exception {
+    ConcurrentTweenModelBuilder builder = new ConcurrentTweenModelBuilder();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int producer = t;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          produce(builder, producer);
+        } catch (Throwable e) {
+          synchronized (failures) {
+            failures.add(e);
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(failures.toString(), failures.isEmpty());
+
+    TweenModelBuilder<IAnimation> serial = new TweenModelBuilderImpl();
+    for (int t = 0; t < THREADS; t++) {
+      produce(serial, t);
+    }
+
+    IAnimation animation = builder.build();
+    assertEquals(THREADS * SHAPES_PER_THREAD, animation.getShapes().size());
+    assertEquals(sortedLines(serial.build().generate(OutputType.TEXT, 1)),
+        sortedLines(animation.generate(OutputType.TEXT, 1)));
+  }
+
+  /**
+   * Sixteen producers racing to move one shared shape should leave only moves that each start
+   * after every earlier accepted move ends, and building twice should give the same snapshot.
+   */
+  @Test
+  public void contendedShape() throws Exception {
+    ConcurrentTweenModelBuilder builder = new ConcurrentTweenModelBuilder();
+    builder.addRectangle("shared", 0, 0, 10, 10, 0, 0, 0, 0, 10000);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int producer = t;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < SHAPES_PER_THREAD; i++) {
+            int tick = (i * THREADS + producer) * 5;
+            try {
+              builder.addMove("shared", 0, 0, 1, 1, tick, tick + 4);
+            } catch (IllegalArgumentException e) {
+              // rejected because another producer got a later move in first
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    IAnimation animation = builder.build();
+    String text = animation.generate(OutputType.TEXT, 1);
+    assertEquals(text, builder.build().generate(OutputType.TEXT, 1));
+
+    Pattern times = Pattern.compile("from t=([0-9.]+)s to t=([0-9.]+)s");
+    float lastEnd = -1;
+    int moves = 0;
+    for (String line : text.split("\n")) {
+      if (line.contains(" moves from")) {
+        Matcher matcher = times.matcher(line);
+        assertTrue(line, matcher.find());
+        float moveStart = Float.parseFloat(matcher.group(1));
+        assertTrue(line, moveStart > lastEnd);
+        lastEnd = Float.parseFloat(matcher.group(2));
+        moves++;
+      }
+    }
+    assertTrue(moves > 0);
+  }
+
+  /**
+   * Models built one after another must not share shapes or transformations, as each Animation
+   * gives them ids of its own.
+   */
+  @Test
+  public void separateModels() {
+    ConcurrentTweenModelBuilder builder = new ConcurrentTweenModelBuilder();
+    builder.addRectangle("first", 0, 0, 10, 10, 0, 0, 0, 0, 100);
+    builder.addMove("first", 0, 0, 50, 50, 10, 20);
+    IAnimation one = builder.build();
+    IAnimation two = builder.build();
+    assertFalse(one.getShapes().get(0) == two.getShapes().get(0));
+    assertFalse(one.getShapes().get(0).getTransformations().get(0)
+        == two.getShapes().get(0).getTransformations().get(0));
+    assertEquals(one.generate(OutputType.TEXT, 1), two.generate(OutputType.TEXT, 1));
+  }
+
+  /**
+   * Color changes on a shape that does not exist should be rejected, as by an Animation.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void colorChangeWithoutShape() {
+    new ConcurrentTweenModelBuilder().addColorChange("none", 0, 0, 0, 1, 1, 1, 0, 1);
+  }
+
+  /**
+   * A builder must have at least one stripe.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void noStripes() {
+    new ConcurrentTweenModelBuilder(0);
+  }
+}
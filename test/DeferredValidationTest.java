@@ -0,0 +1,172 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.ITransformation;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import cs5004.animator.util.AnimationFileReader;
+import cs5004.animator.util.TweenModelBuilder;
+import cs5004.animator.util.TweenModelBuilderImpl;
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A Junit test for deferred validation. An Animation that validates all of its Transformations at
+ * once must accept and reject exactly the same ones as an Animation that validates each as it is
+ * added, and must report the line of every rejected one.
+ */
+
+public class DeferredValidationTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Adds the same random shapes and transformations, many of them invalid, to both Animations.
+   *
+   * @param incremental an Animation validating as it goes.
+   * @param deferred an Animation deferring validation.
+   * @return the number of transformations the incremental Animation rejected.
+   */
+  private int fill(IAnimation incremental, IAnimation deferred) {
+    Random random = new Random(5004);
+    for (int i = 0; i < 20; i++) {
+      int appear = random.nextInt(50);
+      Color color = new Color(10, 20, 30);
+      incremental.addShape(ShapeFactory.makeShapeRectangle("R" + i, color, appear, appear + 100,
+          new Point2D.Double(i, i), 10.0, 20.0));
+      deferred.addShape(ShapeFactory.makeShapeRectangle("R" + i, color, appear, appear + 100,
+          new Point2D.Double(i, i), 10.0, 20.0));
+    }
+    int rejected = 0;
+    for (int i = 0; i < 2000; i++) {
+      String name = "r" + random.nextInt(21); // R20 does not exist
+      int start = random.nextInt(160);
+      int end = start + random.nextInt(20);
+      boolean move = random.nextBoolean();
+      try {
+        incremental.addTransformation(makeTransformation(move, name, start, end));
+      } catch (IllegalArgumentException e) {
+        rejected++;
+      }
+      deferred.addTransformation(makeTransformation(move, name, start, end), i + 1);
+    }
+    return rejected;
+  }
+
+  /**
+   * Makes a move or color change, as fill adds to both Animations; each needs its own.
+   *
+   * @param move true for a move, false for a color change.
+   * @param name the name of the shape.
+   * @param start the tick the transformation starts at.
+   * @param end the tick the transformation ends at.
+   * @return the transformation.
+   */
+  private ITransformation makeTransformation(boolean move, String name, int start, int end) {
+    if (move) {
+      return TransformFactory.makeTransformMove(new Point2D.Double(0, 0),
+          new Point2D.Double(start, end), start, end, name, ShapeType.RECTANGLE);
+    }
+    return TransformFactory.makeTransformColor(start, end, name, new Color(0, 0, 0),
+        new Color(start % 100, end % 100, 0));
+  }
+
+  /**
+   * Deferred validation should reject the same transformations as incremental validation, giving
+   * identical output.
+   */
+  @Test
+  public void sameAsIncremental() {
+    IAnimation incremental = new Animation();
+    IAnimation deferred = new Animation(true);
+    int rejected = fill(incremental, deferred);
+    List<String> violations = deferred.validate();
+
+    assertTrue(rejected > 0);
+    assertEquals(rejected, violations.size());
+    assertEquals(incremental.generate(OutputType.TEXT, 1), deferred.generate(OutputType.TEXT, 1));
+    assertEquals(incremental.generate(OutputType.SVG, 3), deferred.generate(OutputType.SVG, 3));
+    assertEquals(0, deferred.validate().size());
+  }
+
+  /**
+   * A transformation of a shape that does not exist yet should be rejected, even if the shape is
+   * added before validation.
+   */
+  @Test
+  public void shapeAddedLater() {
+    IAnimation deferred = new Animation(true);
+    deferred.addTransformation(TransformFactory.makeTransformColor(1, 2, "late",
+        new Color(0, 0, 0), new Color(1, 1, 1)), 7);
+    deferred.addShape(ShapeFactory.makeShapeRectangle("late", new Color(0, 0, 0), 0, 10,
+        new Point2D.Double(0, 0), 1.0, 1.0));
+    List<String> violations = deferred.validate();
+
+    assertEquals(1, violations.size());
+    assertEquals("line 7: Animation does not contain a Shape of this name.", violations.get(0));
+  }
+
+  /**
+   * Reading a file with deferred validation should report every invalid line, in order.
+   */
+  @Test
+  public void reportsLines() throws Exception {
+    File input = folder.newFile("deferredinput.txt");
+    FileUtils.writeStringToFile(input,
+        "rectangle name R min-x 200 min-y 200 width 50 height 100 color 1 0 0 from 1 to 100\n"
+            + "move name R moveto 200 200 300 300 from 10 to 50\n"
+            + "move name R moveto 300 300 200 200 from 40 to 60\n"
+            + "\n"
+            + "move name R moveto 300 300 200 200\n"
+            + "  from 90 to 120\n"
+            + "move name R moveto 300 300 200 200 from 50 to 70\n", "utf-8");
+    TweenModelBuilder<IAnimation> builder = new TweenModelBuilderImpl(true);
+    try {
+      new AnimationFileReader().readFile(input.getPath(), builder);
+      fail("expected the invalid moves to be reported");
+    } catch (IllegalArgumentException e) {
+      assertEquals("line 3: Transformation cannot start before a Transformation of the same "
+          + "type ends.\nline 5: Transformation cannot end after Shape disappears.\n"
+          + "line 7: Transformation cannot start before a Transformation of the same type ends.",
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Numbers must be written as Scanner reads them: Java type suffixes and hexadecimal floats are
+   * rejected, while exponents are still read.
+   */
+  @Test
+  public void readsOnlyDecimalFloats() throws Exception {
+    File input = folder.newFile("floatinput.txt");
+    for (String width : new String[] {"50f", "2d", "0x1.8p1"}) {
+      FileUtils.writeStringToFile(input, "rectangle name R min-x 200 min-y 200 width " + width
+          + " height 100 color 1 0 0 from 1 to 100\n", "utf-8");
+      try {
+        new AnimationFileReader().readFile(input.getPath(), new TweenModelBuilderImpl());
+        fail("expected " + width + " to be rejected");
+      } catch (InputMismatchException e) {
+        assertEquals("For input string: \"" + width + "\"", e.getMessage());
+      }
+    }
+    FileUtils.writeStringToFile(input, "rectangle name R min-x 200 min-y 200 width 5e1 "
+        + "height 100 color 1 0 0 from 1 to 100\n", "utf-8");
+    TweenModelBuilder<IAnimation> builder = new TweenModelBuilderImpl();
+    IAnimation animation = new AnimationFileReader().readFile(input.getPath(), builder);
+    assertEquals(250, animation.getMaxX(), 0.001);
+  }
+}
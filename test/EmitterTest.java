@@ -0,0 +1,140 @@
+import static org.junit.Assert.assertEquals;
+
+import cs5004.animator.model.Emitter;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * A junit test for the Emitter. Its numbers must come out exactly as String.format writes them.
+ */
+public class EmitterTest {
+
+  /**
+   * Formats a number with the Emitter.
+   *
+   * @param value the number.
+   * @return the number as appendFixed1 writes it.
+   */
+  private String fixed1(double value) {
+    return new Emitter(1).appendFixed1(value).toString();
+  }
+
+  /**
+   * Special values and the boundaries of rounding should match String.format.
+   */
+  @Test
+  public void fixed1Edges() {
+    double[] values = {0, -0.0, 0.05, 0.15, 0.25, 0.35, 0.45, -0.05, -0.04, 0.95, 9.95, 99.95,
+        1.25, 2.5, 1e9, -1e9, 123456789.05, 1e15, 1e300, Double.MIN_VALUE, Double.MAX_VALUE,
+        Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    for (double value : values) {
+      assertEquals(String.format("%.1f", value), fixed1(value));
+    }
+    float[] floats = {0.05f, 0.15f, 0.25f, 0.35f, 1.45f, 2.55f, 1000.05f, 16777216f};
+    for (float value : floats) {
+      assertEquals(String.format("%.1f", value), fixed1(value));
+    }
+  }
+
+  /**
+   * Random doubles and floats, and numbers a hair either side of a half, should match
+   * String.format.
+   */
+  @Test
+  public void fixed1Random() {
+    Random random = new Random(5004);
+    for (int i = 0; i < 200000; i++) {
+      double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+      assertEquals(String.format("%.1f", value), fixed1(value));
+      float single = (float) value;
+      assertEquals(String.format("%.1f", single), fixed1(single));
+      double half = random.nextInt(100000) / 10.0 + 0.05;
+      double below = Math.nextDown(half);
+      double above = Math.nextUp(half);
+      assertEquals(String.format("%.1f", half), fixed1(half));
+      assertEquals(String.format("%.1f", below), fixed1(below));
+      assertEquals(String.format("%.1f", above), fixed1(above));
+    }
+  }
+
+  /**
+   * Whole numbers should match String.format.
+   */
+  @Test
+  public void appendInt() {
+    long[] values = {0, 7, -7, 10, 99, 100, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE,
+        Long.MIN_VALUE};
+    for (long value : values) {
+      assertEquals(String.format("%d", value), new Emitter(1).appendInt(value).toString());
+    }
+  }
+
+  /**
+   * Fractions should have at most six decimal places, and no trailing zeros.
+   */
+  @Test
+  public void appendFraction() {
+    double[] values = {0, 1, 0.5, 0.05, 0.0123, 1 / 3.0, 2 / 3.0, 0.0000004, 0.9999996, 0.1000001};
+    String[] expected = {"0", "1", "0.5", "0.05", "0.0123", "0.333333", "0.666667", "0", "1",
+        "0.1"};
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(expected[i], new Emitter(1).appendFraction(values[i]).toString());
+    }
+  }
+
+  /**
+   * Percentages should have at most four decimal places, and no trailing zeros.
+   */
+  @Test
+  public void appendPercent() {
+    double[] values = {0, 1, 0.5, 1 / 3.0, 0.0000004, 0.123456};
+    String[] expected = {"0%", "100%", "50%", "33.3333%", "0%", "12.3456%"};
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(expected[i], new Emitter(1).appendPercent(values[i]).toString());
+    }
+  }
+
+  /**
+   * A fraction must be between 0 and 1.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void fractionOutOfRange() {
+    new Emitter().appendFraction(1.5);
+  }
+
+  /**
+   * Writing the Emitter should give its contents to any Appendable, and empty it.
+   */
+  @Test
+  public void writeTo() throws Exception {
+    Emitter emitter = new Emitter(2);
+    emitter.append("x=").appendInt(3).append(',').appendFixed1(1.25f);
+    assertEquals("x=3,1.3", emitter.toString());
+
+    StringWriter writer = new StringWriter();
+    emitter.writeTo(writer);
+    assertEquals("x=3,1.3", writer.toString());
+    assertEquals(0, emitter.length());
+
+    emitter.append("abc");
+    StringBuilder builder = new StringBuilder("<");
+    emitter.writeTo(builder);
+    assertEquals("<abc", builder.toString());
+
+    emitter.append("def");
+    CharBuffer buffer = CharBuffer.allocate(8);
+    emitter.writeTo(buffer);
+    buffer.flip();
+    assertEquals("def", buffer.toString());
+  }
+
+  /**
+   * An Emitter must start with room for at least one character.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void noCapacity() {
+    new Emitter(0);
+  }
+}
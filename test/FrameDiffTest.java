@@ -0,0 +1,126 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import cs5004.animator.util.FrameDiff;
+import cs5004.animator.util.IntRaster;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * A junit test for FrameDiff, and the equality of RenderableShapes it relies on. Two frames must
+ * paint the same pixels everywhere outside the rectangle found between them.
+ */
+public class FrameDiffTest {
+
+  private static final int SIZE = 200;
+
+  private final Color red = new Color(100f, 0f, 0f);
+  private final Color blue = new Color(0f, 0f, 100f);
+
+  /**
+   * Fills a frame into an IntRaster on white.
+   *
+   * @param frame the shapes.
+   * @return the image of the IntRaster.
+   */
+  private int[] fill(List<IRenderableShape> frame) {
+    IntRaster raster = new IntRaster(SIZE, SIZE);
+    raster.clear(0xffffff);
+    for (IRenderableShape shape : frame) {
+      shape.rasterize(raster);
+    }
+    return raster.getImage().getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+  }
+
+  /**
+   * Shapes of the same kind, place, size and color are equal, and hash alike.
+   */
+  @Test
+  public void shapeEquality() {
+    IRenderableShape rect = RenderableFactory.createRenderableRect(1, 2, 3, 4, this.red);
+    IRenderableShape same = RenderableFactory.createRenderableRect(1, 2, 3, 4,
+        new Color(100f, 0f, 0f));
+    assertEquals(rect, same);
+    assertEquals(rect.hashCode(), same.hashCode());
+    assertFalse(rect.equals(RenderableFactory.createRenderableRect(1, 2, 3, 4, this.blue)));
+    assertFalse(rect.equals(RenderableFactory.createRenderableRect(1, 2, 3, 5, this.red)));
+    assertFalse(rect.equals(RenderableFactory.createRenderableEllipse(1, 2, 3, 4, this.red)));
+  }
+
+  /**
+   * A moved shape changes where it was and where it is; the same shapes in new instances change
+   * nothing.
+   */
+  @Test
+  public void moved() {
+    IRenderableShape still = RenderableFactory.createRenderableRect(0, 0, 50, 50, this.red);
+    List<IRenderableShape> before = Arrays.asList(still,
+        RenderableFactory.createRenderableRect(100, 100, 10, 10, this.blue));
+    List<IRenderableShape> after = Arrays.asList(
+        RenderableFactory.createRenderableRect(0, 0, 50, 50, this.red),
+        RenderableFactory.createRenderableRect(110, 105, 10, 10, this.blue));
+    assertEquals(new Rectangle(100, 100, 21, 16), FrameDiff.changedBounds(before, after));
+    assertTrue(FrameDiff.changedBounds(before, new ArrayList<>(before)).isEmpty());
+  }
+
+  /**
+   * Shapes painted in a different order may change anything either frame paints.
+   */
+  @Test
+  public void reordered() {
+    IRenderableShape first = RenderableFactory.createRenderableRect(0, 0, 20, 20, this.red);
+    IRenderableShape second = RenderableFactory.createRenderableRect(10, 10, 20, 20, this.blue);
+    assertEquals(new Rectangle(0, 0, 31, 31),
+        FrameDiff.changedBounds(Arrays.asList(first, second), Arrays.asList(second, first)));
+  }
+
+  /**
+   * Randomly changed, added, removed and reordered shapes must never change a pixel outside the
+   * rectangle found.
+   */
+  @Test
+  public void samePixelsOutside() {
+    Random random = new Random(5004);
+    List<IRenderableShape> previous = new ArrayList<>();
+    for (int tick = 0; tick < 200; tick++) {
+      List<IRenderableShape> next = new ArrayList<>(previous);
+      int changes = random.nextInt(4);
+      for (int i = 0; i < changes; i++) {
+        Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+        IRenderableShape shape = random.nextBoolean()
+            ? RenderableFactory.createRenderableRect(random.nextInt(SIZE), random.nextInt(SIZE),
+                random.nextInt(40), random.nextInt(40), color)
+            : RenderableFactory.createRenderableEllipse(random.nextInt(SIZE),
+                random.nextInt(SIZE), random.nextInt(20), random.nextInt(20), color);
+        int action = random.nextInt(10);
+        if (action < 4 || next.isEmpty()) {
+          next.add(random.nextInt(next.size() + 1), shape);
+        } else if (action < 7) {
+          next.set(random.nextInt(next.size()), shape);
+        } else if (action < 9) {
+          next.remove(random.nextInt(next.size()));
+        } else {
+          Collections.swap(next, random.nextInt(next.size()), random.nextInt(next.size()));
+        }
+      }
+      Rectangle changed = FrameDiff.changedBounds(previous, next);
+      int[] before = fill(previous);
+      int[] after = fill(next);
+      for (int i = 0; i < before.length; i++) {
+        if (!changed.contains(i % SIZE, i / SIZE)) {
+          assertEquals(before[i], after[i]);
+        }
+      }
+      previous = next;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import java.awt.geom.Point2D;
+import org.junit.Test;
+
+/**
+ * A junit test for the HTML format. Each shape should be drawn at unit size and animated by a
+ * transform and opacity, with a keyframe wherever its timeline changes.
+ */
+public class HTMLOutputTest {
+
+  /**
+   * Builds a model with a rectangle which moves twice, with a gap between, and a circle which
+   * changes color.
+   *
+   * @return the model.
+   */
+  private IAnimation build() {
+    IAnimation animation = new Animation();
+    animation.addShape(ShapeFactory.makeShapeRectangle("r", new Color(100, 0, 0), 0, 10,
+        new Point2D.Double(10, 20), 10.0, 20.0));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(10, 20),
+        new Point2D.Double(50, 20), 0, 4, "r", ShapeType.RECTANGLE));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(0, 0),
+        new Point2D.Double(0, 30), 6, 8, "r", ShapeType.RECTANGLE));
+    animation.addShape(ShapeFactory.makeShapeCircle("c", new Color(0, 0, 100), 2, 6,
+        new Point2D.Double(30, 30), 5.0));
+    animation.addTransformation(TransformFactory.makeTransformColor(3, 5, "c",
+        new Color(0, 0, 100), new Color(100, 0, 0)));
+    return animation;
+  }
+
+  /**
+   * The rectangle should hold where its first move ends until the tick before its second move,
+   * and only the circle, which changes color, should animate its fill.
+   */
+  @Test
+  public void keyframes() {
+    String html = build().generate(OutputType.HTML, 2);
+    assertTrue(html.startsWith("<!DOCTYPE html>\n<html>\n<head>\n"));
+    assertTrue(html.contains("@keyframes k0 {\n"
+        + "0% { transform: translate(10px, 20px) scale(10.0, 20.0); opacity: 1 }\n"
+        + "40% { transform: translate(50px, 20px) scale(10.0, 20.0) }\n"
+        + "50% { transform: translate(50px, 20px) scale(10.0, 20.0) }\n"
+        + "60% { transform: translate(0px, 0px) scale(10.0, 20.0) }\n"
+        + "80% { transform: translate(0px, 30px) scale(10.0, 20.0) }\n"
+        + "100% { transform: translate(0px, 30px) scale(10.0, 20.0); opacity: 1 }\n"
+        + "}\n"));
+    assertTrue(html.contains("@keyframes k1 {\n"
+        + "0% { transform: translate(30px, 30px) scale(5.0, 5.0); "
+        + "fill: rgb(0.0%,0.0%,100.0%); opacity: 1 }\n"
+        + "25% { transform: translate(30px, 30px) scale(5.0, 5.0); "
+        + "fill: rgb(0.0%,0.0%,100.0%) }\n"));
+    assertTrue(html.contains("<rect id=\"R\" width=\"1\" height=\"1\" "
+        + "fill=\"rgb(100.0%,0.0%,0.0%)\" style=\"animation: k0 5000.0ms linear 0.0ms\" />\n"
+        + "<circle id=\"C\" r=\"1\" fill=\"rgb(0.0%,0.0%,100.0%)\" "
+        + "style=\"animation: k1 2000.0ms linear 1000.0ms\" />\n"));
+    assertTrue(html.endsWith("</svg>\n</body>\n</html>\n"));
+  }
+
+  /**
+   * HTML from a cached template should match HTML from scratch, at every speed.
+   */
+  @Test
+  public void sameWhenCached() {
+    IAnimation uncached = build();
+    IAnimation cached = build();
+    cached.setOutputCaching(true);
+    for (int speed : new int[] {1, 3, 20, 3}) {
+      assertEquals(uncached.generate(OutputType.HTML, speed),
+          cached.generate(OutputType.HTML, speed));
+    }
+  }
+
+  /**
+   * A keyframe at a tick where a color change tweens past the range of a channel should be left
+   * out, rather than fail the whole output. Red stays at 100 over ticks 1 to 100, which
+   * overshoots at ticks 10 and 11, where the move starts.
+   */
+  @Test
+  public void skipsBadKeyframe() {
+    IAnimation animation = new Animation();
+    animation.addShape(ShapeFactory.makeShapeRectangle("R", new Color(100f, 0f, 0f), 1, 100,
+        new Point2D.Double(0, 0), 10.0, 10.0));
+    animation.addTransformation(TransformFactory.makeTransformColor(1, 100, "R",
+        new Color(100f, 0f, 0f), new Color(100f, 100f, 0f)));
+    animation.addTransformation(TransformFactory.makeTransformMove(new Point2D.Double(0, 0),
+        new Point2D.Double(99, 0), 11, 20, "R", ShapeType.RECTANGLE));
+    String html = animation.generate(OutputType.HTML, 2);
+    assertTrue(html.contains("@keyframes k0 {\n"
+        + "0% { transform: translate(0px, 0px) scale(10.0, 10.0); "
+        + "fill: rgb(100.0%,0.0%,0.0%); opacity: 1 }\n"
+        + "19.1919% { transform: translate(99px, 0px) scale(10.0, 10.0); "
+        + "fill: rgb(100.0%,19.2%,0.0%) }\n"
+        + "100% { transform: translate(99px, 0px) scale(10.0, 10.0); "
+        + "fill: rgb(100.0%,100.0%,0.0%); opacity: 1 }\n"
+        + "}\n"));
+  }
+}
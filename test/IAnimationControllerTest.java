@@ -1,6 +1,8 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import cs5004.animator.controller.AnimationController;
+import cs5004.animator.controller.AnimationControllerFrames;
 import cs5004.animator.controller.AnimationControllerGUI;
 import cs5004.animator.controller.IAnimationController;
 import cs5004.animator.model.Animation;
@@ -10,9 +12,14 @@ import cs5004.animator.model.OutputType;
 import cs5004.animator.model.ShapeCircle;
 import cs5004.animator.view.ViewFile;
 import cs5004.animator.view.IAnimationView;
+import cs5004.animator.view.IAnimationViewFactory;
 import cs5004.animator.view.ViewSystemOut;
 import java.awt.geom.Point2D;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -89,6 +96,44 @@ public class IAnimationControllerTest {
     }
   }
 
+  /**
+   * SVGZ output should be the SVG output, compressed in the gzip format.
+   */
+  @Test
+  public void runSVGZ() throws Exception {
+    animation.addShape(
+        new ShapeCircle("A", new Color(0f, 0f, 0f), 1, 10,
+            new Point2D.Double(40d, 40d), 10d));
+
+    IAnimationView view = new ViewFile("output.svgz");
+    controller = new AnimationController(animation, view, 2, OutputType.SVGZ, 2);
+    controller.run();
+
+    try (InputStream in = new GZIPInputStream(new FileInputStream("output.svgz"))) {
+      assertEquals(animation.generate(OutputType.SVG, 2),
+          new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * PNG output should write a frame for every tick up to the last one.
+   */
+  @Test
+  public void runPNG() throws Exception {
+    animation.addShape(
+        new ShapeCircle("A", new Color(0f, 0f, 0f), 1, 10,
+            new Point2D.Double(40d, 40d), 10d));
+    FileUtils.deleteDirectory(new File("framesTest"));
+
+    controller = new AnimationControllerFrames(animation,
+        IAnimationViewFactory.makeViewPNGFrames("framesTest", 50, 50, 2), 2, OutputType.PNG);
+    controller.run();
+
+    assertEquals(10, new File("framesTest").list().length);
+    assertTrue(new File("framesTest", "frame00009.png").isFile());
+    FileUtils.deleteDirectory(new File("framesTest"));
+  }
+
   /**
    * saveSVG should save an SVG to a file at a given speed.
    */
@@ -1,4 +1,5 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import cs5004.animator.model.Animation;
 import cs5004.animator.model.Color;
@@ -7,16 +8,33 @@ import cs5004.animator.model.IRenderableShape;
 import cs5004.animator.model.OutputType;
 import cs5004.animator.model.RenderableFactory;
 import cs5004.animator.model.ShapeCircle;
+import cs5004.animator.view.IAnimationStreamView;
 import cs5004.animator.view.IAnimationView;
 import cs5004.animator.view.IAnimationViewFactory;
+import cs5004.animator.view.IFrameView;
 import cs5004.animator.view.ViewFile;
+import cs5004.animator.view.ViewGIF;
+import cs5004.animator.view.ViewPNGFrames;
+import cs5004.animator.view.ViewRawFrames;
+import java.awt.Graphics;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
+import org.w3c.dom.Node;
 
 public class IAnimationViewTest {
 
@@ -73,6 +91,212 @@ public class IAnimationViewTest {
     }
   }
 
+  /**
+   * A ViewFile should be able to stream output to a File.
+   */
+  @Test
+  public void renderStreamFile() throws Exception {
+    IAnimationStreamView streamView = new ViewFile("output.txt");
+    streamView.renderStream(out -> out.write("stream this".getBytes(StandardCharsets.UTF_8)));
+    assertEquals("stream this", FileUtils.readFileToString(new File("output.txt"), "utf-8"));
+  }
+
+  /**
+   * A ViewPNGFrames should write each frame as a PNG file named after its tick, drawn on white.
+   */
+  @Test
+  public void renderPNGFrames() throws Exception {
+    FileUtils.deleteDirectory(new File("framesTest"));
+    IFrameView frames = new ViewPNGFrames("framesTest", 100, 100, 2, 3);
+    for (int tick = 0; tick < 5; tick++) {
+      frames.renderFrame(tick, Collections.singletonList(RenderableFactory
+          .createRenderableRect(10 * tick, 20, 10, 10, new Color(100.0f, 0f, 0f))));
+    }
+    frames.finish();
+    frames.finish();
+
+    assertEquals(5, new File("framesTest").list().length);
+    BufferedImage image = ImageIO.read(new File("framesTest", "frame00003.png"));
+    assertEquals(100, image.getWidth());
+    assertEquals(0xffff0000, image.getRGB(35, 25));
+    assertEquals(0xffffffff, image.getRGB(5, 25));
+    FileUtils.deleteDirectory(new File("framesTest"));
+  }
+
+  /**
+   * A ViewPNGFrames should hold no more than the given number of frames: once that many are in
+   * flight, renderFrame should wait until one is written.
+   */
+  @Test
+  public void framesInFlightBounded() throws Exception {
+    FileUtils.deleteDirectory(new File("framesTest"));
+    IFrameView frames = new ViewPNGFrames("framesTest", 10, 10, 1, 2);
+    CountDownLatch release = new CountDownLatch(1);
+    IRenderableShape rect = RenderableFactory.createRenderableRect(0, 0, 5, 5,
+        new Color(0f, 0f, 100.0f));
+    IRenderableShape blocking = new IRenderableShape() {
+      public void drawSelf(Graphics graphics) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        rect.drawSelf(graphics);
+      }
+
+      public int getX() {
+        return rect.getX();
+      }
+
+      public int getY() {
+        return rect.getY();
+      }
+
+      public float getXSize() {
+        return rect.getXSize();
+      }
+
+      public float getYSize() {
+        return rect.getYSize();
+      }
+
+      public Color getColor() {
+        return rect.getColor();
+      }
+    };
+
+    frames.renderFrame(0, Collections.singletonList(blocking));
+    frames.renderFrame(1, Collections.singletonList(blocking));
+    Thread third = new Thread(() -> frames.renderFrame(2, Collections.singletonList(rect)));
+    third.start();
+    third.join(300);
+    assertTrue(third.isAlive());
+
+    release.countDown();
+    third.join();
+    frames.finish();
+    assertEquals(3, new File("framesTest").list().length);
+    FileUtils.deleteDirectory(new File("framesTest"));
+  }
+
+  /**
+   * A ViewRawFrames should write each frame as packed RGB24 or RGBA pixels, drawn on white, one
+   * frame straight after another.
+   */
+  @Test
+  public void renderRawFrames() {
+    IRenderableShape rect = RenderableFactory.createRenderableRect(2, 0, 2, 2,
+        new Color(100.0f, 0f, 0f));
+
+    ByteArrayOutputStream rgb = new ByteArrayOutputStream();
+    IFrameView frames = new ViewRawFrames(Channels.newChannel(rgb), 4, 2, 30, OutputType.RGB24);
+    frames.renderFrame(0, Collections.singletonList(rect));
+    frames.renderFrame(1, Collections.emptyList());
+    frames.finish();
+    byte[] bytes = rgb.toByteArray();
+    assertEquals(2 * 4 * 2 * 3, bytes.length);
+    assertEquals(-1, bytes[0]);
+    assertEquals(-1, bytes[5]);
+    assertEquals(-1, bytes[6]);
+    assertEquals(0, bytes[7]);
+    assertEquals(0, bytes[8]);
+    assertEquals(-1, bytes[24 + 7]);
+
+    ByteArrayOutputStream rgba = new ByteArrayOutputStream();
+    frames = new ViewRawFrames(Channels.newChannel(rgba), 4, 2, 30, OutputType.RGBA);
+    frames.renderFrame(0, Collections.singletonList(rect));
+    frames.finish();
+    ByteBuffer pixels = ByteBuffer.wrap(rgba.toByteArray());
+    assertEquals(4 * 2 * 4, pixels.capacity());
+    assertEquals(0xffffffff, pixels.getInt(0));
+    assertEquals(0xff0000ff, pixels.getInt(8));
+  }
+
+  /**
+   * A ViewRawFrames should write Y4M as a header, then each frame as a marker, its luma, and its
+   * chroma at half the width and height.
+   */
+  @Test
+  public void renderY4MFrames() {
+    ByteArrayOutputStream y4m = new ByteArrayOutputStream();
+    IFrameView frames = new ViewRawFrames(Channels.newChannel(y4m), 4, 2, 24, OutputType.Y4M);
+    frames.renderFrame(0, Collections.singletonList(RenderableFactory
+        .createRenderableRect(2, 0, 2, 2, new Color(100.0f, 0f, 0f))));
+    frames.renderFrame(1, Collections.emptyList());
+    frames.finish();
+
+    byte[] bytes = y4m.toByteArray();
+    String header = "YUV4MPEG2 W4 H2 F24:1 Ip A1:1 C420jpeg\n";
+    int frameBytes = "FRAME\n".length() + 4 * 2 + 2 * 2;
+    assertEquals(header.length() + 2 * frameBytes, bytes.length);
+    String text = new String(bytes, StandardCharsets.US_ASCII);
+    assertTrue(text.startsWith(header + "FRAME\n"));
+    assertEquals("FRAME\n", text.substring(header.length() + frameBytes,
+        header.length() + frameBytes + 6));
+
+    int luma = header.length() + 6;
+    assertEquals(255, bytes[luma] & 0xff);
+    assertEquals(77, bytes[luma + 2] & 0xff);
+    assertEquals(128, bytes[luma + 8] & 0xff);
+    assertEquals(85, bytes[luma + 9] & 0xff);
+    assertEquals(128, bytes[luma + 10] & 0xff);
+    assertEquals(255, bytes[luma + 11] & 0xff);
+    assertEquals(255, bytes[luma + frameBytes] & 0xff);
+  }
+
+  /**
+   * A ViewGIF should write the first frame whole, then only the rectangle each frame changes,
+   * showing a frame which changes nothing as a longer delay on the frame before it.
+   */
+  @Test
+  public void renderGIF() throws Exception {
+    ByteArrayOutputStream gif = new ByteArrayOutputStream();
+    IFrameView frames = new ViewGIF(gif, 20, 10, 10, new int[] {0xff0000}, 2);
+    IRenderableShape first = RenderableFactory.createRenderableRect(0, 0, 4, 4,
+        new Color(100.0f, 0f, 0f));
+    frames.renderFrame(0, Collections.singletonList(first));
+    frames.renderFrame(1, Collections.singletonList(first));
+    frames.renderFrame(2, Collections.singletonList(RenderableFactory
+        .createRenderableRect(10, 2, 4, 4, new Color(100.0f, 0f, 0f))));
+    frames.finish();
+
+    ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+    reader.setInput(ImageIO.createImageInputStream(new ByteArrayInputStream(gif.toByteArray())));
+    assertEquals(2, reader.getNumImages(true));
+    BufferedImage image = reader.read(0);
+    assertEquals(20, image.getWidth());
+    assertEquals(0xffff0000, image.getRGB(1, 1));
+    assertEquals(0xffffffff, image.getRGB(10, 5));
+    assertEquals("20", gifAttribute(reader, 0, "GraphicControlExtension", "delayTime"));
+
+    image = reader.read(1);
+    assertEquals(15, image.getWidth());
+    assertEquals(7, image.getHeight());
+    assertEquals(0xffffffff, image.getRGB(1, 1));
+    assertEquals(0xffff0000, image.getRGB(11, 5));
+    assertEquals("10", gifAttribute(reader, 1, "GraphicControlExtension", "delayTime"));
+  }
+
+  /**
+   * Reads an attribute of a frame of a GIF from its metadata.
+   *
+   * @param reader the reader of the GIF.
+   * @param frame the index of the frame.
+   * @param node the name of the metadata node holding the attribute.
+   * @param attribute the name of the attribute.
+   * @return its value.
+   */
+  private String gifAttribute(ImageReader reader, int frame, String node, String attribute)
+      throws Exception {
+    Node root = reader.getImageMetadata(frame).getAsTree("javax_imageio_gif_image_1.0");
+    for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeName().equals(node)) {
+        return child.getAttributes().getNamedItem(attribute).getNodeValue();
+      }
+    }
+    return null;
+  }
+
   /**
    * IAnimationView should be able to print a String to System.out (can't test)
    */
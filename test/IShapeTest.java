@@ -4,9 +4,12 @@ import static org.junit.Assert.assertFalse;
 
 import cs5004.animator.model.Color;
 import cs5004.animator.model.IShape;
+import cs5004.animator.model.ITransformation;
 import cs5004.animator.model.ShapeFactory;
 import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
 import java.awt.geom.Point2D.Double;
+import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -282,4 +285,21 @@ public class IShapeTest {
     assertEquals(10,circle.getMaxYCoord(),.001);
     assertEquals(7,oval.getMaxYCoord(),.001);
   }
-}
\ No newline at end of file
+
+  /**
+   * getTransformations should give a Shape's ITransformations sorted by start time, keeping the
+   * order they were added in when they start at the same time.
+   */
+  @Test
+  public void getTransformationsSorted() {
+    ITransformation late = TransformFactory.makeTransformColor(6, 8, "C", blue, red);
+    ITransformation early = TransformFactory.makeTransformMove(new Double(3d, 4d),
+        new Double(5d, 5d), 5, 9, "C", ShapeType.RECTANGLE);
+    ITransformation alsoEarly = TransformFactory.makeTransformScale(7f, 8f, 1f, 1f, 5, 6, "C",
+        ShapeType.RECTANGLE);
+    rectangle.addTransformation(late);
+    rectangle.addTransformation(early);
+    rectangle.addTransformation(alsoEarly);
+    assertEquals(Arrays.asList(early, alsoEarly, late), rectangle.getTransformations());
+  }
+}
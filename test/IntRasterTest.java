@@ -0,0 +1,199 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import cs5004.animator.util.IntRaster;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * A junit test for the IntRaster. Rectangles must cover exactly the pixels Graphics covers for
+ * them, and ellipses nearly so.
+ */
+public class IntRasterTest {
+
+  private static final int SIZE = 80;
+
+  /**
+   * Draws a shape through Graphics on white, as drawSelf does.
+   *
+   * @param shape the shape.
+   * @return the image.
+   */
+  private BufferedImage drawn(IRenderableShape shape) {
+    BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(java.awt.Color.WHITE);
+    graphics.fillRect(0, 0, SIZE, SIZE);
+    shape.drawSelf(graphics);
+    graphics.dispose();
+    return image;
+  }
+
+  /**
+   * Fills a shape into an IntRaster on white.
+   *
+   * @param shape the shape.
+   * @return the image of the IntRaster.
+   */
+  private BufferedImage filled(IRenderableShape shape) {
+    IntRaster raster = new IntRaster(SIZE, SIZE);
+    raster.clear(0xffffff);
+    shape.rasterize(raster);
+    return raster.getImage();
+  }
+
+  /**
+   * Counts the pixels which differ between two images.
+   *
+   * @param first an image.
+   * @param second an image of the same size.
+   * @return the number of pixels which differ.
+   */
+  private int differences(BufferedImage first, BufferedImage second) {
+    int count = 0;
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        if (first.getRGB(x, y) != second.getRGB(x, y)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Rectangles, including empty ones and ones cut off by the edges, should cover exactly what
+   * drawRect and fillRect cover.
+   */
+  @Test
+  public void rectsMatchGraphics() {
+    Color red = new Color(100f, 0f, 0f);
+    int[][] rects = {{10, 10, 20, 5}, {0, 0, 0, 0}, {-5, 70, 30, 30}, {75, -3, 10, 10},
+        {40, 40, 0, 12}, {5, 5, -1, 4}};
+    for (int[] rect : rects) {
+      IRenderableShape shape = RenderableFactory.createRenderableRect(rect[0], rect[1], rect[2],
+          rect[3], red);
+      assertEquals(0, differences(drawn(shape), filled(shape)));
+    }
+  }
+
+  /**
+   * Ellipses of many sizes should differ from what drawOval and fillOval cover by only a few
+   * pixels at their edges.
+   */
+  @Test
+  public void ovalsNearGraphics() {
+    Random random = new Random(5004);
+    Color blue = new Color(0f, 0f, 100f);
+    int covered = 0;
+    int differing = 0;
+    for (int i = 0; i < 200; i++) {
+      IRenderableShape shape = RenderableFactory.createRenderableEllipse(random.nextInt(SIZE),
+          random.nextInt(SIZE), random.nextInt(30), random.nextInt(30), blue);
+      BufferedImage expected = drawn(shape);
+      for (int y = 0; y < SIZE; y++) {
+        for (int x = 0; x < SIZE; x++) {
+          covered += expected.getRGB(x, y) == 0xff0000ff ? 1 : 0;
+        }
+      }
+      differing += differences(expected, filled(shape));
+    }
+    assertTrue(differing < covered / 20);
+  }
+
+  /**
+   * Filling at an origin should move everything by it, cutting off what falls outside.
+   */
+  @Test
+  public void origin() {
+    IntRaster raster = new IntRaster(10, 10);
+    raster.setOrigin(100, 200);
+    raster.clear(0xffffff);
+    raster.fillRect(95, 205, 6, 2, 0x00ff00);
+    assertEquals(0xff00ff00, raster.getImage().getRGB(0, 5));
+    assertEquals(0xff00ff00, raster.getImage().getRGB(1, 7));
+    assertEquals(0xffffffff, raster.getImage().getRGB(2, 5));
+    raster.fillOval(0, 0, 20, 20, 0);
+    assertEquals(0xffffffff, raster.getImage().getRGB(0, 0));
+  }
+
+  /**
+   * A clipped IntRaster should fill only its part of the shared pixels, through Graphics too.
+   */
+  @Test
+  public void clip() {
+    IntRaster raster = new IntRaster(10, 10);
+    raster.clear(0xffffff);
+    raster.setOrigin(100, 100);
+    IntRaster clipped = raster.clip(2, 3, 4, 20);
+    clipped.clear(0x0000ff);
+    clipped.fillRect(100, 100, 9, 9, 0xff0000);
+    clipped.fillOval(100, 100, 9, 9, 0x00ff00);
+    assertEquals(0xffffffff, raster.getImage().getRGB(1, 5));
+    assertEquals(0xffffffff, raster.getImage().getRGB(3, 2));
+    assertEquals(0xffff0000, raster.getImage().getRGB(2, 9));
+    assertEquals(0xff00ff00, raster.getImage().getRGB(5, 5));
+    assertEquals(0xffffffff, raster.getImage().getRGB(6, 5));
+    Graphics2D graphics = clipped.clip(0, 0, 3, 8).createGraphics();
+    graphics.setColor(java.awt.Color.BLACK);
+    graphics.fillRect(100, 100, 10, 10);
+    graphics.dispose();
+    assertEquals(0xff000000, raster.getImage().getRGB(2, 7));
+    assertEquals(0xff00ff00, raster.getImage().getRGB(2, 8));
+    assertEquals(0xff00ff00, raster.getImage().getRGB(4, 4));
+  }
+
+  /**
+   * A shape which only knows how to draw itself through Graphics should still be rasterized, at
+   * the origin.
+   */
+  @Test
+  public void rasterizeThroughGraphics() {
+    IRenderableShape line = new IRenderableShape() {
+      public void drawSelf(Graphics graphics) {
+        graphics.setColor(java.awt.Color.BLACK);
+        graphics.drawLine(10, 10, 15, 10);
+      }
+
+      public int getX() {
+        return 10;
+      }
+
+      public int getY() {
+        return 10;
+      }
+
+      public float getXSize() {
+        return 5;
+      }
+
+      public float getYSize() {
+        return 0;
+      }
+
+      public Color getColor() {
+        return new Color(0f, 0f, 0f);
+      }
+    };
+    IntRaster raster = new IntRaster(10, 10);
+    raster.clear(0xffffff);
+    raster.setOrigin(5, 5);
+    line.rasterize(raster);
+    assertEquals(0xff000000, raster.getImage().getRGB(7, 5));
+    assertEquals(0xffffffff, raster.getImage().getRGB(7, 6));
+  }
+
+  /**
+   * Only whole images of int pixels can be filled directly.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongImageType() {
+    new IntRaster(new BufferedImage(5, 5, BufferedImage.TYPE_3BYTE_BGR));
+  }
+}
@@ -0,0 +1,104 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.util.LzwEncoder;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+/**
+ * A junit test for the LzwEncoder. Whatever it compresses, wrapped in a GIF, must decode with the
+ * standard GIF reader to exactly the indices it was given.
+ */
+public class LzwEncoderTest {
+
+  /**
+   * Wraps compressed image data in a GIF of one image, with a gray palette, and decodes it.
+   *
+   * @param data the compressed image data.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param bits the number of bits of the palette.
+   * @return the decoded image.
+   */
+  private BufferedImage decode(byte[] data, int width, int height, int bits) throws IOException {
+    ByteArrayOutputStream gif = new ByteArrayOutputStream();
+    gif.write("GIF89a".getBytes());
+    gif.write(new byte[] {(byte) width, (byte) (width >> 8), (byte) height, (byte) (height >> 8),
+        (byte) (0xf0 | (bits - 1)), 0, 0});
+    for (int i = 0; i < 1 << bits; i++) {
+      gif.write(new byte[] {(byte) i, (byte) i, (byte) i});
+    }
+    gif.write(new byte[] {0x2c, 0, 0, 0, 0, (byte) width, (byte) (width >> 8), (byte) height,
+        (byte) (height >> 8), 0});
+    gif.write(data);
+    gif.write(0x3b);
+    return ImageIO.read(new ByteArrayInputStream(gif.toByteArray()));
+  }
+
+  /**
+   * Checks that indices compress and decode back to themselves.
+   *
+   * @param indices the indices of an image.
+   * @param width the width of the image.
+   * @param bits the number of bits an index takes.
+   */
+  private void roundTrip(byte[] indices, int width, int bits) throws IOException {
+    int height = indices.length / width;
+    BufferedImage image = decode(LzwEncoder.encode(indices, bits), width, height, bits);
+    for (int i = 0; i < indices.length; i++) {
+      assertEquals(indices[i] & 0xff, image.getRaster().getSample(i % width, i / width, 0));
+    }
+  }
+
+  /**
+   * Random indices fill the table many times over, so the table must be cleared and the codes
+   * widened correctly, at every code size.
+   */
+  @Test
+  public void randomIndices() throws IOException {
+    Random random = new Random(5004);
+    for (int bits : new int[] {2, 5, 8}) {
+      byte[] indices = new byte[300 * 200];
+      for (int i = 0; i < indices.length; i++) {
+        indices[i] = (byte) random.nextInt(1 << bits);
+      }
+      roundTrip(indices, 300, bits);
+    }
+  }
+
+  /**
+   * Long runs of the same index, like frames of solid shapes, should compress far smaller than
+   * the image, and decode exactly.
+   */
+  @Test
+  public void runs() throws IOException {
+    byte[] indices = new byte[400 * 300];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = (byte) ((i % 400) / 50 + (i / 400) / 100);
+    }
+    assertTrue(LzwEncoder.encode(indices, 4).length < indices.length / 20);
+    roundTrip(indices, 400, 4);
+    roundTrip(new byte[] {3}, 1, 2);
+  }
+
+  /**
+   * An index which does not fit in the code size cannot be compressed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void indexTooLarge() {
+    LzwEncoder.encode(new byte[] {0, 4}, 2);
+  }
+
+  /**
+   * Code sizes must be from 2 to 8.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void codeSizeTooSmall() {
+    LzwEncoder.encode(new byte[] {0}, 1);
+  }
+}
@@ -0,0 +1,111 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import cs5004.animator.util.IntRaster;
+import cs5004.animator.util.OcclusionCuller;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * A junit test for the OcclusionCuller. Culling must never change a pixel of a frame, and must
+ * drop shapes hidden behind later rectangles.
+ */
+public class OcclusionCullerTest {
+
+  private final Color red = new Color(100f, 0f, 0f);
+  private final Color blue = new Color(0f, 0f, 100f);
+
+  /**
+   * Fills a frame into an IntRaster on white.
+   *
+   * @param frame the shapes.
+   * @param size the width and height of the IntRaster.
+   * @return the pixels.
+   */
+  private int[] fill(List<IRenderableShape> frame, int size) {
+    IntRaster raster = new IntRaster(size, size);
+    raster.clear(0xffffff);
+    for (IRenderableShape shape : frame) {
+      shape.rasterize(raster);
+    }
+    return raster.getImage().getRGB(0, 0, size, size, null, 0, size);
+  }
+
+  /**
+   * Frames of many small shapes under scattered large rectangles should lose many shapes, and
+   * look the same, even drawn larger than the canvas the culler was made for.
+   */
+  @Test
+  public void samePixels() {
+    Random random = new Random(5004);
+    OcclusionCuller culler = new OcclusionCuller(301, 299);
+    int kept = 0;
+    int total = 0;
+    for (int run = 0; run < 20; run++) {
+      List<IRenderableShape> frame = new ArrayList<>();
+      for (int i = 0; i < 400; i++) {
+        Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+        int x = random.nextInt(340) - 20;
+        int y = random.nextInt(340) - 20;
+        if (i % 10 == 9) {
+          frame.add(RenderableFactory.createRenderableRect(x, y, random.nextInt(150),
+              random.nextInt(150), color));
+        } else if (i % 2 == 0) {
+          frame.add(RenderableFactory.createRenderableRect(x, y, random.nextInt(20),
+              random.nextInt(20), color));
+        } else {
+          frame.add(RenderableFactory.createRenderableEllipse(x, y, random.nextInt(10),
+              random.nextInt(10), color));
+        }
+      }
+      List<IRenderableShape> visible = culler.cull(frame);
+      assertArrayEquals(fill(frame, 340), fill(visible, 340));
+      kept += visible.size();
+      total += frame.size();
+    }
+    assertTrue(kept < total * 9 / 10);
+  }
+
+  /**
+   * Only rectangles hide what is under them, and only within their bounds.
+   */
+  @Test
+  public void onlyRectanglesHide() {
+    IRenderableShape under = RenderableFactory.createRenderableRect(20, 20, 10, 10, this.red);
+    IRenderableShape beside = RenderableFactory.createRenderableRect(0, 60, 10, 10, this.red);
+    IRenderableShape ellipse = RenderableFactory.createRenderableEllipse(50, 50, 50, 50,
+        this.blue);
+    IRenderableShape cover = RenderableFactory.createRenderableRect(0, 0, 50, 50, this.blue);
+    OcclusionCuller culler = new OcclusionCuller(100, 100);
+    assertEquals(Arrays.asList(beside, cover),
+        culler.cull(Arrays.asList(under, beside, cover)));
+    assertEquals(Arrays.asList(under, beside, ellipse),
+        culler.cull(Arrays.asList(under, beside, ellipse)));
+  }
+
+  /**
+   * Shapes reaching past the canvas are kept, as they may be drawn larger than it.
+   */
+  @Test
+  public void pastCanvasKept() {
+    IRenderableShape outside = RenderableFactory.createRenderableRect(100, 100, 30, 30, this.red);
+    IRenderableShape cover = RenderableFactory.createRenderableRect(0, 0, 200, 200, this.blue);
+    assertEquals(Arrays.asList(outside, cover),
+        new OcclusionCuller(100, 100).cull(Arrays.asList(outside, cover)));
+  }
+
+  /**
+   * A canvas cannot have a negative size.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSize() {
+    new OcclusionCuller(-1, 10);
+  }
+}
@@ -0,0 +1,161 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.Emitter;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import java.awt.geom.Point2D;
+import java.io.StringWriter;
+import org.junit.Test;
+
+/**
+ * A junit test for generating output from cached templates. Output from a template must be
+ * identical to output generated from scratch, at every speed, and must follow changes to the
+ * model.
+ */
+public class OutputCachingTest {
+
+  /**
+   * Builds a model with the given number of shapes, each with a move, a scale and a color change.
+   *
+   * @param shapes the number of shapes.
+   * @return the model.
+   */
+  private IAnimation build(int shapes) {
+    IAnimation animation = new Animation();
+    for (int i = 0; i < shapes; i++) {
+      IShape shape;
+      ShapeType type;
+      if (i % 3 == 0) {
+        type = ShapeType.RECTANGLE;
+        shape = ShapeFactory.makeShapeRectangle("R" + i, new Color(i % 100, 0, 0), i % 7,
+            i % 7 + 50, new Point2D.Double(i % 300, i % 200), 10.0, 20.0);
+      } else if (i % 3 == 1) {
+        type = ShapeType.OVAL;
+        shape = ShapeFactory.makeShapeOval("O" + i, new Color(0, i % 100, 0), i % 11,
+            i % 11 + 40, new Point2D.Double(i % 300, i % 200), 10.0, 20.0);
+      } else {
+        type = ShapeType.CIRCLE;
+        shape = ShapeFactory.makeShapeCircle("C" + i, new Color(0, 0, i % 100), i % 13,
+            i % 13 + 45, new Point2D.Double(i % 300, i % 200), 15.0);
+      }
+      animation.addShape(shape);
+      int appear = (int) shape.getAppear();
+      animation.addTransformation(TransformFactory.makeTransformMove(
+          new Point2D.Double(i % 300, i % 200), new Point2D.Double(i % 100, i % 50),
+          appear + 1, appear + 17, shape.getName(), type));
+      animation.addTransformation(TransformFactory.makeTransformScale(10, 20, 5, 3, appear + 3,
+          appear + 29, shape.getName(), type));
+      animation.addTransformation(TransformFactory.makeTransformColor(appear + 2, appear + 33,
+          shape.getName(), new Color(0, 0, 0), new Color(50, 25, 75)));
+    }
+    return animation;
+  }
+
+  /**
+   * Output from the templates should match output from scratch, for each format and speed, and
+   * generating again at the same speed should give the same output again.
+   */
+  @Test
+  public void sameAsUncached() {
+    IAnimation uncached = build(300);
+    IAnimation cached = build(300);
+    cached.setOutputCaching(true);
+    for (int speed : new int[] {1, 3, 7, 20, 30, 1000, 3}) {
+      for (OutputType outputType : new OutputType[] {OutputType.TEXT, OutputType.SVG}) {
+        assertEquals(uncached.generate(outputType, speed), cached.generate(outputType, speed));
+      }
+    }
+  }
+
+  /**
+   * Changing the model should discard the templates, so the output includes the change.
+   */
+  @Test
+  public void followsChanges() throws Exception {
+    IAnimation animation = build(10);
+    animation.setOutputCaching(true);
+    String before = animation.generate(OutputType.SVG, 2);
+
+    IShape extra = ShapeFactory.makeShapeCircle("extra", new Color(1, 2, 3), 4, 90,
+        new Point2D.Double(500, 600), 30.0);
+    animation.addShape(extra);
+    String withShape = animation.generate(OutputType.SVG, 2);
+    assertTrue(withShape.contains("<circle id=\"EXTRA\""));
+    assertTrue(withShape.startsWith("<svg width=\"530.0\" height=\"630.0\""));
+
+    animation.addTransformation(TransformFactory.makeTransformColor(5, 6, "extra",
+        new Color(1, 2, 3), new Color(4, 5, 6)));
+    StringWriter writer = new StringWriter();
+    animation.generate(OutputType.TEXT, 5, writer);
+    assertTrue(writer.toString().contains("Shape EXTRA changes color from (1.0,2.0,3.0) to "
+        + "(4.0,5.0,6.0) from t=1.0s to t=1.2s\n"));
+
+    IAnimation fresh = build(10);
+    fresh.addShape(ShapeFactory.makeShapeCircle("extra", new Color(1, 2, 3), 4, 90,
+        new Point2D.Double(500, 600), 30.0));
+    fresh.addTransformation(TransformFactory.makeTransformColor(5, 6, "extra",
+        new Color(1, 2, 3), new Color(4, 5, 6)));
+    assertEquals(fresh.generate(OutputType.SVG, 2), animation.generate(OutputType.SVG, 2));
+    assertTrue(!before.equals(withShape));
+
+    animation.setOutputCaching(false);
+    assertEquals(fresh.generate(OutputType.TEXT, 9), animation.generate(OutputType.TEXT, 9));
+  }
+
+  /**
+   * After Transformations are added to a few IShapes, only those IShapes change version, and the
+   * SVG should be the same as a model built with the same edits from scratch.
+   */
+  @Test
+  public void editedShapes() {
+    IAnimation animation = build(200);
+    animation.setOutputCaching(true);
+    animation.generate(OutputType.SVG, 4);
+
+    IShape edited = animation.getFirstIShape("O100");
+    IShape untouched = animation.getFirstIShape("C101");
+    int editedVersion = edited.getVersion();
+    int untouchedVersion = untouched.getVersion();
+    animation.addTransformation(TransformFactory.makeTransformMove(
+        new Point2D.Double(0, 0), new Point2D.Double(900, 800), 30, 33, "O100", ShapeType.OVAL));
+    animation.addTransformation(TransformFactory.makeTransformColor(45, 46, "R3",
+        new Color(0, 0, 0), new Color(9, 9, 9)));
+    assertTrue(edited.getVersion() != editedVersion);
+    assertEquals(untouchedVersion, untouched.getVersion());
+
+    IAnimation fresh = build(200);
+    fresh.addTransformation(TransformFactory.makeTransformMove(
+        new Point2D.Double(0, 0), new Point2D.Double(900, 800), 30, 33, "O100", ShapeType.OVAL));
+    fresh.addTransformation(TransformFactory.makeTransformColor(45, 46, "R3",
+        new Color(0, 0, 0), new Color(9, 9, 9)));
+    String expected = fresh.generate(OutputType.SVG, 4);
+    assertTrue(expected.startsWith("<svg width=\"910.0\" height=\"820.0\""));
+    assertEquals(expected, animation.generate(OutputType.SVG, 4));
+    assertEquals(fresh.generate(OutputType.SVG, 6), animation.generate(OutputType.SVG, 6));
+  }
+
+  /**
+   * A recording Emitter should replay its times converted at any speed, and refuse to be written
+   * out directly.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void recordingEmitter() throws Exception {
+    Emitter template = Emitter.recording(true);
+    template.append("begin=").appendTime(3).append(" dur=").appendDuration(3, 10);
+
+    Emitter target = new Emitter();
+    StringBuilder output = new StringBuilder();
+    template.replay(2, target, output, 1 << 10);
+    target.writeTo(output);
+    assertEquals("begin=1500.0 dur=3500.0", output.toString());
+
+    template.writeTo(new StringBuilder());
+  }
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertArrayEquals;
+
+import cs5004.animator.util.ParallelGzipOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.junit.Test;
+
+/**
+ * A junit test for the ParallelGzipOutputStream. Whatever it writes must decompress, with the
+ * standard GZIPInputStream, to exactly what was written to it.
+ */
+public class ParallelGzipOutputStreamTest {
+
+  /**
+   * Decompresses gzip data.
+   *
+   * @param compressed the gzip data.
+   * @return the decompressed bytes.
+   */
+  private byte[] gunzip(byte[] compressed) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return in.readAllBytes();
+    }
+  }
+
+  /**
+   * Makes data which is repetitive, like SVG output, mixed with runs of random bytes.
+   *
+   * @param length the number of bytes.
+   * @return the data.
+   */
+  private byte[] data(int length) {
+    Random random = new Random(5004);
+    byte[] data = new byte[length];
+    byte[] line = "<animate attributeName=\"x\" from=\"1\" to=\"2\" />\n".getBytes();
+    for (int i = 0; i < length; i++) {
+      data[i] = (i / 1000) % 3 == 0 ? (byte) random.nextInt() : line[i % line.length];
+    }
+    return data;
+  }
+
+  /**
+   * Data spanning many blocks, written in pieces of every size, should come back unchanged,
+   * however many threads compress it.
+   */
+  @Test
+  public void roundTrip() throws IOException {
+    byte[] data = data(3_000_000);
+    for (int threads : new int[] {1, 3}) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      Random random = new Random(threads);
+      try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(compressed, threads)) {
+        int offset = 0;
+        while (offset < data.length) {
+          int count = Math.min(data.length - offset, random.nextInt(300_000));
+          if (count == 1) {
+            gzip.write(data[offset]);
+          } else {
+            gzip.write(data, offset, count);
+          }
+          offset += count;
+        }
+      }
+      assertArrayEquals(data, gunzip(compressed.toByteArray()));
+    }
+  }
+
+  /**
+   * Flushing part way through, and writing nothing at all, should still give valid gzip data.
+   */
+  @Test
+  public void flushAndEmpty() throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(compressed, 2);
+    byte[] data = data(100_000);
+    gzip.write(data, 0, 10);
+    gzip.flush();
+    gzip.flush();
+    gzip.write(data, 10, data.length - 10);
+    gzip.finish();
+    gzip.finish();
+    assertArrayEquals(data, gunzip(compressed.toByteArray()));
+
+    compressed.reset();
+    new ParallelGzipOutputStream(compressed, 1).finish();
+    assertArrayEquals(new byte[0], gunzip(compressed.toByteArray()));
+  }
+
+  /**
+   * Nothing may be written once the stream is finished.
+   */
+  @Test(expected = IOException.class)
+  public void writeAfterFinish() throws IOException {
+    ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(new ByteArrayOutputStream(), 1);
+    gzip.finish();
+    gzip.write(1);
+  }
+
+  /**
+   * A stream must have at least one thread.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void noThreads() throws IOException {
+    new ParallelGzipOutputStream(new ByteArrayOutputStream(), 0);
+  }
+}
@@ -0,0 +1,124 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.model.ParallelSVGExporter;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import java.awt.geom.Point2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+/**
+ * A junit test for the ParallelSVGExporter. Its output must be identical to the serial SVG
+ * output, however many threads it uses.
+ */
+public class ParallelSVGExporterTest {
+
+  /**
+   * Builds a model with the given number of shapes, each with a move and a color change.
+   *
+   * @param shapes the number of shapes.
+   * @return the model.
+   */
+  private IAnimation build(int shapes) {
+    IAnimation animation = new Animation();
+    for (int i = 0; i < shapes; i++) {
+      IShape shape;
+      if (i % 2 == 0) {
+        shape = ShapeFactory.makeShapeRectangle("R" + i, new Color(i % 100, 0, 0), i % 7, 50,
+            new Point2D.Double(i % 300, i % 200), 10.0, 20.0);
+      } else {
+        shape = ShapeFactory.makeShapeOval("O" + i, new Color(0, i % 100, 0), i % 7, 50,
+            new Point2D.Double(i % 300, i % 200), 10.0, 20.0);
+      }
+      animation.addShape(shape);
+      animation.addTransformation(TransformFactory.makeTransformMove(
+          new Point2D.Double(i % 300, i % 200), new Point2D.Double(i % 100, i % 50), 10, 20,
+          shape.getName(), i % 2 == 0 ? ShapeType.RECTANGLE : ShapeType.OVAL));
+      animation.addTransformation(TransformFactory.makeTransformColor(15, 30, shape.getName(),
+          new Color(0, 0, 0), new Color(50, 50, 50)));
+    }
+    return animation;
+  }
+
+  /**
+   * Exports a model with the given number of threads.
+   *
+   * @param animation the model.
+   * @param threads the number of threads.
+   * @return the exported SVG.
+   */
+  private String export(IAnimation animation, int threads) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ParallelSVGExporter(threads).export(animation, 3, out);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * A model with more shapes than fit in the rendering window should still come out in order.
+   */
+  @Test
+  public void sameAsSerial() throws Exception {
+    IAnimation animation = build(20000);
+    String expected = animation.generate(OutputType.SVG, 3);
+    assertEquals(expected, export(animation, 1));
+    assertEquals(expected, export(animation, 4));
+    assertEquals(expected, export(animation, 7));
+  }
+
+  /**
+   * One exporter should give the same output every time it is used, including after an export
+   * fails.
+   */
+  @Test
+  public void reused() throws Exception {
+    ParallelSVGExporter exporter = new ParallelSVGExporter(3);
+    IAnimation animation = build(3000);
+    String expected = animation.generate(OutputType.SVG, 3);
+    for (int i = 0; i < 3; i++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      exporter.export(animation, 3, out);
+      assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+    try {
+      exporter.export(animation, 3, new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          throw new IOException("full");
+        }
+      });
+      fail("the failing stream should have stopped the export");
+    } catch (IOException e) {
+      assertEquals("full", e.getMessage());
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exporter.export(animation, 3, out);
+    assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * A model without shapes should give just the opening and closing of the SVG.
+   */
+  @Test
+  public void empty() throws Exception {
+    IAnimation animation = new Animation();
+    assertEquals(animation.generate(OutputType.SVG, 3), export(animation, 2));
+  }
+
+  /**
+   * An exporter must have at least one thread.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void noThreads() {
+    new ParallelSVGExporter(0);
+  }
+}
@@ -0,0 +1,102 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.ITransformation;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeSymbolTable;
+import cs5004.animator.model.TransformFactory;
+import java.awt.geom.Point2D;
+import org.junit.Test;
+
+/**
+ * A junit test for the ShapeSymbolTable, and for the ids an Animation gives to its Shapes and
+ * Transformations.
+ */
+public class ShapeSymbolTableTest {
+
+  /**
+   * Names should get dense ids in the order they are interned, regardless of case.
+   */
+  @Test
+  public void internAndLookup() {
+    ShapeSymbolTable symbols = new ShapeSymbolTable();
+    assertEquals(0, symbols.intern("r"));
+    assertEquals(1, symbols.intern("C"));
+    assertEquals(0, symbols.intern("R"));
+    assertEquals(1, symbols.lookup("c"));
+    assertEquals(1, symbols.lookup("c"));
+    assertEquals(-1, symbols.lookup("missing"));
+    assertEquals("R", symbols.getName(0));
+    assertEquals(2, symbols.size());
+  }
+
+  /**
+   * An Animation should give each Shape the id of its name, and each Transformation the id of its
+   * Shape, finding Shapes by any spelling of their name.
+   */
+  @Test
+  public void animationIds() {
+    IAnimation animation = new Animation();
+    IShape first = ShapeFactory.makeShapeRectangle("first", new Color(0, 0, 0), 0, 10,
+        new Point2D.Double(0, 0), 1.0, 1.0);
+    IShape second = ShapeFactory.makeShapeCircle("Second", new Color(0, 0, 0), 0, 10,
+        new Point2D.Double(0, 0), 1.0);
+    animation.addShape(first);
+    animation.addShape(second);
+    ITransformation color = TransformFactory.makeTransformColor(1, 2, "sEcOnD",
+        new Color(0, 0, 0), new Color(1, 1, 1));
+    animation.addTransformation(color);
+
+    assertEquals(0, first.getId());
+    assertEquals(1, second.getId());
+    assertEquals(1, color.getShapeId());
+    assertSame(second, animation.getFirstIShape("second"));
+    assertNull(animation.getFirstIShape("third"));
+  }
+
+  /**
+   * A Shape or Transformation with an id from one Animation cannot be added to another, whose ids
+   * differ, but a Transformation an Animation rejects may still be added elsewhere.
+   */
+  @Test
+  public void oneAnimationEach() {
+    IAnimation animation = new Animation();
+    IAnimation other = new Animation();
+    other.addShape(ShapeFactory.makeShapeRectangle("other", new Color(0, 0, 0), 0, 10,
+        new Point2D.Double(0, 0), 1.0, 1.0));
+    IShape shape = ShapeFactory.makeShapeRectangle("R", new Color(0, 0, 0), 0, 10,
+        new Point2D.Double(0, 0), 1.0, 1.0);
+    animation.addShape(shape);
+    try {
+      other.addShape(shape);
+      fail("expected the shape to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals(0, shape.getId());
+    }
+
+    ITransformation late = TransformFactory.makeTransformColor(5, 20, "R",
+        new Color(0, 0, 0), new Color(1, 1, 1));
+    try {
+      animation.addTransformation(late);
+      fail("expected the transformation to end too late");
+    } catch (IllegalArgumentException e) {
+      assertEquals(-1, late.getShapeId());
+    }
+    other.addShape(ShapeFactory.makeShapeRectangle("R", new Color(0, 0, 0), 0, 30,
+        new Point2D.Double(0, 0), 1.0, 1.0));
+    other.addTransformation(late);
+    assertEquals(1, late.getShapeId());
+    try {
+      animation.addTransformation(late);
+      fail("expected the transformation to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals(1, late.getShapeId());
+    }
+  }
+}
@@ -0,0 +1,181 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.RenderableFactory;
+import cs5004.animator.util.IntRaster;
+import cs5004.animator.util.TiledRenderer;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * A junit test for the TiledRenderer. However a frame is cut into tiles, and however many threads
+ * fill them, it must come out exactly as it does filled in order on one thread.
+ */
+public class TiledRendererTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  /**
+   * Shuts down the pool.
+   */
+  @After
+  public void shutdown() {
+    this.pool.shutdownNow();
+  }
+
+  /**
+   * Builds a frame of overlapping rectangles and ellipses, some partly or wholly off the canvas.
+   *
+   * @param shapes the number of shapes.
+   * @param size the width and height of the canvas.
+   * @return the frame.
+   */
+  private List<IRenderableShape> build(int shapes, int size) {
+    Random random = new Random(5004);
+    List<IRenderableShape> frame = new ArrayList<>();
+    for (int i = 0; i < shapes; i++) {
+      Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+      int x = random.nextInt(size + 100) - 50;
+      int y = random.nextInt(size + 100) - 50;
+      if (i % 2 == 0) {
+        frame.add(RenderableFactory.createRenderableRect(x, y, random.nextInt(90),
+            random.nextInt(90), color));
+      } else {
+        frame.add(RenderableFactory.createRenderableEllipse(x, y, random.nextInt(45),
+            random.nextInt(45), color));
+      }
+    }
+    return frame;
+  }
+
+  /**
+   * Fills a frame in order on one thread.
+   *
+   * @param frame the shapes.
+   * @param size the width and height of the canvas.
+   * @param originX the x coordinate of the origin.
+   * @param originY the y coordinate of the origin.
+   * @return the pixels.
+   */
+  private int[] sequential(List<IRenderableShape> frame, int size, int originX, int originY) {
+    IntRaster raster = new IntRaster(size, size);
+    raster.setOrigin(originX, originY);
+    raster.clear(0xffffff);
+    for (IRenderableShape shape : frame) {
+      shape.rasterize(raster);
+    }
+    return raster.getImage().getRGB(0, 0, size, size, null, 0, size);
+  }
+
+  /**
+   * Fills a frame with a TiledRenderer.
+   *
+   * @param renderer the TiledRenderer.
+   * @param frame the shapes.
+   * @param size the width and height of the canvas.
+   * @param originX the x coordinate of the origin.
+   * @param originY the y coordinate of the origin.
+   * @return the pixels.
+   */
+  private int[] tiled(TiledRenderer renderer, List<IRenderableShape> frame, int size,
+      int originX, int originY) {
+    IntRaster raster = new IntRaster(size, size);
+    raster.setOrigin(originX, originY);
+    renderer.render(frame, raster, 0xffffff);
+    return raster.getImage().getRGB(0, 0, size, size, null, 0, size);
+  }
+
+  /**
+   * Overlapping shapes must be painted in frame order in every tile, whatever the tile size,
+   * including tiles which do not divide the canvas evenly.
+   */
+  @Test
+  public void matchesSequential() {
+    List<IRenderableShape> frame = build(2000, 500);
+    int[] expected = sequential(frame, 500, 0, 0);
+    for (int tileSize : new int[] {1 << 10, 128, 37, 8}) {
+      assertArrayEquals(expected, tiled(new TiledRenderer(this.pool, tileSize), frame, 500, 0, 0));
+    }
+  }
+
+  /**
+   * Shapes must be binned by where they fall relative to the origin of the IntRaster.
+   */
+  @Test
+  public void origin() {
+    List<IRenderableShape> frame = build(500, 300);
+    assertArrayEquals(sequential(frame, 200, 70, 40),
+        tiled(new TiledRenderer(this.pool, 50), frame, 200, 70, 40));
+  }
+
+  /**
+   * A shape which does not know its bounds must be painted in every tile, in its place in the
+   * frame, through Graphics.
+   */
+  @Test
+  public void unknownBounds() {
+    IRenderableShape line = new IRenderableShape() {
+      public void drawSelf(Graphics graphics) {
+        graphics.setColor(java.awt.Color.BLACK);
+        graphics.drawLine(0, 50, 99, 50);
+      }
+
+      public int getX() {
+        return 0;
+      }
+
+      public int getY() {
+        return 50;
+      }
+
+      public float getXSize() {
+        return 99;
+      }
+
+      public float getYSize() {
+        return 0;
+      }
+
+      public Color getColor() {
+        return new Color(0f, 0f, 0f);
+      }
+    };
+    List<IRenderableShape> frame = new ArrayList<>();
+    frame.add(line);
+    frame.add(RenderableFactory.createRenderableRect(60, 40, 20, 20, new Color(100f, 0f, 0f)));
+    IntRaster raster = new IntRaster(100, 100);
+    new TiledRenderer(this.pool, 16).render(frame, raster, 0xffffff);
+    assertEquals(0xff000000, raster.getImage().getRGB(5, 50));
+    assertEquals(0xff000000, raster.getImage().getRGB(95, 50));
+    assertEquals(0xffff0000, raster.getImage().getRGB(70, 50));
+    assertEquals(0xffffffff, raster.getImage().getRGB(5, 51));
+  }
+
+  /**
+   * Rectangles and ellipses should know the pixels they cover.
+   */
+  @Test
+  public void bounds() {
+    Color color = new Color(0f, 0f, 0f);
+    assertEquals(new Rectangle(10, 20, 31, 6),
+        RenderableFactory.createRenderableRect(10, 20, 30, 5, color).getBounds());
+    assertEquals(new Rectangle(40, 15, 21, 11),
+        RenderableFactory.createRenderableEllipse(50, 20, 10, 5, color).getBounds());
+  }
+
+  /**
+   * Tiles must be at least one pixel across.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyTiles() {
+    new TiledRenderer(this.pool, 0);
+  }
+}
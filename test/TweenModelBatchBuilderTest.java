@@ -0,0 +1,122 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import cs5004.animator.model.IAnimation;
+import cs5004.animator.model.OutputType;
+import cs5004.animator.util.BatchingTweenModelBuilder;
+import cs5004.animator.util.TweenModelBatchBuilderImpl;
+import cs5004.animator.util.TweenModelBuilder;
+import cs5004.animator.util.TweenModelBuilderImpl;
+import org.junit.Test;
+
+/**
+ * A junit test for the TweenModelBatchBuilder. Building through the batch API, directly or through
+ * the BatchingTweenModelBuilder adapter, must give the same model as the TweenModelBuilderImpl.
+ */
+public class TweenModelBatchBuilderTest {
+
+  /**
+   * Adds the same shapes and transformations to the given builder.
+   *
+   * @param builder the builder to fill.
+   * @return the built model.
+   */
+  private IAnimation fill(TweenModelBuilder<IAnimation> builder) {
+    builder.addOval("A", 50f, 60f, 20f, 30f, 1f, 0f, 0f, 1, 10);
+    builder.addOval("b", 50f, 60f, 20f, 20f, .2f, .4f, .6f, 1, 10);
+    builder.addRectangle("C", 5f, 6f, 7f, 8f, 0f, 0f, 1f, 2, 20);
+    builder.addMove("A", 50f, 60f, 70f, 80f, 2, 5);
+    builder.addMove("b", 50f, 60f, 10f, 10f, 3, 4);
+    builder.addColorChange("C", 0f, 0f, 1f, 1f, 0f, 0f, 5, 15);
+    builder.addScaleToChange("C", 7f, 8f, 14f, 16f, 3, 9);
+    builder.addMove("A", 70f, 80f, 0f, 0f, 6, 9);
+    return builder.build();
+  }
+
+  /**
+   * The adapter should produce the same model as the TweenModelBuilderImpl, including with batches
+   * smaller than the number of calls.
+   */
+  @Test
+  public void adapterMatchesBuilder() {
+    TweenModelBuilder<IAnimation> builder = new TweenModelBuilderImpl();
+    String expected = fill(builder).generate(OutputType.SVG, 2);
+
+    assertEquals(expected,
+        fill(new BatchingTweenModelBuilder<>(new TweenModelBatchBuilderImpl()))
+            .generate(OutputType.SVG, 2));
+    assertEquals(expected,
+        fill(new BatchingTweenModelBuilder<>(new TweenModelBatchBuilderImpl(), 1))
+            .generate(OutputType.SVG, 2));
+  }
+
+  /**
+   * Rows of a batch should be added in order, sharing colors between rows.
+   */
+  @Test
+  public void addRectangles() {
+    TweenModelBatchBuilderImpl batchBuilder = new TweenModelBatchBuilderImpl();
+    batchBuilder.addRectangles(new String[]{"A", "B", "unused"},
+        new float[]{1f, 2f, 3f}, new float[]{1f, 2f, 3f},
+        new float[]{4f, 5f, 6f}, new float[]{4f, 5f, 6f},
+        new float[]{1f, 1f, 1f}, new float[]{0f, 0f, 0f}, new float[]{0f, 0f, 0f},
+        new int[]{1, 2, 3}, new int[]{4, 5, 6}, 2);
+    IAnimation animation = batchBuilder.build();
+
+    assertEquals(2, animation.getShapes().size());
+    assertEquals("A", animation.getShapes().get(0).getName());
+    assertEquals("B", animation.getShapes().get(1).getName());
+  }
+
+  /**
+   * Colors out of range should be rejected, as they are by the TweenModelBuilderImpl.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidColor() {
+    new TweenModelBatchBuilderImpl().addOvals(new String[]{"A"},
+        new float[]{1f}, new float[]{1f}, new float[]{1f}, new float[]{1f},
+        new float[]{2f}, new float[]{0f}, new float[]{0f},
+        new int[]{1}, new int[]{4}, 1);
+  }
+
+  /**
+   * Adds a valid row and then the given invalid one, and builds.
+   *
+   * @param builder the builder to fill.
+   * @param color whether the invalid row has a color out of range, rather than a move which
+   *     overlaps another.
+   * @return the message of the exception raised, by the call adding the row or by build().
+   */
+  private String reject(TweenModelBuilder<IAnimation> builder, boolean color) {
+    try {
+      builder.addRectangle("C", 5f, 6f, 7f, 8f, 0f, 0f, 1f, 2, 20);
+      builder.addMove("C", 5f, 6f, 10f, 10f, 3, 8);
+      if (color) {
+        builder.addOval("A", 50f, 60f, 20f, 30f, 0f, 2f, 150f, 1, 10);
+      } else {
+        builder.addMove("C", 10f, 10f, 20f, 20f, 5, 9);
+      }
+      builder.build();
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  /**
+   * An invalid row should be reported by the adapter with the same message as the
+   * TweenModelBuilderImpl gives, though only once its batch is handed on. A color whose green is
+   * out of range once scaled, and whose blue is already out of range as read, names blue.
+   */
+  @Test
+  public void sameErrors() {
+    assertEquals("blue value must be between 0 and 100.",
+        reject(new TweenModelBuilderImpl(), true));
+    assertEquals("blue value must be between 0 and 100.",
+        reject(new BatchingTweenModelBuilder<>(new TweenModelBatchBuilderImpl()), true));
+    String overlap = reject(new TweenModelBuilderImpl(), false);
+    assertNotNull(overlap);
+    assertEquals(overlap,
+        reject(new BatchingTweenModelBuilder<>(new TweenModelBatchBuilderImpl()), false));
+  }
+}
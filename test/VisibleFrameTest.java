@@ -0,0 +1,143 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs5004.animator.model.Animation;
+import cs5004.animator.model.Color;
+import cs5004.animator.model.IRenderableShape;
+import cs5004.animator.model.IShape;
+import cs5004.animator.model.ShapeFactory;
+import cs5004.animator.model.ShapeType;
+import cs5004.animator.model.TransformFactory;
+import cs5004.animator.util.SpatialGrid;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D.Double;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * A junit test for generating only the part of a frame within a visible area, and the SpatialGrid
+ * it finds shapes with. The part generated must be exactly the shapes of the whole frame which
+ * meet the area, in the same order.
+ */
+public class VisibleFrameTest {
+
+  /**
+   * Makes an Animation of shapes which move and grow and shrink, often at once, across a canvas.
+   *
+   * @param random the source of the shapes.
+   * @return the Animation.
+   */
+  private Animation makeAnimation(Random random) {
+    Animation animation = new Animation();
+    for (int i = 0; i < 300; i++) {
+      String name = "s" + i;
+      Color color = new Color(random.nextInt(100), random.nextInt(100), random.nextInt(100));
+      int appear = random.nextInt(20);
+      double x = random.nextInt(1000);
+      double y = random.nextInt(1000);
+      double width = 1 + random.nextInt(60);
+      double height = 1 + random.nextInt(60);
+      boolean rect = random.nextBoolean();
+      ShapeType type = rect ? ShapeType.RECTANGLE : ShapeType.OVAL;
+      IShape shape = rect
+          ? ShapeFactory.makeShapeRectangle(name, color, appear, appear + 40,
+              new Double(x, y), width, height)
+          : ShapeFactory.makeShapeOval(name, color, appear, appear + 40, new Double(x, y),
+              width, height);
+      animation.addShape(shape);
+      for (int start = appear; start + 10 <= appear + 40; start += 10) {
+        double toX = random.nextInt(1200) - 100;
+        double toY = random.nextInt(1200) - 100;
+        animation.addTransformation(TransformFactory.makeTransformMove(new Double(x, y),
+            new Double(toX, toY), start, start + 7, name, type));
+        x = toX;
+        y = toY;
+        if (random.nextBoolean()) {
+          float toWidth = 1 + random.nextInt(80);
+          float toHeight = 1 + random.nextInt(80);
+          animation.addTransformation(TransformFactory.makeTransformScale((float) width,
+              (float) height, toWidth, toHeight, start + 3, start + 9, name, type));
+          width = toWidth;
+          height = toHeight;
+        }
+      }
+    }
+    return animation;
+  }
+
+  /**
+   * Every part of every frame holds exactly the shapes of the whole frame meeting it, in order,
+   * including parts reaching past the canvas.
+   */
+  @Test
+  public void sameShapes() {
+    Random random = new Random(5004);
+    Animation animation = this.makeAnimation(random);
+    int found = 0;
+    for (int tick = 0; tick < animation.lastTick(); tick++) {
+      List<IRenderableShape> frame = animation.generateFrame(tick);
+      for (int i = 0; i < 10; i++) {
+        Rectangle area = new Rectangle(random.nextInt(1400) - 200, random.nextInt(1400) - 200,
+            random.nextInt(400), random.nextInt(400));
+        List<IRenderableShape> expected = new ArrayList<>();
+        for (IRenderableShape shape : frame) {
+          if (shape.getBounds().intersects(area)) {
+            expected.add(shape);
+          }
+        }
+        assertEquals(expected, animation.generateFrame(tick, area));
+        found += expected.size();
+      }
+    }
+    assertTrue(found > 0);
+  }
+
+  /**
+   * The part of a frame is found again once the Animation changes.
+   */
+  @Test
+  public void changedAnimation() {
+    Animation animation = new Animation();
+    Color red = new Color(100f, 0f, 0f);
+    animation.addShape(ShapeFactory.makeShapeRectangle("A", red, 0, 20, new Double(10, 10),
+        10d, 10d));
+    Rectangle area = new Rectangle(500, 500, 100, 100);
+    assertTrue(animation.generateFrame(15, area).isEmpty());
+    animation.addTransformation(TransformFactory.makeTransformMove(new Double(10, 10),
+        new Double(550, 550), 0, 10, "A", ShapeType.RECTANGLE));
+    assertEquals(1, animation.generateFrame(15, area).size());
+  }
+
+  /**
+   * The grid finds items meeting an area, and those reaching past it, but not the rest.
+   */
+  @Test
+  public void grid() {
+    SpatialGrid grid = new SpatialGrid(100, 100, 10);
+    grid.insert(0, new Rectangle(0, 0, 5, 5));
+    grid.insert(1, new Rectangle(50, 50, 10, 10));
+    grid.insert(2, new Rectangle(150, -20, 10, 10));
+    grid.insert(3, new Rectangle(-1000, -1000, 3000, 3000));
+    grid.insert(4, new Rectangle(20, 20, 0, 0));
+    BitSet found = new BitSet();
+    grid.query(new Rectangle(45, 45, 10, 10), found);
+    assertEquals("{1, 3}", found.toString());
+    found.clear();
+    grid.query(new Rectangle(95, 0, 100, 5), found);
+    assertEquals("{2, 3}", found.toString());
+    found.clear();
+    grid.query(new Rectangle(0, 0, 0, 0), found);
+    assertTrue(found.isEmpty());
+  }
+
+  /**
+   * A grid cannot have a negative size.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSize() {
+    new SpatialGrid(-1, 10, 10);
+  }
+}